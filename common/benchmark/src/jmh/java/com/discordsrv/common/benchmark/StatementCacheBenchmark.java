@@ -0,0 +1,76 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.benchmark;
+
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Link lookups per second on H2 with prepared statement reuse disabled (the previous behaviour) and enabled.
+ * Shares the seeded H2 database with {@link StorageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class StatementCacheBenchmark {
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    @Param({"1000000"})
+    public int links;
+
+    private BenchmarkDiscordSRV discordSRV;
+    private Storage storage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Path dataDirectory = Paths.get("build", "benchmark-data", "h2").toAbsolutePath();
+        discordSRV = new BenchmarkDiscordSRV(dataDirectory, StorageType.H2);
+        discordSRV.connectionConfig().storage.h2.statementCacheSize = statementCacheSize;
+        discordSRV.start();
+        BenchmarkData.seed(discordSRV, links);
+
+        // Skip write-behind and the storage executor, only the statements are compared
+        storage = discordSRV.backend();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        discordSRV.stop();
+    }
+
+    @Benchmark
+    public AccountLink linkByPlayerUUID() {
+        return storage.getLinkByPlayerUUID(BenchmarkData.playerUUID(ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    @Benchmark
+    public AccountLink linkByUserId() {
+        return storage.getLinkByUserId(BenchmarkData.userId(ThreadLocalRandom.current().nextInt(links)));
+    }
+}
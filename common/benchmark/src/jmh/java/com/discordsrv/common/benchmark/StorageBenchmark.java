@@ -0,0 +1,100 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.benchmark;
+
+import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.feature.linking.AccountLink;
+import com.discordsrv.common.feature.linking.LinkProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput of the storage backends and the link cache, with {@link BenchmarkData} seeded into storage.
+ * The seeded data is kept in {@code build/benchmark-data} between runs, the {@link LoadDriver} covers cold caches and concurrent joins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class StorageBenchmark {
+
+    // Players looked up through the link provider, small enough to stay in cache
+    private static final int WARM_PLAYERS = 10000;
+
+    @Param({"MEMORY", "FILE", "H2"})
+    public StorageType backend;
+
+    @Param({"1000000"})
+    public int links;
+
+    private BenchmarkDiscordSRV discordSRV;
+    private Storage storage;
+    private LinkProvider linkProvider;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Path dataDirectory = Paths.get("build", "benchmark-data", backend.name().toLowerCase()).toAbsolutePath();
+        discordSRV = new BenchmarkDiscordSRV(dataDirectory, backend);
+        discordSRV.start();
+        BenchmarkData.seed(discordSRV, links);
+
+        storage = discordSRV.storage();
+        linkProvider = discordSRV.linkProvider();
+        for (int index = 0; index < WARM_PLAYERS; index++) {
+            linkProvider.get(BenchmarkData.playerUUID(index)).join();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        discordSRV.stop();
+    }
+
+    @Benchmark
+    public AccountLink linkByPlayerUUID() {
+        return storage.getLinkByPlayerUUID(BenchmarkData.playerUUID(ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    @Benchmark
+    public AccountLink linkByUserId() {
+        return storage.getLinkByUserId(BenchmarkData.userId(ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    @Benchmark
+    public AccountLink missingLink() {
+        return storage.getLinkByPlayerUUID(BenchmarkData.playerUUID(links + ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    @Benchmark
+    public GameProfileData gameProfileData() {
+        return storage.getGameProfileData(BenchmarkData.playerUUID(ThreadLocalRandom.current().nextInt(links)));
+    }
+
+    @Benchmark
+    public Optional<AccountLink> warmLinkProvider() {
+        return linkProvider.get(BenchmarkData.playerUUID(ThreadLocalRandom.current().nextInt(WARM_PLAYERS))).join();
+    }
+}
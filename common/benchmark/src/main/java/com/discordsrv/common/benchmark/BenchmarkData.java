@@ -0,0 +1,101 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.benchmark;
+
+import com.discordsrv.common.core.profile.DiscordProfileData;
+import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.profile.PlayerRewardData;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.feature.linking.AccountLink;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic links and profiles for benchmarks, so data seeded by a previous run can be reused.
+ * Player {@code i} is linked to Discord user {@code i}, players at or past the seeded amount have no link or profile.
+ */
+public final class BenchmarkData {
+
+    public static final String REWARD_ID = "benchmark";
+
+    private static final long PLAYER_UUID_MOST_SIGNIFICANT_BITS = 0x4449534353525600L;
+    private static final long FIRST_USER_ID = 200000000000000000L;
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkData() {}
+
+    public static UUID playerUUID(int index) {
+        return new UUID(PLAYER_UUID_MOST_SIGNIFICANT_BITS, index);
+    }
+
+    public static long userId(int index) {
+        return FIRST_USER_ID + index;
+    }
+
+    /**
+     * Seeds links and profiles for players {@code 0} up to the given amount, continuing from the amount of links already in storage.
+     * @param discordSRV the benchmark instance
+     * @param amount the amount of linked players to have in storage
+     * @return the amount of links created
+     */
+    public static int seed(BenchmarkDiscordSRV discordSRV, int amount) {
+        // Skip write-behind, it would only queue up the profiles
+        Storage storage = discordSRV.backend();
+        int existing = storage.getLinkedAccountCount();
+        if (existing >= amount) {
+            return 0;
+        }
+
+        discordSRV.logger().info("Seeding " + (amount - existing) + " links and profiles");
+        LocalDateTime now = LocalDateTime.now();
+        List<GameProfileData> gameProfiles = new ArrayList<>(BATCH_SIZE);
+        List<DiscordProfileData> discordProfiles = new ArrayList<>(BATCH_SIZE);
+        for (int start = existing; start < amount; start += BATCH_SIZE) {
+            int end = Math.min(amount, start + BATCH_SIZE);
+            for (int index = start; index < end; index++) {
+                UUID playerUUID = playerUUID(index);
+                long userId = userId(index);
+                storage.createLink(new AccountLink(playerUUID, userId, now, now));
+                gameProfiles.add(new GameProfileData(playerUUID, rewards()));
+                discordProfiles.add(new DiscordProfileData(userId, rewards()));
+            }
+
+            storage.saveGameProfileData(gameProfiles);
+            storage.saveDiscordProfileData(discordProfiles);
+            gameProfiles.clear();
+            discordProfiles.clear();
+
+            if (end % 100000 == 0) {
+                discordSRV.logger().info("Seeded " + end + "/" + amount);
+            }
+        }
+        return amount - existing;
+    }
+
+    private static Set<PlayerRewardData> rewards() {
+        Set<PlayerRewardData> rewards = new HashSet<>();
+        rewards.add(new PlayerRewardData(null, REWARD_ID, false));
+        return rewards;
+    }
+}
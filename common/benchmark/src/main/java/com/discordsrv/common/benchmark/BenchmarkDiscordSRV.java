@@ -0,0 +1,269 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.benchmark;
+
+import com.discordsrv.api.reload.ReloadFlag;
+import com.discordsrv.api.reload.ReloadResult;
+import com.discordsrv.common.AbstractDiscordSRV;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.bootstrap.IBootstrap;
+import com.discordsrv.common.abstraction.bootstrap.LifecycleManager;
+import com.discordsrv.common.abstraction.player.IPlayer;
+import com.discordsrv.common.abstraction.player.provider.AbstractPlayerProvider;
+import com.discordsrv.common.abstraction.plugin.PluginManager;
+import com.discordsrv.common.command.game.abstraction.executor.CommandExecutorProvider;
+import com.discordsrv.common.command.game.abstraction.handler.ICommandHandler;
+import com.discordsrv.common.config.configurate.manager.ConnectionConfigManager;
+import com.discordsrv.common.config.configurate.manager.MainConfigManager;
+import com.discordsrv.common.config.configurate.manager.MessagesConfigManager;
+import com.discordsrv.common.config.configurate.manager.abstraction.ServerConfigManager;
+import com.discordsrv.common.config.connection.ConnectionConfig;
+import com.discordsrv.common.config.main.MainConfig;
+import com.discordsrv.common.config.messages.MessagesConfig;
+import com.discordsrv.common.core.debug.data.OnlineMode;
+import com.discordsrv.common.core.debug.data.VersionInfo;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.backend.LoggingBackend;
+import com.discordsrv.common.core.logging.backend.impl.JavaLoggerImpl;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.scheduler.StandardScheduler;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.core.storage.WriteBehindStorage;
+import com.discordsrv.common.core.storage.impl.MemoryStorage;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.feature.console.Console;
+import com.discordsrv.common.permission.game.Permission;
+import dev.vankka.dependencydownload.classpath.ClasspathAppender;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.NonNull;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A DiscordSRV instance without a server or a Discord connection, that only loads storage and the link provider.
+ */
+public class BenchmarkDiscordSRV extends AbstractDiscordSRV<IBootstrap, MainConfig, ConnectionConfig, MessagesConfig> {
+
+    private final Path dataDirectory;
+    private final Scheduler scheduler = new StandardScheduler(this);
+    private final ConnectionConfig connectionConfig = new ConnectionConfig();
+    private final MainConfig config = new MainConfig() {};
+    private final AbstractPlayerProvider<IPlayer, DiscordSRV> playerProvider = new AbstractPlayerProvider<IPlayer, DiscordSRV>(this) {
+        @Override
+        public void subscribe() {}
+
+        @Override
+        public void unsubscribe() {}
+    };
+
+    public BenchmarkDiscordSRV(Path dataDirectory, StorageType backend) {
+        super(new IBootstrap() {
+            @Override
+            public Logger logger() {
+                return JavaLoggerImpl.getRoot();
+            }
+
+            @Override
+            public ClasspathAppender classpathAppender() {
+                // Dependencies loaded into the plugin classpath are already on the benchmark classpath
+                return path -> {};
+            }
+
+            @Override
+            public ClassLoader classLoader() {
+                return BenchmarkDiscordSRV.class.getClassLoader();
+            }
+
+            @Override
+            public LifecycleManager lifecycleManager() {
+                return null;
+            }
+
+            @Override
+            public Path dataDirectory() {
+                return dataDirectory;
+            }
+
+            @Override
+            public String platformVersion() {
+                return "Benchmark";
+            }
+        });
+        this.dataDirectory = dataDirectory;
+
+        // Reload only loads storage with a bot token configured, the token isn't used without a Discord connection
+        connectionConfig.bot.token = "benchmark";
+        connectionConfig.storage.backend = backend;
+        connectionConfig.minecraftAuth.allow = false;
+        connectionConfig.update.firstPartyNotification = false;
+        connectionConfig.update.security.enabled = false;
+        connectionConfig.update.github.enabled = false;
+        MemoryStorage.ENABLED = backend == StorageType.MEMORY;
+
+        load();
+        versionInfo = new VersionInfo("Benchmark", "Benchmark", "Benchmark", "Benchmark");
+    }
+
+    /**
+     * Connects to storage and sets up the link provider.
+     * @throws StorageException if connecting to storage fails
+     */
+    public void start() {
+        List<ReloadResult> results = runReload(EnumSet.of(ReloadFlag.STORAGE, ReloadFlag.LINKED_ACCOUNT_PROVIDER));
+        if (results.contains(ReloadResult.STORAGE_CONNECTION_FAILED) || results.contains(ReloadResult.ERROR)) {
+            throw new StorageException("Failed to connect to " + connectionConfig.storage.backend.prettyName() + " storage");
+        }
+    }
+
+    /**
+     * Waits for queued storage operations, flushes and closes storage, then stops all threads.
+     */
+    public void stop() {
+        storageExecutor().shutdown();
+        Storage storage = storage();
+        if (storage != null) {
+            storage.close();
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * The storage backend without write-behind, for seeding data directly.
+     * @return the storage backend
+     */
+    public Storage backend() {
+        Storage storage = storage();
+        return storage instanceof WriteBehindStorage ? ((WriteBehindStorage) storage).delegate() : storage;
+    }
+
+    @Override
+    public ServerType serverType() {
+        return ServerType.SERVER;
+    }
+
+    @Override
+    public Path dataDirectory() {
+        return dataDirectory;
+    }
+
+    @Override
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public Console console() {
+        return new Console() {
+            @Override
+            public LoggingBackend loggingBackend() {
+                return JavaLoggerImpl.getRoot();
+            }
+
+            @Override
+            public CommandExecutorProvider commandExecutorProvider() {
+                return null;
+            }
+
+            @Override
+            public boolean hasPermission(Permission permission) {
+                return false;
+            }
+
+            @Override
+            public void runCommand(String command) {}
+
+            @Override
+            public void sendMessage(@NonNull Component message) {}
+        };
+    }
+
+    @Override
+    public PluginManager pluginManager() {
+        return null;
+    }
+
+    @Override
+    public OnlineMode onlineMode() {
+        return OnlineMode.ONLINE;
+    }
+
+    @Override
+    public ICommandHandler commandHandler() {
+        return null;
+    }
+
+    @Override
+    public @NotNull AbstractPlayerProvider<?, ?> playerProvider() {
+        return playerProvider;
+    }
+
+    @Override
+    public ConnectionConfigManager<ConnectionConfig> connectionConfigManager() {
+        return new ConnectionConfigManager<ConnectionConfig>(this, ConnectionConfig::new) {
+            @Override
+            public ConnectionConfig createConfiguration() {
+                return connectionConfig;
+            }
+
+            @Override
+            public void reload(boolean forceSave, AtomicBoolean anyMissingOptions, Path backupPath) {}
+        };
+    }
+
+    @Override
+    public ConnectionConfig connectionConfig() {
+        return connectionConfig;
+    }
+
+    @Override
+    public MainConfigManager<MainConfig> configManager() {
+        return new ServerConfigManager<MainConfig>(this, () -> new MainConfig() {}) {
+            @Override
+            public MainConfig createConfiguration() {
+                return config;
+            }
+
+            @Override
+            public void reload(boolean forceSave, AtomicBoolean anyMissingOptions, Path backupPath) {}
+        };
+    }
+
+    @Override
+    public MainConfig config() {
+        return config;
+    }
+
+    @Override
+    public MessagesConfigManager<MessagesConfig> messagesConfigManager() {
+        return new MessagesConfigManager<MessagesConfig>(this, MessagesConfig::new) {
+            @Override
+            public MessagesConfig createConfiguration() {
+                return null;
+            }
+
+            @Override
+            public void reload(boolean forceSave, AtomicBoolean anyMissingOptions, Path backupPath) {}
+        };
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.benchmark;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.config.connection.StorageConfig;
+import com.discordsrv.common.core.debug.LatencyHistogram;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.feature.linking.LinkProvider;
+import com.discordsrv.common.util.function.CheckedConsumer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds a storage backend and puts it under sustained load, writing the results as JSON.
+ * <p>
+ * Options are given as {@code --name=value}:
+ * <ul>
+ *     <li>{@code backend}: the {@link StorageType} to use, defaults to {@code H2}</li>
+ *     <li>{@code links}: the amount of links and profiles to seed, defaults to 1000000</li>
+ *     <li>{@code threads}: the amount of threads running operations, defaults to the amount of processors</li>
+ *     <li>{@code duration}: how long each timed phase runs, in seconds, defaults to 30</li>
+ *     <li>{@code lookup-keys}: the amount of players looked up through the link provider cold and then warm, defaults to 100000</li>
+ *     <li>{@code join-storm}: the amount of players joining at once, defaults to 2000</li>
+ *     <li>{@code data-directory}: where the storage files are kept between runs, defaults to {@code data-<backend>}</li>
+ *     <li>{@code output}: the file to write the results to, defaults to {@code results-<backend>-<time>.json}</li>
+ *     <li>{@code database-address}, {@code database-name}, {@code database-username}, {@code database-password}:
+ *     the connection details for MySQL and MariaDB</li>
+ * </ul>
+ */
+public final class LoadDriver {
+
+    // Share of players in the join storm that have never joined before
+    private static final double UNLINKED_JOIN_SHARE = 0.2D;
+
+    private LoadDriver() {}
+
+    public static void main(String[] args) throws Throwable {
+        Map<String, String> options = parseOptions(args);
+        StorageType backend = StorageType.valueOf(options.getOrDefault("backend", "H2").toUpperCase(Locale.ROOT));
+        int links = Integer.parseInt(options.getOrDefault("links", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        int lookupKeys = Math.min(links / 2, Integer.parseInt(options.getOrDefault("lookup-keys", "100000")));
+        int joinStorm = Integer.parseInt(options.getOrDefault("join-storm", "2000"));
+        String backendName = backend.name().toLowerCase(Locale.ROOT);
+        Path dataDirectory = Paths.get(options.getOrDefault("data-directory", "data-" + backendName));
+        Path output = Paths.get(options.getOrDefault("output", "results-" + backendName + "-" + System.currentTimeMillis() + ".json"));
+
+        BenchmarkDiscordSRV discordSRV = new BenchmarkDiscordSRV(dataDirectory.toAbsolutePath(), backend);
+        StorageConfig.Remote remote = discordSRV.connectionConfig().storage.remote;
+        remote.databaseAddress = options.getOrDefault("database-address", remote.databaseAddress);
+        remote.databaseName = options.getOrDefault("database-name", remote.databaseName);
+        remote.username = options.getOrDefault("database-username", remote.username);
+        remote.password = options.getOrDefault("database-password", remote.password);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("backend", backend.name());
+        results.put("links", links);
+        results.put("threads", threads);
+        results.put("durationSeconds", duration.getSeconds());
+        results.put("javaVersion", System.getProperty("java.version"));
+        results.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        results.put("maxMemoryBytes", Runtime.getRuntime().maxMemory());
+
+        try {
+            discordSRV.start();
+        } catch (StorageException e) {
+            // Expected for MySQL and MariaDB without a database running locally
+            System.err.println(e.getMessage() + ", is the database running?");
+            discordSRV.stop();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            Storage storage = discordSRV.storage();
+            LinkProvider linkProvider = discordSRV.linkProvider();
+
+            long seedStart = System.nanoTime();
+            int seeded = BenchmarkData.seed(discordSRV, links);
+            Map<String, Object> seed = new LinkedHashMap<>();
+            seed.put("created", seeded);
+            seed.put("seconds", seconds(System.nanoTime() - seedStart));
+            results.put("seed", seed);
+
+            discordSRV.logger().info("Measuring storage lookups");
+            results.put("linkByPlayerUUID", measure(threads, duration, random -> storage.getLinkByPlayerUUID(BenchmarkData.playerUUID(random.nextInt(links)))));
+            results.put("linkByUserId", measure(threads, duration, random -> storage.getLinkByUserId(BenchmarkData.userId(random.nextInt(links)))));
+            results.put("gameProfileData", measure(threads, duration, random -> storage.getGameProfileData(BenchmarkData.playerUUID(random.nextInt(links)))));
+
+            // The first half of the players is used for the link cache, the second half for the join storm
+            discordSRV.logger().info("Measuring link provider lookups");
+            int[] keys = shuffledIndexes(0, links / 2, lookupKeys);
+            results.put("linkProviderCold", measure(threads, keys, index -> linkProvider.get(BenchmarkData.playerUUID(index)).join()));
+            results.put("linkProviderWarm", measure(threads, keys, index -> linkProvider.get(BenchmarkData.playerUUID(index)).join()));
+
+            discordSRV.logger().info("Measuring join storm");
+            results.put("joinStorm", joinStorm(discordSRV, links, joinStorm));
+
+            discordSRV.logger().info("Measuring linking code churn");
+            results.put("linkingCodeChurn", measure(threads, duration, random -> {
+                UUID playerUUID = BenchmarkData.playerUUID(links + random.nextInt(links));
+                String code = String.format("%06d", random.nextInt(1000000));
+                storage.storeLinkingCode(playerUUID, "Benchmark", code);
+                storage.getLinkingCode(code);
+                storage.removeLinkingCode(playerUUID);
+            }));
+
+            results.put("storageExecutor", discordSRV.storageExecutor().metrics());
+            results.put("storage", storage.getMetrics());
+        } finally {
+            discordSRV.stop();
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(results));
+        System.out.println("Results written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+
+            int separator = arg.indexOf('=');
+            if (separator == -1) {
+                throw new IllegalArgumentException("Option without a value: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Players joining at the same time, all loading their profile through {@code ProfileManagerImpl#queryProfile} at once.
+     */
+    private static Map<String, Object> joinStorm(BenchmarkDiscordSRV discordSRV, int links, int players) throws InterruptedException {
+        int unlinked = (int) (players * UNLINKED_JOIN_SHARE);
+        int[] linkedIndexes = shuffledIndexes(links / 2, links, players - unlinked);
+        int[] unlinkedIndexes = shuffledIndexes(links, links * 2, unlinked);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(linkedIndexes.length + unlinkedIndexes.length);
+        long start = System.nanoTime();
+        for (int[] indexes : new int[][] {linkedIndexes, unlinkedIndexes}) {
+            for (int index : indexes) {
+                long submitted = System.nanoTime();
+                Task<?> task = discordSRV.profileManager().queryProfile(BenchmarkData.playerUUID(index));
+                task.whenComplete((profile, throwable) -> {
+                    histogram.recordNanos(System.nanoTime() - submitted);
+                    if (throwable != null) {
+                        failures.incrementAndGet();
+                    }
+                    latch.countDown();
+                });
+            }
+        }
+        latch.await();
+        return result(histogram, failures, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the operation on the given amount of threads until the duration has passed.
+     */
+    private static Map<String, Object> measure(int threads, Duration duration, CheckedConsumer<ThreadLocalRandom> operation) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        return run(threads, histogram -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    operation.accept(random);
+                } finally {
+                    histogram.recordNanos(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs the operation once for each of the given keys on the given amount of threads.
+     */
+    private static Map<String, Object> measure(int threads, int[] keys, CheckedConsumer<Integer> operation) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        return run(threads, histogram -> {
+            int index;
+            while ((index = next.getAndIncrement()) < keys.length) {
+                long start = System.nanoTime();
+                try {
+                    operation.accept(keys[index]);
+                } finally {
+                    histogram.recordNanos(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    private static Map<String, Object> run(int threads, CheckedConsumer<LatencyHistogram> worker) throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        List<Thread> workers = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                // Keep going after a failed operation, a failure shouldn't end the measurement early
+                boolean completed = false;
+                while (!completed) {
+                    try {
+                        worker.accept(histogram);
+                        completed = true;
+                    } catch (Throwable t) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }, "Benchmark Worker #" + (i + 1));
+            thread.start();
+            workers.add(thread);
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        return result(histogram, failures, System.nanoTime() - start);
+    }
+
+    private static Map<String, Object> result(LatencyHistogram histogram, AtomicLong failures, long elapsedNanos) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        double seconds = seconds(elapsedNanos);
+        values.put("operations", histogram.count());
+        values.put("failures", failures.get());
+        values.put("seconds", seconds);
+        values.put("operationsPerSecond", Math.round(histogram.count() / seconds));
+        values.put("latency", histogram.summary());
+        return values;
+    }
+
+    private static int[] shuffledIndexes(int from, int to, int amount) {
+        int[] indexes = new int[amount];
+        long step = Math.max(1, (to - from) / Math.max(1, amount));
+        for (int i = 0; i < amount; i++) {
+            indexes[i] = (int) (from + i * step);
+        }
+
+        // Fixed seed, so runs look up the same players in the same order
+        Random random = new Random(amount);
+        for (int i = amount - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            int value = indexes[i];
+            indexes[i] = indexes[swap];
+            indexes[swap] = value;
+        }
+        return indexes;
+    }
+
+    private static double seconds(long nanos) {
+        return Math.round(nanos / 1_000_000.0D) / 1000.0D;
+    }
+}
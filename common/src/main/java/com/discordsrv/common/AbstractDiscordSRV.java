@@ -46,12 +46,14 @@ import com.discordsrv.common.config.configurate.manager.MessagesConfigSingleMana
 import com.discordsrv.common.config.connection.BotConfig;
 import com.discordsrv.common.config.connection.ConnectionConfig;
 import com.discordsrv.common.config.connection.HttpProxyConfig;
+import com.discordsrv.common.config.connection.StorageConfig;
 import com.discordsrv.common.config.connection.UpdateConfig;
 import com.discordsrv.common.config.main.MainConfig;
 import com.discordsrv.common.config.main.linking.LinkedAccountConfig;
 import com.discordsrv.common.config.messages.MessagesConfig;
 import com.discordsrv.common.core.component.ComponentFactory;
 import com.discordsrv.common.core.component.translation.TranslationLoader;
+import com.discordsrv.common.core.debug.FlightRecorder;
 import com.discordsrv.common.core.debug.data.VersionInfo;
 import com.discordsrv.common.core.dependency.DiscordSRVDependencyManager;
 import com.discordsrv.common.core.eventbus.EventBusImpl;
@@ -65,8 +67,11 @@ import com.discordsrv.common.core.placeholder.context.*;
 import com.discordsrv.common.core.placeholder.format.DiscordMarkdownFormatImpl;
 import com.discordsrv.common.core.placeholder.result.ComponentResultStringifier;
 import com.discordsrv.common.core.profile.ProfileManagerImpl;
+import com.discordsrv.common.core.scheduler.StandardScheduler;
 import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageExecutor;
 import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.core.storage.WriteBehindStorage;
 import com.discordsrv.common.core.storage.impl.MemoryStorage;
 import com.discordsrv.common.core.update.UpdateChecker;
 import com.discordsrv.common.discord.api.DiscordAPIEventModule;
@@ -168,6 +173,7 @@ public abstract class AbstractDiscordSRV<
     private final Logger platformLogger;
     private final Path dataDirectory;
     private final DiscordSRVLogger logger;
+    private final FlightRecorder flightRecorder = new FlightRecorder();
     private DiscordSRVDependencyManager dependencyManager;
     private ModuleManager moduleManager;
     private JDAConnectionManager discordConnectionManager;
@@ -177,6 +183,7 @@ public abstract class AbstractDiscordSRV<
     private TranslationLoader translationLoader;
 
     private Storage storage;
+    private final StorageExecutor storageExecutor = new StorageExecutor();
     private LinkProvider linkProvider;
 
     // Version
@@ -235,6 +242,20 @@ public abstract class AbstractDiscordSRV<
         createHttpClient();
     }
 
+    private static String redactedPath(HttpUrl url) {
+        StringBuilder builder = new StringBuilder();
+        for (String segment : url.pathSegments()) {
+            builder.append('/');
+            // Webhook & interaction tokens are part of the path
+            if (segment.length() > 32 && !StringUtils.isNumeric(segment)) {
+                builder.append("<redacted>");
+            } else {
+                builder.append(segment);
+            }
+        }
+        return builder.toString();
+    }
+
     private HttpProxyConfig usedProxyConfig = null;
     private void createHttpClient() {
         HttpProxyConfig proxyConfig = connectionConfig() != null ? connectionConfig().httpProxy : null;
@@ -255,12 +276,20 @@ public abstract class AbstractDiscordSRV<
                                                + " (" + JDAInfo.GITHUB + ", " + JDAInfo.VERSION + ")"
                                        : "DiscordSRV/" + versionInfo().version();
 
-                    return chain.proceed(
-                            original.newBuilder()
-                                    .removeHeader("User-Agent")
-                                    .addHeader("User-Agent", userAgent)
-                                    .build()
-                    );
+                    long startTime = System.currentTimeMillis();
+                    try {
+                        Response response = chain.proceed(
+                                original.newBuilder()
+                                        .removeHeader("User-Agent")
+                                        .addHeader("User-Agent", userAgent)
+                                        .build()
+                        );
+                        flightRecorder.record(FlightRecorder.Type.REST, original.method(), host, redactedPath(original.url()) + " " + response.code(), System.currentTimeMillis() - startTime);
+                        return response;
+                    } catch (Throwable t) {
+                        flightRecorder.record(FlightRecorder.Type.REST, original.method(), host, redactedPath(original.url()), System.currentTimeMillis() - startTime, t);
+                        throw t;
+                    }
                 })
                 .connectTimeout(20, TimeUnit.SECONDS)
                 .readTimeout(20, TimeUnit.SECONDS)
@@ -423,11 +452,21 @@ public abstract class AbstractDiscordSRV<
         return logger;
     }
 
+    @Override
+    public final FlightRecorder flightRecorder() {
+        return flightRecorder;
+    }
+
     @Override
     public final Storage storage() {
         return storage;
     }
 
+    @Override
+    public final StorageExecutor storageExecutor() {
+        return storageExecutor;
+    }
+
     @Override
     public TemporaryLocalData temporaryLocalData() {
         return temporaryLocalData;
@@ -862,7 +901,20 @@ public abstract class AbstractDiscordSRV<
             }
 
             channelConfig().reload();
+            logger.reloadLevels();
             createHttpClient();
+
+            MainConfig config = config();
+            if (config != null) {
+                scheduler().metrics().setTrackSubmissions(config.executor.trackTaskSubmissions);
+                if (scheduler() instanceof StandardScheduler) {
+                    ((StandardScheduler) scheduler()).configure(
+                            config.executor.virtualThreads,
+                            config.executor.maximumConcurrentTasks,
+                            config.executor.maximumConcurrentBulkTasks
+                    );
+                }
+            }
         }
 
         List<ReloadResult> results = new ArrayList<>();
@@ -909,6 +961,9 @@ public abstract class AbstractDiscordSRV<
 
         if (flags.contains(ReloadFlag.STORAGE)) {
             if (storage != null) {
+                // Operations queued for the current storage finish before it's closed,
+                // new operations wait until the executor is set up again below
+                storageExecutor.pause();
                 storage.close();
             }
 
@@ -926,8 +981,15 @@ public abstract class AbstractDiscordSRV<
                     if (storageType.hikari()) {
                         dependencyManager().hikari().downloadRelocateAndLoad().get();
                     }
-                    storage = storageType.storageFunction().apply(this);
+                    storage = new WriteBehindStorage(this, storageType.storageFunction().apply(this));
                     storage.initialize();
+
+                    StorageConfig storageConfig = connectionConfig().storage;
+                    storageExecutor.configure(
+                            storageConfig.maximumConcurrency(storageType),
+                            storageConfig.executor.queueSize,
+                            storageConfig.executor.virtualThreads
+                    );
                     logger().info("Storage connection successfully established");
                 } catch (ExecutionException e) {
                     throw new StorageException(e.getCause());
@@ -937,6 +999,9 @@ public abstract class AbstractDiscordSRV<
                     throw new StorageException(t);
                 }
             } catch (StorageException e) {
+                // Fail the operations that were waiting for storage
+                storageExecutor.shutdown();
+
                 e.log(this);
                 logger().error("Failed to connect to storage");
                 if (initial) {
@@ -1053,6 +1118,8 @@ public abstract class AbstractDiscordSRV<
             } catch (IOException ignored) {}
         }
 
+        // Let queued storage operations finish before the connection is closed
+        storageExecutor.shutdown();
         try {
             if (storage != null) {
                 storage.close();
@@ -38,6 +38,7 @@ import com.discordsrv.common.config.connection.ConnectionConfig;
 import com.discordsrv.common.config.main.MainConfig;
 import com.discordsrv.common.config.messages.MessagesConfig;
 import com.discordsrv.common.core.component.ComponentFactory;
+import com.discordsrv.common.core.debug.FlightRecorder;
 import com.discordsrv.common.core.debug.data.OnlineMode;
 import com.discordsrv.common.core.debug.data.VersionInfo;
 import com.discordsrv.common.core.dependency.DiscordSRVDependencyManager;
@@ -48,6 +49,7 @@ import com.discordsrv.common.core.placeholder.PlaceholderServiceImpl;
 import com.discordsrv.common.core.profile.ProfileManagerImpl;
 import com.discordsrv.common.core.scheduler.Scheduler;
 import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageExecutor;
 import com.discordsrv.common.discord.api.DiscordAPIImpl;
 import com.discordsrv.common.discord.connection.details.DiscordConnectionDetailsImpl;
 import com.discordsrv.common.discord.connection.jda.JDAConnectionManager;
@@ -109,9 +111,11 @@ public interface DiscordSRV extends com.discordsrv.api.DiscordSRV {
 
     // Logger
     DiscordSRVLogger logger();
+    FlightRecorder flightRecorder();
 
     // Storage
     Storage storage();
+    StorageExecutor storageExecutor();
     TemporaryLocalData temporaryLocalData();
 
     // Link Provider
@@ -65,6 +65,14 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
     public abstract void subscribe();
     public abstract void unsubscribe();
 
+    /**
+     * A player is logging in but hasn't joined yet, starts loading their profile so it's ready when they join.
+     * @param uuid the Player UUID
+     */
+    protected void playerLoggingIn(UUID uuid) {
+        discordSRV.profileManager().prefetchProfile(uuid);
+    }
+
     protected T addPlayer(UUID uuid, T player, boolean initial) {
         T existingPlayer = this.players.get(uuid);
         if (existingPlayer != null) {
@@ -30,6 +30,7 @@ import com.discordsrv.common.util.Game;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
@@ -60,6 +61,17 @@ public abstract class AbstractPunishmentSyncModule<C extends AbstractSyncConfig<
         return null;
     }
 
+    @Override
+    protected long stateHash(@Nullable Punishment state) {
+        if (state == null) {
+            return 0;
+        }
+
+        // Only the expiry is compared by doesStateMatch
+        Instant until = state.until();
+        return until != null ? until.toEpochMilli() : Long.MIN_VALUE;
+    }
+
     protected PunishmentEvent upsertEvent(long guildId, long userId, boolean newState, ISyncCause fallbackCause) {
         return events.computeIfAbsent(userId, key -> new PunishmentEvent(guildId, userId, newState, fallbackCause));
     }
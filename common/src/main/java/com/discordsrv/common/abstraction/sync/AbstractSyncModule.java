@@ -24,7 +24,6 @@ import com.discordsrv.api.events.linking.AccountUnlinkedEvent;
 import com.discordsrv.api.reload.ReloadResult;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
-import com.discordsrv.common.abstraction.player.IPlayer;
 import com.discordsrv.common.abstraction.sync.cause.GenericSyncCauses;
 import com.discordsrv.common.abstraction.sync.cause.ISyncCause;
 import com.discordsrv.common.abstraction.sync.enums.SyncDirection;
@@ -33,6 +32,9 @@ import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
 import com.discordsrv.common.config.main.generic.SyncConfig;
+import com.discordsrv.common.core.debug.DebugGenerateEvent;
+import com.discordsrv.common.core.debug.FlightRecorder;
+import com.discordsrv.common.core.debug.file.KeyValueDebugFile;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
@@ -69,9 +71,15 @@ public abstract class AbstractSyncModule<
     protected final List<Future<?>> timers = new ArrayList<>();
     protected final Map<G, List<C>> configsForGame = new ConcurrentHashMap<>();
     protected final Map<D, List<C>> configsForDiscord = new ConcurrentHashMap<>();
+    private final TimedResyncEngine<C> timedResync;
+    private final SyncTriggerCoalescer<C> triggerCoalescer;
+    private final SyncCheckpoints<C> checkpoints;
 
     public AbstractSyncModule(DT discordSRV, String loggerName) {
         super(discordSRV, new NamedLogger(discordSRV, loggerName));
+        this.timedResync = new TimedResyncEngine<>(this, discordSRV);
+        this.triggerCoalescer = new SyncTriggerCoalescer<>(this, discordSRV);
+        this.checkpoints = new SyncCheckpoints<>(this, discordSRV);
     }
 
     public abstract String syncName();
@@ -114,6 +122,7 @@ public abstract class AbstractSyncModule<
             syncs.clear();
             configsForGame.clear();
             configsForDiscord.clear();
+            timedResync.reset();
 
             Map<G, C> oneWayToGame = new HashMap<>();
             Map<D, C> oneWayToDiscord = new HashMap<>();
@@ -178,20 +187,36 @@ public abstract class AbstractSyncModule<
             }
 
             for (Map.Entry<Integer, Set<C>> entry : timerIntervals.entrySet()) {
-                int cycleTime = entry.getKey();
+                Duration cycleTime = Duration.ofMinutes(entry.getKey());
                 Future<?> future = discordSRV.scheduler().runAtFixedRate(
-                        () -> resyncTimer(entry.getValue()),
-                        Duration.ofMinutes(cycleTime),
-                        Duration.ofMinutes(cycleTime)
+                        "Timed " + syncName() + " cycle",
+                        () -> timedResync.startCycle(entry.getValue(), cycleTime),
+                        cycleTime,
+                        cycleTime
                 );
                 timers.add(future);
             }
+            if (!timerIntervals.isEmpty()) {
+                timers.add(discordSRV.scheduler().runAtFixedRate("Timed " + syncName(), timedResync::tick, TimedResyncEngine.TICK));
+            }
         }
     }
 
-    private void resyncTimer(Set<C> configs) {
-        for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
-            resync(GenericSyncCauses.TIMER, Someone.of(discordSRV, player.uniqueId()), config -> config.timer.side, configs);
+    @Subscribe
+    public void onDebugGenerateTimedResync(DebugGenerateEvent event) {
+        synchronized (syncs) {
+            if (timers.isEmpty()) {
+                return;
+            }
+        }
+        event.addFile("timed-" + syncCommand() + "-sync.json", new KeyValueDebugFile(timedResync.metrics(), true));
+    }
+
+    @Subscribe
+    public void onDebugGenerateTriggers(DebugGenerateEvent event) {
+        event.addFile(syncCommand() + "-sync-triggers.json", new KeyValueDebugFile(triggerCoalescer.metrics(), true));
+        if (useSyncCheckpoints()) {
+            event.addFile(syncCommand() + "-sync-checkpoints.json", new KeyValueDebugFile(checkpoints.metrics(), true));
         }
     }
 
@@ -202,11 +227,13 @@ public abstract class AbstractSyncModule<
 
     @Subscribe
     public void onAccountLinked(AccountLinkedEvent event) {
+        timedResync.inputChanged(event.getPlayerUUID());
         resyncAll(GenericSyncCauses.LINK, Someone.of(discordSRV, event.getPlayerUUID()), config -> config.tieBreakers.link);
     }
 
     @Subscribe
     public void onAccountUnlinked(AccountUnlinkedEvent event) {
+        timedResync.inputChanged(event.getPlayerUUID());
         Someone.Resolved someone = Someone.of(discordSRV, event.getPlayerUUID(), event.getUserId());
         SyncSummary<C> summary = new SyncSummary<>(this, GenericSyncCauses.UNLINK, someone);
         for (C config : configs()) {
@@ -302,6 +329,50 @@ public abstract class AbstractSyncModule<
         return true;
     }
 
+    /**
+     * If {@link SyncCheckpoint}s should be used to skip resynchronizing players that haven't changed since they were last synchronized.
+     * This may only be enabled if every change on Discord is reported through {@link #discordChanged(ISyncCause, Someone, Object, Object)}
+     * or {@link #discordMayHaveChanged(Someone)}, and {@link #discordMayHaveChanged()} is called when changes may have been missed.
+     * Checkpoints are only used for timed synchronization, changes made on Discord while DiscordSRV wasn't running
+     * are picked up when the player joins or when the checkpoint expires.
+     * @return {@code true} to use checkpoints
+     */
+    protected boolean useSyncCheckpoints() {
+        return false;
+    }
+
+    /**
+     * A hash of the given state for {@link SyncCheckpoint}s, which must stay the same across restarts.
+     * @param state the state
+     * @return the hash
+     */
+    protected long stateHash(@Nullable S state) {
+        return state != null ? SyncCheckpoints.hash(state.toString()) : 0;
+    }
+
+    /**
+     * Makes the {@link SyncCheckpoint}s of the given Discord user unusable, for changes that aren't synchronized directly.
+     * @param someone the Discord user
+     */
+    protected void discordMayHaveChanged(Someone someone) {
+        if (!useSyncCheckpoints()) {
+            return;
+        }
+
+        someone.resolve().whenSuccessful(resolved -> {
+            if (resolved != null) {
+                checkpoints.discordChanged(resolved.playerUUID());
+            }
+        });
+    }
+
+    /**
+     * Makes all {@link SyncCheckpoint}s unusable, because changes on Discord may have been missed.
+     */
+    protected void discordMayHaveChanged() {
+        checkpoints.allDiscordChanged();
+    }
+
     protected Task<SyncSummary<C>> discordChanged(ISyncCause cause, Someone someone, D discordId, @Nullable S newState) {
         List<C> gameConfigs = configsForDiscord.get(discordId);
         if (gameConfigs == null) {
@@ -313,6 +384,8 @@ public abstract class AbstractSyncModule<
                 return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
             }
 
+            timedResync.inputChanged(resolved.playerUUID());
+            checkpoints.discordChanged(resolved.playerUUID());
             SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
             for (C config : gameConfigs) {
                 if (!isApplicableForProactiveSync(config)) {
@@ -365,6 +438,7 @@ public abstract class AbstractSyncModule<
                 return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
             }
 
+            timedResync.inputChanged(resolved.playerUUID());
             SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
             for (C config : discordConfigs) {
                 if (!isApplicableForProactiveSync(config)) {
@@ -425,41 +499,104 @@ public abstract class AbstractSyncModule<
             return Task.completed(new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.SIDE_DISABLED));
         }
 
-        return someone.resolve().thenApply(resolved -> {
+        return someone.resolve().then(resolved -> {
             if (resolved == null) {
-                return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
+                SyncSummary<C> summary = new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
+                logSummary(summary);
+                return Task.completed(summary);
             }
 
-            SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
+            Map<C, SyncSide> sides = new LinkedHashMap<>();
             for (C config : configs) {
                 SyncSide side = sideDecider.apply(config);
-                if (side == SyncSide.DISABLED) {
-                    continue;
+                if (side != SyncSide.DISABLED) {
+                    sides.put(config, side);
                 }
-
-                summary.appendResult(config, resync(config, resolved, side));
-            }
-            return summary;
-        }).whenComplete((summary, t) -> {
-            if (summary != null) {
-                logSummary(summary);
             }
+            return triggerCoalescer.submit(cause, resolved, sides);
         });
     }
 
-    private Task<ISyncResult> resync(C config, Someone.Resolved resolved, SyncSide side) {
+    /**
+     * Resynchronizes the given synchronizables right away, {@link #resync(ISyncCause, Someone, Function, Set)} merges triggers before calling this.
+     * @param cause the cause of the resynchronization
+     * @param resolved the linked player
+     * @param sides the synchronizables and the side to use if they don't match
+     * @return a task for the summary of the resynchronization
+     */
+    Task<SyncSummary<C>> resyncNow(ISyncCause cause, Someone.Resolved resolved, Map<C, SyncSide> sides) {
+        SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
+        Task<Map<Long, SyncCheckpoint>> checkpointsTask;
+        if (useSyncCheckpoints() && isCheckpointCause(cause)) {
+            checkpointsTask = checkpoints.get(resolved.playerUUID()).mapException(t -> {
+                logger().debug("Failed to load " + syncName() + " checkpoints for " + resolved.playerUUID(), t);
+                return Collections.emptyMap();
+            });
+        } else {
+            checkpointsTask = Task.completed(Collections.emptyMap());
+        }
+
+        for (Map.Entry<C, SyncSide> entry : sides.entrySet()) {
+            C config = entry.getKey();
+            SyncSide side = entry.getValue();
+
+            long startedAt = System.nanoTime();
+            Task<ISyncResult> result = checkpointsTask.then(loaded -> {
+                SyncCheckpoint checkpoint = checkpoints.usable(loaded, resolved.playerUUID(), checkpoints.key(config, resolved.userId()));
+                return resync(config, resolved, side, checkpoint);
+            });
+            summary.appendResult(config, result.whenSuccessful(syncResult -> {
+                if (!syncResult.isError()) {
+                    timedResync.synced(resolved.playerUUID(), config, startedAt);
+                }
+            }));
+        }
+        logSummary(summary);
+        return Task.completed(summary);
+    }
+
+    private static boolean isCheckpointCause(ISyncCause cause) {
+        if (cause instanceof SyncTriggerCoalescer.CoalescedSyncCause) {
+            for (ISyncCause coalescedCause : ((SyncTriggerCoalescer.CoalescedSyncCause) cause).causes()) {
+                if (!isCheckpointCause(coalescedCause)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Other causes are explicit requests, joins or come with a change, those should always read both sides
+        return cause == GenericSyncCauses.TIMER;
+    }
+
+    private Task<ISyncResult> resync(C config, Someone.Resolved resolved, SyncSide side, @Nullable SyncCheckpoint checkpoint) {
+        long readAt = System.currentTimeMillis();
         Task<S> gameGet = getGame(config, resolved);
-        Task<S> discordGet = getDiscord(config, resolved);
+        if (checkpoint == null) {
+            return resync(config, resolved, side, gameGet, getDiscord(config, resolved), readAt);
+        }
+
+        // Nothing has changed on Discord since the checkpoint, only read the Discord state if the game state has changed
+        return gameGet.then(gameState -> {
+            if (stateHash(gameState) == checkpoint.gameHash()) {
+                checkpoints.skipped();
+                return Task.completed((ISyncResult) GenericSyncResults.UNCHANGED_SINCE_CHECKPOINT);
+            }
+            return resync(config, resolved, side, Task.completed(gameState), getDiscord(config, resolved), readAt);
+        }).mapException(SyncFail.class, SyncFail::getResult);
+    }
 
+    private Task<ISyncResult> resync(C config, Someone.Resolved resolved, SyncSide side, Task<S> gameGet, Task<S> discordGet, long readAt) {
         return Task.allOf(gameGet, discordGet).then((__) -> {
             S gameState = gameGet.join();
             S discordState = discordGet.join();
 
-            logger().trace(resolved.playerUUID() + " (" + gameState + ") | "
+            logger().trace(() -> resolved.playerUUID() + " (" + gameState + ") | "
                                    + Long.toUnsignedString(resolved.userId()) + " (" + discordState + ")");
 
             ISyncResult alreadyInSyncResult = doesStateMatch(gameState, discordState);
             if (alreadyInSyncResult != null) {
+                saveCheckpoint(config, resolved, gameState, discordState, readAt);
                 return Task.completed(alreadyInSyncResult);
             }
 
@@ -469,17 +606,39 @@ public abstract class AbstractSyncModule<
                     return Task.completed(GenericSyncResults.WRONG_DIRECTION);
                 }
 
-                return applyGame(config, resolved, discordState);
+                return applyGame(config, resolved, discordState).whenSuccessful(result -> {
+                    if (!result.isError()) {
+                        saveCheckpoint(config, resolved, discordState, discordState, readAt);
+                    }
+                });
             } else {
                 if (direction == SyncDirection.DISCORD_TO_MINECRAFT) {
                     return Task.completed(GenericSyncResults.WRONG_DIRECTION);
                 }
 
-                return applyDiscord(config, resolved, gameState);
+                return applyDiscord(config, resolved, gameState).whenSuccessful(result -> {
+                    if (!result.isError()) {
+                        saveCheckpoint(config, resolved, gameState, gameState, readAt);
+                    }
+                });
             }
         }).mapException(SyncFail.class, SyncFail::getResult);
     }
 
+    private void saveCheckpoint(C config, Someone.Resolved resolved, @Nullable S gameState, @Nullable S discordState, long readAt) {
+        if (!useSyncCheckpoints()) {
+            return;
+        }
+
+        checkpoints.save(
+                resolved.playerUUID(),
+                checkpoints.key(config, resolved.userId()),
+                stateHash(gameState),
+                stateHash(discordState),
+                readAt
+        );
+    }
+
     private String formatResults(SyncSummary<C> summary, List<String> results) {
         int count = results.size();
         return summary.who() + " (sync cause: " + summary.cause() + ")"
@@ -496,6 +655,7 @@ public abstract class AbstractSyncModule<
                     summary.fail(fail.getResult());
                     throwableToLog = fail.getCause();
                 } else {
+                    discordSRV.flightRecorder().record(FlightRecorder.Type.SYNC, syncName(), summary.who(), "failed (sync cause: " + summary.cause() + ")", -1, t);
                     logger().error("Failed to " + syncName() + " " + summary.who() + " (sync cause: " + summary.cause() + ")", t);
                     return;
                 }
@@ -505,6 +665,7 @@ public abstract class AbstractSyncModule<
             if (allFailReason != null) {
                 String reason = allFailReason.format(gameTerm(), discordTerm());
                 String message = "Failed to " + syncName() + " " + summary.who() + " (sync cause: " + summary.cause() + "): " + reason;
+                discordSRV.flightRecorder().record(FlightRecorder.Type.SYNC, syncName(), summary.who(), "failed (sync cause: " + summary.cause() + "): " + reason, -1, throwableToLog);
                 if (allFailReason.isError()) {
                     logger().error(message, throwableToLog);
                 } else {
@@ -533,7 +694,9 @@ public abstract class AbstractSyncModule<
                 }
             }
 
-            logger().debug(syncName() + " performed for " + formatResults(summary, allResults));
+            String formattedResults = formatResults(summary, allResults);
+            discordSRV.flightRecorder().record(FlightRecorder.Type.SYNC, syncName(), null, formattedResults);
+            logger().debug(syncName() + " performed for " + formattedResults);
 
             String logFileName = logFileName();
             if (logFileName != null && !auditResults.isEmpty()) {
@@ -26,8 +26,10 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.sync.result.DiscordPermissionResult;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.helper.Someone;
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.jetbrains.annotations.Nullable;
 
@@ -56,8 +58,16 @@ public final class RoleSyncModuleUtil {
                 .thenApply(member -> member.hasRole(role));
     }
 
-    public static Task<ISyncResult> doRoleChange(DiscordSRV discordSRV, Someone.Resolved someone, long roleId, Boolean newState) {
-        return checkRoleChangePreconditions(discordSRV, roleId).then(role -> doRoleChange(someone, role, newState));
+    public static Task<ISyncResult> doRoleChange(
+            DiscordSRV discordSRV,
+            DiscordRequestPriority priority,
+            String source,
+            Someone.Resolved someone,
+            long roleId,
+            Boolean newState
+    ) {
+        return checkRoleChangePreconditions(discordSRV, roleId)
+                .then(role -> doRoleChange(discordSRV, priority, source, someone, role, newState));
     }
 
     public static Task<DiscordRole> checkRoleChangePreconditions(DiscordSRV discordSRV, long roleId) {
@@ -82,7 +92,19 @@ public final class RoleSyncModuleUtil {
         return Task.completed(role);
     }
 
-    public static Task<ISyncResult> doRoleChange(Someone.Resolved someone, DiscordRole role, @Nullable Boolean newState) {
+    /**
+     * Adds or removes the role, through the {@link com.discordsrv.common.discord.api.request.DiscordRequestScheduler}.
+     * @param priority the priority of the role change
+     * @param source the feature the role change is from, for request budgets
+     */
+    public static Task<ISyncResult> doRoleChange(
+            DiscordSRV discordSRV,
+            DiscordRequestPriority priority,
+            String source,
+            Someone.Resolved someone,
+            DiscordRole role,
+            @Nullable Boolean newState
+    ) {
         return someone.guildMember(role.getGuild())
                 .mapException(RestErrorResponseException.class, t -> {
                     if (t.getErrorCode() == ErrorResponse.UNKNOWN_MEMBER.getCode()) {
@@ -90,9 +112,14 @@ public final class RoleSyncModuleUtil {
                     }
                     throw t;
                 })
-                .then(member -> (newState != null && newState)
-                                ? member.addRole(role).thenApply(v -> GenericSyncResults.ADD_DISCORD)
-                                : member.removeRole(role).thenApply(v -> GenericSyncResults.REMOVE_DISCORD)
-                );
+                .then(member -> {
+                    Guild guild = role.getGuild().asJDA();
+                    Task<Void> roleChange = (newState != null && newState)
+                            ? discordSRV.discordAPI().toTask(priority, source, "member/roles", () -> guild.addRoleToMember(member.asJDA(), role.asJDA()))
+                            : discordSRV.discordAPI().toTask(priority, source, "member/roles", () -> guild.removeRoleFromMember(member.asJDA(), role.asJDA()));
+                    return roleChange
+                            .whenSuccessful(v -> discordSRV.discordAPI().entityRetriever().invalidateMember(guild.getIdLong(), member.getUser().getId()))
+                            .thenApply(v -> (newState != null && newState) ? GenericSyncResults.ADD_DISCORD : GenericSyncResults.REMOVE_DISCORD);
+                });
     }
 }
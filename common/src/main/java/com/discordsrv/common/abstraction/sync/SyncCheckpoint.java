@@ -0,0 +1,81 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * The states of a synchronizable for a player at the time it was last synchronized successfully.
+ * The states are stored as hashes, as only equality with the current states is needed.
+ */
+public class SyncCheckpoint {
+
+    /**
+     * How long checkpoints can be used for. Discord changes made while DiscordSRV isn't running can't be seen,
+     * so checkpoints have to expire for those changes to be synchronized eventually.
+     */
+    public static final Duration MAXIMUM_AGE = Duration.ofHours(6);
+
+    private final UUID playerUUID;
+    private final long syncKey;
+    private final long gameHash;
+    private final long discordHash;
+    private final long updated;
+
+    public SyncCheckpoint(UUID playerUUID, long syncKey, long gameHash, long discordHash, long updated) {
+        this.playerUUID = playerUUID;
+        this.syncKey = syncKey;
+        this.gameHash = gameHash;
+        this.discordHash = discordHash;
+        this.updated = updated;
+    }
+
+    public UUID playerUUID() {
+        return playerUUID;
+    }
+
+    /**
+     * A hash identifying the sync module, synchronizable and linked Discord user this checkpoint is for.
+     * @return the key
+     */
+    public long syncKey() {
+        return syncKey;
+    }
+
+    public long gameHash() {
+        return gameHash;
+    }
+
+    public long discordHash() {
+        return discordHash;
+    }
+
+    /**
+     * When this checkpoint was created.
+     * @return the time as epoch milliseconds
+     */
+    public long updated() {
+        return updated;
+    }
+
+    public boolean isExpired(long now) {
+        return updated < now - MAXIMUM_AGE.toMillis();
+    }
+}
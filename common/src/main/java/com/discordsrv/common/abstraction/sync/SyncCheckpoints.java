@@ -0,0 +1,188 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persisted {@link SyncCheckpoint}s for an {@link AbstractSyncModule}, so that players who haven't changed since they were last
+ * synchronized can be skipped after a restart without reading their Discord state.
+ * <p>
+ * A checkpoint can't be used once a Discord change has been reported for the player after the checkpoint was created,
+ * or once it is older than {@link SyncCheckpoint#MAXIMUM_AGE}.
+ */
+class SyncCheckpoints<C extends AbstractSyncConfig<C, ?, ?>> {
+
+    private final AbstractSyncModule<?, C, ?, ?, ?> module;
+    private final DiscordSRV discordSRV;
+    private final Cache<UUID, Map<Long, SyncCheckpoint>> checkpoints;
+    private final Cache<UUID, Long> discordChanges;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private volatile long allDiscordChanged = 0;
+
+    SyncCheckpoints(AbstractSyncModule<?, C, ?, ?, ?> module, DiscordSRV discordSRV) {
+        this.module = module;
+        this.discordSRV = discordSRV;
+        this.checkpoints = discordSRV.caffeineBuilder()
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .build();
+        this.discordChanges = discordSRV.caffeineBuilder()
+                .expireAfterWrite(SyncCheckpoint.MAXIMUM_AGE.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * A stable 64-bit hash of the given value, which stays the same across restarts.
+     * @param value the value to hash
+     * @return the hash
+     */
+    static long hash(String value) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public long key(C config, long userId) {
+        return hash(module.syncCommand() + '\n' + config.describe() + '\n' + Long.toUnsignedString(userId));
+    }
+
+    /**
+     * Gets the checkpoints for the given player, loading them from storage if they aren't in memory.
+     * @param playerUUID the player
+     * @return a task for the checkpoints by {@link SyncCheckpoint#syncKey()}
+     */
+    public Task<Map<Long, SyncCheckpoint>> get(UUID playerUUID) {
+        Map<Long, SyncCheckpoint> cached = checkpoints.getIfPresent(playerUUID);
+        if (cached != null) {
+            return Task.completed(cached);
+        }
+
+        loads.incrementAndGet();
+        return discordSRV.storageExecutor()
+                .supply("getSyncCheckpoints", () -> discordSRV.storage().getSyncCheckpoints(Collections.singleton(playerUUID)))
+                .thenApply(result -> {
+                    Map<Long, SyncCheckpoint> loaded = new ConcurrentHashMap<>();
+                    for (SyncCheckpoint checkpoint : result.getOrDefault(playerUUID, Collections.emptyList())) {
+                        loaded.put(checkpoint.syncKey(), checkpoint);
+                    }
+                    return checkpoints.asMap().merge(playerUUID, loaded, (current, __) -> current);
+                });
+    }
+
+    /**
+     * Gets the checkpoint for the given synchronizable, if it can still be used.
+     * @param loaded the checkpoints from {@link #get(UUID)}
+     * @param playerUUID the player
+     * @param key the key from {@link #key(AbstractSyncConfig, long)}
+     * @return the checkpoint or {@code null}
+     */
+    @Nullable
+    public SyncCheckpoint usable(Map<Long, SyncCheckpoint> loaded, UUID playerUUID, long key) {
+        SyncCheckpoint checkpoint = loaded.get(key);
+        if (checkpoint == null || checkpoint.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+
+        if (allDiscordChanged >= checkpoint.updated()) {
+            return null;
+        }
+
+        Long discordChanged = discordChanges.getIfPresent(playerUUID);
+        if (discordChanged != null && discordChanged >= checkpoint.updated()) {
+            return null;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Makes existing checkpoints of the given player unusable, because something changed on Discord.
+     * @param playerUUID the player
+     */
+    public void discordChanged(UUID playerUUID) {
+        discordChanges.put(playerUUID, System.currentTimeMillis());
+    }
+
+    /**
+     * Makes all existing checkpoints unusable, because changes on Discord may have been missed.
+     */
+    public void allDiscordChanged() {
+        allDiscordChanged = System.currentTimeMillis();
+    }
+
+    public void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * Saves a checkpoint after a successful synchronization, unless an equal checkpoint was recently saved.
+     * @param playerUUID the player
+     * @param key the key from {@link #key(AbstractSyncConfig, long)}
+     * @param gameHash the hash of the game state
+     * @param discordHash the hash of the Discord state
+     * @param readAt when the states were read, as epoch milliseconds
+     */
+    public void save(UUID playerUUID, long key, long gameHash, long discordHash, long readAt) {
+        Map<Long, SyncCheckpoint> cached = checkpoints.getIfPresent(playerUUID);
+        if (cached != null) {
+            SyncCheckpoint existing = usable(cached, playerUUID, key);
+            if (existing != null
+                    && existing.gameHash() == gameHash
+                    && existing.discordHash() == discordHash
+                    && existing.updated() > readAt - SyncCheckpoint.MAXIMUM_AGE.toMillis() / 2) {
+                return;
+            }
+        }
+
+        SyncCheckpoint checkpoint = new SyncCheckpoint(playerUUID, key, gameHash, discordHash, readAt);
+        if (cached != null) {
+            cached.put(key, checkpoint);
+        }
+
+        saved.incrementAndGet();
+        discordSRV.storageExecutor()
+                .execute("saveSyncCheckpoints", () -> discordSRV.storage().saveSyncCheckpoints(Collections.singletonList(checkpoint)))
+                .whenFailed(t -> module.logger().debug("Failed to save " + module.syncName() + " checkpoint for " + playerUUID, t));
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("loads", loads.get());
+        values.put("skippedUnchanged", skipped.get());
+        values.put("saved", saved.get());
+        values.put("playersInMemory", checkpoints.estimatedSize());
+        return values;
+    }
+}
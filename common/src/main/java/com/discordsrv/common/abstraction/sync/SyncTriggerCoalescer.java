@@ -0,0 +1,258 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.sync.cause.GenericSyncCauses;
+import com.discordsrv.common.abstraction.sync.cause.ISyncCause;
+import com.discordsrv.common.abstraction.sync.enums.SyncSide;
+import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
+import com.discordsrv.common.helper.Someone;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Merges resynchronizations of the same player for an {@link AbstractSyncModule} that are triggered close to each other.
+ * <p>
+ * Triggers are held for a short window, triggers for the same player during the window are merged into one resynchronization,
+ * keeping the side given by the most recent trigger that reported a change. While a player is being resynchronized,
+ * new triggers are merged into one follow-up resynchronization, timed triggers are dropped if the running resynchronization covers them.
+ * A resynchronization that hasn't finished after two minutes is given up on, so that the player's following triggers aren't held up.
+ * <p>
+ * Triggers only record which side wins when the states don't match, both sides are still read for every resynchronization:
+ * comparing needs the current state of both sides, and only the proactive paths (which get the new state from the event)
+ * can skip a read. Discord reads for group and ban sync are answered from the local snapshots where available.
+ */
+class SyncTriggerCoalescer<C extends AbstractSyncConfig<C, ?, ?>> {
+
+    private static final Duration WINDOW = Duration.ofMillis(250);
+    private static final Duration RUNNING_TIMEOUT = Duration.ofMinutes(2);
+
+    private final AbstractSyncModule<?, C, ?, ?, ?> module;
+    private final DiscordSRV discordSRV;
+    private final Map<UUID, PlayerTriggers<C>> players = new HashMap<>();
+
+    private final AtomicLong triggers = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    SyncTriggerCoalescer(AbstractSyncModule<?, C, ?, ?, ?> module, DiscordSRV discordSRV) {
+        this.module = module;
+        this.discordSRV = discordSRV;
+    }
+
+    /**
+     * Requests a resynchronization, which will be merged with other requests for the same player.
+     * @param cause the cause of the resynchronization
+     * @param someone the linked player
+     * @param sides the synchronizables to resynchronize, and the side to use if they don't match
+     * @return a task for the summary of the resynchronization the request ended up in
+     */
+    public Task<SyncSummary<C>> submit(ISyncCause cause, Someone.Resolved someone, Map<C, SyncSide> sides) {
+        triggers.incrementAndGet();
+
+        UUID playerUUID = someone.playerUUID();
+        boolean schedule = false;
+        Resync<C> resync;
+        synchronized (players) {
+            PlayerTriggers<C> player = players.computeIfAbsent(playerUUID, key -> new PlayerTriggers<>());
+
+            Resync<C> running = player.running;
+            if (running != null && cause == GenericSyncCauses.TIMER && running.covers(sides)) {
+                // Timed triggers don't report a change, the running resynchronization will see the same states
+                dropped.incrementAndGet();
+                return running.summary;
+            }
+
+            resync = player.pending;
+            if (resync != null) {
+                coalesced.incrementAndGet();
+            } else {
+                resync = player.pending = new Resync<>(someone);
+                schedule = running == null;
+            }
+            resync.merge(cause, someone, sides);
+        }
+
+        if (schedule) {
+            scheduleStart(playerUUID);
+        }
+        return resync.summary;
+    }
+
+    private void scheduleStart(UUID playerUUID) {
+        discordSRV.scheduler().runLater("Coalesced " + module.syncName(), () -> start(playerUUID), WINDOW);
+    }
+
+    private void start(UUID playerUUID) {
+        Resync<C> resync;
+        synchronized (players) {
+            PlayerTriggers<C> player = players.get(playerUUID);
+            if (player == null || player.pending == null) {
+                return;
+            }
+
+            resync = player.pending;
+            player.pending = null;
+            player.running = resync;
+        }
+        executed.incrementAndGet();
+
+        ISyncCause cause = resync.causes.size() == 1 ? resync.causes.iterator().next() : new CoalescedSyncCause(resync.causes);
+        Task<SyncSummary<C>> summaryTask;
+        try {
+            summaryTask = module.resyncNow(cause, resync.someone, resync.sides);
+        } catch (Throwable t) {
+            summaryTask = Task.failed(t);
+        }
+
+        summaryTask.whenComplete((summary, t) -> {
+            if (t != null) {
+                resync.summary.completeExceptionally(t);
+            } else {
+                resync.summary.complete(summary);
+            }
+        });
+        ScheduledFuture<?> timeout = discordSRV.scheduler().runLater(
+                "Coalesced " + module.syncName() + " timeout",
+                () -> timedOut(playerUUID, resync),
+                RUNNING_TIMEOUT
+        );
+        summaryTask.then(SyncSummary::resultFuture).whenComplete((__, t) -> {
+            timeout.cancel(false);
+            finished(playerUUID, resync);
+        });
+    }
+
+    private void timedOut(UUID playerUUID, Resync<C> resync) {
+        synchronized (players) {
+            PlayerTriggers<C> player = players.get(playerUUID);
+            if (player == null || player.running != resync) {
+                return;
+            }
+        }
+
+        timedOut.incrementAndGet();
+        module.logger().debug("Resynchronization of " + playerUUID + " did not finish within " + RUNNING_TIMEOUT.toMinutes() + " minutes");
+        if (!resync.summary.isDone()) {
+            resync.summary.completeExceptionally(new TimeoutException("Resynchronization did not finish in time"));
+        }
+        finished(playerUUID, resync);
+    }
+
+    private void finished(UUID playerUUID, Resync<C> resync) {
+        boolean schedule;
+        synchronized (players) {
+            PlayerTriggers<C> player = players.get(playerUUID);
+            if (player == null || player.running != resync) {
+                return;
+            }
+
+            player.running = null;
+            schedule = player.pending != null;
+            if (!schedule) {
+                players.remove(playerUUID);
+            }
+        }
+        if (schedule) {
+            scheduleStart(playerUUID);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("triggers", triggers.get());
+        values.put("coalesced", coalesced.get());
+        values.put("droppedCoveredByRunning", dropped.get());
+        values.put("executed", executed.get());
+        values.put("timedOut", timedOut.get());
+        synchronized (players) {
+            values.put("players", players.size());
+        }
+        return values;
+    }
+
+    private static class PlayerTriggers<C extends AbstractSyncConfig<C, ?, ?>> {
+
+        private Resync<C> pending;
+        private Resync<C> running;
+    }
+
+    private static class Resync<C extends AbstractSyncConfig<C, ?, ?>> {
+
+        // Guarded by players until started
+        private Someone.Resolved someone;
+        private final Map<C, SyncSide> sides = new LinkedHashMap<>();
+        private final Set<ISyncCause> causes = new LinkedHashSet<>();
+        private final Task<SyncSummary<C>> summary = new Task<>();
+
+        private Resync(Someone.Resolved someone) {
+            this.someone = someone;
+        }
+
+        private void merge(ISyncCause cause, Someone.Resolved someone, Map<C, SyncSide> sides) {
+            // The player may have been linked to another account since the first trigger
+            this.someone = someone;
+            causes.add(cause);
+            for (Map.Entry<C, SyncSide> entry : sides.entrySet()) {
+                if (cause == GenericSyncCauses.TIMER) {
+                    // Keep the side from a trigger that reported a change
+                    this.sides.putIfAbsent(entry.getKey(), entry.getValue());
+                } else {
+                    this.sides.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private boolean covers(Map<C, SyncSide> sides) {
+            for (Map.Entry<C, SyncSide> entry : sides.entrySet()) {
+                if (this.sides.get(entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static class CoalescedSyncCause implements ISyncCause {
+
+        private final List<ISyncCause> causes;
+
+        private CoalescedSyncCause(Collection<ISyncCause> causes) {
+            this.causes = new ArrayList<>(causes);
+        }
+
+        public List<ISyncCause> causes() {
+            return causes;
+        }
+
+        @Override
+        public String toString() {
+            return causes.stream().map(Object::toString).collect(Collectors.joining(", "));
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.player.IPlayer;
+import com.discordsrv.common.abstraction.sync.cause.GenericSyncCauses;
+import com.discordsrv.common.config.main.TimedSyncConfig;
+import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
+import com.discordsrv.common.core.debug.LatencyHistogram;
+import com.discordsrv.common.core.scheduler.TaskPriority;
+import com.discordsrv.common.feature.linking.AccountLink;
+import com.discordsrv.common.feature.linking.LinkProvider;
+import com.discordsrv.common.helper.Someone;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timed resynchronization for an {@link AbstractSyncModule}.
+ * <p>
+ * Instead of resynchronizing every online player when a cycle starts, each player gets a start time spread across the cycle
+ * based on their {@link UUID}, and resynchronizations are started at no more than {@link TimedSyncConfig#maximumPerSecond}.
+ * Players whose inputs haven't changed since they were last synchronized successfully are skipped for a limited amount of cycles.
+ */
+class TimedResyncEngine<C extends AbstractSyncConfig<C, ?, ?>> {
+
+    static final Duration TICK = Duration.ofSeconds(1);
+
+    // Players are spread across this part of the cycle, leaving the rest of the cycle for catching up
+    private static final double SPREAD = 0.8D;
+
+    // How long a bulk lane thread waits for a resync, so that one that never finishes can't hold the lane forever
+    private static final Duration RESYNC_WAIT = Duration.ofMinutes(1);
+
+    private final AbstractSyncModule<?, C, ?, ?, ?> module;
+    private final DiscordSRV discordSRV;
+    private final Map<UUID, PlayerState<C>> playerStates = new ConcurrentHashMap<>();
+
+    // Guarded by pending
+    private final PriorityQueue<PendingResync<C>> pending = new PriorityQueue<>();
+    private final Map<Set<C>, Set<UUID>> pendingPlayers = new IdentityHashMap<>();
+    private double tokens;
+    private long lastRefill;
+
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final LatencyHistogram startDelay = new LatencyHistogram();
+
+    TimedResyncEngine(AbstractSyncModule<?, C, ?, ?, ?> module, DiscordSRV discordSRV) {
+        this.module = module;
+        this.discordSRV = discordSRV;
+    }
+
+    /**
+     * Forgets everything about previous synchronizations, for when the synchronizables have changed.
+     */
+    public void reset() {
+        synchronized (pending) {
+            pending.clear();
+            pendingPlayers.clear();
+        }
+        playerStates.clear();
+    }
+
+    /**
+     * Starts a new cycle for the given synchronizables, which all have the same cycle time.
+     * @param configs the synchronizables
+     * @param interval the time between cycles
+     */
+    public void startCycle(Set<C> configs, Duration interval) {
+        cycles.incrementAndGet();
+
+        Set<UUID> playerUUIDs = new LinkedHashSet<>();
+        for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
+            playerUUIDs.add(player.uniqueId());
+        }
+        playerStates.keySet().retainAll(playerUUIDs);
+        if (playerUUIDs.isEmpty()) {
+            return;
+        }
+
+        int behind;
+        synchronized (pending) {
+            Set<UUID> stillPending = pendingPlayers.get(configs);
+            behind = stillPending != null ? stillPending.size() : 0;
+        }
+        if (behind > 0) {
+            module.logger().warning(
+                    "Timed " + module.syncName() + " is behind schedule, " + behind + " players from the previous cycle haven't been synchronized yet."
+                            + " Consider increasing the maximum-per-second in the timed-sync config section");
+        }
+
+        // Look up all the links at once instead of once per player
+        LinkProvider linkProvider = discordSRV.linkProvider();
+        Task<Map<UUID, AccountLink>> linksTask = linkProvider != null
+                ? linkProvider.get(playerUUIDs)
+                : Task.completed(Collections.emptyMap());
+
+        long cycleStart = System.nanoTime();
+        long spreadNanos = Math.max(1, (long) (interval.toNanos() * SPREAD));
+        linksTask.whenComplete((links, t) -> {
+            if (t != null) {
+                module.logger().error("Failed to look up linked accounts for timed resync", t);
+                return;
+            }
+
+            synchronized (pending) {
+                Set<UUID> groupPending = pendingPlayers.computeIfAbsent(configs, key -> new HashSet<>());
+                for (UUID playerUUID : playerUUIDs) {
+                    if (!groupPending.add(playerUUID)) {
+                        // Still waiting from the previous cycle
+                        continue;
+                    }
+
+                    AccountLink link = links.get(playerUUID);
+                    Someone someone = link != null ? Someone.of(discordSRV, link) : Someone.of(discordSRV, playerUUID);
+                    long dueAt = cycleStart + Math.floorMod(spread(playerUUID), spreadNanos);
+                    pending.add(new PendingResync<>(configs, playerUUID, someone, dueAt, interval.toNanos()));
+                }
+            }
+        });
+    }
+
+    private static long spread(UUID playerUUID) {
+        long hash = playerUUID.getMostSignificantBits() * 31 + playerUUID.getLeastSignificantBits();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Starts the resynchronizations that are due, as long as the budget allows it.
+     */
+    public void tick() {
+        TimedSyncConfig config = discordSRV.config().timedSync;
+        int perSecond = Math.max(1, config.maximumPerSecond);
+
+        List<PendingResync<C>> toStart = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (pending) {
+            tokens = Math.min(perSecond, tokens + (now - lastRefill) / (double) TimeUnit.SECONDS.toNanos(1) * perSecond);
+            lastRefill = now;
+
+            while (!pending.isEmpty()) {
+                PendingResync<C> next = pending.peek();
+                if (next.dueAt - now > 0) {
+                    break;
+                }
+
+                if (!isUnchanged(next, now, config.skipUnchangedCycles)) {
+                    int cost = next.configs.size();
+                    if (tokens < Math.min(cost, perSecond)) {
+                        break;
+                    }
+                    tokens -= cost;
+                    toStart.add(next);
+                } else {
+                    skipped.incrementAndGet();
+                }
+
+                pending.poll();
+                Set<UUID> groupPending = pendingPlayers.get(next.configs);
+                if (groupPending != null) {
+                    groupPending.remove(next.playerUUID);
+                }
+            }
+        }
+
+        for (PendingResync<C> resync : toStart) {
+            startDelay.recordNanos(now - resync.dueAt);
+            started.incrementAndGet();
+            discordSRV.scheduler().run(TaskPriority.BULK, "Timed " + module.syncName(), () -> {
+                // Wait for the results, so that the bulk lane's concurrency limits how many players are synchronized at once
+                try {
+                    module.resync(GenericSyncCauses.TIMER, resync.someone, syncConfig -> syncConfig.timer.side, resync.configs)
+                            .then(SyncSummary::resultFuture)
+                            .get(RESYNC_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ignored) {
+                    // Logged with the summary
+                } catch (TimeoutException e) {
+                    module.logger().debug("Timed " + module.syncName() + " for " + resync.playerUUID
+                                                  + " took longer than " + RESYNC_WAIT.toSeconds() + " seconds, no longer waiting for it");
+                }
+            });
+        }
+    }
+
+    private boolean isUnchanged(PendingResync<C> resync, long now, int skipUnchangedCycles) {
+        if (skipUnchangedCycles <= 0) {
+            return false;
+        }
+
+        PlayerState<C> state = playerStates.get(resync.playerUUID);
+        if (state == null) {
+            return false;
+        }
+
+        long maximumAge = resync.intervalNanos * skipUnchangedCycles + resync.intervalNanos / 2;
+        for (C config : resync.configs) {
+            Long syncedAt = state.syncedAt.get(config);
+            if (syncedAt == null || syncedAt - state.changedAt <= 0 || now - syncedAt > maximumAge) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful synchronization.
+     * @param playerUUID the player that was synchronized
+     * @param config the synchronizable
+     * @param startedAt the {@link System#nanoTime()} the synchronization started at, before anything was looked up
+     */
+    public void synced(UUID playerUUID, C config, long startedAt) {
+        PlayerState<C> state = playerStates.computeIfAbsent(playerUUID, key -> new PlayerState<>(startedAt - 1));
+        state.syncedAt.merge(config, startedAt, (current, updated) -> updated - current > 0 ? updated : current);
+    }
+
+    /**
+     * Records that something that is synchronized changed for the given player, so they will not be skipped in the next cycle.
+     * @param playerUUID the player
+     */
+    public void inputChanged(UUID playerUUID) {
+        long now = System.nanoTime();
+        playerStates.computeIfAbsent(playerUUID, key -> new PlayerState<>(now)).changedAt = now;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("cycles", cycles.get());
+        values.put("started", started.get());
+        values.put("skippedUnchanged", skipped.get());
+
+        long now = System.nanoTime();
+        synchronized (pending) {
+            values.put("waiting", pending.size());
+            PendingResync<C> oldest = pending.peek();
+            long behind = oldest != null ? now - oldest.dueAt : 0;
+            values.put("behindScheduleMillis", Math.max(0, TimeUnit.NANOSECONDS.toMillis(behind)));
+        }
+        values.put("startDelay", startDelay.summary());
+        return values;
+    }
+
+    private static class PlayerState<C> {
+
+        private final Map<C, Long> syncedAt = new ConcurrentHashMap<>();
+        private volatile long changedAt;
+
+        private PlayerState(long changedAt) {
+            this.changedAt = changedAt;
+        }
+    }
+
+    private static class PendingResync<C> implements Comparable<PendingResync<C>> {
+
+        private final Set<C> configs;
+        private final UUID playerUUID;
+        private final Someone someone;
+        private final long dueAt;
+        private final long intervalNanos;
+
+        private PendingResync(Set<C> configs, UUID playerUUID, Someone someone, long dueAt, long intervalNanos) {
+            this.configs = configs;
+            this.playerUUID = playerUUID;
+            this.someone = someone;
+            this.dueAt = dueAt;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public int compareTo(@NotNull PendingResync<C> other) {
+            return Long.compare(dueAt - other.dueAt, 0);
+        }
+    }
+}
@@ -31,6 +31,7 @@ public enum GenericSyncResults implements ISyncResult {
     BOTH_FALSE("Both false"),
     WRONG_DIRECTION("Wrong direction"),
     SIDE_DISABLED("Disabled"),
+    UNCHANGED_SINCE_CHECKPOINT("Unchanged since last synchronized"),
 
     // Fail
     NOT_LINKED("Accounts not linked"),
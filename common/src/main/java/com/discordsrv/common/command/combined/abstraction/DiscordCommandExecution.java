@@ -24,6 +24,7 @@ import com.discordsrv.api.events.discord.interaction.AbstractInteractionEvent;
 import com.discordsrv.api.events.discord.interaction.command.DiscordChatInputInteractionEvent;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.config.messages.MessagesConfig;
+import com.discordsrv.common.core.scheduler.TaskPriority;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
 import net.dv8tion.jda.api.interactions.InteractionHook;
 import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
@@ -152,7 +153,7 @@ public class DiscordCommandExecution implements CommandExecution {
     public void runAsync(Runnable runnable) {
         replyCallback.deferReply(isEphemeral.get()).queue(ih -> {
             hook.set(ih);
-            discordSRV.scheduler().run(runnable);
+            discordSRV.scheduler().run(TaskPriority.INTERACTIVE, "Discord command", runnable);
         });
     }
 }
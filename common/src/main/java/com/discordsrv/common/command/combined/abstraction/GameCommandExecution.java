@@ -24,6 +24,7 @@ import com.discordsrv.common.command.game.abstraction.command.GameCommand;
 import com.discordsrv.common.command.game.abstraction.command.GameCommandArguments;
 import com.discordsrv.common.command.game.abstraction.sender.ICommandSender;
 import com.discordsrv.common.config.messages.MessagesConfig;
+import com.discordsrv.common.core.scheduler.TaskPriority;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TextReplacementConfig;
@@ -112,7 +113,7 @@ public class GameCommandExecution implements CommandExecution {
 
     @Override
     public void runAsync(Runnable runnable) {
-        discordSRV.scheduler().run(runnable);
+        discordSRV.scheduler().run(TaskPriority.INTERACTIVE, "Game command", runnable);
     }
 
     public ICommandSender getSender() {
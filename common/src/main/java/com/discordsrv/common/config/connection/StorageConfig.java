@@ -34,7 +34,8 @@ public class StorageConfig {
             
             - H2
             - MySQL
-            - MariaDB""")
+            - MariaDB
+            - File (a single file with all data kept in memory, doesn't need a database driver)""")
     public StorageType backend = StorageType.H2;
 
     @Comment("SQL table prefix")
@@ -43,11 +44,34 @@ public class StorageConfig {
     @Comment("Connection options for remote databases (MySQL, MariaDB)")
     public Remote remote = new Remote();
 
+    @Comment("Options for the H2 database")
+    public H2 h2 = new H2();
+
+    @Comment("Options for the File storage backend")
+    public File file = new File();
+
+    @Comment("Options for the threads that run storage operations")
+    public Executor executor = new Executor();
+
     @Comment("Extra connection properties for database drivers")
     public Map<String, String> driverProperties = new LinkedHashMap<>() {{
         put("useSSL", "false");
     }};
 
+    /**
+     * The amount of storage operations that can usefully run at the same time for the given backend.
+     * @param type the storage backend
+     * @return the amount of operations
+     */
+    public int maximumConcurrency(StorageType type) {
+        if (type.hikari()) {
+            return remote.poolOptions.maximumPoolSize;
+        } else if (type == StorageType.H2) {
+            return h2.maximumPoolSize;
+        }
+        return Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
     public Properties getDriverProperties() {
         Properties properties = new Properties();
         for (Map.Entry<String, String> property : driverProperties.entrySet()) {
@@ -83,6 +107,53 @@ public class StorageConfig {
         @Comment("Connection pool options. Don't touch these unless you know what you're doing")
         public Pool poolOptions = new Pool();
 
+        @Comment("""
+                How often to check for accounts linked or unlinked by other servers using the same database, in seconds.
+                Only the cached links of the affected players and users are updated. Use 0 to disable""")
+        public int linkChangesPollSeconds = 5;
+
+    }
+
+    public static class H2 {
+
+        @Comment("""
+                The maximum number of connections to keep to the database file.
+                More connections allow more queries to run at the same time""")
+        public int maximumPoolSize = 4;
+
+        @Comment("""
+                How many prepared statements to keep open on each connection, so repeated queries aren't parsed again.
+                Use 0 to disable""")
+        public int statementCacheSize = 64;
+
+        @Comment("""
+                How long to wait for a connection to become available before failing.
+                The time is specified in milliseconds""")
+        public long connectionTimeout = 30000;
+
+    }
+
+    public static class Executor {
+
+        @Comment("""
+                The maximum amount of storage operations waiting for their turn to run.
+                Operations beyond this fail right away instead of piling up while the database is slow""")
+        public int queueSize = 1000;
+
+        @Comment("""
+                If storage operations should run on virtual threads instead of a fixed set of threads.
+                The amount of operations running at the same time is still limited to the connection pool size""")
+        public boolean virtualThreads = false;
+
+    }
+
+    public static class File {
+
+        @Comment("""
+                The storage backend to copy existing data from, when the File storage backend is used for the first time.
+                H2 is only imported from if a H2 database exists. Use Memory to not import anything""")
+        public StorageType importFrom = StorageType.H2;
+
     }
 
     public static class Pool {
@@ -0,0 +1,68 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.config.main;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigSerializable
+public class DiscordRequestsConfig {
+
+    public static final String DEFAULT_BUDGET = "default";
+
+    @Comment("""
+            The maximum amount of role changes (including online roles), bans and timeouts being sent to Discord at the same time
+            Chat messages and command replies are always sent right away""")
+    public int maximumConcurrentModeration = 4;
+
+    @Comment("The maximum amount of channel name and nickname changes being sent to Discord at the same time")
+    public int maximumConcurrentCosmetic = 2;
+
+    @Comment("""
+            Channel name and nickname changes are held back while at least this many chat messages and command replies are waiting on Discord
+            Use 0 to never hold them back""")
+    public int cosmeticPauseThreshold = 5;
+
+    @Comment("""
+            The maximum amount of channel name and nickname changes waiting to be sent
+            When there are more, the oldest waiting changes are dropped""")
+    public int maximumQueuedCosmetic = 200;
+
+    @Comment("""
+            The maximum amount of role changes, bans, timeouts, channel name and nickname changes each feature may send per minute
+            The features are: group-sync, linked-role, ban-sync, mute-sync, online-role, nickname-sync and channel-updater
+            Features not listed here use the "default" budget. Use 0 for no limit""")
+    public Map<String, Integer> requestsPerMinute = new LinkedHashMap<>() {{
+        put(DEFAULT_BUDGET, 120);
+        put("channel-updater", 10);
+        put("nickname-sync", 60);
+        put("online-role", 60);
+    }};
+
+    public int requestsPerMinute(String source) {
+        Integer budget = requestsPerMinute.get(source);
+        if (budget == null) {
+            budget = requestsPerMinute.get(DEFAULT_BUDGET);
+        }
+        return budget != null ? budget : 0;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.config.main;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class ExecutorConfig {
+
+    @Comment("""
+            If DiscordSRV's background tasks should run on virtual threads instead of a small pool of threads
+            Helps when many tasks are waiting on the database or web requests at the same time, which would otherwise delay all other tasks
+            Timers and the Discord connection always use regular threads""")
+    public boolean virtualThreads = false;
+
+    @Comment("""
+            The maximum amount of background tasks running on virtual threads at the same time, additional tasks wait for their turn
+            Virtual threads share a pool of threads the size of the amount of CPU cores, which is set by the JVM. Use 0 for no limit""")
+    public int maximumConcurrentTasks = 256;
+
+    @Comment("""
+            The maximum amount of large background jobs, like timed synchronization and channel updates, running at the same time
+            Other tasks, like command replies, are started before waiting background jobs""")
+    public int maximumConcurrentBulkTasks = 2;
+
+    @Comment("""
+            If the code that starts each background task should be recorded, to show what tasks are taking up time in debug reports
+            Has a small cost for every task, enable this while looking into performance issues""")
+    public boolean trackTaskSubmissions = false;
+
+}
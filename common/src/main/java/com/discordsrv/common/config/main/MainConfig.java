@@ -254,6 +254,18 @@ public abstract class MainConfig implements Config {
     @Comment("These options are for fine-tuning, only touch them if you know what you're doing")
     public MemberCachingConfig memberCaching = new MemberCachingConfig();
 
+    @Order(6002)
+    @Comment("These options are for fine-tuning, only touch them if you know what you're doing")
+    public ExecutorConfig executor = new ExecutorConfig();
+
+    @Order(6003)
+    @Comment("These options are for fine-tuning, only touch them if you know what you're doing")
+    public TimedSyncConfig timedSync = new TimedSyncConfig();
+
+    @Order(6004)
+    @Comment("These options are for fine-tuning, only touch them if you know what you're doing")
+    public DiscordRequestsConfig discordRequests = new DiscordRequestsConfig();
+
     @Order(100_000)
     @Comment("Options for diagnosing DiscordSRV, you do not need to touch these options during normal operation")
     public DebugConfig debug = new DebugConfig();
@@ -0,0 +1,38 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.config.main;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class TimedSyncConfig {
+
+    @Comment("""
+            The maximum amount of timed synchronizations started per second, for each type of synchronization (for example group sync)
+            Every synchronizable of a player (for example a group and role pair) counts as one""")
+    public int maximumPerSecond = 10;
+
+    @Comment("""
+            Players whose groups, roles etc. haven't changed since they were last synchronized are skipped by timed synchronization,
+            for up to this many cycles. Changes are only noticed through events, while timed synchronization is there to catch changes that events missed
+            Use 0 to always synchronize everyone""")
+    public int skipUnchangedCycles = 0;
+
+}
@@ -42,6 +42,19 @@ public class LinkedAccountConfig {
     @Constants.Comment({ConnectionConfig.FILE_NAME, MinecraftAuthenticationLinker.DOMAIN, "storage"})
     public Provider provider = Provider.AUTO;
 
+    @Comment("""
+            Should all linked accounts be loaded into memory when using "storage" as the provider
+            Looking up linked accounts will then never wait on storage, at the cost of about 60 bytes of memory per linked account
+            Recommended for up to a few million linked accounts. With MySQL or MariaDB this requires storage.remote.link-changes-poll-seconds in the connection config,
+            since links made by other servers sharing the database would not be known about otherwise""")
+    public boolean loadAllIntoMemory = false;
+
+    @Comment("""
+            Should players and Discord users that are not linked be recognized without looking them up in storage, when using "storage" as the provider
+            Uses a few bytes of memory per linked account. With MySQL or MariaDB this is only used if storage.remote.link-changes-poll-seconds in the connection config is enabled,
+            since links made by other servers sharing the database would not be known about otherwise""")
+    public boolean filterUnlinkedLookups = true;
+
     public enum Provider {
         AUTO,
         MINECRAFTAUTH,
@@ -108,7 +108,7 @@ public class ComponentFactory implements MinecraftComponentFactory {
                     // Avoid recursion, use plain text serializer without special flattener
                     // PlainTextComponentSerializer will also use TranslatableComponent#fallback or #key if something wasn't translated above
                     String plain = PlainTextComponentSerializer.plainText().serialize(translated);
-                    logger.trace("\"" + translatableComponent.key() + "\" (" + translatableComponent.arguments().size() + " arguments) translated to \"" + plain + "\"");
+                    logger.trace(() -> "\"" + translatableComponent.key() + "\" (" + translatableComponent.arguments().size() + " arguments) translated to \"" + plain + "\"");
                     return plain;
                 })
                 .build();
@@ -377,7 +377,7 @@ public class ComponentFactory implements MinecraftComponentFactory {
                     return null;
                 }
 
-                logger.trace("\"" + component.key() + "\" translated by " + translator.getClass().getName());
+                logger.trace(() -> "\"" + component.key() + "\" translated by " + translator.getClass().getName());
                 return translation;
             }
             return null;
@@ -388,7 +388,7 @@ public class ComponentFactory implements MinecraftComponentFactory {
             for (Translator translator : translators) {
                 MessageFormat translation = translator.translate(key, locale);
                 if (translation != null) {
-                    logger.trace("\"" + key + "\" translated to \"" + translation.toPattern() + "\" by " + translator.getClass().getName());
+                    logger.trace(() -> "\"" + key + "\" translated to \"" + translation.toPattern() + "\" by " + translator.getClass().getName());
                     return translation;
                 }
             }
@@ -31,6 +31,11 @@ import com.discordsrv.common.core.debug.file.DebugFile;
 import com.discordsrv.common.core.debug.file.KeyValueDebugFile;
 import com.discordsrv.common.core.debug.file.TextDebugFile;
 import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.scheduler.StandardScheduler;
+import com.discordsrv.common.core.scheduler.executor.VirtualThreadExecutor;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.feature.linking.LinkProvider;
+import com.discordsrv.common.feature.linking.impl.StorageLinker;
 import com.discordsrv.common.util.function.CheckedSupplier;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -73,7 +78,21 @@ public class DebugReport {
 
         addFile("environment.json", 100, this::environment);
         addFile("plugins.json", 90, this::plugins);
-        for (Path debugLog : discordSRV.logger().getDebugLogs()) {
+        List<Path> debugLogs = discordSRV.logger().getDebugLogs();
+        for (int i = 0; i < debugLogs.size(); i++) {
+            Path debugLog = debugLogs.get(i);
+            if (i == 0) {
+                // The current log is still being written to, use the lines kept in memory
+                List<String> recentLines = discordSRV.logger().getRecentDebugLines();
+                long omittedLines = discordSRV.logger().getOmittedDebugLineCount();
+                String content = String.join("\n", recentLines);
+                if (omittedLines > 0) {
+                    content = "[Truncated: only the last " + recentLines.size() + " lines are included, "
+                            + omittedLines + " earlier lines are in " + debugLog.getFileName() + "]\n" + content;
+                }
+                addFile(new TextDebugFile(content).withName(debugLog.getFileName().toString(), 80));
+                continue;
+            }
             addFile(readFile(80, debugLog, null));
         }
         addFile(config(71, discordSRV.configManager(), null));
@@ -91,6 +110,10 @@ public class DebugReport {
         }
 
         addFile("connections.json", 40, this::activeLimitedConnectionsConfig);
+        addFile("storage.json", 35, this::storage);
+        addFile("scheduler.json", 33, this::scheduler);
+        addFile("discord-requests.json", 32, this::discordRequests);
+        addFile("flight-recorder.txt", 30, discordSRV.flightRecorder()::toDebugFile);
 
         addFile("thread-info.txt", -100, this::threadInfo);
         addFile("thread-dumps.txt", -110, this::threadStacks);
@@ -215,7 +238,11 @@ public class DebugReport {
         List<ThreadPoolExecutor> executors = new ArrayList<>();
 
         ExecutorService executorService = scheduler.executorService();
-        if (executorService instanceof ThreadPoolExecutor) {
+        VirtualThreadExecutor virtualThreadExecutor = null;
+        if (scheduler instanceof StandardScheduler) {
+            executors.add(((StandardScheduler) scheduler).platformExecutor());
+            virtualThreadExecutor = ((StandardScheduler) scheduler).virtualThreadExecutor();
+        } else if (executorService instanceof ThreadPoolExecutor) {
             executors.add((ThreadPoolExecutor) executorService);
         }
         ScheduledExecutorService scheduledExecutorService = scheduler.scheduledExecutorService();
@@ -235,6 +262,14 @@ public class DebugReport {
                     .append("\n");
         }
 
+        if (virtualThreadExecutor != null) {
+            builder.append(virtualThreadExecutor.getClass().getName()).append(":\n");
+            for (Map.Entry<String, Object> entry : virtualThreadExecutor.metrics().entrySet()) {
+                builder.append("- ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+            }
+            builder.append("\n");
+        }
+
         ForkJoinPool forkJoinPool = scheduler.forkJoinPool();
         builder.append(forkJoinPool.getClass().getName()).append(":\n")
                 .append("- Thread Pool: ").append("\n")
@@ -313,6 +348,45 @@ public class DebugReport {
         return readFile(order, manager.filePath(), overwriteFileName);
     }
 
+    private DebugFile storage() {
+        Storage storage = discordSRV.storage();
+        if (storage == null) {
+            return null;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("type", storage.getClass().getName());
+        values.putAll(storage.getMetrics());
+        values.putAll(discordSRV.storageExecutor().metrics());
+
+        LinkProvider linkProvider = discordSRV.linkProvider();
+        if (linkProvider instanceof StorageLinker) {
+            Map<String, Object> inMemoryMetrics = ((StorageLinker) linkProvider).inMemoryMetrics();
+            if (inMemoryMetrics != null) {
+                values.put("linksInMemory", inMemoryMetrics);
+            }
+        }
+        return new KeyValueDebugFile(values, true);
+    }
+
+    private DebugFile scheduler() {
+        Scheduler scheduler = discordSRV.scheduler();
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("type", scheduler.getClass().getName());
+        if (scheduler instanceof StandardScheduler) {
+            values.put("executors", ((StandardScheduler) scheduler).executorMetrics());
+        }
+        values.putAll(scheduler.metrics().summary());
+        return new KeyValueDebugFile(values, true);
+    }
+
+    private DebugFile discordRequests() {
+        Map<String, Object> values = new LinkedHashMap<>(discordSRV.discordAPI().requestScheduler().metrics());
+        values.put("retrievals", discordSRV.discordAPI().entityRetriever().metrics());
+        return new KeyValueDebugFile(values, true);
+    }
+
     private DebugFile activeLimitedConnectionsConfig() {
         ConnectionConfig config = discordSRV.connectionConfig();
         StorageConfig.Pool poolConfig = config.storage.remote.poolOptions;
@@ -327,6 +401,8 @@ public class DebugReport {
         values.put("storage.remote.pool-options.maximum-lifetime", poolConfig.maximumLifetime);
         values.put("storage.remote.pool-options.maximum-pool-size", poolConfig.maximumPoolSize);
         values.put("storage.remote.pool-options.minimum-pool-size", poolConfig.minimumPoolSize);
+        values.put("storage.h2.maximum-pool-size", config.storage.h2.maximumPoolSize);
+        values.put("storage.h2.connection-timeout", config.storage.h2.connectionTimeout);
 
         values.put("update.notification-enabled", config.update.notificationEnabled);
         values.put("update.notification-in-game", config.update.notificationInGame);
@@ -0,0 +1,225 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.debug;
+
+import com.discordsrv.common.core.debug.file.DebugFile;
+import com.discordsrv.common.core.debug.file.TextDebugFile;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An always-on, fixed size in-memory ring of recent events, included in debug reports.
+ * Recording only stores references, formatting happens when the ring is read.
+ */
+public class FlightRecorder {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public FlightRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FlightRecorder(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * The total amount of entries that have been recorded, including ones that have been overwritten.
+     * @return the amount of recorded entries
+     */
+    public long recorded() {
+        return cursor.get();
+    }
+
+    public void record(@NotNull Type type, @Nullable String name, @Nullable Object source, @Nullable Object detail) {
+        record(type, name, source, detail, -1, null);
+    }
+
+    public void record(@NotNull Type type, @Nullable String name, @Nullable Object source, @Nullable Object detail, long durationMillis) {
+        record(type, name, source, detail, durationMillis, null);
+    }
+
+    public void record(
+            @NotNull Type type,
+            @Nullable String name,
+            @Nullable Object source,
+            @Nullable Object detail,
+            long durationMillis,
+            @Nullable Throwable throwable
+    ) {
+        Entry entry = new Entry(System.currentTimeMillis(), Thread.currentThread().getName(), type, name, source, detail, durationMillis, throwable);
+        long index = cursor.getAndIncrement();
+        entries.set((int) (index & mask), entry);
+    }
+
+    /**
+     * Gets the entries currently in the ring.
+     * @return the entries, oldest first
+     */
+    public List<Entry> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - entries.length());
+
+        List<Entry> snapshot = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            Entry entry = entries.get((int) (i & mask));
+            if (entry != null) {
+                snapshot.add(entry);
+            }
+        }
+
+        // Entries may have been overwritten by newer ones while reading
+        snapshot.sort((one, two) -> Long.compare(one.time(), two.time()));
+        return snapshot;
+    }
+
+    public DebugFile toDebugFile() {
+        List<Entry> snapshot = snapshot();
+
+        StringBuilder builder = new StringBuilder(snapshot.size() * 100);
+        builder.append("Flight recorder (").append(snapshot.size()).append(" of ").append(recorded())
+                .append(" recorded entries, capacity ").append(capacity()).append(")\n\n");
+        for (Entry entry : snapshot) {
+            entry.appendTo(builder);
+            builder.append('\n');
+        }
+        return new TextDebugFile(builder);
+    }
+
+    public enum Type {
+        LOG,
+        EVENT,
+        REST,
+        SYNC
+    }
+
+    public static class Entry {
+
+        private final long time;
+        private final String thread;
+        private final Type type;
+        private final String name;
+        private final Object source;
+        private final Object detail;
+        private final long durationMillis;
+        private final Throwable throwable;
+
+        public Entry(
+                long time,
+                String thread,
+                Type type,
+                String name,
+                Object source,
+                Object detail,
+                long durationMillis,
+                Throwable throwable
+        ) {
+            this.time = time;
+            this.thread = thread;
+            this.type = type;
+            this.name = name;
+            this.source = source;
+            this.detail = detail;
+            this.durationMillis = durationMillis;
+            this.throwable = throwable;
+        }
+
+        public long time() {
+            return time;
+        }
+
+        public String thread() {
+            return thread;
+        }
+
+        public Type type() {
+            return type;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Object source() {
+            return source;
+        }
+
+        public Object detail() {
+            return detail;
+        }
+
+        public long durationMillis() {
+            return durationMillis;
+        }
+
+        public Throwable throwable() {
+            return throwable;
+        }
+
+        private void appendTo(StringBuilder builder) {
+            builder.append('[').append(TIME_FORMATTER.format(Instant.ofEpochMilli(time))).append("] [")
+                    .append(thread).append("] ")
+                    .append(type.name());
+            if (name != null) {
+                builder.append(' ').append(name);
+            }
+            if (source != null) {
+                builder.append(" [").append(source instanceof Class ? ((Class<?>) source).getName() : source).append(']');
+            }
+            if (detail != null) {
+                builder.append(' ').append(detail instanceof Class ? ((Class<?>) detail).getName() : detail);
+            }
+            if (durationMillis >= 0) {
+                builder.append(" (").append(durationMillis).append("ms)");
+            }
+            if (throwable != null) {
+                builder.append('\n').append(ExceptionUtils.getStackTrace(throwable));
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            appendTo(builder);
+            return builder.toString();
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.discordsrv.api.events.Event;
 import com.discordsrv.api.events.Processable;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.debug.DebugGenerateEvent;
+import com.discordsrv.common.core.debug.FlightRecorder;
 import com.discordsrv.common.core.debug.file.TextDebugFile;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
@@ -61,9 +62,11 @@ public class EventBusImpl implements EventBus {
     private final Map<Object, List<AnnotationEventListener<?>>> listeners = new ConcurrentHashMap<>();
     private final Map<Class<?>, List<AbstractEventListener<?>>> listenersByEvent = new ConcurrentHashMap<>();
     private final Logger logger;
+    private final FlightRecorder flightRecorder;
 
     public EventBusImpl(DiscordSRV discordSRV) {
         this.logger = new NamedLogger(discordSRV, "EVENT_BUS");
+        this.flightRecorder = discordSRV.flightRecorder();
 
         // For debug generation
         subscribe(this);
@@ -306,7 +309,8 @@ public class EventBusImpl implements EventBus {
                 TestHelper.fail(e);
             }
             long timeTaken = System.currentTimeMillis() - startTime;
-            logger.trace(eventListener + " took " + timeTaken + "ms to execute");
+            flightRecorder.record(FlightRecorder.Type.EVENT, null, eventListener, event.getClass(), timeTaken);
+            logger.trace(() -> eventListener + " took " + timeTaken + "ms to execute");
 
             for (Map.Entry<State<?>, Boolean> entry : states.entrySet()) {
                 State<?> state = entry.getKey();
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.function.Supplier;
 
 public interface Logger {
 
@@ -60,6 +61,14 @@ public interface Logger {
     default void debug(String message, Throwable throwable) {
         log(null, LogLevel.DEBUG, message, throwable);
     }
+    default void debug(Supplier<String> messageSupplier) {
+        debug(messageSupplier, null);
+    }
+    default void debug(Supplier<String> messageSupplier, Throwable throwable) {
+        if (isDebugEnabled()) {
+            debug(messageSupplier.get(), throwable);
+        }
+    }
 
     default void trace(String message) {
         trace(message, null);
@@ -70,7 +79,41 @@ public interface Logger {
     default void trace(String message, Throwable throwable) {
         log(null, LogLevel.TRACE, message, throwable);
     }
-    
+    default void trace(Supplier<String> messageSupplier) {
+        trace(messageSupplier, null);
+    }
+    default void trace(Supplier<String> messageSupplier, Throwable throwable) {
+        if (isTraceEnabled()) {
+            trace(messageSupplier.get(), throwable);
+        }
+    }
+
+    default boolean isDebugEnabled() {
+        return isLoggable(null, LogLevel.DEBUG);
+    }
+    default boolean isTraceEnabled() {
+        return isLoggable(null, LogLevel.TRACE);
+    }
+
+    /**
+     * If messages at the given level would be logged for the given logger name.
+     * @param loggerName the logger name, may be {@code null}
+     * @param logLevel the level
+     * @return {@code true} if the message would not be discarded
+     */
+    default boolean isLoggable(@Nullable String loggerName, @NotNull LogLevel logLevel) {
+        return true;
+    }
+
+    /**
+     * A counter that changes whenever the result of {@link #isLoggable(String, LogLevel)} may have changed,
+     * for caching the result of level checks.
+     * @return the current levels version
+     */
+    default int levelsVersion() {
+        return 0;
+    }
+
     void log(@Nullable String loggerName, @NotNull LogLevel logLevel, @Nullable String message, @Nullable Throwable throwable);
 
     default String getStackTrace(Throwable throwable) {
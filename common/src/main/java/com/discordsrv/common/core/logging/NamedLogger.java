@@ -27,6 +27,7 @@ public class NamedLogger implements Logger {
 
     private final Logger logger;
     private final String name;
+    private volatile LevelCache levelCache;
 
     public NamedLogger(DiscordSRV discordSRV, String name) {
         this(discordSRV.logger(), name);
@@ -37,8 +38,55 @@ public class NamedLogger implements Logger {
         this.name = name;
     }
 
+    private LevelCache levelCache() {
+        int version = logger.levelsVersion();
+        LevelCache cache = levelCache;
+        if (cache == null || cache.version != version) {
+            cache = new LevelCache(
+                    version,
+                    logger.isLoggable(name, LogLevel.DEBUG),
+                    logger.isLoggable(name, LogLevel.TRACE)
+            );
+            levelCache = cache;
+        }
+        return cache;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return levelCache().debug;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return levelCache().trace;
+    }
+
+    @Override
+    public boolean isLoggable(@Nullable String loggerName, @NotNull LogLevel logLevel) {
+        return logger.isLoggable(name, logLevel);
+    }
+
+    @Override
+    public int levelsVersion() {
+        return logger.levelsVersion();
+    }
+
     @Override
     public void log(@Nullable String loggerName, @NotNull LogLevel logLevel, @Nullable String message, @Nullable Throwable throwable) {
         logger.log(name, logLevel, message, throwable);
     }
+
+    private static class LevelCache {
+
+        private final int version;
+        private final boolean debug;
+        private final boolean trace;
+
+        private LevelCache(int version, boolean debug, boolean trace) {
+            this.version = version;
+            this.debug = debug;
+            this.trace = trace;
+        }
+    }
 }
@@ -21,6 +21,7 @@ package com.discordsrv.common.core.logging.impl;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.config.main.DebugConfig;
 import com.discordsrv.common.config.main.MainConfig;
+import com.discordsrv.common.core.debug.FlightRecorder;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.exception.MessageException;
 import com.discordsrv.common.logging.LogLevel;
@@ -36,16 +37,18 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DiscordSRVLogger implements Logger {
 
@@ -53,11 +56,13 @@ public class DiscordSRVLogger implements Logger {
 
     private static final DateFormat ROTATED_DATE_TIME_FORMATTER = new SimpleDateFormat("EEE HH:mm:ss z");
     private static final DateFormat DAY_DATE_TIME_FORMATTER = new SimpleDateFormat("HH:mm:ss z");
-    private static final DateFormat DAY = new SimpleDateFormat("yyyy-MM-dd");
-    private static final String ROTATED_LOG_LINE_FORMAT = "[%s] [%s] %s";
-    private static final String DAY_LOG_LINE_FORMAT = "[%s] %s";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final String LOG_FILE_NAME_FORMAT = "%s-%s.log";
 
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(2);
+    private static final int FLUSH_QUEUE_THRESHOLD = 512;
+    private static final int RECENT_LINES_LIMIT = 5_000;
+
     private static final Set<String> DEPENDENCY_LOGGERS = new HashSet<>(DependencyLoggingHandler.LOGGER_MAPPINGS.values());
 
     private final DiscordSRV discordSRV;
@@ -68,8 +73,21 @@ public class DiscordSRVLogger implements Logger {
 
     // File writing
     private final Queue<LogEntry> linesToWrite = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedLines = new AtomicInteger();
     private final Object lineProcessingLock = new Object();
     private Future<?> lineProcessingFuture;
+    private boolean lineProcessingImmediate;
+
+    private final Object writeLock = new Object();
+    private final Map<Path, LogFileWriter> writers = new HashMap<>();
+    private final Map<String, Path> currentDayLogs = new ConcurrentHashMap<>();
+    private final Queue<Path> logsToClose = new ConcurrentLinkedQueue<>();
+    private final Deque<String> recentLines = new ArrayDeque<>(RECENT_LINES_LIMIT);
+    private long omittedRecentLines;
+
+    // Levels
+    private volatile Map<String, Set<String>> additionalLevels = Collections.emptyMap();
+    private final AtomicInteger levelsVersion = new AtomicInteger();
 
     public DiscordSRVLogger(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -86,17 +104,93 @@ public class DiscordSRVLogger implements Logger {
     }
 
     public void shutdown() {
-        lineProcessingFuture.cancel(false);
-        flushLines();
+        synchronized (lineProcessingLock) {
+            if (lineProcessingFuture != null) {
+                lineProcessingFuture.cancel(false);
+            }
+        }
+
+        synchronized (writeLock) {
+            flushLines();
+            for (LogFileWriter writer : writers.values()) {
+                closeWriter(writer);
+            }
+            writers.clear();
+        }
+    }
+
+    /**
+     * Re-reads the additional log levels from the debug config, invalidating cached level checks.
+     */
+    public void reloadLevels() {
+        MainConfig config = discordSRV.config();
+        DebugConfig debugConfig = config != null ? config.debug : null;
+
+        Map<String, Set<String>> levels = new HashMap<>();
+        if (debugConfig != null && debugConfig.additionalLevels != null) {
+            for (Map.Entry<String, List<String>> entry : debugConfig.additionalLevels.entrySet()) {
+                levels.put(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+        }
+
+        this.additionalLevels = levels;
+        levelsVersion.incrementAndGet();
+    }
+
+    @Override
+    public boolean isLoggable(@Nullable String loggerName, @NotNull LogLevel logLevel) {
+        if (logLevel != LogLevel.TRACE && (logLevel != LogLevel.DEBUG || !DEPENDENCY_LOGGERS.contains(loggerName))) {
+            return true;
+        }
+        if (loggerName == null) {
+            return false;
+        }
+
+        Set<String> levels = additionalLevels.get(loggerName);
+        return levels != null && levels.contains(logLevel.name());
+    }
+
+    @Override
+    public int levelsVersion() {
+        return levelsVersion.get();
     }
 
     public List<Path> getDebugLogs() {
         return debugLogs;
     }
 
+    /**
+     * Gets the most recent lines written to the current debug log, bounded to {@value #RECENT_LINES_LIMIT} lines.
+     * @return the recent debug log lines, oldest first
+     */
+    public List<String> getRecentDebugLines() {
+        flushLines();
+        synchronized (recentLines) {
+            return new ArrayList<>(recentLines);
+        }
+    }
+
+    /**
+     * Gets how many lines of the current debug log are no longer included in {@link #getRecentDebugLines()}.
+     * @return the amount of lines that were dropped from the recent lines
+     */
+    public long getOmittedDebugLineCount() {
+        synchronized (recentLines) {
+            return omittedRecentLines;
+        }
+    }
+
     public void writeLogForCurrentDay(String label, String message) {
-        Path log = logsDirectory.resolve(label + "_" + DAY.format(System.currentTimeMillis()) + ".log");
-        scheduleWrite(new LogEntry(log, null, System.currentTimeMillis(), null, message, null));
+        long time = System.currentTimeMillis();
+        Path log = logsDirectory.resolve(label + "_" + LocalDate.now().format(DAY) + ".log");
+
+        Path previousLog = currentDayLogs.put(label, log);
+        if (previousLog != null && !previousLog.equals(log)) {
+            // Day changed, the previous day's file can be closed once its remaining lines are written
+            logsToClose.add(previousLog);
+        }
+
+        scheduleWrite(new LogEntry(log, null, time, null, message, null));
     }
 
     @SuppressWarnings("SameParameterValue")
@@ -127,6 +221,8 @@ public class DiscordSRVLogger implements Logger {
 
     @Override
     public void log(@Nullable String loggerName, @NotNull LogLevel logLevel, @Nullable String message, @Nullable Throwable throwable) {
+        discordSRV.flightRecorder().record(FlightRecorder.Type.LOG, logLevel.name(), loggerName, message, -1, throwable);
+
         StringBuilder stringBuilder = new StringBuilder(message != null ? message : "");
 
         if (throwable != null && throwable.getMessage() != null && throwable instanceof MessageException) {
@@ -172,16 +268,12 @@ public class DiscordSRVLogger implements Logger {
         MainConfig config = discordSRV.config();
         DebugConfig debugConfig = config != null ? config.debug : null;
 
-        boolean dependencyLogger = DEPENDENCY_LOGGERS.contains(loggerName);
-        if (logLevel == LogLevel.TRACE || (loggerName != null && logLevel == LogLevel.DEBUG && dependencyLogger)) {
-            if (loggerName == null
-                    || debugConfig == null
-                    || debugConfig.additionalLevels == null
-                    || !debugConfig.additionalLevels.getOrDefault(loggerName, Collections.emptyList()).contains(logLevel.name())) {
-                return;
-            }
+        if (!isLoggable(loggerName, logLevel)) {
+            return;
         }
 
+        boolean dependencyLogger = DEPENDENCY_LOGGERS.contains(loggerName);
+
         boolean debugOrTrace = logLevel == LogLevel.DEBUG || logLevel == LogLevel.TRACE;
         boolean logToConsole = debugConfig != null && debugConfig.logToConsole;
 
@@ -211,62 +303,109 @@ public class DiscordSRVLogger implements Logger {
         }
 
         linesToWrite.add(entry);
+        boolean immediate = queuedLines.incrementAndGet() >= FLUSH_QUEUE_THRESHOLD;
         synchronized (lineProcessingLock) {
             if (lineProcessingFuture == null || lineProcessingFuture.isDone()) {
-                lineProcessingFuture = discordSRV.scheduler().runLater(this::flushLines, Duration.ofSeconds(2));
+                lineProcessingFuture = immediate
+                                       ? discordSRV.scheduler().run(this::flushLines)
+                                       : discordSRV.scheduler().runLater(this::flushLines, FLUSH_INTERVAL);
+                lineProcessingImmediate = immediate;
+            } else if (immediate && !lineProcessingImmediate && lineProcessingFuture.cancel(false)) {
+                // Enough lines queued up, don't wait for the interval
+                lineProcessingFuture = discordSRV.scheduler().run(this::flushLines);
+                lineProcessingImmediate = true;
             }
         }
     }
 
     private void flushLines() {
-        LogEntry entry;
-        while ((entry = linesToWrite.poll()) != null) {
-            writeToFile(entry.log(), entry.loggerName(), entry.time(), entry.logLevel(), entry.message(), entry.throwable());
+        synchronized (writeLock) {
+            Set<LogFileWriter> written = new LinkedHashSet<>();
+
+            LogEntry entry;
+            while ((entry = linesToWrite.poll()) != null) {
+                queuedLines.decrementAndGet();
+                LogFileWriter writer = writeToFile(entry.log(), entry.loggerName(), entry.time(), entry.logLevel(), entry.message(), entry.throwable());
+                if (writer != null) {
+                    written.add(writer);
+                }
+            }
+
+            for (LogFileWriter writer : written) {
+                try {
+                    writer.flush();
+                } catch (Throwable e) {
+                    logWriteFailure(e);
+                }
+            }
+
+            Path logToClose;
+            while ((logToClose = logsToClose.poll()) != null) {
+                LogFileWriter writer = writers.remove(logToClose);
+                if (writer != null) {
+                    closeWriter(writer);
+                }
+            }
         }
     }
 
-    private void writeToFile(Path path, String loggerName, long time, LogLevel logLevel, String message, Throwable throwable) {
+    private LogFileWriter writeToFile(Path path, String loggerName, long time, LogLevel logLevel, String message, Throwable throwable) {
         try {
-            if (message == null) {
-                message = "";
+            StringBuilder line = new StringBuilder();
+            if (logLevel == null) {
+                line.append('[').append(DAY_DATE_TIME_FORMATTER.format(time)).append("] ");
+            } else {
+                line.append('[').append(ROTATED_DATE_TIME_FORMATTER.format(time)).append("] [").append(logLevel.name()).append("] ");
             }
             if (loggerName != null) {
-                message = "[" + loggerName + "] " + message;
+                line.append('[').append(loggerName).append("] ");
             }
-
-            String line;
-            if (logLevel == null) {
-                String timestamp = DAY_DATE_TIME_FORMATTER.format(time);
-                line = String.format(DAY_LOG_LINE_FORMAT, timestamp, message) + "\n";
-            } else {
-                String timestamp = ROTATED_DATE_TIME_FORMATTER.format(time);
-                line = String.format(ROTATED_LOG_LINE_FORMAT, timestamp, logLevel.name(), message) + "\n";
+            if (message != null) {
+                line.append(message);
             }
+            line.append('\n');
 
             if (throwable != null) {
-                line += ExceptionUtils.getStackTrace(throwable) + "\n";
+                line.append(ExceptionUtils.getStackTrace(throwable)).append('\n');
             }
 
-            Path parent = path.getParent();
-            if (!Files.exists(parent)) {
-                Files.createDirectories(parent);
-            }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
+            if (logLevel != null) {
+                synchronized (recentLines) {
+                    if (recentLines.size() >= RECENT_LINES_LIMIT) {
+                        recentLines.pollFirst();
+                        omittedRecentLines++;
+                    }
+                    recentLines.addLast(line.substring(0, line.length() - 1));
+                }
             }
 
-            Files.write(path, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            LogFileWriter writer = writers.computeIfAbsent(path, LogFileWriter::new);
+            writer.write(line);
+            return writer;
         } catch (Throwable e) {
-            try {
-                // Prevent infinite loop
-                if (discordSRV.status() == DiscordSRV.Status.SHUTDOWN) {
-                    return;
-                }
-                discordSRV.platformLogger().error("Failed to write to log", e);
-            } catch (Throwable ignored) {}
+            logWriteFailure(e);
+            return null;
+        }
+    }
+
+    private void closeWriter(LogFileWriter writer) {
+        try {
+            writer.close();
+        } catch (Throwable e) {
+            logWriteFailure(e);
         }
     }
 
+    private void logWriteFailure(Throwable throwable) {
+        try {
+            // Prevent infinite loop
+            if (discordSRV.status() == DiscordSRV.Status.SHUTDOWN) {
+                return;
+            }
+            discordSRV.platformLogger().error("Failed to write to log", throwable);
+        } catch (Throwable ignored) {}
+    }
+
     private static class LogEntry {
 
         private final Path log;
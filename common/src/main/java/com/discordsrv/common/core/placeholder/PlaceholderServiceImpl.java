@@ -169,7 +169,9 @@ public class PlaceholderServiceImpl implements PlaceholderService {
 
         // Only go through this if a placeholder couldn't be looked up from lookup/global contexts
         // API users are here as to not interfere with DiscordSRV's own placeholders
-        logger.trace("Requesting " + placeholder + " (" + contexts + ") from API");
+        String requestedPlaceholder = placeholder;
+        List<Object> requestedContexts = contexts;
+        logger.trace(() -> "Requesting " + requestedPlaceholder + " (" + requestedContexts + ") from API");
         PlaceholderLookupEvent lookupEvent = new PlaceholderLookupEvent(placeholder, contexts);
         discordSRV.eventBus().publish(lookupEvent);
 
@@ -336,9 +338,11 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         for (String singlePlaceholder : placeholder.split("(?<!\\\\)\\|")) {
             singlePlaceholder = replacePlaceholders(RECURSIVE_PATTERN, singlePlaceholder, context);
 
+            String lookedUpPlaceholder = singlePlaceholder;
             PlaceholderLookupResult result = lookupPlaceholder(singlePlaceholder, context);
             while (result != null) {
-                logger.trace(singlePlaceholder + ": " + result);
+                PlaceholderLookupResult currentResult = result;
+                logger.trace(() -> lookedUpPlaceholder + ": " + currentResult);
                 PlaceholderLookupResult.Type type = result.getType();
                 if (type == PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
                     break;
@@ -363,7 +367,7 @@ public class PlaceholderServiceImpl implements PlaceholderService {
                         if (errorLogTimeout.checkAndUpdate()) {
                             logger.debug("Failed to resolve placeholder \"" + placeholder + "\"", result.getError());
                         } else {
-                            logger.trace("Failed to resolve placeholder \"" + placeholder + "\"", result.getError());
+                            logger.trace(() -> "Failed to resolve placeholder \"" + placeholder + "\"", result.getError());
                         }
                         replacement = ERROR_REPLACEMENT;
                         break;
@@ -42,4 +42,12 @@ public class DiscordProfileData {
     public Set<PlayerRewardData> getRewards() {
         return rewards;
     }
+
+    public DiscordProfileData copy() {
+        Set<PlayerRewardData> rewards = new HashSet<>();
+        for (PlayerRewardData reward : this.rewards) {
+            rewards.add(reward.copy());
+        }
+        return new DiscordProfileData(userId, rewards);
+    }
 }
@@ -41,4 +41,12 @@ public class GameProfileData {
     public Set<PlayerRewardData> getRewards() {
         return rewards;
     }
+
+    public GameProfileData copy() {
+        Set<PlayerRewardData> rewards = new HashSet<>();
+        for (PlayerRewardData reward : this.rewards) {
+            rewards.add(reward.copy());
+        }
+        return new GameProfileData(playerUUID, rewards);
+    }
 }
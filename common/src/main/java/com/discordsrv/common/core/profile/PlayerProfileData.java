@@ -0,0 +1,60 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.profile;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A player's link, game profile data and the linked user's Discord profile data, as looked up from storage together.
+ */
+public class PlayerProfileData {
+
+    private final AccountLink link;
+    private final GameProfileData gameProfile;
+    private final DiscordProfileData discordProfile;
+
+    public PlayerProfileData(
+            @Nullable AccountLink link,
+            @Nullable GameProfileData gameProfile,
+            @Nullable DiscordProfileData discordProfile
+    ) {
+        this.link = link;
+        this.gameProfile = gameProfile;
+        this.discordProfile = discordProfile;
+    }
+
+    @Nullable
+    public AccountLink getLink() {
+        return link;
+    }
+
+    @Nullable
+    public GameProfileData getGameProfile() {
+        return gameProfile;
+    }
+
+    /**
+     * @return the Discord profile data of the linked user, {@code null} if the player isn't linked or the user has no data
+     */
+    @Nullable
+    public DiscordProfileData getDiscordProfile() {
+        return discordProfile;
+    }
+}
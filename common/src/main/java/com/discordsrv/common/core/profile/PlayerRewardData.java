@@ -51,6 +51,10 @@ public class PlayerRewardData {
         this.pending = pending;
     }
 
+    public PlayerRewardData copy() {
+        return new PlayerRewardData(databaseId, id, pending);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
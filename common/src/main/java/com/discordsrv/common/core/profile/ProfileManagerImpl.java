@@ -25,13 +25,16 @@ import com.discordsrv.api.events.linking.AccountUnlinkedEvent;
 import com.discordsrv.api.profile.ProfileManager;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.events.linking.RemoteLinkChangeEvent;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.events.player.PlayerDisconnectedEvent;
 import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkProvider;
+import com.discordsrv.common.feature.linking.impl.StorageLinker;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,7 +42,10 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class ProfileManagerImpl implements ProfileManager {
 
+    private static final Duration PREFETCH_EXPIRY = Duration.ofMinutes(1);
+
     private final DiscordSRV discordSRV;
+    private final Map<UUID, Task<ProfileImpl>> prefetchedProfiles = new ConcurrentHashMap<>();
     private final Map<UUID, Task<ProfileImpl>> profileLookups = new ConcurrentHashMap<>();
     private final Map<UUID, ProfileImpl> profiles = new ConcurrentHashMap<>();
     private final Map<Long, ProfileImpl> discordUserMap = new ConcurrentHashMap<>();
@@ -51,26 +57,86 @@ public class ProfileManagerImpl implements ProfileManager {
 
     @Subscribe(priority = EventPriorities.EARLIEST)
     public void onPlayerConnected(PlayerConnectedEvent event) {
-        loadProfile(event.player().uniqueId());
+        UUID playerUUID = event.player().uniqueId();
+        Task<ProfileImpl> prefetched = prefetchedProfiles.remove(playerUUID);
+        if (prefetched != null && !prefetched.isFailed()) {
+            loadProfile(playerUUID, prefetched);
+            return;
+        }
+        loadProfile(playerUUID);
     }
 
     @Subscribe(priority = EventPriorities.LAST)
     public void onPlayerDisconnected(PlayerDisconnectedEvent event) {
-        unloadProfile(event.player().uniqueId());
+        UUID playerUUID = event.player().uniqueId();
+        prefetchedProfiles.remove(playerUUID);
+        unloadProfile(playerUUID);
     }
 
     @Subscribe(priority = EventPriorities.EARLIEST)
     public void onAccountLinked(AccountLinkedEvent event) {
+        evictPrefetchedProfiles(event.getPlayerUUID(), event.getUserId());
         loadProfile(event.getPlayerUUID());
     }
 
     @Subscribe(priority = EventPriorities.LAST)
     public void onAccountUnlinked(AccountUnlinkedEvent event) {
+        evictPrefetchedProfiles(event.getPlayerUUID(), event.getUserId());
         unloadProfile(event.getPlayerUUID());
     }
 
+    @Subscribe(priority = EventPriorities.EARLIEST)
+    public void onRemoteLinkChange(RemoteLinkChangeEvent event) {
+        evictPrefetchedProfiles(event.playerUUID(), event.userId());
+    }
+
+    private void evictPrefetchedProfiles(UUID playerUUID, long userId) {
+        // The link in these lookups may be from before the change
+        prefetchedProfiles.remove(playerUUID);
+        prefetchedProfiles.values().removeIf(lookup -> {
+            if (!lookup.isDone() || lookup.isFailed()) {
+                return false;
+            }
+            Long linkedUserId = lookup.join().userId();
+            return linkedUserId != null && linkedUserId == userId;
+        });
+    }
+
+    /**
+     * Starts loading the profile of a player that is logging in, before they have joined the server.
+     * The profile is used once the player joins, or discarded after a minute if they don't.
+     * @param playerUUID the Player UUID of the player logging in
+     * @return the profile lookup
+     */
+    public Task<ProfileImpl> prefetchProfile(@NotNull UUID playerUUID) {
+        return prefetchedProfiles.computeIfAbsent(playerUUID, key -> {
+            Task<ProfileImpl> lookup = queryProfile(key);
+            discordSRV.scheduler().runLater(() -> prefetchedProfiles.remove(key, lookup), PREFETCH_EXPIRY);
+            return lookup;
+        });
+    }
+
+    /**
+     * Gets the profile lookup started by {@link #prefetchProfile(UUID)} for a player that is logging in,
+     * if the link in it came from storage and can be used instead of querying the link provider again.
+     * @param playerUUID the Player UUID
+     * @return the profile lookup, or {@code null} if there isn't one that can be used
+     */
+    public @Nullable Task<ProfileImpl> getPrefetchedProfile(@NotNull UUID playerUUID) {
+        if (!(discordSRV.linkProvider() instanceof StorageLinker)) {
+            return null;
+        }
+
+        Task<ProfileImpl> prefetched = prefetchedProfiles.get(playerUUID);
+        return prefetched != null && !prefetched.isFailed() ? prefetched : null;
+    }
+
     public Task<ProfileImpl> loadProfile(@NotNull UUID playerUUID) {
-        Task<ProfileImpl> lookup = queryProfile(playerUUID)
+        return loadProfile(playerUUID, queryProfile(playerUUID));
+    }
+
+    private Task<ProfileImpl> loadProfile(UUID playerUUID, Task<ProfileImpl> query) {
+        Task<ProfileImpl> lookup = query
                 .thenApply(profile -> {
                     profiles.put(playerUUID, profile);
                     if (profile.isLinked()) {
@@ -100,7 +166,7 @@ public class ProfileManagerImpl implements ProfileManager {
     }
 
     private Task<GameProfileData> loadGameData(UUID playerUUID) {
-        return discordSRV.scheduler().supply(() -> {
+        return discordSRV.storageExecutor().supply("getGameProfileData", () -> {
             GameProfileData data = discordSRV.storage().getGameProfileData(playerUUID);
             if (data != null) {
                 return data;
@@ -110,7 +176,7 @@ public class ProfileManagerImpl implements ProfileManager {
     }
 
     private Task<DiscordProfileData> loadDiscordData(long userId) {
-        return discordSRV.scheduler().supply(() -> {
+        return discordSRV.storageExecutor().supply("getDiscordProfileData", () -> {
             DiscordProfileData data = discordSRV.storage().getDiscordProfileData(userId);
             if (data != null) {
                 return data;
@@ -122,6 +188,11 @@ public class ProfileManagerImpl implements ProfileManager {
     @Override
     public @NotNull Task<@NotNull ProfileImpl> queryProfile(UUID playerUUID) {
         LinkProvider linkProvider = discordSRV.linkProvider();
+        if (linkProvider instanceof StorageLinker) {
+            // The link is in storage as well, get it together with the profile data
+            return queryStoredProfile((StorageLinker) linkProvider, playerUUID);
+        }
+
         Task<Optional<AccountLink>> linkLookup = linkProvider != null ? linkProvider.get(playerUUID) : Task.completed(Optional.empty());
 
         Task<GameProfileData> gameProfileLookup = loadGameData(playerUUID);
@@ -138,6 +209,34 @@ public class ProfileManagerImpl implements ProfileManager {
         });
     }
 
+    private Task<ProfileImpl> queryStoredProfile(StorageLinker linkProvider, UUID playerUUID) {
+        return discordSRV.storageExecutor()
+                .supply("getPlayerProfileData", () -> {
+                    long sequence = linkProvider.changeSequence();
+                    PlayerProfileData data = discordSRV.storage().getPlayerProfileData(playerUUID);
+                    linkProvider.cacheLookup(playerUUID, data.getLink(), sequence);
+                    return data;
+                })
+                .thenApply(data -> {
+                    AccountLink link = data.getLink();
+
+                    GameProfileData gameProfile = data.getGameProfile();
+                    if (gameProfile == null) {
+                        gameProfile = new GameProfileData(playerUUID);
+                    }
+                    if (link == null) {
+                        return new ProfileImpl(discordSRV, playerUUID, null, gameProfile, null);
+                    }
+
+                    long userId = link.userId();
+                    DiscordProfileData discordProfile = data.getDiscordProfile();
+                    if (discordProfile == null) {
+                        discordProfile = new DiscordProfileData(userId);
+                    }
+                    return new ProfileImpl(discordSRV, playerUUID, userId, gameProfile, discordProfile);
+                });
+    }
+
     @Override
     public @Nullable ProfileImpl getCachedProfile(UUID playerUUID) {
         return profiles.get(playerUUID);
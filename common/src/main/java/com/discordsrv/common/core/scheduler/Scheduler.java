@@ -65,6 +65,13 @@ public interface Scheduler {
     @CheckReturnValue
     ForkJoinPool forkJoinPool();
 
+    /**
+     * Returns the timings for tasks run with this scheduler's {@link #executorService()} and {@link #scheduledExecutorService()}.
+     * @return the {@link SchedulerMetrics}
+     */
+    @CheckReturnValue
+    SchedulerMetrics metrics();
+
     /**
      * Runs the provided task as soon as possible.
      *
@@ -73,6 +80,37 @@ public interface Scheduler {
     @NotNull
     Future<?> run(@NotNull Runnable task);
 
+    /**
+     * Runs the provided task as soon as possible.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task
+     */
+    @NotNull
+    Future<?> run(@NotNull String name, @NotNull Runnable task);
+
+    /**
+     * Runs the provided task in the given lane as soon as possible.
+     *
+     * @param priority the lane to run the task in
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task
+     */
+    @NotNull
+    Future<?> run(@NotNull TaskPriority priority, @NotNull String name, @NotNull Runnable task);
+
+    /**
+     * An executor that runs tasks in the given lane, for example for modules whose work belongs in a lane other than {@link TaskPriority#NORMAL}.
+     *
+     * @param priority the lane to run tasks in
+     * @param name the name of the tasks for {@link #metrics()}
+     * @return the {@link Executor}
+     */
+    @CheckReturnValue
+    default Executor executor(@NotNull TaskPriority priority, @NotNull String name) {
+        return task -> run(priority, name, task);
+    }
+
     /**
      * Helper method for {@link CompletableFuture#runAsync(Runnable)}.
      *
@@ -85,6 +123,33 @@ public interface Scheduler {
         return TaskUtil.runAsync(task, this::run);
     }
 
+    /**
+     * Helper method for {@link CompletableFuture#runAsync(Runnable)}.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task to execute
+     * @return a future
+     */
+    @NotNull
+    @CheckReturnValue
+    default Task<Void> execute(@NotNull String name, @NotNull CheckedRunnable task) {
+        return TaskUtil.runAsync(task, runnable -> run(name, runnable));
+    }
+
+    /**
+     * Helper method for {@link CompletableFuture#runAsync(Runnable)} in the given lane.
+     *
+     * @param priority the lane to run the task in
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task to execute
+     * @return a future
+     */
+    @NotNull
+    @CheckReturnValue
+    default Task<Void> execute(@NotNull TaskPriority priority, @NotNull String name, @NotNull CheckedRunnable task) {
+        return TaskUtil.runAsync(task, executor(priority, name));
+    }
+
     /**
      * Helper method for {@link CompletableFuture#supplyAsync(Supplier)}.
      *
@@ -97,6 +162,33 @@ public interface Scheduler {
         return TaskUtil.supplyAsync(supplier, this::run);
     }
 
+    /**
+     * Helper method for {@link CompletableFuture#supplyAsync(Supplier)}.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param supplier the supplier
+     * @return a future
+     */
+    @NotNull
+    @CheckReturnValue
+    default <T> Task<T> supply(@NotNull String name, @NotNull CheckedSupplier<T> supplier) {
+        return TaskUtil.supplyAsync(supplier, runnable -> run(name, runnable));
+    }
+
+    /**
+     * Helper method for {@link CompletableFuture#supplyAsync(Supplier)} in the given lane.
+     *
+     * @param priority the lane to run the task in
+     * @param name the name of the task for {@link #metrics()}
+     * @param supplier the supplier
+     * @return a future
+     */
+    @NotNull
+    @CheckReturnValue
+    default <T> Task<T> supply(@NotNull TaskPriority priority, @NotNull String name, @NotNull CheckedSupplier<T> supplier) {
+        return TaskUtil.supplyAsync(supplier, executor(priority, name));
+    }
+
     /**
      * Schedules the given task after the provided number of milliseconds.
      *
@@ -106,6 +198,16 @@ public interface Scheduler {
     @NotNull
     ScheduledFuture<?> runLater(@NotNull Runnable task, @NotNull Duration delay);
 
+    /**
+     * Schedules the given task after the provided number of milliseconds.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task
+     * @param delay the delay before executing the task
+     */
+    @NotNull
+    ScheduledFuture<?> runLater(@NotNull String name, @NotNull Runnable task, @NotNull Duration delay);
+
     /**
      * Helper method for {@link CompletableFuture#runAsync(Runnable)} with delay.
      *
@@ -132,6 +234,20 @@ public interface Scheduler {
         return TaskUtil.supplyAsync(supplier, task -> runLater(task, delay));
     }
 
+    /**
+     * Helper method for {@link CompletableFuture#supplyAsync(Supplier)} with delay.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param supplier the supplier
+     * @param delay the delay before executing the task
+     * @return a future
+     */
+    @NotNull
+    @CheckReturnValue
+    default <T> Task<T> supplyLater(@NotNull String name, @NotNull CheckedSupplier<T> supplier, @NotNull Duration delay) {
+        return TaskUtil.supplyAsync(supplier, task -> runLater(name, task, delay));
+    }
+
     /**
      * Schedules the given task at the given rate.
      *
@@ -153,6 +269,29 @@ public interface Scheduler {
     @NotNull
     ScheduledFuture<?> runAtFixedRate(@NotNull Runnable task, Duration initialDelay, Duration rate);
 
+    /**
+     * Schedules the given task at the given rate.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task
+     * @param rate the rate in the given unit
+     */
+    @NotNull
+    default ScheduledFuture<?> runAtFixedRate(@NotNull String name, @NotNull Runnable task, Duration rate) {
+        return runAtFixedRate(name, task, rate, rate);
+    }
+
+    /**
+     * Schedules a task to run at the given rate after the initial delay.
+     *
+     * @param name the name of the task for {@link #metrics()}
+     * @param task the task
+     * @param initialDelay the initial delay in the provided unit
+     * @param rate the rate to run the task at in the given unit
+     */
+    @NotNull
+    ScheduledFuture<?> runAtFixedRate(@NotNull String name, @NotNull Runnable task, Duration initialDelay, Duration rate);
+
     /**
      * Is the current thread server thread.
      *
@@ -0,0 +1,349 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler;
+
+import com.discordsrv.common.core.debug.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Timings for tasks run by a {@link Scheduler}, grouped by task name.
+ * <p>
+ * Tasks submitted without a name are named after the code that submitted them, when submission tracking is enabled.
+ * Submission tracking also keeps the stack at submission time for the slowest recent tasks.
+ */
+public class SchedulerMetrics {
+
+    /**
+     * The name used for tasks submitted without a name while submission tracking is disabled.
+     */
+    public static final String UNNAMED = "unnamed";
+    /**
+     * The name used for all further task names, once {@link #MAXIMUM_NAMES} has been reached.
+     */
+    public static final String OTHER = "other";
+
+    private static final int MAXIMUM_NAMES = 500;
+    private static final int SUBMISSION_STACK_DEPTH = 8;
+    private static final int SLOWEST_TASKS = 10;
+    private static final long SLOWEST_TASKS_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Map<String, TaskTimings> timings = new ConcurrentHashMap<>();
+    private volatile boolean trackSubmissions = false;
+
+    private final Object slowestLock = new Object();
+    private final List<SlowTask> slowest = new ArrayList<>(SLOWEST_TASKS + 1);
+    private volatile long slowestThresholdNanos = 0;
+    private volatile long slowestThresholdValidUntil = 0;
+
+    /**
+     * Sets if the code submitting tasks should be tracked, for naming unnamed tasks and for the submission stack of slow tasks.
+     * Tracking walks a few frames of the stack for every submitted task, so it is disabled by default.
+     * @param trackSubmissions if submissions should be tracked
+     */
+    public void setTrackSubmissions(boolean trackSubmissions) {
+        this.trackSubmissions = trackSubmissions;
+    }
+
+    public boolean isTrackSubmissions() {
+        return trackSubmissions;
+    }
+
+    /**
+     * Records the submission of a task, to be passed to {@link #record(Submission, long, long)} when the task runs.
+     * @param name the name of the task, or {@code null} to name it after the code submitting it
+     * @param expectedStartNanos the {@link System#nanoTime()} the task is supposed to start at
+     * @return the submission
+     */
+    @NotNull
+    public Submission submit(@Nullable String name, long expectedStartNanos) {
+        List<StackTraceElement> stack = trackSubmissions ? submissionStack() : Collections.emptyList();
+        if (name == null) {
+            if (stack.isEmpty()) {
+                name = UNNAMED;
+            } else {
+                StackTraceElement caller = stack.get(0);
+                String className = caller.getClassName();
+                name = className.substring(className.lastIndexOf('.') + 1) + "#" + caller.getMethodName();
+            }
+        }
+        return new Submission(timingsFor(name), stack, expectedStartNanos);
+    }
+
+    private static List<StackTraceElement> submissionStack() {
+        return STACK_WALKER.walk(frames -> frames
+                .dropWhile(SchedulerMetrics::isSchedulingFrame)
+                .limit(SUBMISSION_STACK_DEPTH)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean isSchedulingFrame(StackWalker.StackFrame frame) {
+        Class<?> declaringClass = frame.getDeclaringClass();
+        Class<?> enclosingClass = declaringClass.getEnclosingClass();
+        String className = declaringClass.getName();
+        return declaringClass == SchedulerMetrics.class
+                || Scheduler.class.isAssignableFrom(declaringClass)
+                || (enclosingClass != null && Scheduler.class.isAssignableFrom(enclosingClass))
+                || className.startsWith("com.discordsrv.common.util.TaskUtil")
+                || className.startsWith("com.discordsrv.api.task.")
+                || className.startsWith("java.")
+                || className.startsWith("jdk.");
+    }
+
+    private TaskTimings timingsFor(String name) {
+        TaskTimings taskTimings = timings.get(name);
+        if (taskTimings != null) {
+            return taskTimings;
+        }
+        if (timings.size() >= MAXIMUM_NAMES) {
+            name = OTHER;
+        }
+        return timings.computeIfAbsent(name, TaskTimings::new);
+    }
+
+    /**
+     * Records a task having run.
+     * @param submission the submission from {@link #submit(String, long)}
+     * @param startNanos the {@link System#nanoTime()} the task started at
+     * @param endNanos the {@link System#nanoTime()} the task finished at
+     */
+    public void record(@NotNull Submission submission, long startNanos, long endNanos) {
+        long waitNanos = Math.max(0, startNanos - submission.expectedStartNanos);
+        long runNanos = endNanos - startNanos;
+
+        TaskTimings taskTimings = submission.timings;
+        taskTimings.waitTime.recordNanos(waitNanos);
+        taskTimings.runTime.recordNanos(runNanos);
+
+        if (runNanos >= slowestThresholdNanos || endNanos >= slowestThresholdValidUntil) {
+            offerSlow(new SlowTask(taskTimings.name, waitNanos, runNanos, endNanos, System.currentTimeMillis(), submission.stack));
+        }
+    }
+
+    private void offerSlow(SlowTask task) {
+        synchronized (slowestLock) {
+            removeExpired(task.finishedNanos);
+
+            int index = 0;
+            while (index < slowest.size() && slowest.get(index).runNanos >= task.runNanos) {
+                index++;
+            }
+            if (index >= SLOWEST_TASKS) {
+                return;
+            }
+            slowest.add(index, task);
+            if (slowest.size() > SLOWEST_TASKS) {
+                slowest.remove(slowest.size() - 1);
+            }
+            updateThreshold();
+        }
+    }
+
+    private void removeExpired(long nowNanos) {
+        if (slowest.removeIf(task -> nowNanos - task.finishedNanos > SLOWEST_TASKS_WINDOW_NANOS)) {
+            updateThreshold();
+        }
+    }
+
+    private void updateThreshold() {
+        if (slowest.size() < SLOWEST_TASKS) {
+            slowestThresholdNanos = 0;
+            slowestThresholdValidUntil = Long.MAX_VALUE;
+            return;
+        }
+
+        long oldestFinished = Long.MAX_VALUE;
+        for (SlowTask task : slowest) {
+            oldestFinished = Math.min(oldestFinished, task.finishedNanos);
+        }
+        slowestThresholdNanos = slowest.get(slowest.size() - 1).runNanos;
+        slowestThresholdValidUntil = oldestFinished + SLOWEST_TASKS_WINDOW_NANOS;
+    }
+
+    /**
+     * Gets the timings for each task name.
+     * @return an unmodifiable view of the timings by task name
+     */
+    @NotNull
+    public Map<String, TaskTimings> getTaskTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    /**
+     * Gets the slowest tasks that finished within the last 15 minutes, slowest first.
+     * @return the slowest recent tasks
+     */
+    @NotNull
+    public List<SlowTask> getSlowestTasks() {
+        synchronized (slowestLock) {
+            removeExpired(System.nanoTime());
+            return new ArrayList<>(slowest);
+        }
+    }
+
+    /**
+     * Summarizes the timings for debug reports, task names ordered by their total run time.
+     * @return the summary
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("trackSubmissions", trackSubmissions);
+
+        List<TaskTimings> byRunTime = new ArrayList<>(timings.values());
+        byRunTime.sort(Comparator.comparingLong(TaskTimings::totalRunMicros).reversed());
+        Map<String, Object> tasks = new LinkedHashMap<>();
+        for (TaskTimings taskTimings : byRunTime) {
+            Map<String, Object> task = new LinkedHashMap<>();
+            task.put("wait", taskTimings.waitTime.summary());
+            task.put("run", taskTimings.runTime.summary());
+            tasks.put(taskTimings.name, task);
+        }
+        values.put("tasks", tasks);
+
+        List<Map<String, Object>> slowestTasks = new ArrayList<>();
+        for (SlowTask task : getSlowestTasks()) {
+            Map<String, Object> slowTask = new LinkedHashMap<>();
+            slowTask.put("name", task.name);
+            slowTask.put("waitMillis", TimeUnit.NANOSECONDS.toMillis(task.waitNanos));
+            slowTask.put("runMillis", TimeUnit.NANOSECONDS.toMillis(task.runNanos));
+            slowTask.put("finishedAt", task.finishedAt);
+            slowTask.put("submittedFrom", task.submissionStack.stream().map(StackTraceElement::toString).collect(Collectors.toList()));
+            slowestTasks.add(slowTask);
+        }
+        values.put("slowestTasks", slowestTasks);
+        return values;
+    }
+
+    /**
+     * A task that has been submitted but has not run yet.
+     */
+    public static class Submission {
+
+        private final TaskTimings timings;
+        private final List<StackTraceElement> stack;
+        private long expectedStartNanos;
+
+        private Submission(TaskTimings timings, List<StackTraceElement> stack, long expectedStartNanos) {
+            this.timings = timings;
+            this.stack = stack;
+            this.expectedStartNanos = expectedStartNanos;
+        }
+
+        /**
+         * Moves the expected start time forward, for tasks that run repeatedly.
+         * @param nanos the amount of nanoseconds to move it forward by
+         */
+        public void delay(long nanos) {
+            expectedStartNanos += nanos;
+        }
+    }
+
+    public static class TaskTimings {
+
+        private final String name;
+        private final LatencyHistogram waitTime = new LatencyHistogram();
+        private final LatencyHistogram runTime = new LatencyHistogram();
+
+        private TaskTimings(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * The time tasks spent waiting between when they were supposed to start and when they started.
+         * @return the wait time histogram
+         */
+        public LatencyHistogram waitTime() {
+            return waitTime;
+        }
+
+        public LatencyHistogram runTime() {
+            return runTime;
+        }
+
+        private long totalRunMicros() {
+            return runTime.totalMicros();
+        }
+    }
+
+    public static class SlowTask {
+
+        private final String name;
+        private final long waitNanos;
+        private final long runNanos;
+        private final long finishedNanos;
+        private final long finishedAt;
+        private final List<StackTraceElement> submissionStack;
+
+        private SlowTask(
+                String name,
+                long waitNanos,
+                long runNanos,
+                long finishedNanos,
+                long finishedAt,
+                List<StackTraceElement> submissionStack
+        ) {
+            this.name = name;
+            this.waitNanos = waitNanos;
+            this.runNanos = runNanos;
+            this.finishedNanos = finishedNanos;
+            this.finishedAt = finishedAt;
+            this.submissionStack = submissionStack;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long waitNanos() {
+            return waitNanos;
+        }
+
+        public long runNanos() {
+            return runNanos;
+        }
+
+        /**
+         * The time the task finished at.
+         * @return the time in epoch milliseconds
+         */
+        public long finishedAt() {
+            return finishedAt;
+        }
+
+        /**
+         * The code that submitted the task, empty if submission tracking was disabled.
+         * @return the stack at submission time, excluding the scheduler itself
+         */
+        public List<StackTraceElement> submissionStack() {
+            return submissionStack;
+        }
+    }
+}
@@ -19,13 +19,18 @@
 package com.discordsrv.common.core.scheduler;
 
 import com.discordsrv.common.DiscordSRV;
-import com.discordsrv.common.core.scheduler.executor.DynamicCachingThreadPoolExecutor;
+import com.discordsrv.common.core.scheduler.executor.PrioritizedRunnable;
+import com.discordsrv.common.core.scheduler.executor.PriorityThreadPoolExecutor;
+import com.discordsrv.common.core.scheduler.executor.VirtualThreadExecutor;
 import com.discordsrv.common.core.scheduler.threadfactory.CountingForkJoinWorkerThreadFactory;
 import com.discordsrv.common.core.scheduler.threadfactory.CountingThreadFactory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StandardScheduler implements Scheduler {
 
@@ -34,18 +39,24 @@ public class StandardScheduler implements Scheduler {
     private final ScheduledThreadPoolExecutor scheduledExecutorService;
     private final ForkJoinPool forkJoinPool;
     private final ExceptionHandlingExecutor executor = new ExceptionHandlingExecutor();
+    private final SchedulerMetrics metrics = new SchedulerMetrics();
+    private volatile VirtualThreadExecutor virtualThreadExecutor;
+    private final ExecutorService configuredExecutor = new ConfiguredExecutorService();
+
+    private final Queue<Runnable> bulkQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bulkRunning = new AtomicInteger();
+    private volatile int bulkConcurrency = 2;
 
     public StandardScheduler(DiscordSRV discordSRV) {
         this(
                 discordSRV,
-                new DynamicCachingThreadPoolExecutor(
+                new PriorityThreadPoolExecutor(
                         /* Core pool size */
                         1,
                         /* Max pool size: cpu cores - 2 or at least 4 */
                         Math.max(4, Runtime.getRuntime().availableProcessors() - 2),
                         /* Timeout */
                         60, TimeUnit.SECONDS,
-                        new LinkedBlockingQueue<>(),
                         new CountingThreadFactory(THREAD_NAME_PREFIX + "Executor #%s")
                 ),
                 new ScheduledThreadPoolExecutor(
@@ -79,12 +90,50 @@ public class StandardScheduler implements Scheduler {
         this.forkJoinPool = forkJoinPool;
     }
 
-    private Runnable wrap(Runnable runnable) {
+    /**
+     * Sets if tasks given to {@link #run(Runnable)} and {@link #executorService()} should run on virtual threads,
+     * instead of the executor's limited pool of platform threads. Timers and the {@link ForkJoinPool} always use platform threads.
+     * <p>
+     * {@link #executorService()} always returns the same instance, which follows these settings.
+     * A virtual thread executor that is replaced is shut down, tasks already given to it still finish.
+     * @param virtualThreads if tasks should run on virtual threads
+     * @param maximumConcurrency the maximum amount of tasks running on virtual threads at the same time, {@code 0} for no limit
+     * @param bulkConcurrency the maximum amount of {@link TaskPriority#BULK} tasks running at the same time
+     */
+    public synchronized void configure(boolean virtualThreads, int maximumConcurrency, int bulkConcurrency) {
+        // Always leave a thread for other tasks
+        this.bulkConcurrency = Math.max(1, Math.min(bulkConcurrency, executorService.getMaximumPoolSize() - 1));
+        drainBulk();
+
+        VirtualThreadExecutor current = virtualThreadExecutor;
+        if (!virtualThreads) {
+            virtualThreadExecutor = null;
+        } else if (current == null || current.getMaximumConcurrency() != Math.max(0, maximumConcurrency)) {
+            virtualThreadExecutor = new VirtualThreadExecutor(THREAD_NAME_PREFIX + "Virtual Executor #", maximumConcurrency);
+        }
+
+        if (current != null && current != virtualThreadExecutor) {
+            current.shutdown();
+        }
+    }
+
+    private ExecutorService currentExecutor() {
+        VirtualThreadExecutor virtualThreadExecutor = this.virtualThreadExecutor;
+        return virtualThreadExecutor != null ? virtualThreadExecutor : executorService;
+    }
+
+    private Runnable wrap(@Nullable String name, Runnable runnable, Duration delay, @Nullable Duration rate) {
+        SchedulerMetrics.Submission submission = metrics.submit(name, System.nanoTime() + delay.toNanos());
+        long rateNanos = rate != null ? rate.toNanos() : 0;
         return () -> {
+            long startNanos = System.nanoTime();
             try {
                 runnable.run();
             } catch (Throwable t) {
                 discordSRV.logger().error(Thread.currentThread().getName() + " ran into an exception", t);
+            } finally {
+                metrics.record(submission, startNanos, System.nanoTime());
+                submission.delay(rateNanos);
             }
         };
     }
@@ -94,11 +143,82 @@ public class StandardScheduler implements Scheduler {
         return executor;
     }
 
+    /**
+     * An executor that runs tasks on the virtual thread executor or the platform thread pool, depending on how this scheduler is configured.
+     * @return the same instance every time
+     */
     @Override
     public ExecutorService executorService() {
+        return configuredExecutor;
+    }
+
+    /**
+     * The platform thread pool, for debug reports.
+     * @return the pool that tasks run on when virtual threads are not in use
+     */
+    public ThreadPoolExecutor platformExecutor() {
         return executorService;
     }
 
+    /**
+     * The virtual thread executor, for debug reports.
+     * @return the executor, or {@code null} if virtual threads are not in use
+     */
+    public @Nullable VirtualThreadExecutor virtualThreadExecutor() {
+        return virtualThreadExecutor;
+    }
+
+    @Override
+    public SchedulerMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * The current state of the executors, for debug reports.
+     * @return the amount of queued and active tasks for each executor
+     */
+    public Map<String, Object> executorMetrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        Map<String, Object> executor = new LinkedHashMap<>();
+        executor.put("queued", executorService.getQueue().size());
+        Map<TaskPriority, Integer> queuedByPriority = new EnumMap<>(TaskPriority.class);
+        for (Runnable queued : executorService.getQueue()) {
+            if (queued instanceof PrioritizedRunnable) {
+                queuedByPriority.merge(((PrioritizedRunnable) queued).priority(), 1, Integer::sum);
+            }
+        }
+        executor.put("queuedByPriority", queuedByPriority);
+        executor.put("active", executorService.getActiveCount());
+        executor.put("poolSize", executorService.getPoolSize());
+        executor.put("completed", executorService.getCompletedTaskCount());
+        values.put("executor", executor);
+
+        VirtualThreadExecutor virtualThreadExecutor = this.virtualThreadExecutor;
+        if (virtualThreadExecutor != null) {
+            values.put("virtualExecutor", virtualThreadExecutor.metrics());
+        }
+
+        Map<String, Object> bulk = new LinkedHashMap<>();
+        bulk.put("concurrency", bulkConcurrency);
+        bulk.put("running", bulkRunning.get());
+        bulk.put("waiting", bulkQueue.size());
+        values.put("bulk", bulk);
+
+        Map<String, Object> scheduledExecutor = new LinkedHashMap<>();
+        scheduledExecutor.put("scheduled", scheduledExecutorService.getQueue().size());
+        scheduledExecutor.put("active", scheduledExecutorService.getActiveCount());
+        scheduledExecutor.put("completed", scheduledExecutorService.getCompletedTaskCount());
+        values.put("scheduledExecutor", scheduledExecutor);
+
+        Map<String, Object> forkJoin = new LinkedHashMap<>();
+        forkJoin.put("queued", forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount());
+        forkJoin.put("active", forkJoinPool.getActiveThreadCount());
+        forkJoin.put("poolSize", forkJoinPool.getPoolSize());
+        values.put("forkJoinPool", forkJoin);
+        return values;
+    }
+
     @Override
     public ScheduledExecutorService scheduledExecutorService() {
         return scheduledExecutorService;
@@ -111,17 +231,93 @@ public class StandardScheduler implements Scheduler {
 
     @Override
     public @NotNull Future<?> run(@NotNull Runnable task) {
-        return executorService.submit(wrap(task));
+        return submit(TaskPriority.NORMAL, null, task);
+    }
+
+    @Override
+    public @NotNull Future<?> run(@NotNull String name, @NotNull Runnable task) {
+        return submit(TaskPriority.NORMAL, name, task);
+    }
+
+    @Override
+    public @NotNull Future<?> run(@NotNull TaskPriority priority, @NotNull String name, @NotNull Runnable task) {
+        return submit(priority, name, task);
+    }
+
+    private Future<?> submit(TaskPriority priority, @Nullable String name, Runnable task) {
+        FutureTask<?> future = new FutureTask<>(wrap(name, task, Duration.ZERO, null), null);
+        if (priority == TaskPriority.BULK) {
+            bulkQueue.add(future);
+            drainBulk();
+        } else {
+            currentExecutor().execute(new PrioritizedRunnable(priority, future));
+        }
+        return future;
+    }
+
+    /**
+     * Starts waiting bulk tasks, as long as there are less than {@link #bulkConcurrency} of them running.
+     * The next bulk task is started when a running one finishes, which lets other lanes go first in between.
+     */
+    private void drainBulk() {
+        while (!bulkQueue.isEmpty()) {
+            int running = bulkRunning.get();
+            if (running >= bulkConcurrency) {
+                return;
+            }
+            if (!bulkRunning.compareAndSet(running, running + 1)) {
+                continue;
+            }
+
+            Runnable next = bulkQueue.poll();
+            if (next == null) {
+                bulkRunning.decrementAndGet();
+                continue;
+            }
+
+            try {
+                currentExecutor().execute(new PrioritizedRunnable(TaskPriority.BULK, () -> {
+                    try {
+                        next.run();
+                    } finally {
+                        bulkRunning.decrementAndGet();
+                        drainBulk();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                bulkRunning.decrementAndGet();
+                throw e;
+            }
+        }
     }
 
     @Override
     public @NotNull ScheduledFuture<?> runLater(@NotNull Runnable task, @NotNull Duration delay) {
-        return scheduledExecutorService.schedule(wrap(task), delay.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduledExecutorService.schedule(wrap(null, task, delay, null), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public @NotNull ScheduledFuture<?> runLater(@NotNull String name, @NotNull Runnable task, @NotNull Duration delay) {
+        return scheduledExecutorService.schedule(wrap(name, task, delay, null), delay.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     @Override
     public @NotNull ScheduledFuture<?> runAtFixedRate(@NotNull Runnable task, Duration initialDelay, Duration rate) {
-        return scheduledExecutorService.scheduleAtFixedRate(wrap(task), initialDelay.toMillis(), rate.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduleAtFixedRate(null, task, initialDelay, rate);
+    }
+
+    @Override
+    public @NotNull ScheduledFuture<?> runAtFixedRate(@NotNull String name, @NotNull Runnable task, Duration initialDelay, Duration rate) {
+        return scheduleAtFixedRate(name, task, initialDelay, rate);
+    }
+
+    private ScheduledFuture<?> scheduleAtFixedRate(@Nullable String name, Runnable task, Duration initialDelay, Duration rate) {
+        return scheduledExecutorService.scheduleAtFixedRate(
+                wrap(name, task, initialDelay, rate),
+                initialDelay.toMillis(),
+                rate.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
     }
 
     @Override
@@ -131,11 +327,61 @@ public class StandardScheduler implements Scheduler {
 
     @Override
     public void shutdown() {
+        bulkQueue.clear();
+        VirtualThreadExecutor virtualThreadExecutor = this.virtualThreadExecutor;
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdownNow();
+        }
         executorService.shutdownNow();
         scheduledExecutorService.shutdownNow();
         forkJoinPool.shutdownNow();
     }
 
+    /**
+     * Hands tasks to the executor that is in use at the time, so callers holding on to it follow {@link #configure(boolean, int, int)}.
+     */
+    private class ConfiguredExecutorService extends AbstractExecutorService {
+
+        @Override
+        public void execute(@NotNull Runnable command) {
+            currentExecutor().execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            StandardScheduler.this.shutdown();
+        }
+
+        @Override
+        public @NotNull List<Runnable> shutdownNow() {
+            StandardScheduler.this.shutdown();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executorService.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            VirtualThreadExecutor virtualThreadExecutor = StandardScheduler.this.virtualThreadExecutor;
+            return executorService.isTerminated() && (virtualThreadExecutor == null || virtualThreadExecutor.isTerminated());
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!executorService.awaitTermination(timeout, unit)) {
+                return false;
+            }
+
+            VirtualThreadExecutor virtualThreadExecutor = StandardScheduler.this.virtualThreadExecutor;
+            return virtualThreadExecutor == null
+                    || virtualThreadExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+
     public class ExceptionHandlingExecutor implements Executor {
 
         @Override
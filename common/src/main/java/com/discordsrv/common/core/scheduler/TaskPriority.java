@@ -0,0 +1,43 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler;
+
+/**
+ * The lane a task runs in on the {@link Scheduler#executorService()}.
+ * Waiting tasks are started in the order of their lane, so a higher lane doesn't have to wait behind a lower one.
+ */
+public enum TaskPriority {
+
+    /**
+     * Work someone is actively waiting on, like command replies and link checks.
+     */
+    INTERACTIVE,
+
+    /**
+     * The default lane.
+     */
+    NORMAL,
+
+    /**
+     * Large batches of work that can be delayed, like timed synchronization.
+     * Only a limited amount of bulk tasks run at the same time, so they cannot take up all of the executor's threads.
+     */
+    BULK
+
+}
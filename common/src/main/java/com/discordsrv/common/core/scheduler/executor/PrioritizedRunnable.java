@@ -0,0 +1,57 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler.executor;
+
+import com.discordsrv.common.core.scheduler.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Runnable} with a {@link TaskPriority}, ordered by priority and then by creation order.
+ */
+public class PrioritizedRunnable implements Runnable, Comparable<PrioritizedRunnable> {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final TaskPriority priority;
+    private final Runnable runnable;
+    private final long sequence;
+
+    public PrioritizedRunnable(@NotNull TaskPriority priority, @NotNull Runnable runnable) {
+        this.priority = priority;
+        this.runnable = runnable;
+        this.sequence = SEQUENCE.getAndIncrement();
+    }
+
+    public TaskPriority priority() {
+        return priority;
+    }
+
+    @Override
+    public void run() {
+        runnable.run();
+    }
+
+    @Override
+    public int compareTo(@NotNull PrioritizedRunnable other) {
+        int compare = priority.compareTo(other.priority);
+        return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+}
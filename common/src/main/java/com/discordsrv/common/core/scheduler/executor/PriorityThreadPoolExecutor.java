@@ -0,0 +1,48 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler.executor;
+
+import com.discordsrv.common.core.scheduler.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DynamicCachingThreadPoolExecutor} that starts waiting tasks by their {@link TaskPriority} instead of in submission order.
+ * Tasks that aren't a {@link PrioritizedRunnable} run with {@link TaskPriority#NORMAL}.
+ */
+public class PriorityThreadPoolExecutor extends DynamicCachingThreadPoolExecutor {
+
+    public PriorityThreadPoolExecutor(
+            int corePoolSize,
+            int maximumPoolSize,
+            long keepAliveTime,
+            @NotNull TimeUnit unit,
+            @NotNull ThreadFactory threadFactory
+    ) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, new PriorityBlockingQueue<>(), threadFactory);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        super.execute(command instanceof PrioritizedRunnable ? command : new PrioritizedRunnable(TaskPriority.NORMAL, command));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler.executor;
+
+import com.discordsrv.common.core.scheduler.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ExecutorService} that runs every task on a new virtual thread, with a limit on how many tasks run at the same time.
+ * Tasks over the limit wait on their virtual thread, which doesn't hold up a carrier thread.
+ * {@link TaskPriority#INTERACTIVE} tasks are not counted towards the limit.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final int maximumConcurrency;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+
+    /**
+     * @param threadNamePrefix the name prefix for the virtual threads, followed by a number
+     * @param maximumConcurrency the maximum amount of tasks running at the same time, {@code 0} or less for no limit
+     */
+    public VirtualThreadExecutor(String threadNamePrefix, int maximumConcurrency) {
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        this.permits = maximumConcurrency > 0 ? new Semaphore(maximumConcurrency) : null;
+        this.maximumConcurrency = Math.max(0, maximumConcurrency);
+    }
+
+    public int getMaximumConcurrency() {
+        return maximumConcurrency;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        started.incrementAndGet();
+        if (permits == null || isInteractive(command)) {
+            threads.execute(command);
+            return;
+        }
+
+        threads.execute(() -> {
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // Shutting down
+                return;
+            } finally {
+                waiting.decrementAndGet();
+            }
+
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private static boolean isInteractive(Runnable command) {
+        return command instanceof PrioritizedRunnable
+                && ((PrioritizedRunnable) command).priority() == TaskPriority.INTERACTIVE;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("maximumConcurrency", maximumConcurrency);
+        if (permits != null) {
+            values.put("running", maximumConcurrency - permits.availablePermits());
+        }
+        values.put("waiting", waiting.get());
+        values.put("started", started.get());
+        return values;
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+}
@@ -18,8 +18,10 @@
 
 package com.discordsrv.common.core.storage;
 
+import com.discordsrv.common.abstraction.sync.SyncCheckpoint;
 import com.discordsrv.common.core.profile.DiscordProfileData;
 import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.profile.PlayerProfileData;
 import com.discordsrv.common.exception.StorageException;
 import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkStore;
@@ -28,8 +30,14 @@ import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Blocking
 public interface Storage {
@@ -37,6 +45,14 @@ public interface Storage {
     void initialize();
     void close() throws StorageException;
 
+    /**
+     * Runtime metrics for the storage backend, included in debug reports.
+     * @return the metrics as key value pairs
+     */
+    default Map<String, Object> getMetrics() {
+        return Collections.emptyMap();
+    }
+
     // AccountLink
 
     @Nullable
@@ -45,6 +61,46 @@ public interface Storage {
     @Nullable
     AccountLink getLinkByUserId(long userId);
 
+    /**
+     * Looks up the links for multiple players at once, players that aren't linked are not included in the result.
+     * @param playerUUIDs the Player UUIDs to look up
+     * @return the links by Player UUID
+     */
+    @NotNull
+    default Map<UUID, AccountLink> getLinksByPlayerUUIDs(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, AccountLink> links = new HashMap<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            AccountLink link = getLinkByPlayerUUID(playerUUID);
+            if (link != null) {
+                links.put(playerUUID, link);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Looks up the links for multiple users at once, users that aren't linked are not included in the result.
+     * @param userIds the Discord user ids to look up
+     * @return the links by Discord user id
+     */
+    @NotNull
+    default Map<Long, AccountLink> getLinksByUserIds(long @NotNull [] userIds) {
+        Map<Long, AccountLink> links = new HashMap<>(userIds.length);
+        for (long userId : userIds) {
+            AccountLink link = getLinkByUserId(userId);
+            if (link != null) {
+                links.put(userId, link);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Passes every link in storage to the given consumer, for keeping all links in memory.
+     * @param consumer receives the links, on the calling thread
+     */
+    void forEachLink(@NotNull Consumer<AccountLink> consumer);
+
     void createLink(@NotNull AccountLink link);
     void removeLink(@NotNull UUID playerUUID, long userId);
 
@@ -61,13 +117,73 @@ public interface Storage {
     // Profile
 
     GameProfileData getGameProfileData(@NotNull UUID playerUUID);
+    /**
+     * Looks up the profile data for multiple players at once, players without data are not included in the result.
+     * @param playerUUIDs the Player UUIDs to look up
+     * @return the profile data by Player UUID
+     */
+    @NotNull
+    default Map<UUID, GameProfileData> getGameProfileData(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, GameProfileData> profiles = new HashMap<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            GameProfileData profile = getGameProfileData(playerUUID);
+            if (profile != null) {
+                profiles.put(playerUUID, profile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Looks up a player's link, their game profile data and the linked user's Discord profile data at once,
+     * implementations may do this in a single query instead of looking up the Discord profile data after the link.
+     * @param playerUUID the Player UUID
+     * @return the link and profile data
+     */
+    @NotNull
+    default PlayerProfileData getPlayerProfileData(@NotNull UUID playerUUID) {
+        AccountLink link = getLinkByPlayerUUID(playerUUID);
+        return new PlayerProfileData(
+                link,
+                getGameProfileData(playerUUID),
+                link != null ? getDiscordProfileData(link.userId()) : null
+        );
+    }
+
     void saveGameProfileData(@NotNull GameProfileData profile);
+    default void saveGameProfileData(@NotNull Collection<GameProfileData> profiles) {
+        for (GameProfileData profile : profiles) {
+            saveGameProfileData(profile);
+        }
+    }
 
     DiscordProfileData getDiscordProfileData(long userId);
     void saveDiscordProfileData(@NotNull DiscordProfileData profile);
+    default void saveDiscordProfileData(@NotNull Collection<DiscordProfileData> profiles) {
+        for (DiscordProfileData profile : profiles) {
+            saveDiscordProfileData(profile);
+        }
+    }
 
     void addRequiredLinkingBypass(UUID playerUUID);
     void removeRequiredLinkingBypass(UUID playerUUID);
     Set<UUID> getRequiredLinkingBypass();
 
+    // Sync checkpoints
+
+    /**
+     * Looks up the sync checkpoints for multiple players at once, players without checkpoints are not included in the result.
+     * Checkpoints older than {@link SyncCheckpoint#MAXIMUM_AGE} may be left out or removed by the implementation.
+     * @param playerUUIDs the Player UUIDs to look up
+     * @return the checkpoints by Player UUID
+     */
+    @NotNull
+    Map<UUID, List<SyncCheckpoint>> getSyncCheckpoints(@NotNull Collection<UUID> playerUUIDs);
+
+    /**
+     * Saves the given sync checkpoints, replacing existing checkpoints with the same player and {@link SyncCheckpoint#syncKey()}.
+     * @param checkpoints the checkpoints
+     */
+    void saveSyncCheckpoints(@NotNull Collection<SyncCheckpoint> checkpoints);
+
 }
@@ -0,0 +1,300 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.core.debug.LatencyHistogram;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.scheduler.threadfactory.CountingThreadFactory;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.util.function.CheckedRunnable;
+import com.discordsrv.common.util.function.CheckedSupplier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking storage operations on their own threads, so that a slow database cannot hold up the main executor.
+ * The amount of concurrent operations matches the storage connection pool and waiting operations are bounded,
+ * timings for each operation and the time spent waiting to run are kept for debug reports.
+ */
+public class StorageExecutor {
+
+    private static final int MINIMUM_HELD_OPERATIONS = 1000;
+
+    private final Map<String, LatencyHistogram> operationTimings = new ConcurrentHashMap<>();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ExecutorService executorService;
+    private Semaphore admissionPermits;
+    private Semaphore runningPermits;
+    private BlockingQueue<Runnable> queue;
+    private int concurrency;
+    private int queueSize;
+    private boolean virtualThreads;
+
+    // Operations submitted while the executor is being set up, null when operations are rejected instead
+    private List<Operation> held = new ArrayList<>();
+
+    /**
+     * Sets up the threads for the given settings, replacing the current ones if the settings have changed.
+     * Operations already submitted to the previous threads are allowed to finish,
+     * operations held since {@link #pause()} are submitted to the new threads.
+     * @param concurrency the maximum amount of operations to run at the same time
+     * @param queueSize the maximum amount of operations waiting to run
+     * @param virtualThreads if operations should run on virtual threads instead of platform threads
+     */
+    public synchronized void configure(int concurrency, int queueSize, boolean virtualThreads) {
+        concurrency = Math.max(1, concurrency);
+        queueSize = Math.max(1, queueSize);
+        if (executorService != null
+                && this.concurrency == concurrency
+                && this.queueSize == queueSize
+                && this.virtualThreads == virtualThreads) {
+            return;
+        }
+
+        ExecutorService previous = executorService;
+        if (virtualThreads) {
+            this.queue = null;
+            this.admissionPermits = new Semaphore(concurrency + queueSize);
+            this.runningPermits = new Semaphore(concurrency);
+            this.executorService = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(Scheduler.THREAD_NAME_PREFIX + "Storage #", 1).factory()
+            );
+        } else {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.admissionPermits = null;
+            this.runningPermits = null;
+            this.executorService = new ThreadPoolExecutor(
+                    concurrency,
+                    concurrency,
+                    60, TimeUnit.SECONDS,
+                    queue,
+                    new CountingThreadFactory(Scheduler.THREAD_NAME_PREFIX + "Storage #%s"),
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+            ((ThreadPoolExecutor) executorService).allowCoreThreadTimeOut(true);
+        }
+        this.concurrency = concurrency;
+        this.queueSize = queueSize;
+        this.virtualThreads = virtualThreads;
+
+        if (previous != null) {
+            previous.shutdown();
+        }
+
+        List<Operation> held = this.held;
+        this.held = null;
+        if (held != null) {
+            for (Operation operation : held) {
+                submit(operation);
+            }
+        }
+    }
+
+    public Task<Void> execute(@NotNull String operation, @NotNull CheckedRunnable runnable) {
+        return supply(operation, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given storage operation.
+     * @param operation the name of the operation for metrics, for example the name of the {@link Storage} method
+     * @param supplier the operation
+     * @return a task for the result of the operation, fails with a {@link StorageException} if too many operations are waiting to run
+     */
+    public <T> Task<T> supply(@NotNull String operation, @NotNull CheckedSupplier<T> supplier) {
+        Task<T> task = new Task<>();
+        long submitted = System.nanoTime();
+
+        Runnable runnable = () -> {
+            long started = System.nanoTime();
+            queueWait.recordNanos(started - submitted);
+            try {
+                task.complete(supplier.get());
+            } catch (Throwable t) {
+                task.completeExceptionally(t);
+            } finally {
+                operationTimings.computeIfAbsent(operation, key -> new LatencyHistogram())
+                        .recordNanos(System.nanoTime() - started);
+            }
+        };
+
+        submit(new Operation(operation, task, runnable));
+        return task;
+    }
+
+    private void submit(Operation operation) {
+        try {
+            submitOrHold(operation);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            operation.task.completeExceptionally(new StorageException("Too many storage operations waiting to run, rejected " + operation.name));
+        }
+    }
+
+    private void submitOrHold(Operation operation) {
+        Runnable runnable = operation.runnable;
+        ExecutorService executorService;
+        Semaphore admissionPermits, runningPermits;
+        synchronized (this) {
+            executorService = this.executorService;
+            admissionPermits = this.admissionPermits;
+            runningPermits = this.runningPermits;
+
+            if (executorService == null) {
+                if (held == null) {
+                    rejected.incrementAndGet();
+                    operation.task.completeExceptionally(new StorageException("Storage is not available, rejected " + operation.name));
+                    return;
+                }
+                if (held.size() >= Math.max(queueSize, MINIMUM_HELD_OPERATIONS)) {
+                    throw new RejectedExecutionException();
+                }
+
+                // Runs once the executor is configured
+                held.add(operation);
+                return;
+            }
+        }
+
+        if (admissionPermits == null) {
+            executorService.execute(runnable);
+            return;
+        }
+
+        // Virtual threads: every operation gets a thread right away, but only some of them may run at a time
+        if (!admissionPermits.tryAcquire()) {
+            throw new RejectedExecutionException();
+        }
+        try {
+            executorService.execute(() -> {
+                runningPermits.acquireUninterruptibly();
+                try {
+                    runnable.run();
+                } finally {
+                    runningPermits.release();
+                    admissionPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admissionPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the submitted operations to finish, operations submitted after this are held until {@link #configure(int, int, boolean)}.
+     * Used while storage is being replaced.
+     */
+    public void pause() {
+        stop(true);
+    }
+
+    /**
+     * Waits for the submitted operations to finish, operations held since {@link #pause()} and operations submitted after this fail
+     * until {@link #configure(int, int, boolean)}.
+     */
+    public void shutdown() {
+        stop(false);
+    }
+
+    private void stop(boolean hold) {
+        ExecutorService executorService;
+        List<Operation> rejectedOperations = null;
+        synchronized (this) {
+            executorService = this.executorService;
+            this.executorService = null;
+            if (hold) {
+                if (held == null) {
+                    held = new ArrayList<>();
+                }
+            } else {
+                rejectedOperations = held;
+                held = null;
+            }
+        }
+        if (rejectedOperations != null) {
+            for (Operation operation : rejectedOperations) {
+                rejected.incrementAndGet();
+                operation.task.completeExceptionally(new StorageException("Storage is not available, rejected " + operation.name));
+            }
+        }
+        if (executorService == null) {
+            return;
+        }
+
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executorService.shutdownNow();
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        synchronized (this) {
+            values.put("executorConcurrency", concurrency);
+            values.put("executorQueueSize", queueSize);
+            values.put("executorVirtualThreads", virtualThreads);
+            if (held != null) {
+                values.put("executorHeld", held.size());
+            }
+            if (queue != null) {
+                values.put("executorQueued", queue.size());
+            } else if (admissionPermits != null) {
+                int admitted = concurrency + queueSize - admissionPermits.availablePermits();
+                int running = concurrency - runningPermits.availablePermits();
+                values.put("executorQueued", Math.max(0, admitted - running));
+            }
+        }
+        values.put("executorRejected", rejected.get());
+        values.put("queueWait", queueWait.summary());
+
+        Map<String, Object> operations = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : operationTimings.entrySet()) {
+            operations.put(entry.getKey(), entry.getValue().summary());
+        }
+        values.put("operations", operations);
+        return values;
+    }
+
+    private static class Operation {
+
+        private final String name;
+        private final Task<?> task;
+        private final Runnable runnable;
+
+        private Operation(String name, Task<?> task, Runnable runnable) {
+            this.name = name;
+            this.task = task;
+            this.runnable = runnable;
+        }
+    }
+}
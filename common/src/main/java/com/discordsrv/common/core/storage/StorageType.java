@@ -20,6 +20,7 @@ package com.discordsrv.common.core.storage;
 
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.storage.impl.MemoryStorage;
+import com.discordsrv.common.core.storage.impl.file.FileStorage;
 import com.discordsrv.common.core.storage.impl.sql.file.H2Storage;
 import com.discordsrv.common.core.storage.impl.sql.hikari.MariaDBStorage;
 import com.discordsrv.common.core.storage.impl.sql.hikari.MySQLStorage;
@@ -31,6 +32,7 @@ public enum StorageType {
     H2(H2Storage::new, "H2", false),
     MYSQL(MySQLStorage::new, "MySQL", true),
     MARIADB(MariaDBStorage::new, "MariaDB", true),
+    FILE(FileStorage::new, "File", false),
     MEMORY(discordSRV -> new MemoryStorage(), "Memory", false);
 
     private final Function<DiscordSRV, Storage> storageFunction;
@@ -0,0 +1,468 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.sync.SyncCheckpoint;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.profile.DiscordProfileData;
+import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.profile.PlayerProfileData;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Queues profile saves in front of another {@link Storage} and writes them out in batches.
+ * Multiple saves for the same profile before a flush are coalesced into one, reads see queued data.
+ */
+public class WriteBehindStorage implements Storage {
+
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(5);
+    private static final int FLUSH_THRESHOLD = 100;
+    private static final int MAXIMUM_SAVE_ATTEMPTS = 5;
+
+    private final DiscordSRV discordSRV;
+    private final Storage delegate;
+    private final NamedLogger logger;
+
+    private final Map<UUID, GameProfileData> pendingGameProfiles = new ConcurrentHashMap<>();
+    private final Map<Long, DiscordProfileData> pendingDiscordProfiles = new ConcurrentHashMap<>();
+    private final Map<UUID, GameProfileData> inFlightGameProfiles = new ConcurrentHashMap<>();
+    private final Map<Long, DiscordProfileData> inFlightDiscordProfiles = new ConcurrentHashMap<>();
+    private final Map<Object, Integer> failedSaveAttempts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private ScheduledFuture<?> flushFuture;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong droppedProfiles = new AtomicLong();
+    private final AtomicLong profilesWritten = new AtomicLong();
+    private final AtomicLong coalescedSaves = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos = -1;
+
+    public WriteBehindStorage(DiscordSRV discordSRV, Storage delegate) {
+        this.discordSRV = discordSRV;
+        this.delegate = delegate;
+        this.logger = new NamedLogger(discordSRV, "STORAGE");
+    }
+
+    public Storage delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void initialize() {
+        delegate.initialize();
+        flushFuture = discordSRV.scheduler().runAtFixedRate(this::scheduleFlush, FLUSH_INTERVAL);
+    }
+
+    @Override
+    public void close() throws StorageException {
+        closed = true;
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+        }
+
+        try {
+            flush();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    public int getQueueDepth() {
+        return pendingGameProfiles.size() + pendingDiscordProfiles.size();
+    }
+
+    private void scheduleFlush() {
+        discordSRV.storageExecutor().execute("flushProfiles", this::flush).whenFailed(t -> {
+            flushScheduled.set(false);
+            logger.error("Failed to save profiles to storage, retrying in " + FLUSH_INTERVAL.toSeconds() + " seconds", t);
+        });
+    }
+
+    /**
+     * Writes all queued profiles to the underlying storage.
+     * If a batch fails, its profiles are saved one at a time so one bad profile doesn't hold back the rest.
+     * Profiles that fail to save are queued again, unless a newer version of them has been queued since,
+     * and dropped after {@value #MAXIMUM_SAVE_ATTEMPTS} failed attempts.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+            if (pendingGameProfiles.isEmpty() && pendingDiscordProfiles.isEmpty()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            moveToInFlight(pendingGameProfiles, inFlightGameProfiles);
+            moveToInFlight(pendingDiscordProfiles, inFlightDiscordProfiles);
+
+            int count = inFlightGameProfiles.size() + inFlightDiscordProfiles.size();
+            Throwable failure;
+            try {
+                failure = save(
+                        "game",
+                        inFlightGameProfiles,
+                        pendingGameProfiles,
+                        delegate::saveGameProfileData,
+                        delegate::saveGameProfileData
+                );
+                Throwable discordFailure = save(
+                        "Discord",
+                        inFlightDiscordProfiles,
+                        pendingDiscordProfiles,
+                        delegate::saveDiscordProfileData,
+                        delegate::saveDiscordProfileData
+                );
+                if (failure == null) {
+                    failure = discordFailure;
+                } else if (discordFailure != null) {
+                    failure.addSuppressed(discordFailure);
+                }
+            } finally {
+                inFlightGameProfiles.clear();
+                inFlightDiscordProfiles.clear();
+            }
+            if (failure != null) {
+                failedFlushes.incrementAndGet();
+                throw new StorageException(failure);
+            }
+
+            long time = System.nanoTime() - start;
+            flushes.incrementAndGet();
+            profilesWritten.addAndGet(count);
+            totalFlushNanos.addAndGet(time);
+            maxFlushNanos.accumulateAndGet(time, Math::max);
+            lastFlushNanos = time;
+
+            logger.debug(() -> "Saved " + count + " profiles in " + Duration.ofNanos(time).toMillis() + "ms");
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private <K, V> Throwable save(
+            String type,
+            Map<K, V> inFlight,
+            Map<K, V> pending,
+            Consumer<Collection<V>> saveBatch,
+            Consumer<V> saveOne
+    ) {
+        if (inFlight.isEmpty()) {
+            return null;
+        }
+
+        try {
+            saveBatch.accept(new ArrayList<>(inFlight.values()));
+            if (!failedSaveAttempts.isEmpty()) {
+                inFlight.keySet().forEach(failedSaveAttempts::remove);
+            }
+            return null;
+        } catch (Throwable t) {
+            if (inFlight.size() == 1) {
+                return failed(type, inFlight.entrySet().iterator().next(), pending, t);
+            }
+            logger.debug("Failed to save " + inFlight.size() + " " + type + " profiles together, saving them one at a time", t);
+        }
+
+        Throwable failure = null;
+        for (Map.Entry<K, V> entry : inFlight.entrySet()) {
+            try {
+                saveOne.accept(entry.getValue());
+                failedSaveAttempts.remove(entry.getKey());
+            } catch (Throwable t) {
+                Throwable retried = failed(type, entry, pending, t);
+                if (retried == null) {
+                    continue;
+                }
+                if (failure == null) {
+                    failure = retried;
+                } else {
+                    failure.addSuppressed(retried);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private <K, V> Throwable failed(String type, Map.Entry<K, V> entry, Map<K, V> pending, Throwable throwable) {
+        K key = entry.getKey();
+        int attempts = failedSaveAttempts.merge(key, 1, Integer::sum);
+        if (attempts >= MAXIMUM_SAVE_ATTEMPTS) {
+            failedSaveAttempts.remove(key);
+            droppedProfiles.incrementAndGet();
+            logger.error("Failed to save " + type + " profile " + key + " " + attempts + " times, discarding the change", throwable);
+            return null;
+        }
+
+        pending.putIfAbsent(key, entry.getValue());
+        return throwable;
+    }
+
+    private <K, V> void moveToInFlight(Map<K, V> pending, Map<K, V> inFlight) {
+        Iterator<Map.Entry<K, V>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, V> entry = iterator.next();
+            inFlight.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+    }
+
+    private void queued() {
+        if (closed) {
+            // Nothing will flush after this point
+            flush();
+            return;
+        }
+
+        if (getQueueDepth() >= FLUSH_THRESHOLD && flushScheduled.compareAndSet(false, true)) {
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("backend", delegate.getClass().getName());
+        values.putAll(delegate.getMetrics());
+
+        long flushCount = flushes.get();
+        long lastFlush = lastFlushNanos;
+        values.put("writeBehindQueueDepth", getQueueDepth());
+        values.put("writeBehindFlushes", flushCount);
+        values.put("writeBehindFailedFlushes", failedFlushes.get());
+        values.put("writeBehindDroppedProfiles", droppedProfiles.get());
+        values.put("writeBehindProfilesWritten", profilesWritten.get());
+        values.put("writeBehindCoalescedSaves", coalescedSaves.get());
+        values.put("writeBehindLastFlushMillis", lastFlush >= 0 ? Duration.ofNanos(lastFlush).toMillis() : -1);
+        values.put("writeBehindAverageFlushMillis", flushCount > 0 ? Duration.ofNanos(totalFlushNanos.get() / flushCount).toMillis() : -1);
+        values.put("writeBehindMaxFlushMillis", Duration.ofNanos(maxFlushNanos.get()).toMillis());
+        return values;
+    }
+
+    // Profile
+
+    @Override
+    public GameProfileData getGameProfileData(@NotNull UUID playerUUID) {
+        GameProfileData data = pendingGameProfiles.get(playerUUID);
+        if (data == null) {
+            data = inFlightGameProfiles.get(playerUUID);
+        }
+        if (data != null) {
+            return data.copy();
+        }
+        return delegate.getGameProfileData(playerUUID);
+    }
+
+    @Override
+    public @NotNull Map<UUID, GameProfileData> getGameProfileData(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, GameProfileData> profiles = new HashMap<>(playerUUIDs.size());
+        List<UUID> notQueued = new ArrayList<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            GameProfileData data = pendingGameProfiles.get(playerUUID);
+            if (data == null) {
+                data = inFlightGameProfiles.get(playerUUID);
+            }
+            if (data != null) {
+                profiles.put(playerUUID, data.copy());
+            } else {
+                notQueued.add(playerUUID);
+            }
+        }
+        if (!notQueued.isEmpty()) {
+            delegate.getGameProfileData(notQueued).forEach(profiles::putIfAbsent);
+        }
+        return profiles;
+    }
+
+    @Override
+    public @NotNull PlayerProfileData getPlayerProfileData(@NotNull UUID playerUUID) {
+        // Taken before the read, so a save that finishes flushing during it can't be missed
+        GameProfileData gameProfile = pendingGameProfiles.get(playerUUID);
+        if (gameProfile == null) {
+            gameProfile = inFlightGameProfiles.get(playerUUID);
+        }
+        Map<Long, DiscordProfileData> discordProfiles = new HashMap<>(pendingDiscordProfiles);
+        inFlightDiscordProfiles.forEach(discordProfiles::putIfAbsent);
+
+        PlayerProfileData data = delegate.getPlayerProfileData(playerUUID);
+
+        // Queued saves are newer than what was read
+        AccountLink link = data.getLink();
+        DiscordProfileData discordProfile = link != null ? discordProfiles.get(link.userId()) : null;
+
+        if (gameProfile == null && discordProfile == null) {
+            return data;
+        }
+        return new PlayerProfileData(
+                link,
+                gameProfile != null ? gameProfile.copy() : data.getGameProfile(),
+                discordProfile != null ? discordProfile.copy() : data.getDiscordProfile()
+        );
+    }
+
+    @Override
+    public void saveGameProfileData(@NotNull GameProfileData profile) {
+        if (pendingGameProfiles.put(profile.getPlayerUUID(), profile.copy()) != null) {
+            coalescedSaves.incrementAndGet();
+        }
+        queued();
+    }
+
+    @Override
+    public void saveGameProfileData(@NotNull Collection<GameProfileData> profiles) {
+        for (GameProfileData profile : profiles) {
+            if (pendingGameProfiles.put(profile.getPlayerUUID(), profile.copy()) != null) {
+                coalescedSaves.incrementAndGet();
+            }
+        }
+        queued();
+    }
+
+    @Override
+    public DiscordProfileData getDiscordProfileData(long userId) {
+        DiscordProfileData data = pendingDiscordProfiles.get(userId);
+        if (data == null) {
+            data = inFlightDiscordProfiles.get(userId);
+        }
+        if (data != null) {
+            return data.copy();
+        }
+        return delegate.getDiscordProfileData(userId);
+    }
+
+    @Override
+    public void saveDiscordProfileData(@NotNull DiscordProfileData profile) {
+        if (pendingDiscordProfiles.put(profile.getUserId(), profile.copy()) != null) {
+            coalescedSaves.incrementAndGet();
+        }
+        queued();
+    }
+
+    @Override
+    public void saveDiscordProfileData(@NotNull Collection<DiscordProfileData> profiles) {
+        for (DiscordProfileData profile : profiles) {
+            if (pendingDiscordProfiles.put(profile.getUserId(), profile.copy()) != null) {
+                coalescedSaves.incrementAndGet();
+            }
+        }
+        queued();
+    }
+
+    // Delegated
+
+    @Override
+    public @Nullable AccountLink getLinkByPlayerUUID(@NotNull UUID playerUUID) {
+        return delegate.getLinkByPlayerUUID(playerUUID);
+    }
+
+    @Override
+    public @Nullable AccountLink getLinkByUserId(long userId) {
+        return delegate.getLinkByUserId(userId);
+    }
+
+    @Override
+    public @NotNull Map<UUID, AccountLink> getLinksByPlayerUUIDs(@NotNull Collection<UUID> playerUUIDs) {
+        return delegate.getLinksByPlayerUUIDs(playerUUIDs);
+    }
+
+    @Override
+    public @NotNull Map<Long, AccountLink> getLinksByUserIds(long @NotNull [] userIds) {
+        return delegate.getLinksByUserIds(userIds);
+    }
+
+    @Override
+    public void forEachLink(@NotNull Consumer<AccountLink> consumer) {
+        delegate.forEachLink(consumer);
+    }
+
+    @Override
+    public void createLink(@NotNull AccountLink link) {
+        delegate.createLink(link);
+    }
+
+    @Override
+    public void removeLink(@NotNull UUID playerUUID, long userId) {
+        delegate.removeLink(playerUUID, userId);
+    }
+
+    @Override
+    public void storeLinkingCode(@NotNull UUID playerUUID, String username, String code) {
+        delegate.storeLinkingCode(playerUUID, username, code);
+    }
+
+    @Override
+    public Pair<UUID, String> getLinkingCode(String code) {
+        return delegate.getLinkingCode(code);
+    }
+
+    @Override
+    public void removeLinkingCode(@NotNull UUID playerUUID) {
+        delegate.removeLinkingCode(playerUUID);
+    }
+
+    @Override
+    public int getLinkedAccountCount() {
+        return delegate.getLinkedAccountCount();
+    }
+
+    @Override
+    public void addRequiredLinkingBypass(UUID playerUUID) {
+        delegate.addRequiredLinkingBypass(playerUUID);
+    }
+
+    @Override
+    public void removeRequiredLinkingBypass(UUID playerUUID) {
+        delegate.removeRequiredLinkingBypass(playerUUID);
+    }
+
+    @Override
+    public Set<UUID> getRequiredLinkingBypass() {
+        return delegate.getRequiredLinkingBypass();
+    }
+
+    @Override
+    public @NotNull Map<UUID, List<SyncCheckpoint>> getSyncCheckpoints(@NotNull Collection<UUID> playerUUIDs) {
+        return delegate.getSyncCheckpoints(playerUUIDs);
+    }
+
+    @Override
+    public void saveSyncCheckpoints(@NotNull Collection<SyncCheckpoint> checkpoints) {
+        delegate.saveSyncCheckpoints(checkpoints);
+    }
+}
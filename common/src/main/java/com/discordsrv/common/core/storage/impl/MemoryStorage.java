@@ -18,6 +18,7 @@
 
 package com.discordsrv.common.core.storage.impl;
 
+import com.discordsrv.common.abstraction.sync.SyncCheckpoint;
 import com.discordsrv.common.core.profile.DiscordProfileData;
 import com.discordsrv.common.core.profile.GameProfileData;
 import com.discordsrv.common.core.storage.Storage;
@@ -26,11 +27,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class MemoryStorage implements Storage {
 
@@ -45,6 +44,8 @@ public class MemoryStorage implements Storage {
 
     private final Set<UUID> requiredLinkingBypass = new HashSet<>();
 
+    private final Map<UUID, Map<Long, SyncCheckpoint>> syncCheckpoints = new ConcurrentHashMap<>();
+
     public MemoryStorage() {}
 
     @Override
@@ -66,6 +67,11 @@ public class MemoryStorage implements Storage {
         return discordLinks.get(userId);
     }
 
+    @Override
+    public void forEachLink(@NotNull Consumer<AccountLink> consumer) {
+        gameLinks.values().forEach(consumer);
+    }
+
     @Override
     public void createLink(@NotNull AccountLink link) {
         gameLinks.put(link.playerUUID(), link);
@@ -132,4 +138,24 @@ public class MemoryStorage implements Storage {
     public Set<UUID> getRequiredLinkingBypass() {
         return requiredLinkingBypass;
     }
+
+    @Override
+    public @NotNull Map<UUID, List<SyncCheckpoint>> getSyncCheckpoints(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, List<SyncCheckpoint>> checkpoints = new HashMap<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            Map<Long, SyncCheckpoint> playerCheckpoints = syncCheckpoints.get(playerUUID);
+            if (playerCheckpoints != null) {
+                checkpoints.put(playerUUID, new ArrayList<>(playerCheckpoints.values()));
+            }
+        }
+        return checkpoints;
+    }
+
+    @Override
+    public void saveSyncCheckpoints(@NotNull Collection<SyncCheckpoint> checkpoints) {
+        for (SyncCheckpoint checkpoint : checkpoints) {
+            syncCheckpoints.computeIfAbsent(checkpoint.playerUUID(), key -> new ConcurrentHashMap<>())
+                    .put(checkpoint.syncKey(), checkpoint);
+        }
+    }
 }
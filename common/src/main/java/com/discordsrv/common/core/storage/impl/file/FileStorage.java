@@ -0,0 +1,883 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.file;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.sync.SyncCheckpoint;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.profile.DiscordProfileData;
+import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.profile.PlayerRewardData;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.core.storage.StorageType;
+import com.discordsrv.common.core.storage.impl.sql.SQLStorage;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.feature.linking.AccountLink;
+import com.discordsrv.common.feature.linking.LinkStore;
+import com.discordsrv.common.util.function.CheckedConsumer;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Storage backed by an append-only file in the data directory, with all data indexed in memory.
+ * <p>
+ * Every change is appended to the file as a record and lookups are served from memory.
+ * The file is rewritten with only the current state once most of its records have been superseded.
+ * Linking codes are short-lived and only kept in memory, expired sync checkpoints are left out when the file is rewritten.
+ */
+public class FileStorage implements Storage {
+
+    public static final String FILE_NAME = "storage.dat";
+
+    private static final byte LINK = 1;
+    private static final byte UNLINK = 2;
+    private static final byte REWARD = 3;
+    private static final byte GAME_PROFILE = 4;
+    private static final byte DISCORD_PROFILE = 5;
+    private static final byte LINKING_BYPASS_ADD = 6;
+    private static final byte LINKING_BYPASS_REMOVE = 7;
+    private static final byte SYNC_CHECKPOINT = 8;
+
+    private static final long COMPACTION_MINIMUM_SIZE = 1024 * 1024;
+    private static final Duration COMPACTION_CHECK_INTERVAL = Duration.ofMinutes(10);
+
+    private final DiscordSRV discordSRV;
+    private final NamedLogger logger;
+    private final StorageLog log;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Future<?> compactionTask;
+    private volatile boolean importing = false;
+
+    // Guarded by lock
+    private final Map<UUID, AccountLink> linksByPlayer = new HashMap<>();
+    private final LongObjectMap<AccountLink> linksByUser = new LongObjectMap<>();
+    private final Map<String, Integer> rewardIds = new HashMap<>();
+    private final Map<Integer, String> rewardNames = new HashMap<>();
+    private final Map<UUID, GameProfileData> gameProfiles = new HashMap<>();
+    private final LongObjectMap<DiscordProfileData> discordProfiles = new LongObjectMap<>();
+    private final Set<UUID> requiredLinkingBypass = new HashSet<>();
+    private final Map<UUID, Map<Long, SyncCheckpoint>> syncCheckpoints = new HashMap<>();
+    private int syncCheckpointCount = 0;
+
+    private final Map<String, LinkingCode> linkingCodes = new ConcurrentHashMap<>();
+
+    // Metrics
+    private long discardedBytes = 0;
+    private volatile long compactions = 0;
+
+    public FileStorage(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
+        this.logger = new NamedLogger(discordSRV, "STORAGE");
+        this.log = new StorageLog(discordSRV.dataDirectory().resolve(FILE_NAME));
+    }
+
+    @Override
+    public void initialize() {
+        boolean newFile = !Files.exists(log.path());
+
+        lock.writeLock().lock();
+        try {
+            discardedBytes = log.open(this::replay);
+        } catch (StorageException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new StorageException(t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Path corruptedCopy = log.corruptedCopy();
+        if (corruptedCopy != null) {
+            logger.error("Found a corrupted record in " + FILE_NAME + ", " + discardedBytes + " bytes from it onwards could not be loaded. "
+                                 + "The file before it was truncated was saved as " + corruptedCopy.getFileName());
+        } else if (discardedBytes > 0) {
+            logger.warning("Discarded " + discardedBytes + " bytes of incomplete data from the end of " + FILE_NAME
+                                   + ", the server may have stopped while it was being written");
+        }
+
+        if (newFile) {
+            importExisting();
+        }
+
+        compactIfNeeded();
+        this.compactionTask = discordSRV.scheduler().runAtFixedRate(this::compactIfNeeded, COMPACTION_CHECK_INTERVAL);
+    }
+
+    @Override
+    public void close() throws StorageException {
+        if (compactionTask != null) {
+            compactionTask.cancel(false);
+        }
+
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new StorageException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Import
+
+    private void importExisting() {
+        StorageType importFrom = discordSRV.connectionConfig().storage.file.importFrom;
+        if (importFrom == null || importFrom == StorageType.FILE || importFrom == StorageType.MEMORY) {
+            return;
+        }
+        if (importFrom == StorageType.H2 && !Files.exists(discordSRV.dataDirectory().resolve("h2-database.mv.db"))) {
+            return;
+        }
+
+        logger.info("Importing existing data from " + importFrom.prettyName() + "...");
+        Storage source = null;
+        try {
+            if (importFrom.hikari()) {
+                discordSRV.dependencyManager().hikari().downloadRelocateAndLoad().get();
+            }
+
+            source = importFrom.storageFunction().apply(discordSRV);
+            if (!(source instanceof SQLStorage)) {
+                return;
+            }
+            source.initialize();
+
+            importing = true;
+            ((SQLStorage) source).exportTo(this);
+            log.syncAll();
+        } catch (Throwable t) {
+            // Start over on the next startup, instead of continuing with partially imported data
+            try {
+                log.close();
+                Files.deleteIfExists(log.path());
+            } catch (IOException e) {
+                t.addSuppressed(e);
+            }
+            throw new StorageException(t instanceof ExecutionException ? t.getCause() : t);
+        } finally {
+            importing = false;
+            if (source != null) {
+                try {
+                    source.close();
+                } catch (Throwable t) {
+                    logger.warning("Failed to close " + importFrom.prettyName() + " after importing", t);
+                }
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            logger.info("Imported " + linksByPlayer.size() + " linked accounts, "
+                                + (gameProfiles.size() + discordProfiles.size()) + " profiles and "
+                                + requiredLinkingBypass.size() + " linking bypasses from " + importFrom.prettyName());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Writing
+
+    private void write(ByteBuffer record, Runnable apply) {
+        sync(append(record, apply));
+    }
+
+    /**
+     * Buffers a record and applies it to the in-memory state, without waiting for it to reach the disk.
+     * @return the sequence number to pass to {@link #sync(long)}, after the lock is released
+     */
+    private long append(ByteBuffer record, Runnable apply) {
+        lock.writeLock().lock();
+        try {
+            long sequence = log.append(record);
+            apply.run();
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void sync(long sequence) {
+        if (importing) {
+            // Synced once at the end of the import
+            return;
+        }
+        try {
+            log.sync(sequence);
+        } catch (IOException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private int liveRecords() {
+        return rewardIds.size() + linksByPlayer.size() + gameProfiles.size() + discordProfiles.size() + requiredLinkingBypass.size()
+                + syncCheckpointCount;
+    }
+
+    private void compactIfNeeded() {
+        int live;
+        lock.readLock().lock();
+        try {
+            live = liveRecords();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (log.size() < COMPACTION_MINIMUM_SIZE || log.records() < (long) live * 2) {
+            return;
+        }
+
+        try {
+            compact();
+        } catch (Throwable t) {
+            logger.error("Failed to compact " + FILE_NAME, t);
+        }
+    }
+
+    /**
+     * Rewrites the file with only the current state.
+     * The state is copied under the lock, the file is written from the copy without blocking reads or writes.
+     */
+    public void compact() {
+        long start = System.nanoTime();
+        long sizeBefore = log.size();
+
+        Snapshot snapshot;
+        lock.writeLock().lock();
+        try {
+            removeExpiredSyncCheckpoints();
+            snapshot = new Snapshot();
+            log.startRewrite();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            log.rewrite(snapshot::write);
+            compactions++;
+        } catch (StorageException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new StorageException(t);
+        }
+
+        long sizeAfter = log.size();
+        logger.debug(() -> "Compacted " + FILE_NAME + " from " + sizeBefore + " to " + sizeAfter + " bytes in "
+                + Duration.ofNanos(System.nanoTime() - start).toMillis() + "ms");
+    }
+
+    private void removeExpiredSyncCheckpoints() {
+        long now = System.currentTimeMillis();
+        Iterator<Map<Long, SyncCheckpoint>> playerIterator = syncCheckpoints.values().iterator();
+        while (playerIterator.hasNext()) {
+            Map<Long, SyncCheckpoint> checkpoints = playerIterator.next();
+            Iterator<SyncCheckpoint> iterator = checkpoints.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                    syncCheckpointCount--;
+                }
+            }
+            if (checkpoints.isEmpty()) {
+                playerIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * A copy of the current state for {@link #compact()}, must be created while holding the lock.
+     * The stored objects aren't changed after being stored, so only the collections are copied.
+     */
+    private class Snapshot {
+
+        private final Map<String, Integer> rewards = new HashMap<>(rewardIds);
+        private final List<AccountLink> links = new ArrayList<>(linksByPlayer.values());
+        private final List<GameProfileData> games = new ArrayList<>(gameProfiles.values());
+        private final List<DiscordProfileData> discords = new ArrayList<>(discordProfiles.size());
+        private final List<UUID> linkingBypass = new ArrayList<>(requiredLinkingBypass);
+        private final List<SyncCheckpoint> checkpoints = new ArrayList<>(syncCheckpointCount);
+
+        private Snapshot() {
+            discordProfiles.forEachValue(discords::add);
+            for (Map<Long, SyncCheckpoint> playerCheckpoints : syncCheckpoints.values()) {
+                checkpoints.addAll(playerCheckpoints.values());
+            }
+        }
+
+        private void write(CheckedConsumer<ByteBuffer> sink) throws Throwable {
+            for (Map.Entry<String, Integer> entry : rewards.entrySet()) {
+                sink.accept(encodeReward(entry.getValue(), entry.getKey()));
+            }
+            for (AccountLink link : links) {
+                sink.accept(encodeLink(link));
+            }
+            for (GameProfileData profile : games) {
+                sink.accept(encodeGameProfile(profile));
+            }
+            for (DiscordProfileData profile : discords) {
+                sink.accept(encodeDiscordProfile(profile));
+            }
+            for (UUID playerUUID : linkingBypass) {
+                sink.accept(encodePlayer(LINKING_BYPASS_ADD, playerUUID));
+            }
+            for (SyncCheckpoint checkpoint : checkpoints) {
+                sink.accept(encodeSyncCheckpoint(checkpoint));
+            }
+        }
+    }
+
+    // Encoding & replaying
+
+    private static ByteBuffer record(byte type, RecordWriter writer) {
+        try {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream(64);
+            DataOutputStream output = new DataOutputStream(byteStream);
+            output.writeByte(type);
+            writer.write(output);
+            output.flush();
+            return ByteBuffer.wrap(byteStream.toByteArray());
+        } catch (IOException e) {
+            // Writing to memory
+            throw new StorageException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    private static void writeUUID(DataOutputStream output, UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void writeDateTime(DataOutputStream output, @Nullable LocalDateTime dateTime) throws IOException {
+        output.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            output.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            output.writeInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeRewards(DataOutputStream output, Set<PlayerRewardData> rewards) throws IOException {
+        output.writeInt(rewards.size());
+        for (PlayerRewardData reward : rewards) {
+            output.writeInt(reward.getDatabaseId());
+            output.writeBoolean(reward.isPending());
+        }
+    }
+
+    private Set<PlayerRewardData> readRewards(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        Set<PlayerRewardData> rewards = new HashSet<>(count);
+        for (int i = 0; i < count; i++) {
+            int rewardId = buffer.getInt();
+            boolean pending = buffer.get() != 0;
+
+            String name = rewardNames.get(rewardId);
+            if (name == null) {
+                throw new StorageException("Unknown reward id " + rewardId + " in " + FILE_NAME);
+            }
+            rewards.add(new PlayerRewardData(rewardId, name, pending));
+        }
+        return rewards;
+    }
+
+    private static ByteBuffer encodeLink(AccountLink link) {
+        return record(LINK, output -> {
+            writeUUID(output, link.playerUUID());
+            output.writeLong(link.userId());
+            writeDateTime(output, link.created());
+            writeDateTime(output, link.lastSeen());
+        });
+    }
+
+    private static ByteBuffer encodeUnlink(UUID playerUUID, long userId) {
+        return record(UNLINK, output -> {
+            writeUUID(output, playerUUID);
+            output.writeLong(userId);
+        });
+    }
+
+    private static ByteBuffer encodeReward(int id, String name) {
+        return record(REWARD, output -> {
+            output.writeInt(id);
+            writeString(output, name);
+        });
+    }
+
+    private static ByteBuffer encodeGameProfile(GameProfileData profile) {
+        return record(GAME_PROFILE, output -> {
+            writeUUID(output, profile.getPlayerUUID());
+            writeRewards(output, profile.getRewards());
+        });
+    }
+
+    private static ByteBuffer encodeDiscordProfile(DiscordProfileData profile) {
+        return record(DISCORD_PROFILE, output -> {
+            output.writeLong(profile.getUserId());
+            writeRewards(output, profile.getRewards());
+        });
+    }
+
+    private static ByteBuffer encodeSyncCheckpoint(SyncCheckpoint checkpoint) {
+        return record(SYNC_CHECKPOINT, output -> {
+            writeUUID(output, checkpoint.playerUUID());
+            output.writeLong(checkpoint.syncKey());
+            output.writeLong(checkpoint.gameHash());
+            output.writeLong(checkpoint.discordHash());
+            output.writeLong(checkpoint.updated());
+        });
+    }
+
+    private static ByteBuffer encodePlayer(byte type, UUID playerUUID) {
+        return record(type, output -> writeUUID(output, playerUUID));
+    }
+
+    private void replay(ByteBuffer record) {
+        byte type = record.get();
+        switch (type) {
+            case LINK: {
+                UUID playerUUID = readUUID(record);
+                long userId = record.getLong();
+                applyLink(new AccountLink(playerUUID, userId, readDateTime(record), readDateTime(record)));
+                break;
+            }
+            case UNLINK:
+                applyUnlink(readUUID(record), record.getLong());
+                break;
+            case REWARD:
+                applyReward(record.getInt(), readString(record));
+                break;
+            case GAME_PROFILE: {
+                UUID playerUUID = readUUID(record);
+                gameProfiles.put(playerUUID, new GameProfileData(playerUUID, readRewards(record)));
+                break;
+            }
+            case DISCORD_PROFILE: {
+                long userId = record.getLong();
+                discordProfiles.put(userId, new DiscordProfileData(userId, readRewards(record)));
+                break;
+            }
+            case LINKING_BYPASS_ADD:
+                requiredLinkingBypass.add(readUUID(record));
+                break;
+            case LINKING_BYPASS_REMOVE:
+                requiredLinkingBypass.remove(readUUID(record));
+                break;
+            case SYNC_CHECKPOINT:
+                applySyncCheckpoint(new SyncCheckpoint(readUUID(record), record.getLong(), record.getLong(), record.getLong(), record.getLong()));
+                break;
+            default:
+                throw new StorageException("Unknown record type " + type + " in " + FILE_NAME);
+        }
+    }
+
+    private void applyLink(AccountLink link) {
+        AccountLink previousForPlayer = linksByPlayer.put(link.playerUUID(), link);
+        if (previousForPlayer != null && previousForPlayer.userId() != link.userId()) {
+            linksByUser.remove(previousForPlayer.userId());
+        }
+
+        AccountLink previousForUser = linksByUser.put(link.userId(), link);
+        if (previousForUser != null && !previousForUser.playerUUID().equals(link.playerUUID())) {
+            linksByPlayer.remove(previousForUser.playerUUID());
+        }
+    }
+
+    private void applyUnlink(UUID playerUUID, long userId) {
+        AccountLink link = linksByPlayer.remove(playerUUID);
+        if (link != null) {
+            linksByUser.remove(link.userId());
+        }
+
+        AccountLink userLink = linksByUser.get(userId);
+        if (userLink != null && userLink.playerUUID().equals(playerUUID)) {
+            linksByUser.remove(userId);
+        }
+    }
+
+    private void applySyncCheckpoint(SyncCheckpoint checkpoint) {
+        SyncCheckpoint previous = syncCheckpoints.computeIfAbsent(checkpoint.playerUUID(), key -> new HashMap<>())
+                .put(checkpoint.syncKey(), checkpoint);
+        if (previous == null) {
+            syncCheckpointCount++;
+        }
+    }
+
+    private void applyReward(int id, String name) {
+        rewardIds.put(name, id);
+        rewardNames.put(id, name);
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("file", log.path().toString());
+        values.put("fileSize", log.size());
+        values.put("fileRecords", log.records());
+        lock.readLock().lock();
+        try {
+            values.put("liveRecords", liveRecords());
+        } finally {
+            lock.readLock().unlock();
+        }
+        values.put("fsyncs", log.syncs());
+        values.put("compactions", compactions);
+        values.put("discardedBytesOnLoad", discardedBytes);
+        return values;
+    }
+
+    // AccountLink
+
+    @Override
+    public @Nullable AccountLink getLinkByPlayerUUID(@NotNull UUID playerUUID) {
+        lock.readLock().lock();
+        try {
+            return linksByPlayer.get(playerUUID);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public @Nullable AccountLink getLinkByUserId(long userId) {
+        lock.readLock().lock();
+        try {
+            return linksByUser.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public @NotNull Map<UUID, AccountLink> getLinksByPlayerUUIDs(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, AccountLink> links = new HashMap<>(playerUUIDs.size());
+        lock.readLock().lock();
+        try {
+            for (UUID playerUUID : playerUUIDs) {
+                AccountLink link = linksByPlayer.get(playerUUID);
+                if (link != null) {
+                    links.put(playerUUID, link);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return links;
+    }
+
+    @Override
+    public @NotNull Map<Long, AccountLink> getLinksByUserIds(long @NotNull [] userIds) {
+        Map<Long, AccountLink> links = new HashMap<>(userIds.length);
+        lock.readLock().lock();
+        try {
+            for (long userId : userIds) {
+                AccountLink link = linksByUser.get(userId);
+                if (link != null) {
+                    links.put(userId, link);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return links;
+    }
+
+    @Override
+    public void forEachLink(@NotNull Consumer<AccountLink> consumer) {
+        lock.readLock().lock();
+        try {
+            linksByPlayer.values().forEach(consumer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void createLink(@NotNull AccountLink link) {
+        write(encodeLink(link), () -> applyLink(link));
+    }
+
+    @Override
+    public void removeLink(@NotNull UUID playerUUID, long userId) {
+        write(encodeUnlink(playerUUID, userId), () -> applyUnlink(playerUUID, userId));
+    }
+
+    @Override
+    public int getLinkedAccountCount() {
+        lock.readLock().lock();
+        try {
+            return linksByPlayer.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Linking codes
+
+    @Override
+    public void storeLinkingCode(@NotNull UUID playerUUID, String username, String code) {
+        long now = System.currentTimeMillis();
+        linkingCodes.values().removeIf(linkingCode -> linkingCode.playerUUID.equals(playerUUID) || linkingCode.expiry < now);
+        linkingCodes.put(code, new LinkingCode(playerUUID, username, now + LinkStore.LINKING_CODE_EXPIRY_TIME.toMillis()));
+    }
+
+    @Override
+    public Pair<UUID, String> getLinkingCode(String code) {
+        LinkingCode linkingCode = linkingCodes.get(code);
+        if (linkingCode == null || linkingCode.expiry < System.currentTimeMillis()) {
+            return null;
+        }
+        return Pair.of(linkingCode.playerUUID, linkingCode.username);
+    }
+
+    @Override
+    public void removeLinkingCode(@NotNull UUID playerUUID) {
+        linkingCodes.values().removeIf(linkingCode -> linkingCode.playerUUID.equals(playerUUID));
+    }
+
+    private static class LinkingCode {
+
+        private final UUID playerUUID;
+        private final String username;
+        private final long expiry;
+
+        private LinkingCode(UUID playerUUID, String username, long expiry) {
+            this.playerUUID = playerUUID;
+            this.username = username;
+            this.expiry = expiry;
+        }
+    }
+
+    // Profile
+
+    /**
+     * Gives the rewards ids from this storage, assigning ids to rewards that don't have one yet.
+     */
+    private Set<PlayerRewardData> withRewardIds(Set<PlayerRewardData> rewards) {
+        Set<PlayerRewardData> withIds = new HashSet<>(rewards.size());
+        for (PlayerRewardData reward : rewards) {
+            String name = reward.getId();
+            Integer id;
+            lock.readLock().lock();
+            try {
+                id = rewardIds.get(name);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (id == null) {
+                id = createRewardId(name);
+            }
+            withIds.add(new PlayerRewardData(id, name, reward.isPending()));
+        }
+        return withIds;
+    }
+
+    private int createRewardId(String name) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rewardIds.get(name);
+            if (existing != null) {
+                return existing;
+            }
+
+            int id = rewardNames.isEmpty() ? 1 : Collections.max(rewardNames.keySet()) + 1;
+            // Not synced here, the profile record that uses the id comes after it and syncs both
+            append(encodeReward(id, name), () -> applyReward(id, name));
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public GameProfileData getGameProfileData(@NotNull UUID playerUUID) {
+        lock.readLock().lock();
+        try {
+            GameProfileData profile = gameProfiles.get(playerUUID);
+            return profile != null ? profile.copy() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public @NotNull Map<UUID, GameProfileData> getGameProfileData(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, GameProfileData> profiles = new HashMap<>(playerUUIDs.size());
+        lock.readLock().lock();
+        try {
+            for (UUID playerUUID : playerUUIDs) {
+                GameProfileData profile = gameProfiles.get(playerUUID);
+                if (profile != null) {
+                    profiles.put(playerUUID, profile.copy());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return profiles;
+    }
+
+    @Override
+    public void saveGameProfileData(@NotNull GameProfileData profile) {
+        sync(appendGameProfile(profile));
+    }
+
+    @Override
+    public void saveGameProfileData(@NotNull Collection<GameProfileData> profiles) {
+        long sequence = 0;
+        for (GameProfileData profile : profiles) {
+            sequence = appendGameProfile(profile);
+        }
+        if (sequence > 0) {
+            sync(sequence);
+        }
+    }
+
+    private long appendGameProfile(GameProfileData profile) {
+        GameProfileData stored = new GameProfileData(profile.getPlayerUUID(), withRewardIds(profile.getRewards()));
+        return append(encodeGameProfile(stored), () -> gameProfiles.put(stored.getPlayerUUID(), stored));
+    }
+
+    @Override
+    public DiscordProfileData getDiscordProfileData(long userId) {
+        lock.readLock().lock();
+        try {
+            DiscordProfileData profile = discordProfiles.get(userId);
+            return profile != null ? profile.copy() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveDiscordProfileData(@NotNull DiscordProfileData profile) {
+        sync(appendDiscordProfile(profile));
+    }
+
+    @Override
+    public void saveDiscordProfileData(@NotNull Collection<DiscordProfileData> profiles) {
+        long sequence = 0;
+        for (DiscordProfileData profile : profiles) {
+            sequence = appendDiscordProfile(profile);
+        }
+        if (sequence > 0) {
+            sync(sequence);
+        }
+    }
+
+    private long appendDiscordProfile(DiscordProfileData profile) {
+        DiscordProfileData stored = new DiscordProfileData(profile.getUserId(), withRewardIds(profile.getRewards()));
+        return append(encodeDiscordProfile(stored), () -> discordProfiles.put(stored.getUserId(), stored));
+    }
+
+    // Linking bypass
+
+    @Override
+    public void addRequiredLinkingBypass(UUID playerUUID) {
+        write(encodePlayer(LINKING_BYPASS_ADD, playerUUID), () -> requiredLinkingBypass.add(playerUUID));
+    }
+
+    @Override
+    public void removeRequiredLinkingBypass(UUID playerUUID) {
+        write(encodePlayer(LINKING_BYPASS_REMOVE, playerUUID), () -> requiredLinkingBypass.remove(playerUUID));
+    }
+
+    @Override
+    public Set<UUID> getRequiredLinkingBypass() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(requiredLinkingBypass);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sync checkpoints
+
+    @Override
+    public @NotNull Map<UUID, List<SyncCheckpoint>> getSyncCheckpoints(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, List<SyncCheckpoint>> checkpoints = new HashMap<>(playerUUIDs.size());
+        lock.readLock().lock();
+        try {
+            for (UUID playerUUID : playerUUIDs) {
+                Map<Long, SyncCheckpoint> playerCheckpoints = syncCheckpoints.get(playerUUID);
+                if (playerCheckpoints != null) {
+                    checkpoints.put(playerUUID, new ArrayList<>(playerCheckpoints.values()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return checkpoints;
+    }
+
+    @Override
+    public void saveSyncCheckpoints(@NotNull Collection<SyncCheckpoint> checkpoints) {
+        long sequence = 0;
+        for (SyncCheckpoint checkpoint : checkpoints) {
+            sequence = append(encodeSyncCheckpoint(checkpoint), () -> applySyncCheckpoint(checkpoint));
+        }
+        if (sequence > 0) {
+            sync(sequence);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.file;
+
+import com.discordsrv.common.util.function.CheckedConsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of checksummed records.
+ * <p>
+ * Each record is written as {@code [int length][int crc32][payload]}. Appending only buffers the record,
+ * {@link #sync(long)} writes out and fsyncs everything buffered so far, so concurrent writers share one fsync.
+ * A partially written record at the end of the file (from a crash) is discarded when the file is read.
+ * If a damaged record is followed by more data, the file is copied aside before it is truncated, see {@link #corruptedCopy()}.
+ */
+class StorageLog implements Closeable {
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final Path path;
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private Path corruptedCopy;
+
+    // Guarded by appendLock
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long appendedSequence = 0;
+    private long size = 0;
+    private long records = 0;
+    private ByteBuffer rewriteTail;
+    private long rewriteTailRecords = 0;
+
+    // Guarded by syncLock
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private volatile long syncedSequence = 0;
+    private volatile long syncs = 0;
+    private IOException writeFailure;
+
+    StorageLog(Path path) {
+        this.path = path;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Reads all the valid records in the file and opens it for appending.
+     * @param recordConsumer receives the payload of every record, in the order they were written
+     * @return the amount of bytes discarded from the end of the file, because they didn't form a complete record
+     */
+    public long open(CheckedConsumer<ByteBuffer> recordConsumer) throws Throwable {
+        long discarded = 0;
+        long validSize = 0;
+        long validRecords = 0;
+
+        if (Files.exists(path)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            CRC32 crc = new CRC32();
+            boolean corrupted = false;
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    // A crash can only leave the last record incomplete, anything after this one means the file was damaged
+                    corrupted = buffer.position() + length < buffer.capacity();
+                    break;
+                }
+
+                recordConsumer.accept(payload);
+                buffer.position(buffer.position() + length);
+                validSize = buffer.position();
+                validRecords++;
+            }
+            discarded = buffer.capacity() - validSize;
+            if (corrupted) {
+                corruptedCopy = path.resolveSibling(path.getFileName() + ".corrupted-" + System.currentTimeMillis());
+                Files.copy(path, corruptedCopy);
+            }
+        } else {
+            Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (discarded > 0) {
+            channel.truncate(validSize);
+            channel.force(true);
+        }
+        channel.position(validSize);
+
+        synchronized (appendLock) {
+            size = validSize;
+            records = validRecords;
+        }
+        return discarded;
+    }
+
+    /**
+     * Buffers a record to be written.
+     * @param payload the record contents
+     * @return the sequence number of the record, to be passed to {@link #sync(long)}
+     */
+    public long append(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        int length = payload.remaining();
+
+        synchronized (appendLock) {
+            if (rewriteTail != null) {
+                // Also goes at the end of the file being rewritten
+                rewriteTail = ensureCapacity(rewriteTail, HEADER_SIZE + length);
+                rewriteTail.putInt(length);
+                rewriteTail.putInt((int) crc.getValue());
+                rewriteTail.put(payload.duplicate());
+                rewriteTailRecords++;
+            }
+
+            pending = ensureCapacity(pending, HEADER_SIZE + length);
+            pending.putInt(length);
+            pending.putInt((int) crc.getValue());
+            pending.put(payload);
+
+            size += HEADER_SIZE + length;
+            records++;
+            return ++appendedSequence;
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int additional) {
+        if (buffer.remaining() >= additional) {
+            return buffer;
+        }
+
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < additional) {
+            capacity <<= 1;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * Makes sure the given record and every record before it has been written to disk.
+     * If another thread is already syncing, this waits for it and only syncs again if the record wasn't included.
+     * @param sequence the sequence number from {@link #append(ByteBuffer)}
+     */
+    public void sync(long sequence) throws IOException {
+        if (syncedSequence >= sequence) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                // Written by another thread's sync while waiting
+                return;
+            }
+            if (writeFailure != null) {
+                // Records may have been lost, don't report anything after them as written
+                throw new IOException("A previous write to " + path + " failed", writeFailure);
+            }
+
+            long upTo;
+            synchronized (appendLock) {
+                ByteBuffer swap = writing;
+                writing = pending;
+                pending = swap;
+                upTo = appendedSequence;
+            }
+
+            writing.flip();
+            try {
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                writeFailure = e;
+                throw e;
+            } finally {
+                writing.clear();
+            }
+
+            syncs++;
+            syncedSequence = upTo;
+        }
+    }
+
+    /**
+     * The copy of the file made by {@link #open(CheckedConsumer)} before discarding a damaged record that wasn't at the end of the file.
+     * @return the path of the copy, or {@code null} if no damaged records were found
+     */
+    public Path corruptedCopy() {
+        return corruptedCopy;
+    }
+
+    public void syncAll() throws IOException {
+        long sequence;
+        synchronized (appendLock) {
+            sequence = appendedSequence;
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Starts keeping the records appended from now on, to add them to the end of the file written by {@link #rewrite(CheckedConsumer)}.
+     * Has to be called at the same time as taking the snapshot that is given to the rewrite,
+     * so that every record is either part of the snapshot or appended after it.
+     */
+    public void startRewrite() {
+        synchronized (appendLock) {
+            if (rewriteTail != null) {
+                throw new IllegalStateException("Already rewriting " + path);
+            }
+            rewriteTail = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            rewriteTailRecords = 0;
+        }
+    }
+
+    /**
+     * Replaces the contents of the file with the records given to the writer, to get rid of records that have been superseded.
+     * The records are written to a temporary file without blocking appends, the records appended since {@link #startRewrite()}
+     * are then added to it and it replaces the current file. If replacing the file fails, the current file stays open for appending.
+     * @param writer receives a consumer to give the records to
+     */
+    public void rewrite(CheckedConsumer<CheckedConsumer<ByteBuffer>> writer) throws Throwable {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        boolean replaced = false;
+        try (FileChannel temporary = FileChannel.open(
+                temporaryPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            long[] counts = new long[2];
+            ByteBuffer[] bufferHolder = new ByteBuffer[] {ByteBuffer.allocate(64 * 1024)};
+            CRC32 crc = new CRC32();
+            writer.accept(payload -> {
+                crc.reset();
+                crc.update(payload.duplicate());
+                int length = payload.remaining();
+
+                ByteBuffer current = bufferHolder[0];
+                if (current.remaining() < HEADER_SIZE + length) {
+                    writeFully(temporary, current);
+                    current = ensureCapacity(current, HEADER_SIZE + length);
+                    bufferHolder[0] = current;
+                }
+                current.putInt(length);
+                current.putInt((int) crc.getValue());
+                current.put(payload);
+
+                counts[0] += HEADER_SIZE + length;
+                counts[1]++;
+            });
+            writeFully(temporary, bufferHolder[0]);
+
+            synchronized (syncLock) {
+                synchronized (appendLock) {
+                    long tailSize = rewriteTail.position();
+                    writeFully(temporary, rewriteTail);
+                    temporary.force(true);
+                    temporary.close();
+
+                    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    replaced = true;
+
+                    FileChannel previousChannel = channel;
+                    try {
+                        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                        channel.position(counts[0] + tailSize);
+                    } catch (IOException e) {
+                        // The previous channel points at the replaced file, anything written to it would be lost
+                        writeFailure = e;
+                        throw e;
+                    } finally {
+                        try {
+                            previousChannel.close();
+                        } catch (IOException ignored) {}
+                    }
+
+                    // Everything appended so far is in the new file
+                    pending.clear();
+                    syncedSequence = appendedSequence;
+                    size = counts[0] + tailSize;
+                    records = counts[1] + rewriteTailRecords;
+                }
+            }
+        } catch (Throwable t) {
+            if (!replaced) {
+                try {
+                    Files.deleteIfExists(temporaryPath);
+                } catch (IOException suppressed) {
+                    t.addSuppressed(suppressed);
+                }
+            }
+            throw t;
+        } finally {
+            synchronized (appendLock) {
+                rewriteTail = null;
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public long size() {
+        synchronized (appendLock) {
+            return size;
+        }
+    }
+
+    public long records() {
+        synchronized (appendLock) {
+            return records;
+        }
+    }
+
+    public long syncs() {
+        return syncs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            syncAll();
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+}
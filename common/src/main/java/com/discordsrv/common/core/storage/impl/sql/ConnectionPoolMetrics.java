@@ -0,0 +1,56 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.sql;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection acquisition statistics for a connection pool.
+ */
+public class ConnectionPoolMetrics {
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maximumWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public void recordAcquired(long waitNanos) {
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maximumWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public void recordTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    public void addTo(Map<String, Object> values) {
+        long acquisitions = this.acquisitions.get();
+        values.put("acquisitions", acquisitions);
+        values.put("timeouts", timeouts.get());
+        values.put("averageWaitMillis", acquisitions > 0 ? toMillis(totalWaitNanos.get() / acquisitions) : 0D);
+        values.put("maximumWaitMillis", toMillis(maximumWaitNanos.get()));
+    }
+
+    private static double toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000D;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.sql;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.events.linking.RemoteLinkChangeEvent;
+import com.discordsrv.common.events.linking.RemoteLinkChangesMissedEvent;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follows the link changes table for links created and removed by other servers sharing the database,
+ * publishing a {@link RemoteLinkChangeEvent} for each of them so that only the affected cache entries are updated.
+ * <p>
+ * Ids are given out when changes are inserted, but transactions may commit in a different order,
+ * so an id that is skipped over is looked for again on the following polls, until it shows up or a minute has passed.
+ * When ids are given up on, a {@link RemoteLinkChangesMissedEvent} is published so that links are loaded from storage again,
+ * at most once every 10 minutes since ids that are never used would otherwise cause a reload every minute.
+ */
+class LinkChangeFeed {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAXIMUM_MISSING = SQLQueries.IN_CLAUSE_CHUNK_SIZE;
+    private static final long MISSING_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long FULL_RELOAD_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final DiscordSRV discordSRV;
+    private final SQLStorage storage;
+    private final String source;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    // Guarded by polling
+    private long cursor;
+    private final Map<Long, Long> missing = new LinkedHashMap<>();
+    private boolean fullReloadNeeded = false;
+    private long lastFullReload;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong expiredMissing = new AtomicLong();
+    private final AtomicLong fullReloads = new AtomicLong();
+
+    LinkChangeFeed(DiscordSRV discordSRV, SQLStorage storage, String source, long latestId) {
+        this.discordSRV = discordSRV;
+        this.storage = storage;
+        this.source = source;
+        this.cursor = latestId;
+        this.lastFullReload = System.nanoTime() - FULL_RELOAD_INTERVAL_NANOS;
+    }
+
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            // Previous poll is still running
+            return;
+        }
+
+        discordSRV.storageExecutor().execute("pollLinkChanges", this::pollChanges).whenComplete((v, t) -> {
+            polling.set(false);
+            if (t != null) {
+                failedPolls.incrementAndGet();
+                discordSRV.logger().debug("Failed to poll for link changes", t);
+            }
+        });
+    }
+
+    private void pollChanges() {
+        polls.incrementAndGet();
+        long now = System.nanoTime();
+        List<LinkChange> received = new ArrayList<>();
+
+        if (!missing.isEmpty()) {
+            for (LinkChange change : storage.getLinkChanges(missing.keySet())) {
+                missing.remove(change.id());
+                received.add(change);
+            }
+
+            // Rolled back or never used (for example with auto_increment_increment)
+            int before = missing.size();
+            missing.values().removeIf(noticed -> now - noticed > MISSING_TIMEOUT_NANOS);
+            int expired = before - missing.size();
+            if (expired > 0) {
+                discordSRV.logger().debug("Gave up waiting for " + expired + " link changes after a minute");
+                fullReloadNeeded = true;
+            }
+            expiredMissing.addAndGet(expired);
+        }
+
+        long notWaitedFor = 0;
+        List<LinkChange> changes;
+        do {
+            changes = storage.getLinkChanges(cursor, BATCH_SIZE);
+            for (LinkChange change : changes) {
+                long gap = change.id() - cursor - 1;
+                if (gap > 0) {
+                    long waitFor = Math.min(gap, Math.max(0, MAXIMUM_MISSING - missing.size()));
+                    for (long id = cursor + 1; id <= cursor + waitFor; id++) {
+                        missing.put(id, now);
+                    }
+                    notWaitedFor += gap - waitFor;
+                }
+                cursor = change.id();
+                received.add(change);
+            }
+        } while (changes.size() == BATCH_SIZE);
+
+        if (notWaitedFor > 0) {
+            discordSRV.logger().warning("Too many link changes from other servers are missing, "
+                                                + notWaitedFor + " of them will not be waited for");
+            fullReloadNeeded = true;
+        }
+
+        for (LinkChange change : received) {
+            if (source.equals(change.source())) {
+                // Made by this server, caches are already up to date
+                continue;
+            }
+
+            this.changes.incrementAndGet();
+            discordSRV.eventBus().publish(new RemoteLinkChangeEvent(change.playerUUID(), change.userId(), change.linked()));
+        }
+
+        if (fullReloadNeeded && now - lastFullReload >= FULL_RELOAD_INTERVAL_NANOS) {
+            // Most likely rolled back, but they may also be changes that took too long to show up
+            fullReloadNeeded = false;
+            lastFullReload = now;
+            fullReloads.incrementAndGet();
+            discordSRV.logger().info("Some link changes from other servers may have been missed, reloading linked accounts from storage");
+            discordSRV.eventBus().publish(new RemoteLinkChangesMissedEvent());
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("polls", polls.get());
+        values.put("failedPolls", failedPolls.get());
+        values.put("remoteChanges", changes.get());
+        values.put("expiredMissingIds", expiredMissing.get());
+        values.put("fullReloads", fullReloads.get());
+        return values;
+    }
+
+    static class LinkChange {
+
+        private final long id;
+        private final UUID playerUUID;
+        private final long userId;
+        private final boolean linked;
+        private final String source;
+
+        LinkChange(long id, UUID playerUUID, long userId, boolean linked, String source) {
+            this.id = id;
+            this.playerUUID = playerUUID;
+            this.userId = userId;
+            this.linked = linked;
+            this.source = source;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public UUID playerUUID() {
+            return playerUUID;
+        }
+
+        public long userId() {
+            return userId;
+        }
+
+        public boolean linked() {
+            return linked;
+        }
+
+        public String source() {
+            return source;
+        }
+    }
+}
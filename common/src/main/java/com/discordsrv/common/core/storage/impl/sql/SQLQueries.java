@@ -0,0 +1,215 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.sql;
+
+import static com.discordsrv.common.core.storage.impl.sql.SQLStorage.*;
+
+/**
+ * The SQL used by {@link SQLStorage} at runtime, built once for the configured table prefix.
+ */
+class SQLQueries {
+
+    /**
+     * The maximum amount of parameters in a single {@code in (...)} clause for bulk lookups.
+     */
+    static final int IN_CLAUSE_CHUNK_SIZE = 100;
+
+    private final String linkedAccounts;
+    private final String gameProfiles;
+    private final String linkChanges;
+
+    final String deleteExpiredLinkingCodes;
+
+    final String selectAllLinks;
+    final String selectLinkByPlayerUUID;
+    final String selectLinkByUserId;
+    final String insertLink;
+    final String deleteLink;
+    final String countLinks;
+
+    final String insertLinkChange;
+    final String selectLinkChangesAfter;
+    final String selectLatestLinkChangeId;
+    final String deleteOldLinkChanges;
+
+    final String selectLinkingCode;
+    final String deleteLinkingCode;
+    final String insertLinkingCode;
+
+    final String selectRewards;
+    final String insertReward;
+    final String selectRewardId;
+
+    final String selectPlayerProfile;
+
+    final String selectAllGameProfiles;
+    final String selectAllDiscordProfiles;
+    final String selectGameProfileId;
+    final String insertGameProfile;
+    final String selectDiscordProfileId;
+    final String insertDiscordProfile;
+    final GrantedRewards gameGrantedRewards;
+    final GrantedRewards discordGrantedRewards;
+
+    final String insertLinkingBypass;
+    final String deleteLinkingBypass;
+    final String selectLinkingBypass;
+
+    private final String syncCheckpoints;
+    final String insertSyncCheckpoint;
+    final String deleteSyncCheckpoint;
+    final String deleteExpiredSyncCheckpoints;
+
+    SQLQueries(String tablePrefix) {
+        this.linkedAccounts = tablePrefix + LINKED_ACCOUNTS_TABLE_NAME;
+        String linkingCodes = tablePrefix + LINKING_CODES_TABLE_NAME;
+        String rewards = tablePrefix + REWARD_TABLE_NAME;
+        this.gameProfiles = tablePrefix + GAME_PROFILE_TABLE_NAME;
+        String discordProfiles = tablePrefix + DISCORD_PROFILE_TABLE_NAME;
+        String linkingBypass = tablePrefix + LINKING_BYPASS_TABLE_NAME;
+        this.linkChanges = tablePrefix + LINK_CHANGES_TABLE_NAME;
+
+        this.deleteExpiredLinkingCodes = "delete from " + linkingCodes + " WHERE EXPIRY < ?;";
+
+        this.selectAllLinks = "select PLAYER_UUID, USER_ID, CREATED, LASTSEEN from " + linkedAccounts + ";";
+        this.selectLinkByPlayerUUID = "select USER_ID, CREATED, LASTSEEN from " + linkedAccounts + " where PLAYER_UUID = ?;";
+        this.selectLinkByUserId = "select PLAYER_UUID, CREATED, LASTSEEN from " + linkedAccounts + " where USER_ID = ?;";
+        this.insertLink = "insert into " + linkedAccounts + " (PLAYER_UUID, USER_ID, CREATED, LASTSEEN) values (?, ?, ?, ?);";
+        this.deleteLink = "delete from " + linkedAccounts + " where PLAYER_UUID = ?;";
+        this.countLinks = "select count(*) from " + linkedAccounts + ";";
+
+        this.insertLinkChange = "insert into " + linkChanges + " (PLAYER_UUID, USER_ID, LINKED, SOURCE, CREATED) values (?, ?, ?, ?, ?);";
+        this.selectLinkChangesAfter = "select ID, PLAYER_UUID, USER_ID, LINKED, SOURCE from " + linkChanges + " where ID > ? order by ID limit ?;";
+        this.selectLatestLinkChangeId = "select max(ID) from " + linkChanges + ";";
+        this.deleteOldLinkChanges = "delete from " + linkChanges + " where CREATED < ? and ID < ?;";
+
+        this.selectLinkingCode = "select PLAYERUUID, PLAYERUSERNAME from " + linkingCodes + " where CODE = ? LIMIT 1;";
+        this.deleteLinkingCode = "delete from " + linkingCodes + " where PLAYERUUID = ?;";
+        this.insertLinkingCode = "insert into " + linkingCodes + " (PLAYERUUID, PLAYERUSERNAME, CODE, EXPIRY) VALUES (?, ?, ?, ?);";
+
+        this.selectRewards = "select ID, REWARD from " + rewards + ";";
+        this.insertReward = "insert into " + rewards + " (REWARD) VALUES (?);";
+        this.selectRewardId = "select ID from " + rewards + " where REWARD = ?;";
+
+        this.selectAllGameProfiles = "select ID, PLAYER_UUID from " + gameProfiles + ";";
+        this.selectAllDiscordProfiles = "select ID, USER_ID from " + discordProfiles + ";";
+        this.selectGameProfileId = "select ID from " + gameProfiles + " where PLAYER_UUID = ?";
+        this.insertGameProfile = "insert into " + gameProfiles + " (PLAYER_UUID) VALUES (?);";
+        this.selectDiscordProfileId = "select ID from " + discordProfiles + " where USER_ID = ?";
+        this.insertDiscordProfile = "insert into " + discordProfiles + " (USER_ID) VALUES (?);";
+        this.gameGrantedRewards = new GrantedRewards(tablePrefix + GAME_GRANTED_REWARDS_TABLE_NAME, rewards);
+        this.discordGrantedRewards = new GrantedRewards(tablePrefix + DISCORD_GRANTED_REWARDS_TABLE_NAME, rewards);
+
+        // A row for the link, followed by a row for each reward of the game profile and the linked user's Discord profile,
+        // or a single row without a reward if the profile exists but has no rewards
+        this.selectPlayerProfile = "select 'L' as KIND, USER_ID, CREATED, LASTSEEN, null as REWARD_ID, null as REWARD, null as PENDING"
+                + " from " + linkedAccounts + " where PLAYER_UUID = ?"
+                + " union all select 'G', null, null, null, r.ID, r.REWARD, t.PENDING from " + gameProfiles + " p"
+                + " left join " + gameGrantedRewards.table + " t on t.PROFILE_ID = p.ID"
+                + " left join " + rewards + " r on r.ID = t.REWARD_ID"
+                + " where p.PLAYER_UUID = ?"
+                + " union all select 'D', l.USER_ID, null, null, r.ID, r.REWARD, t.PENDING from " + linkedAccounts + " l"
+                + " inner join " + discordProfiles + " p on p.USER_ID = l.USER_ID"
+                + " left join " + discordGrantedRewards.table + " t on t.PROFILE_ID = p.ID"
+                + " left join " + rewards + " r on r.ID = t.REWARD_ID"
+                + " where l.PLAYER_UUID = ?;";
+
+        this.insertLinkingBypass = "insert into " + linkingBypass + " (PLAYER_UUID) values (?);";
+        this.deleteLinkingBypass = "delete from " + linkingBypass + " where PLAYER_UUID = ?;";
+        this.selectLinkingBypass = "select PLAYER_UUID from " + linkingBypass;
+
+        this.syncCheckpoints = tablePrefix + SYNC_CHECKPOINTS_TABLE_NAME;
+        this.insertSyncCheckpoint = "insert into " + syncCheckpoints + " (PLAYER_UUID, SYNC_KEY, GAME_HASH, DISCORD_HASH, UPDATED) values (?, ?, ?, ?, ?);";
+        this.deleteSyncCheckpoint = "delete from " + syncCheckpoints + " where PLAYER_UUID = ? and SYNC_KEY = ?;";
+        this.deleteExpiredSyncCheckpoints = "delete from " + syncCheckpoints + " where UPDATED < ?;";
+    }
+
+    /**
+     * Rounds the amount of parameters for an {@code in (...)} clause up to a few fixed sizes,
+     * so the same statements get reused. Unused parameters should be filled with a repeated key.
+     * @param count the amount of keys, at most {@link #IN_CLAUSE_CHUNK_SIZE}
+     * @return the amount of parameters to use
+     */
+    static int inClauseSize(int count) {
+        if (count <= 1) {
+            return 1;
+        } else if (count <= 10) {
+            return 10;
+        }
+        return IN_CLAUSE_CHUNK_SIZE;
+    }
+
+    private static String inClause(int size) {
+        StringBuilder builder = new StringBuilder(size * 3 + 2).append('(');
+        for (int i = 0; i < size; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.append(')').toString();
+    }
+
+    String selectLinksByPlayerUUIDs(int size) {
+        return "select PLAYER_UUID, USER_ID, CREATED, LASTSEEN from " + linkedAccounts + " where PLAYER_UUID in " + inClause(size) + ";";
+    }
+
+    String selectLinksByUserIds(int size) {
+        return "select PLAYER_UUID, USER_ID, CREATED, LASTSEEN from " + linkedAccounts + " where USER_ID in " + inClause(size) + ";";
+    }
+
+    String selectLinkChanges(int size) {
+        return "select ID, PLAYER_UUID, USER_ID, LINKED, SOURCE from " + linkChanges + " where ID in " + inClause(size) + ";";
+    }
+
+    String selectGameProfileIds(int size) {
+        return "select ID, PLAYER_UUID from " + gameProfiles + " where PLAYER_UUID in " + inClause(size) + ";";
+    }
+
+    String selectSyncCheckpoints(int size) {
+        return "select PLAYER_UUID, SYNC_KEY, GAME_HASH, DISCORD_HASH, UPDATED from " + syncCheckpoints + " where PLAYER_UUID in " + inClause(size) + ";";
+    }
+
+    static class GrantedRewards {
+
+        final String table;
+        final String select;
+        final String insert;
+        final String delete;
+        final String update;
+        private final String selectForProfiles;
+
+        GrantedRewards(String table, String rewards) {
+            this.table = table;
+            this.selectForProfiles = "select t.PROFILE_ID, r.ID, r.REWARD, t.PENDING from " + table + " t"
+                    + " inner join " + rewards + " r on r.ID = t.REWARD_ID"
+                    + " where t.PROFILE_ID in ";
+            this.select = "select r.ID, r.REWARD, t.PENDING from " + table + " t"
+                    + " inner join " + rewards + " r on r.ID = t.REWARD_ID"
+                    + " where t.PROFILE_ID = ?";
+            this.insert = "insert into " + table + " (PROFILE_ID, REWARD_ID, PENDING) VALUES (?, ?, ?);";
+            this.delete = "delete from " + table + " where PROFILE_ID = ? and REWARD_ID = ?;";
+            this.update = "update " + table + " set PENDING = ? where PROFILE_ID = ? and REWARD_ID = ?;";
+        }
+
+        String selectForProfiles(int size) {
+            return selectForProfiles + inClause(size) + ";";
+        }
+    }
+}
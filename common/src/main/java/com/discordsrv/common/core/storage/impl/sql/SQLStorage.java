@@ -19,8 +19,10 @@
 package com.discordsrv.common.core.storage.impl.sql;
 
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.sync.SyncCheckpoint;
 import com.discordsrv.common.core.profile.DiscordProfileData;
 import com.discordsrv.common.core.profile.GameProfileData;
+import com.discordsrv.common.core.profile.PlayerProfileData;
 import com.discordsrv.common.core.profile.PlayerRewardData;
 import com.discordsrv.common.core.storage.Storage;
 import com.discordsrv.common.exception.StorageException;
@@ -28,6 +30,7 @@ import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkStore;
 import com.discordsrv.common.util.function.CheckedConsumer;
 import com.discordsrv.common.util.function.CheckedFunction;
+import com.discordsrv.common.util.function.CheckedRunnable;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.NotNull;
@@ -38,6 +41,8 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 public abstract class SQLStorage implements Storage {
@@ -50,9 +55,20 @@ public abstract class SQLStorage implements Storage {
     protected static final String GAME_GRANTED_REWARDS_TABLE_NAME = "game_granted_rewards";
     protected static final String DISCORD_GRANTED_REWARDS_TABLE_NAME = "discord_granted_rewards";
     protected static final String LINKING_BYPASS_TABLE_NAME = "linking_bypass";
+    protected static final String LINK_CHANGES_TABLE_NAME = "link_changes";
+    protected static final String SYNC_CHECKPOINTS_TABLE_NAME = "sync_checkpoints";
+
+    /**
+     * How long rows are kept in the link changes table, servers that are behind by more than this don't need them anymore.
+     */
+    private static final Duration LINK_CHANGES_RETENTION = Duration.ofDays(1);
 
     protected final DiscordSRV discordSRV;
+    private final String linkChangeSource = UUID.randomUUID().toString();
+    private SQLQueries queries;
     private Future<?> cleanupTask;
+    private LinkChangeFeed linkChangeFeed;
+    private Future<?> linkChangeTask;
 
     public SQLStorage(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -138,6 +154,43 @@ public abstract class SQLStorage implements Storage {
         addColumnIfMissing(connection, tablePrefix + DISCORD_GRANTED_REWARDS_TABLE_NAME, "PENDING", "tinyint default 0");
     }
 
+    /**
+     * Creates the table that links created and removed are recorded in, for databases shared by multiple servers.
+     * @see #recordLinkChanges()
+     */
+    protected static void createLinkChangesTableGeneric(Connection connection, String tablePrefix) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "create table if not exists " + tablePrefix + LINK_CHANGES_TABLE_NAME + " ("
+                            + "ID bigint not null auto_increment,"
+                            + "PLAYER_UUID varchar(36),"
+                            + "USER_ID bigint,"
+                            + "LINKED tinyint,"
+                            + "SOURCE varchar(36),"
+                            + "CREATED bigint,"
+                            + "constraint LINK_CHANGES_PK primary key (ID)"
+                            + ");"
+            );
+        }
+    }
+
+    protected static void createSyncCheckpointsTableGeneric(Connection connection, String tablePrefix) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "create table if not exists " + tablePrefix + SYNC_CHECKPOINTS_TABLE_NAME + " ("
+                            + "ID bigint not null auto_increment,"
+                            + "PLAYER_UUID varchar(36),"
+                            + "SYNC_KEY bigint,"
+                            + "GAME_HASH bigint,"
+                            + "DISCORD_HASH bigint,"
+                            + "UPDATED bigint,"
+                            + "constraint SYNC_CHECKPOINTS_PK primary key (ID),"
+                            + "constraint SYNC_CHECKPOINTS_UQ unique (PLAYER_UUID, SYNC_KEY)"
+                            + ");"
+            );
+        }
+    }
+
     protected static void addColumnIfMissing(Connection connection, String tableName, String columnName, String columnDefinition) throws SQLException {
         connection.createStatement().execute(
                 "alter table " + tableName + " add column if not exists " + columnName + " " + columnDefinition
@@ -164,12 +217,40 @@ public abstract class SQLStorage implements Storage {
         }
     }
 
+    private void inTransaction(Connection connection, CheckedRunnable runnable) throws Throwable {
+        beginTransaction(connection);
+        try {
+            runnable.run();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("COMMIT;");
+            }
+        } catch (Throwable t) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ROLLBACK;");
+            } catch (SQLException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+    }
+
     private void expectEffectedRows(int rows, int expect) {
         if (rows != expect) {
             throw new StorageException("Excepted to effect " + expect + " rows, actually effected " + rows);
         }
     }
 
+    private void expectEffectedRows(int[] batchRows, int expect) {
+        for (int rows : batchRows) {
+            if (rows == Statement.SUCCESS_NO_INFO) {
+                // Driver rewrote the batch, row counts aren't available
+                continue;
+            }
+            expectEffectedRows(rows, expect);
+        }
+    }
+
     protected String tablePrefix() {
         String tablePrefix = discordSRV.connectionConfig().storage.sqlTablePrefix;
         if (!tablePrefix.matches("[\\w_-]*")) {
@@ -181,11 +262,20 @@ public abstract class SQLStorage implements Storage {
 
     @Override
     public void initialize() {
+        String tablePrefix = tablePrefix();
+        this.queries = new SQLQueries(tablePrefix);
         useConnection((CheckedConsumer<Connection>) connection -> createTables(
                 connection,
-                tablePrefix()
+                tablePrefix
         ));
         this.cleanupTask = discordSRV.scheduler().runAtFixedRate(this::cleanupDatabase, Duration.ofMinutes(1), Duration.ofMinutes(30));
+
+        int pollSeconds = discordSRV.connectionConfig().storage.remote.linkChangesPollSeconds;
+        if (recordLinkChanges() && pollSeconds > 0) {
+            this.linkChangeFeed = new LinkChangeFeed(discordSRV, this, linkChangeSource, getLatestLinkChangeId());
+            Duration interval = Duration.ofSeconds(pollSeconds);
+            this.linkChangeTask = discordSRV.scheduler().runAtFixedRate(linkChangeFeed::poll, interval, interval);
+        }
     }
 
     @Override
@@ -194,22 +284,59 @@ public abstract class SQLStorage implements Storage {
         if (this.cleanupTask != null) {
             this.cleanupTask.cancel(false);
         }
+        if (this.linkChangeTask != null) {
+            this.linkChangeTask.cancel(false);
+        }
+    }
+
+    /**
+     * If links created and removed should be recorded in the link changes table, so that other servers sharing the database
+     * can update their caches. The table must be created in {@link #createTables(Connection, String)} if this returns {@code true}.
+     * @return {@code true} if the database may be shared by multiple servers
+     */
+    protected boolean recordLinkChanges() {
+        return false;
+    }
+
+    /**
+     * Metrics for following link changes made by other servers, included in debug reports.
+     * @return the metrics, or {@code null} if link changes are not being followed
+     */
+    protected Map<String, Object> linkChangeMetrics() {
+        LinkChangeFeed linkChangeFeed = this.linkChangeFeed;
+        return linkChangeFeed != null ? linkChangeFeed.metrics() : null;
     }
 
     public void cleanupDatabase() {
         useConnection(connection -> {
             // Cleanup expired linking codes
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " WHERE EXPIRY < ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.deleteExpiredLinkingCodes)) {
                 statement.setLong(1, getTimeMS());
                 statement.executeUpdate();
             }
+
+            // Cleanup sync checkpoints that can no longer be used
+            try (PreparedStatement statement = connection.prepareStatement(queries.deleteExpiredSyncCheckpoints)) {
+                statement.setLong(1, getTimeMS() - SyncCheckpoint.MAXIMUM_AGE.toMillis());
+                statement.executeUpdate();
+            }
+
+            if (recordLinkChanges()) {
+                // Keep the latest change even if it's old, so the next id doesn't go backwards if the database restarts
+                long latestId = getLatestLinkChangeId(connection);
+                try (PreparedStatement statement = connection.prepareStatement(queries.deleteOldLinkChanges)) {
+                    statement.setLong(1, getTimeMS() - LINK_CHANGES_RETENTION.toMillis());
+                    statement.setLong(2, latestId);
+                    statement.executeUpdate();
+                }
+            }
         });
     }
 
     @Override
     public @Nullable AccountLink getLinkByPlayerUUID(@NotNull UUID playerUUID) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select USER_ID, CREATED, LASTSEEN from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectLinkByPlayerUUID)) {
                 statement.setString(1, playerUUID.toString());
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -224,7 +351,7 @@ public abstract class SQLStorage implements Storage {
     @Override
     public @Nullable AccountLink getLinkByUserId(long userId) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYER_UUID, CREATED, LASTSEEN from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where USER_ID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectLinkByUserId)) {
                 statement.setLong(1, userId);
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -240,41 +367,252 @@ public abstract class SQLStorage implements Storage {
         });
     }
 
+    @Override
+    public @NotNull Map<UUID, AccountLink> getLinksByPlayerUUIDs(@NotNull Collection<UUID> playerUUIDs) {
+        if (playerUUIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<UUID> keys = new ArrayList<>(new LinkedHashSet<>(playerUUIDs));
+        return useConnection(connection -> {
+            Map<UUID, AccountLink> links = new HashMap<>(keys.size());
+            queryInChunks(
+                    connection,
+                    keys,
+                    queries::selectLinksByPlayerUUIDs,
+                    (statement, index, playerUUID) -> statement.setString(index, playerUUID.toString()),
+                    resultSet -> {
+                        UUID playerUUID = UUID.fromString(resultSet.getString("PLAYER_UUID"));
+                        links.put(playerUUID, getAccountLink(playerUUID, resultSet.getLong("USER_ID"), resultSet));
+                    }
+            );
+            return links;
+        });
+    }
+
+    @Override
+    public @NotNull Map<Long, AccountLink> getLinksByUserIds(long @NotNull [] userIds) {
+        if (userIds.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> keys = Arrays.stream(userIds).distinct().boxed().collect(Collectors.toList());
+        return useConnection(connection -> {
+            Map<Long, AccountLink> links = new HashMap<>(keys.size());
+            queryInChunks(
+                    connection,
+                    keys,
+                    queries::selectLinksByUserIds,
+                    (statement, index, userId) -> statement.setLong(index, userId),
+                    resultSet -> {
+                        String value = resultSet.getString("PLAYER_UUID");
+                        if (value == null) {
+                            return;
+                        }
+
+                        long userId = resultSet.getLong("USER_ID");
+                        links.put(userId, getAccountLink(UUID.fromString(value), userId, resultSet));
+                    }
+            );
+            return links;
+        });
+    }
+
+    /**
+     * Runs a query with an {@code in (...)} clause for each chunk of the given keys,
+     * the last chunk is padded by repeating its last key so that statements can be reused.
+     */
+    private <K> void queryInChunks(
+            Connection connection,
+            List<K> keys,
+            IntFunction<String> sqlForSize,
+            ParameterSetter<K> parameterSetter,
+            CheckedConsumer<ResultSet> rowConsumer
+    ) throws Throwable {
+        for (int start = 0; start < keys.size(); start += SQLQueries.IN_CLAUSE_CHUNK_SIZE) {
+            List<K> chunk = keys.subList(start, Math.min(keys.size(), start + SQLQueries.IN_CLAUSE_CHUNK_SIZE));
+            int size = SQLQueries.inClauseSize(chunk.size());
+
+            try (PreparedStatement statement = connection.prepareStatement(sqlForSize.apply(size))) {
+                for (int i = 0; i < size; i++) {
+                    parameterSetter.set(statement, i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rowConsumer.accept(resultSet);
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParameterSetter<K> {
+        void set(PreparedStatement statement, int index, K key) throws SQLException;
+    }
+
     private AccountLink getAccountLink(UUID playerUUID, long userId, ResultSet resultSet) throws SQLException {
         LocalDateTime created = resultSet.getObject("CREATED", LocalDateTime.class);
         LocalDateTime used = resultSet.getObject("LASTSEEN", LocalDateTime.class);
         return new AccountLink(playerUUID, userId, created, used);
     }
 
+    @Override
+    public void forEachLink(@NotNull Consumer<AccountLink> consumer) {
+        useConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectAllLinks)) {
+                statement.setFetchSize(1000);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String value = resultSet.getString("PLAYER_UUID");
+                        if (value == null) {
+                            continue;
+                        }
+                        consumer.accept(getAccountLink(UUID.fromString(value), resultSet.getLong("USER_ID"), resultSet));
+                    }
+                }
+            }
+        });
+    }
+
     @Override
     public void createLink(@NotNull AccountLink link) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " (PLAYER_UUID, USER_ID, CREATED, LASTSEEN) values (?, ?, ?, ?);")) {
-                statement.setString(1, link.playerUUID().toString());
-                statement.setLong(2, link.userId());
-                statement.setObject(3, link.created());
-                statement.setObject(4, link.lastSeen());
+            CheckedRunnable insert = () -> {
+                try (PreparedStatement statement = connection.prepareStatement(queries.insertLink)) {
+                    statement.setString(1, link.playerUUID().toString());
+                    statement.setLong(2, link.userId());
+                    statement.setObject(3, link.created());
+                    statement.setObject(4, link.lastSeen());
 
-                expectEffectedRows(statement.executeUpdate(), 1);
+                    expectEffectedRows(statement.executeUpdate(), 1);
+                }
+            };
+
+            if (!recordLinkChanges()) {
+                insert.run();
+                return;
             }
+            inTransaction(connection, () -> {
+                insert.run();
+                insertLinkChange(connection, link.playerUUID(), link.userId(), true);
+            });
         });
     }
 
     @Override
     public void removeLink(@NotNull UUID playerUUID, long userId) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
-                statement.setString(1, playerUUID.toString());
-                expectEffectedRows(statement.executeUpdate(), 1);
+            CheckedRunnable delete = () -> {
+                try (PreparedStatement statement = connection.prepareStatement(queries.deleteLink)) {
+                    statement.setString(1, playerUUID.toString());
+                    expectEffectedRows(statement.executeUpdate(), 1);
+                }
+            };
+
+            if (!recordLinkChanges()) {
+                delete.run();
+                return;
             }
+            inTransaction(connection, () -> {
+                delete.run();
+                insertLinkChange(connection, playerUUID, userId, false);
+            });
         });
     }
 
+    private void insertLinkChange(Connection connection, UUID playerUUID, long userId, boolean linked) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(queries.insertLinkChange)) {
+            statement.setString(1, playerUUID.toString());
+            statement.setLong(2, userId);
+            statement.setBoolean(3, linked);
+            statement.setString(4, linkChangeSource);
+            statement.setLong(5, getTimeMS());
+            expectEffectedRows(statement.executeUpdate(), 1);
+        }
+    }
+
+    long getLatestLinkChangeId() {
+        return useConnection((CheckedFunction<Connection, Long>) this::getLatestLinkChangeId);
+    }
+
+    private long getLatestLinkChangeId(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(queries.selectLatestLinkChangeId)) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    // max(ID) is null when the table is empty, which getLong returns as 0
+                    return resultSet.getLong(1);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the link changes after the given id.
+     * @param afterId the id of the last change already seen
+     * @param limit the maximum amount of changes to get
+     * @return the changes, in order
+     */
+    List<LinkChangeFeed.LinkChange> getLinkChanges(long afterId, int limit) {
+        return useConnection(connection -> {
+            List<LinkChangeFeed.LinkChange> changes = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectLinkChangesAfter)) {
+                statement.setLong(1, afterId);
+                statement.setInt(2, limit);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        changes.add(getLinkChange(resultSet));
+                    }
+                }
+            }
+            return changes;
+        });
+    }
+
+    /**
+     * Gets the link changes with the given ids, ids that don't exist are not included in the result.
+     * @param ids the ids of the changes
+     * @return the changes
+     */
+    List<LinkChangeFeed.LinkChange> getLinkChanges(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> keys = new ArrayList<>(ids);
+        return useConnection(connection -> {
+            Map<Long, LinkChangeFeed.LinkChange> changes = new TreeMap<>();
+            queryInChunks(
+                    connection,
+                    keys,
+                    queries::selectLinkChanges,
+                    (statement, index, id) -> statement.setLong(index, id),
+                    resultSet -> {
+                        LinkChangeFeed.LinkChange change = getLinkChange(resultSet);
+                        changes.put(change.id(), change);
+                    }
+            );
+            return new ArrayList<>(changes.values());
+        });
+    }
+
+    private LinkChangeFeed.LinkChange getLinkChange(ResultSet resultSet) throws SQLException {
+        return new LinkChangeFeed.LinkChange(
+                resultSet.getLong("ID"),
+                UUID.fromString(resultSet.getString("PLAYER_UUID")),
+                resultSet.getLong("USER_ID"),
+                resultSet.getBoolean("LINKED"),
+                resultSet.getString("SOURCE")
+        );
+    }
+
     @Override
     public int getLinkedAccountCount() {
         return useConnection(connection -> {
-            try (Statement statement = connection.createStatement()) {
-                try (ResultSet resultSet = statement.executeQuery("select count(*) from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + ";")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.countLinks)) {
+                try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
                         return resultSet.getInt(1);
                     }
@@ -292,7 +630,7 @@ public abstract class SQLStorage implements Storage {
     public Pair<UUID, String> getLinkingCode(String code) {
         return useConnection(connection -> {
             // Get the uuid for the code
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYERUUID, PLAYERUSERNAME from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where CODE = ? LIMIT 1;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectLinkingCode)) {
                 statement.setString(1, code);
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -309,7 +647,7 @@ public abstract class SQLStorage implements Storage {
     @Override
     public void removeLinkingCode(@NotNull UUID playerUUID) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " WHERE PLAYERUUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.deleteLinkingCode)) {
                 statement.setString(1, playerUUID.toString());
                 statement.executeUpdate();
             }
@@ -320,13 +658,13 @@ public abstract class SQLStorage implements Storage {
     public void storeLinkingCode(@NotNull UUID playerUUID, @NotNull String username, String code) {
         useConnection(connection -> {
             // Remove existing code
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where PLAYERUUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.deleteLinkingCode)) {
                 statement.setString(1, playerUUID.toString());
                 statement.executeUpdate();
             }
 
             // Insert new code
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKING_CODES_TABLE_NAME + " (PLAYERUUID, PLAYERUSERNAME, CODE, EXPIRY) VALUES (?, ?, ?, ?);")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.insertLinkingCode)) {
                 statement.setString(1, playerUUID.toString());
                 statement.setString(2, username);
                 statement.setString(3, code);
@@ -338,12 +676,13 @@ public abstract class SQLStorage implements Storage {
 
     protected abstract void beginTransaction(Connection connection) throws SQLException;
 
-    private Map<String, Integer> getOrCreateRewards(Connection connection, Set<PlayerRewardData> rewards) throws SQLException {
+    /**
+     * Gets the database ids for the given rewards, inserting the rewards that don't exist yet.
+     * Runs as part of the caller's transaction.
+     */
+    private Map<String, Integer> getOrCreateRewards(Connection connection, Set<String> rewards) throws SQLException {
         Map<String, Integer> rewardMap = new HashMap<>();
-        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
-        beginTransaction(connection);
-
-        try (PreparedStatement statement = connection.prepareStatement("select ID, REWARD from " + tablePrefix() + REWARD_TABLE_NAME + ";")) {
+        try (PreparedStatement statement = connection.prepareStatement(queries.selectRewards)) {
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
                     rewardMap.put(
@@ -356,7 +695,7 @@ public abstract class SQLStorage implements Storage {
 
         Map<String, Integer> rewardIds = new LinkedHashMap<>();
         Set<String> missingRewards = new LinkedHashSet<>();
-        for (String reward : rewards.stream().map(PlayerRewardData::getId).collect(Collectors.toSet())) {
+        for (String reward : rewards) {
             Integer rewardId = rewardMap.get(reward);
             if (rewardId == null) {
                 missingRewards.add(reward);
@@ -367,11 +706,11 @@ public abstract class SQLStorage implements Storage {
         }
 
         for (String missingReward : missingRewards) {
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + REWARD_TABLE_NAME + " (REWARD) VALUES (?);")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.insertReward)) {
                 statement.setString(1, missingReward);
                 expectEffectedRows(statement.executeUpdate(), 1);
             }
-            try (PreparedStatement statement = connection.prepareStatement("select ID from " + tablePrefix() + REWARD_TABLE_NAME + " where REWARD = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectRewardId)) {
                 statement.setString(1, missingReward);
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (!resultSet.next()) {
@@ -381,89 +720,145 @@ public abstract class SQLStorage implements Storage {
                 }
             }
         }
-
-        try (Statement statement = connection.createStatement()) {
-            statement.execute("COMMIT;");
-        }
         return rewardIds;
     }
 
-    private void alterRewardTable(Connection connection, String tableName, int profileId, Set<PlayerRewardData> rewards) throws SQLException {
-        List<PlayerRewardData> currentDatabaseState = new ArrayList<>();
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT r.ID, r.REWARD, t.PENDING " +
-                        "FROM " + tablePrefix() + tableName + " t " +
-                        "INNER JOIN " + tablePrefix() + REWARD_TABLE_NAME + " r ON r.ID = t.REWARD_ID " +
-                        "WHERE t.PROFILE_ID = ?"
-        )) {
+    private Set<PlayerRewardData> getGrantedRewards(Connection connection, SQLQueries.GrantedRewards grantedRewards, int profileId) throws SQLException {
+        Set<PlayerRewardData> rewards = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(grantedRewards.select)) {
             statement.setInt(1, profileId);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    currentDatabaseState.add(new PlayerRewardData(
+                    rewards.add(new PlayerRewardData(
                             resultSet.getInt("ID"),
                             resultSet.getString("REWARD"),
-                            resultSet.getBoolean("PENDING")
-                    ));
+                            resultSet.getBoolean("PENDING"))
+                    );
                 }
             }
         }
+        return rewards;
+    }
 
-        List<PlayerRewardData> missingRewards = rewards.stream()
-                .filter(reward -> currentDatabaseState.stream().noneMatch(playerReward -> playerReward.getId().equals(reward.getId())))
-                .collect(Collectors.toList());
+    private Map<Integer, Set<PlayerRewardData>> getGrantedRewards(
+            Connection connection,
+            SQLQueries.GrantedRewards grantedRewards,
+            Collection<Integer> profileIds
+    ) throws Throwable {
+        Map<Integer, Set<PlayerRewardData>> rewardsByProfile = new HashMap<>(profileIds.size());
+        for (Integer profileId : profileIds) {
+            rewardsByProfile.put(profileId, new HashSet<>());
+        }
+        queryInChunks(
+                connection,
+                new ArrayList<>(profileIds),
+                grantedRewards::selectForProfiles,
+                (statement, index, profileId) -> statement.setInt(index, profileId),
+                resultSet -> rewardsByProfile.get(resultSet.getInt("PROFILE_ID")).add(new PlayerRewardData(
+                        resultSet.getInt("ID"),
+                        resultSet.getString("REWARD"),
+                        resultSet.getBoolean("PENDING")
+                ))
+        );
+        return rewardsByProfile;
+    }
 
-        Map<String, Integer> rewardsToBeAdded = getOrCreateRewards(connection, rewards);
-        for (PlayerRewardData rewardData : missingRewards) {
-            Integer rewardId = rewardsToBeAdded.get(rewardData.getId());
-            if (rewardId == null) {
-                continue;
-            }
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "insert into " + tablePrefix() + tableName + " (PROFILE_ID, REWARD_ID, PENDING) VALUES (?, ?, ?);"
-            )) {
-                statement.setInt(1, profileId);
-                statement.setInt(2, rewardId);
-                statement.setBoolean(3, rewardData.isPending());
-                expectEffectedRows(statement.executeUpdate(), 1);
+    private void saveGrantedRewards(Connection connection, SQLQueries.GrantedRewards grantedRewards, Map<Integer, Set<PlayerRewardData>> rewardsByProfile) throws SQLException {
+        // Rewards that haven't been saved yet have no database id, so they're collected by name
+        Set<String> allRewards = new HashSet<>();
+        for (Set<PlayerRewardData> rewards : rewardsByProfile.values()) {
+            for (PlayerRewardData reward : rewards) {
+                allRewards.add(reward.getId());
             }
         }
 
-        for (PlayerRewardData databaseReward : currentDatabaseState) {
-            PlayerRewardData memoryReward = rewards.stream()
-                    .filter(reward -> reward.getId().equals(databaseReward.getId()))
-                    .findFirst().orElse(null);
-            if (memoryReward == null) {
-                // No longer set reward -> remove
-                try (PreparedStatement statement = connection.prepareStatement(
-                        "delete from " + tablePrefix() + tableName + " where PROFILE_ID = ? and REWARD_ID = ?;"
-                )) {
-                    statement.setInt(1, profileId);
-                    statement.setInt(2, databaseReward.getDatabaseId());
-                    expectEffectedRows(statement.executeUpdate(), 1);
+        int isolation = connection.getTransactionIsolation();
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        beginTransaction(connection);
+        try (PreparedStatement insertStatement = connection.prepareStatement(grantedRewards.insert);
+             PreparedStatement deleteStatement = connection.prepareStatement(grantedRewards.delete);
+             PreparedStatement updateStatement = connection.prepareStatement(grantedRewards.update)) {
+            Map<String, Integer> rewardIds = getOrCreateRewards(connection, allRewards);
+
+            int inserts = 0, deletes = 0, updates = 0;
+            for (Map.Entry<Integer, Set<PlayerRewardData>> entry : rewardsByProfile.entrySet()) {
+                int profileId = entry.getKey();
+                Set<PlayerRewardData> rewards = entry.getValue();
+                Set<PlayerRewardData> currentDatabaseState = getGrantedRewards(connection, grantedRewards, profileId);
+
+                for (PlayerRewardData rewardData : rewards) {
+                    boolean missing = currentDatabaseState.stream().noneMatch(playerReward -> playerReward.getId().equals(rewardData.getId()));
+                    if (!missing) {
+                        continue;
+                    }
+
+                    Integer rewardId = rewardIds.get(rewardData.getId());
+                    if (rewardId == null) {
+                        throw new SQLException("Reward " + rewardData.getId() + " has no id");
+                    }
+
+                    insertStatement.setInt(1, profileId);
+                    insertStatement.setInt(2, rewardId);
+                    insertStatement.setBoolean(3, rewardData.isPending());
+                    insertStatement.addBatch();
+                    inserts++;
+                }
+
+                for (PlayerRewardData databaseReward : currentDatabaseState) {
+                    PlayerRewardData memoryReward = rewards.stream()
+                            .filter(reward -> reward.getId().equals(databaseReward.getId()))
+                            .findFirst().orElse(null);
+                    if (memoryReward == null) {
+                        // No longer set reward -> remove
+                        deleteStatement.setInt(1, profileId);
+                        deleteStatement.setInt(2, databaseReward.getDatabaseId());
+                        deleteStatement.addBatch();
+                        deletes++;
+                        continue;
+                    }
+
+                    if (memoryReward.isPending() == databaseReward.isPending()) {
+                        // State matches no need to do anything
+                        continue;
+                    }
+
+                    // Change to reward -> update
+                    updateStatement.setBoolean(1, memoryReward.isPending());
+                    updateStatement.setInt(2, profileId);
+                    updateStatement.setInt(3, databaseReward.getDatabaseId());
+                    updateStatement.addBatch();
+                    updates++;
                 }
-                continue;
             }
 
-            if (memoryReward.isPending() == databaseReward.isPending()) {
-                // State matches no need to do anything
-                continue;
+            if (inserts > 0) {
+                expectEffectedRows(insertStatement.executeBatch(), 1);
+            }
+            if (deletes > 0) {
+                expectEffectedRows(deleteStatement.executeBatch(), 1);
+            }
+            if (updates > 0) {
+                expectEffectedRows(updateStatement.executeBatch(), 1);
             }
 
-            // Change to reward -> update
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "update " + tablePrefix() + tableName + " set PENDING = ? where PROFILE_ID = ? and REWARD_ID = ?;"
-            )) {
-                statement.setBoolean(1, memoryReward.isPending());
-                statement.setInt(2, profileId);
-                statement.setInt(3, memoryReward.getDatabaseId());
-                expectEffectedRows(statement.executeUpdate(), 1);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("COMMIT;");
+            }
+        } catch (Throwable t) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ROLLBACK;");
+            } catch (SQLException e) {
+                t.addSuppressed(e);
             }
+            throw t;
+        } finally {
+            // Don't leave the connection serializable for its next user
+            connection.setTransactionIsolation(isolation);
         }
     }
 
     private Integer getGameProfile(Connection connection, UUID playerUUID) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "select ID from " + tablePrefix() + GAME_PROFILE_TABLE_NAME + " where PLAYER_UUID = ?")) {
+        try (PreparedStatement statement = connection.prepareStatement(queries.selectGameProfileId)) {
             statement.setString(1, playerUUID.toString());
 
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -483,53 +878,134 @@ public abstract class SQLStorage implements Storage {
                 return null;
             }
 
-            Set<PlayerRewardData> rewards = new HashSet<>();
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "select r.ID, r.REWARD, gr.PENDING from " + tablePrefix() + GAME_GRANTED_REWARDS_TABLE_NAME + " gr"
-                            + " inner join " + tablePrefix() + REWARD_TABLE_NAME + " r on r.ID = gr.REWARD_ID"
-                            + " where gr.PROFILE_ID = ?"
-            )) {
-                statement.setInt(1, profileId);
+            Set<PlayerRewardData> rewards = getGrantedRewards(connection, queries.gameGrantedRewards, profileId);
+            return new GameProfileData(playerUUID, rewards);
+        });
+    }
+
+    @Override
+    public @NotNull Map<UUID, GameProfileData> getGameProfileData(@NotNull Collection<UUID> playerUUIDs) {
+        if (playerUUIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<UUID> keys = new ArrayList<>(new LinkedHashSet<>(playerUUIDs));
+        return useConnection(connection -> {
+            Map<Integer, UUID> profileIds = new HashMap<>(keys.size());
+            queryInChunks(
+                    connection,
+                    keys,
+                    queries::selectGameProfileIds,
+                    (statement, index, playerUUID) -> statement.setString(index, playerUUID.toString()),
+                    resultSet -> profileIds.put(resultSet.getInt("ID"), UUID.fromString(resultSet.getString("PLAYER_UUID")))
+            );
+            if (profileIds.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            Map<Integer, Set<PlayerRewardData>> rewardsByProfile = getGrantedRewards(connection, queries.gameGrantedRewards, profileIds.keySet());
+
+            Map<UUID, GameProfileData> profiles = new HashMap<>(profileIds.size());
+            for (Map.Entry<Integer, UUID> entry : profileIds.entrySet()) {
+                UUID playerUUID = entry.getValue();
+                profiles.put(playerUUID, new GameProfileData(playerUUID, rewardsByProfile.get(entry.getKey())));
+            }
+            return profiles;
+        });
+    }
+
+    @Override
+    public @NotNull PlayerProfileData getPlayerProfileData(@NotNull UUID playerUUID) {
+        return useConnection(connection -> {
+            AccountLink link = null;
+            Set<PlayerRewardData> gameRewards = null;
+            Set<PlayerRewardData> discordRewards = null;
+
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectPlayerProfile)) {
+                String value = playerUUID.toString();
+                statement.setString(1, value);
+                statement.setString(2, value);
+                statement.setString(3, value);
+
                 try (ResultSet resultSet = statement.executeQuery()) {
                     while (resultSet.next()) {
-                        rewards.add(new PlayerRewardData(
-                                resultSet.getInt("ID"),
-                                resultSet.getString("REWARD"),
-                                resultSet.getBoolean("PENDING"))
-                        );
+                        switch (resultSet.getString("KIND")) {
+                            case "L":
+                                link = getAccountLink(playerUUID, resultSet.getLong("USER_ID"), resultSet);
+                                break;
+                            case "G":
+                                gameRewards = addReward(gameRewards, resultSet);
+                                break;
+                            case "D":
+                                discordRewards = addReward(discordRewards, resultSet);
+                                break;
+                        }
                     }
                 }
             }
-            return new GameProfileData(playerUUID, rewards);
+
+            return new PlayerProfileData(
+                    link,
+                    gameRewards != null ? new GameProfileData(playerUUID, gameRewards) : null,
+                    link != null && discordRewards != null ? new DiscordProfileData(link.userId(), discordRewards) : null
+            );
         });
     }
 
+    private Set<PlayerRewardData> addReward(@Nullable Set<PlayerRewardData> rewards, ResultSet resultSet) throws SQLException {
+        if (rewards == null) {
+            rewards = new HashSet<>();
+        }
+        if (resultSet.getObject("REWARD_ID") != null) {
+            rewards.add(new PlayerRewardData(
+                    resultSet.getInt("REWARD_ID"),
+                    resultSet.getString("REWARD"),
+                    resultSet.getBoolean("PENDING")
+            ));
+        }
+        return rewards;
+    }
+
+    private int getOrCreateGameProfile(Connection connection, UUID playerUUID) throws SQLException {
+        Integer profileId = getGameProfile(connection, playerUUID);
+        if (profileId == null) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.insertGameProfile)) {
+                statement.setString(1, playerUUID.toString());
+                expectEffectedRows(statement.executeUpdate(), 1);
+            }
+
+            profileId = getGameProfile(connection, playerUUID);
+            if (profileId == null) {
+                throw new SQLException("Profile not found after insert");
+            }
+        }
+        return profileId;
+    }
+
     @Override
     public void saveGameProfileData(@NotNull GameProfileData profile) {
-        UUID playerUUID = profile.getPlayerUUID();
-        useConnection(connection -> {
-            Integer profileId = getGameProfile(connection, playerUUID);
-            if (profileId == null) {
-                try (PreparedStatement statement = connection.prepareStatement(
-                        "insert into " + tablePrefix() + GAME_PROFILE_TABLE_NAME + " (PLAYER_UUID) VALUES (?);"
-                )) {
-                    statement.setString(1, playerUUID.toString());
-                    expectEffectedRows(statement.executeUpdate(), 1);
-                }
+        saveGameProfileData(Collections.singletonList(profile));
+    }
 
-                profileId = getGameProfile(connection, playerUUID);
-                if (profileId == null) {
-                    throw new SQLException("Profile not found after insert");
-                }
+    @Override
+    public void saveGameProfileData(@NotNull Collection<GameProfileData> profiles) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+
+        useConnection(connection -> {
+            Map<Integer, Set<PlayerRewardData>> rewardsByProfile = new LinkedHashMap<>();
+            for (GameProfileData profile : profiles) {
+                int profileId = getOrCreateGameProfile(connection, profile.getPlayerUUID());
+                rewardsByProfile.put(profileId, profile.getRewards());
             }
 
-            alterRewardTable(connection, GAME_GRANTED_REWARDS_TABLE_NAME, profileId, profile.getRewards());
+            saveGrantedRewards(connection, queries.gameGrantedRewards, rewardsByProfile);
         });
     }
 
     private Integer getDiscordProfile(Connection connection, long userId) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "select ID from " + tablePrefix() + DISCORD_PROFILE_TABLE_NAME + " where USER_ID = ?")) {
+        try (PreparedStatement statement = connection.prepareStatement(queries.selectDiscordProfileId)) {
             statement.setLong(1, userId);
 
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -549,57 +1025,53 @@ public abstract class SQLStorage implements Storage {
                 return null;
             }
 
-            Set<PlayerRewardData> rewards = new HashSet<>();
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "select r.ID, r.REWARD, dr.PENDING from " + tablePrefix() + DISCORD_GRANTED_REWARDS_TABLE_NAME + " dr"
-                            + " inner join " + tablePrefix() + REWARD_TABLE_NAME + " r on r.ID = dr.REWARD_ID"
-                            + " where dr.PROFILE_ID = ?"
-            )) {
-                statement.setInt(1, profileId);
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    while (resultSet.next()) {
-                        rewards.add(new PlayerRewardData(
-                                resultSet.getInt("ID"),
-                                resultSet.getString("REWARD"),
-                                resultSet.getBoolean("PENDING"))
-                        );
-                    }
-                }
-            }
-
+            Set<PlayerRewardData> rewards = getGrantedRewards(connection, queries.discordGrantedRewards, profileId);
             return new DiscordProfileData(userId, rewards);
         });
     }
 
+    private int getOrCreateDiscordProfile(Connection connection, long userId) throws SQLException {
+        Integer profileId = getDiscordProfile(connection, userId);
+        if (profileId == null) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.insertDiscordProfile)) {
+                statement.setLong(1, userId);
+                expectEffectedRows(statement.executeUpdate(), 1);
+            }
+
+            profileId = getDiscordProfile(connection, userId);
+            if (profileId == null) {
+                throw new SQLException("Profile not found after insert");
+            }
+        }
+        return profileId;
+    }
+
     @Override
     public void saveDiscordProfileData(@NotNull DiscordProfileData profile) {
-        long userId = profile.getUserId();
-        useConnection(connection -> {
-            Integer profileId = getDiscordProfile(connection, userId);
-            if (profileId == null) {
-                try (PreparedStatement statement = connection.prepareStatement(
-                        "insert into " + tablePrefix() + DISCORD_PROFILE_TABLE_NAME + " (USER_ID) VALUES (?);"
-                )) {
-                    statement.setLong(1, userId);
-                    expectEffectedRows(statement.executeUpdate(), 1);
-                }
+        saveDiscordProfileData(Collections.singletonList(profile));
+    }
 
-                profileId = getDiscordProfile(connection, userId);
-                if (profileId == null) {
-                    throw new SQLException("Profile not found after insert");
-                }
+    @Override
+    public void saveDiscordProfileData(@NotNull Collection<DiscordProfileData> profiles) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+
+        useConnection(connection -> {
+            Map<Integer, Set<PlayerRewardData>> rewardsByProfile = new LinkedHashMap<>();
+            for (DiscordProfileData profile : profiles) {
+                int profileId = getOrCreateDiscordProfile(connection, profile.getUserId());
+                rewardsByProfile.put(profileId, profile.getRewards());
             }
 
-            alterRewardTable(connection, DISCORD_GRANTED_REWARDS_TABLE_NAME, profileId, profile.getRewards());
+            saveGrantedRewards(connection, queries.discordGrantedRewards, rewardsByProfile);
         });
     }
 
     @Override
     public void addRequiredLinkingBypass(UUID playerUUID) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "insert into " + tablePrefix() + LINKING_BYPASS_TABLE_NAME + " (PLAYER_UUID) values (?);"
-            )) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.insertLinkingBypass)) {
                 statement.setString(1, playerUUID.toString());
                 expectEffectedRows(statement.executeUpdate(), 1);
             }
@@ -609,9 +1081,7 @@ public abstract class SQLStorage implements Storage {
     @Override
     public void removeRequiredLinkingBypass(UUID playerUUID) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "delete from " + tablePrefix() + LINKING_BYPASS_TABLE_NAME + " where PLAYER_UUID = ?;"
-            )) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.deleteLinkingBypass)) {
                 statement.setString(1, playerUUID.toString());
                 expectEffectedRows(statement.executeUpdate(), 1);
             }
@@ -622,9 +1092,7 @@ public abstract class SQLStorage implements Storage {
     public Set<UUID> getRequiredLinkingBypass() {
         return useConnection(connection -> {
             Set<UUID> players = new HashSet<>();
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "select PLAYER_UUID from " + tablePrefix() + LINKING_BYPASS_TABLE_NAME
-            )) {
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectLinkingBypass)) {
                 try (ResultSet resultSet = statement.executeQuery()) {
                     while (resultSet.next()) {
                         players.add(UUID.fromString(resultSet.getString("PLAYER_UUID")));
@@ -634,4 +1102,107 @@ public abstract class SQLStorage implements Storage {
             return players;
         });
     }
+
+    @Override
+    public @NotNull Map<UUID, List<SyncCheckpoint>> getSyncCheckpoints(@NotNull Collection<UUID> playerUUIDs) {
+        if (playerUUIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<UUID> keys = new ArrayList<>(new LinkedHashSet<>(playerUUIDs));
+        return useConnection(connection -> {
+            Map<UUID, List<SyncCheckpoint>> checkpoints = new HashMap<>(keys.size());
+            queryInChunks(
+                    connection,
+                    keys,
+                    queries::selectSyncCheckpoints,
+                    (statement, index, playerUUID) -> statement.setString(index, playerUUID.toString()),
+                    resultSet -> {
+                        UUID playerUUID = UUID.fromString(resultSet.getString("PLAYER_UUID"));
+                        checkpoints.computeIfAbsent(playerUUID, key -> new ArrayList<>()).add(new SyncCheckpoint(
+                                playerUUID,
+                                resultSet.getLong("SYNC_KEY"),
+                                resultSet.getLong("GAME_HASH"),
+                                resultSet.getLong("DISCORD_HASH"),
+                                resultSet.getLong("UPDATED")
+                        ));
+                    }
+            );
+            return checkpoints;
+        });
+    }
+
+    @Override
+    public void saveSyncCheckpoints(@NotNull Collection<SyncCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+
+        useConnection(connection -> {
+            inTransaction(connection, () -> {
+                try (PreparedStatement deleteStatement = connection.prepareStatement(queries.deleteSyncCheckpoint);
+                     PreparedStatement insertStatement = connection.prepareStatement(queries.insertSyncCheckpoint)) {
+                    for (SyncCheckpoint checkpoint : checkpoints) {
+                        deleteStatement.setString(1, checkpoint.playerUUID().toString());
+                        deleteStatement.setLong(2, checkpoint.syncKey());
+                        deleteStatement.addBatch();
+
+                        insertStatement.setString(1, checkpoint.playerUUID().toString());
+                        insertStatement.setLong(2, checkpoint.syncKey());
+                        insertStatement.setLong(3, checkpoint.gameHash());
+                        insertStatement.setLong(4, checkpoint.discordHash());
+                        insertStatement.setLong(5, checkpoint.updated());
+                        insertStatement.addBatch();
+                    }
+
+                    deleteStatement.executeBatch();
+                    expectEffectedRows(insertStatement.executeBatch(), 1);
+                }
+            });
+        });
+    }
+
+    /**
+     * Copies all linked accounts, profiles and linking bypasses in this storage to another storage.
+     * @param target the storage to copy to
+     */
+    public void exportTo(@NotNull Storage target) {
+        forEachLink(target::createLink);
+
+        useConnection(connection -> {
+            Map<Integer, UUID> gameProfileIds = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectAllGameProfiles)) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        gameProfileIds.put(resultSet.getInt("ID"), UUID.fromString(resultSet.getString("PLAYER_UUID")));
+                    }
+                }
+            }
+            Map<Integer, Set<PlayerRewardData>> gameRewards = getGrantedRewards(connection, queries.gameGrantedRewards, gameProfileIds.keySet());
+            List<GameProfileData> gameProfiles = new ArrayList<>(gameProfileIds.size());
+            for (Map.Entry<Integer, UUID> entry : gameProfileIds.entrySet()) {
+                gameProfiles.add(new GameProfileData(entry.getValue(), gameRewards.get(entry.getKey())));
+            }
+            target.saveGameProfileData(gameProfiles);
+
+            Map<Integer, Long> discordProfileIds = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(queries.selectAllDiscordProfiles)) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        discordProfileIds.put(resultSet.getInt("ID"), resultSet.getLong("USER_ID"));
+                    }
+                }
+            }
+            Map<Integer, Set<PlayerRewardData>> discordRewards = getGrantedRewards(connection, queries.discordGrantedRewards, discordProfileIds.keySet());
+            List<DiscordProfileData> discordProfiles = new ArrayList<>(discordProfileIds.size());
+            for (Map.Entry<Integer, Long> entry : discordProfileIds.entrySet()) {
+                discordProfiles.add(new DiscordProfileData(entry.getValue(), discordRewards.get(entry.getKey())));
+            }
+            target.saveDiscordProfileData(discordProfiles);
+        });
+
+        for (UUID playerUUID : getRequiredLinkingBypass()) {
+            target.addRequiredLinkingBypass(playerUUID);
+        }
+    }
 }
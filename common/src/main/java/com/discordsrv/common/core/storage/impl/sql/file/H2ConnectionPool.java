@@ -0,0 +1,368 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.sql.file;
+
+import com.discordsrv.common.core.storage.impl.sql.ConnectionPoolMetrics;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.util.function.CheckedSupplier;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small fixed-size pool of embedded connections to the same H2 database, so queries don't have to run one at a time.
+ * Connections are handed out as proxies that return to the pool when closed,
+ * single argument {@link Connection#prepareStatement(String)} calls are served from a per-connection statement cache.
+ */
+public class H2ConnectionPool {
+
+    private final CheckedSupplier<Connection> connectionSupplier;
+    private final int maximumSize;
+    private final int statementCacheSize;
+    private final long connectionTimeoutNanos;
+
+    private final BlockingQueue<PooledConnection> idleConnections;
+    private final List<PooledConnection> allConnections = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger threadsAwaiting = new AtomicInteger();
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public H2ConnectionPool(CheckedSupplier<Connection> connectionSupplier, int maximumSize, int statementCacheSize, Duration connectionTimeout) {
+        this.connectionSupplier = connectionSupplier;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.connectionTimeoutNanos = connectionTimeout.toNanos();
+        this.idleConnections = new LinkedBlockingQueue<>(this.maximumSize);
+    }
+
+    /**
+     * Opens the first connection, to fail early if the database cannot be opened.
+     */
+    public void initialize() {
+        idleConnections.add(createConnection());
+    }
+
+    public Connection getConnection() {
+        if (closed) {
+            throw new StorageException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        PooledConnection connection = idleConnections.poll();
+        if (connection == null) {
+            connection = tryCreateConnection();
+        }
+        if (connection == null) {
+            threadsAwaiting.incrementAndGet();
+            try {
+                connection = idleConnections.poll(connectionTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException(e);
+            } finally {
+                threadsAwaiting.decrementAndGet();
+            }
+        }
+        if (connection == null) {
+            metrics.recordTimeout();
+            throw new StorageException("Timed out waiting for a H2 connection after " + TimeUnit.NANOSECONDS.toMillis(connectionTimeoutNanos) + "ms");
+        }
+
+        metrics.recordAcquired(System.nanoTime() - start);
+        activeConnections.incrementAndGet();
+
+        return (Connection) Proxy.newProxyInstance(
+                H2ConnectionPool.class.getClassLoader(),
+                new Class[] {Connection.class},
+                new ConnectionHandler(connection)
+        );
+    }
+
+    private PooledConnection tryCreateConnection() {
+        synchronized (allConnections) {
+            if (allConnections.size() >= maximumSize) {
+                return null;
+            }
+            return createConnection();
+        }
+    }
+
+    private PooledConnection createConnection() {
+        synchronized (allConnections) {
+            try {
+                PooledConnection connection = new PooledConnection(connectionSupplier.get());
+                allConnections.add(connection);
+                return connection;
+            } catch (Throwable t) {
+                throw new StorageException(t);
+            }
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        activeConnections.decrementAndGet();
+        try {
+            Connection physical = connection.connection;
+            if (!physical.getAutoCommit()) {
+                // Don't leave a transaction open for the next user of this connection
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.getTransactionIsolation() != connection.defaultIsolation) {
+                physical.setTransactionIsolation(connection.defaultIsolation);
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            return;
+        }
+
+        if (closed || !idleConnections.offer(connection)) {
+            discard(connection);
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        synchronized (allConnections) {
+            allConnections.remove(connection);
+        }
+        connection.close();
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (allConnections) {
+            for (PooledConnection connection : allConnections) {
+                connection.close();
+            }
+            allConnections.clear();
+        }
+        idleConnections.clear();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("maximumPoolSize", maximumSize);
+        values.put("statementCacheSize", statementCacheSize);
+        synchronized (allConnections) {
+            values.put("totalConnections", allConnections.size());
+        }
+        values.put("idleConnections", idleConnections.size());
+        values.put("activeConnections", activeConnections.get());
+        values.put("threadsAwaitingConnection", threadsAwaiting.get());
+        metrics.addTo(values);
+        values.put("statementCacheHits", statementCacheHits.get());
+        values.put("statementCacheMisses", statementCacheMisses.get());
+        return values;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A physical connection and its cached statements, only used by one thread at a time.
+     */
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final int defaultIsolation;
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().closeQuietly();
+                return true;
+            }
+        };
+
+        private PooledConnection(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.defaultIsolation = connection.getTransactionIsolation();
+        }
+
+        private PreparedStatement prepareStatement(String sql) throws SQLException {
+            if (statementCacheSize == 0) {
+                statementCacheMisses.incrementAndGet();
+                return connection.prepareStatement(sql);
+            }
+
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+                return cached.borrow();
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            if (cached != null) {
+                // Same statement is already open on this connection, don't cache this one
+                return statement;
+            }
+
+            cached = new CachedStatement(statement);
+            statements.put(sql, cached);
+            return cached.borrow();
+        }
+
+        private void close() {
+            for (CachedStatement statement : statements.values()) {
+                statement.closeQuietly();
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {}
+        }
+    }
+
+    private static class CachedStatement implements InvocationHandler {
+
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean inUse = false;
+        private boolean settingsChanged = false;
+
+        private CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    H2ConnectionPool.class.getClassLoader(),
+                    new Class[] {PreparedStatement.class},
+                    this
+            );
+        }
+
+        private PreparedStatement borrow() {
+            inUse = true;
+            return proxy;
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {}
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        inUse = false;
+                        statement.clearParameters();
+                        statement.clearBatch();
+                        if (settingsChanged) {
+                            // Don't pass settings on to the next user of this statement
+                            settingsChanged = false;
+                            statement.setFetchSize(defaultFetchSize);
+                            statement.setMaxRows(defaultMaxRows);
+                            statement.setQueryTimeout(defaultQueryTimeout);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                    settingsChanged = true;
+                    break;
+            }
+            return H2ConnectionPool.invoke(statement, method, args);
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final PooledConnection connection;
+        private boolean released = false;
+
+        private ConnectionHandler(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!released) {
+                            released = true;
+                            release(connection);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        return released || connection.connection.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + connection.connection + "]";
+            }
+
+            synchronized (this) {
+                if (released) {
+                    throw new SQLException("Connection has been returned to the pool");
+                }
+            }
+
+            if (method.getName().equals("prepareStatement") && args != null && args.length == 1) {
+                return connection.prepareStatement((String) args[0]);
+            }
+            return H2ConnectionPool.invoke(connection.connection, method, args);
+        }
+    }
+}
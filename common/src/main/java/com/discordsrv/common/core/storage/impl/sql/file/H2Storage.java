@@ -29,12 +29,15 @@ import java.lang.reflect.Constructor;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
 
 public class H2Storage extends SQLStorage {
 
     private IsolatedClassLoader classLoader;
-    private Connection connection;
+    private H2ConnectionPool connectionPool;
 
     public H2Storage(DiscordSRV discordSRV) {
         super(discordSRV);
@@ -50,35 +53,36 @@ public class H2Storage extends SQLStorage {
 
         StorageConfig storageConfig = discordSRV.connectionConfig().storage;
 
+        Constructor<?> constructor;
         try {
             Class<?> clazz = classLoader.loadClass("org.h2.jdbc.JdbcConnection");
-            Constructor<?> constructor = clazz.getConstructor(
+            constructor = clazz.getConstructor(
                     String.class, // url
                     Properties.class, // info
                     String.class, // username
                     Object.class, // password
                     boolean.class // forbidCreation
             );
-            connection = (Connection) constructor.newInstance(
-                    "jdbc:h2:" + discordSRV.dataDirectory().resolve("h2-database").toAbsolutePath(),
-                    storageConfig.getDriverProperties(),
-                    null,
-                    null,
-                    false
-            );
         } catch (ReflectiveOperationException e) {
             throw new StorageException(e);
         }
+
+        String url = "jdbc:h2:" + discordSRV.dataDirectory().resolve("h2-database").toAbsolutePath();
+        connectionPool = new H2ConnectionPool(
+                () -> (Connection) constructor.newInstance(url, storageConfig.getDriverProperties(), null, null, false),
+                storageConfig.h2.maximumPoolSize,
+                storageConfig.h2.statementCacheSize,
+                Duration.ofMillis(storageConfig.h2.connectionTimeout)
+        );
+        connectionPool.initialize();
         super.initialize();
     }
 
     @Override
     public void close() {
         super.close();
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException ignored) {}
+        if (connectionPool != null) {
+            connectionPool.close();
         }
         if (classLoader != null) {
             try {
@@ -97,13 +101,18 @@ public class H2Storage extends SQLStorage {
     }
 
     @Override
-    public synchronized Connection getConnection() {
-        return connection;
+    public Connection getConnection() {
+        return connectionPool.getConnection();
     }
 
     @Override
     public boolean isAutoCloseConnections() {
-        return false;
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        return connectionPool != null ? connectionPool.metrics() : Collections.emptyMap();
     }
 
     @Override
@@ -138,5 +147,8 @@ public class H2Storage extends SQLStorage {
 
         // Linking bypass
         createLinkingBypassTableGeneric(connection, tablePrefix);
+
+        // Sync checkpoints
+        createSyncCheckpointsTableGeneric(connection, tablePrefix);
     }
 }
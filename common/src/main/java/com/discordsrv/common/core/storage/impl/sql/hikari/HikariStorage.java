@@ -20,18 +20,24 @@ package com.discordsrv.common.core.storage.impl.sql.hikari;
 
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.config.connection.StorageConfig;
+import com.discordsrv.common.core.storage.impl.sql.ConnectionPoolMetrics;
 import com.discordsrv.common.core.storage.impl.sql.SQLStorage;
 import com.discordsrv.common.exception.StorageException;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
 import com.zaxxer.hikari.pool.HikariPool;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public abstract class HikariStorage extends SQLStorage {
 
     private HikariDataSource hikariDataSource;
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
 
     public HikariStorage(DiscordSRV discordSRV) {
         super(discordSRV);
@@ -63,6 +69,17 @@ public abstract class HikariStorage extends SQLStorage {
         config.setMaximumPoolSize(poolConfig.maximumPoolSize);
         config.setMaxLifetime(poolConfig.maximumLifetime);
         config.setKeepaliveTime(poolConfig.keepaliveTime);
+        config.setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                metrics.recordAcquired(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                metrics.recordTimeout();
+            }
+        });
         applyConfiguration(config, storageConfig);
 
         try {
@@ -104,4 +121,30 @@ public abstract class HikariStorage extends SQLStorage {
     public boolean isAutoCloseConnections() {
         return true;
     }
+
+    @Override
+    protected boolean recordLinkChanges() {
+        // Remote databases may be shared by multiple servers
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        HikariPoolMXBean pool = hikariDataSource != null ? hikariDataSource.getHikariPoolMXBean() : null;
+        if (pool != null) {
+            values.put("maximumPoolSize", hikariDataSource.getMaximumPoolSize());
+            values.put("totalConnections", pool.getTotalConnections());
+            values.put("idleConnections", pool.getIdleConnections());
+            values.put("activeConnections", pool.getActiveConnections());
+            values.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        metrics.addTo(values);
+
+        Map<String, Object> linkChanges = linkChangeMetrics();
+        if (linkChanges != null) {
+            values.put("linkChanges", linkChanges);
+        }
+        return values;
+    }
 }
@@ -58,5 +58,10 @@ public class MariaDBStorage extends MySQLStorage {
 
         config.setDriverClassName("org.mariadb.jdbc.Driver");
         config.setJdbcUrl("jdbc:mariadb://" + address + "/" + storageConfig.remote.databaseName);
+
+        // Prepared statements are reused by SQLStorage, cache them client-side and prepare them on the server
+        config.addDataSourceProperty("cachePrepStmts", true);
+        config.addDataSourceProperty("prepStmtCacheSize", 250);
+        config.addDataSourceProperty("useServerPrepStmts", true);
     }
 }
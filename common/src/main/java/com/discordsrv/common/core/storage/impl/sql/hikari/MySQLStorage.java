@@ -91,6 +91,12 @@ public class MySQLStorage extends HikariStorage {
 
         // Linking bypass
         createLinkingBypassTableGeneric(connection, tablePrefix);
+
+        // Sync checkpoints
+        createSyncCheckpointsTableGeneric(connection, tablePrefix);
+
+        // Link changes, for other servers sharing the database
+        createLinkChangesTableGeneric(connection, tablePrefix);
     }
 
     @Override
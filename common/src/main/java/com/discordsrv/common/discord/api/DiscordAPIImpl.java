@@ -32,6 +32,7 @@ import com.discordsrv.api.discord.entity.interaction.component.impl.DiscordModal
 import com.discordsrv.api.discord.exception.NotReadyException;
 import com.discordsrv.api.discord.exception.RestErrorResponseException;
 import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.lifecycle.DiscordSRVReadyEvent;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.config.main.channels.base.BaseChannelConfig;
@@ -45,6 +46,9 @@ import com.discordsrv.common.discord.api.entity.guild.DiscordCustomEmojiImpl;
 import com.discordsrv.common.discord.api.entity.guild.DiscordGuildImpl;
 import com.discordsrv.common.discord.api.entity.guild.DiscordGuildMemberImpl;
 import com.discordsrv.common.discord.api.entity.guild.DiscordRoleImpl;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
+import com.discordsrv.common.discord.api.request.DiscordRequestScheduler;
+import com.discordsrv.common.helper.TemporaryLocalData;
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Expiry;
@@ -63,8 +67,7 @@ import net.dv8tion.jda.api.requests.RestAction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CompletableFuture;
@@ -77,15 +80,21 @@ public class DiscordAPIImpl implements DiscordAPI {
 
     private final DiscordSRV discordSRV;
     private final DiscordCommandRegistry commandRegistry;
+    private final DiscordRequestScheduler requestScheduler;
+    private final DiscordEntityRetriever entityRetriever;
     private final AsyncLoadingCache<Long, WebhookClient<Message>> cachedClients;
+    private final PersistedWebhooks persistedWebhooks;
     private final ConcurrentMap<ComponentIdentifier, DiscordModal> modalRegistry = new ConcurrentHashMap<>();
 
     public DiscordAPIImpl(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
         this.commandRegistry = new DiscordCommandRegistry(discordSRV);
+        this.requestScheduler = new DiscordRequestScheduler(discordSRV);
+        this.entityRetriever = new DiscordEntityRetriever(discordSRV);
         this.cachedClients = discordSRV.caffeineBuilder()
                 .expireAfter(new WebhookCacheExpiry())
                 .buildAsync(new WebhookCacheLoader());
+        this.persistedWebhooks = new PersistedWebhooks(discordSRV);
 
         discordSRV.eventBus().subscribe(this);
     }
@@ -117,6 +126,45 @@ public class DiscordAPIImpl implements DiscordAPI {
         return cachedClients;
     }
 
+    /**
+     * Forgets the webhook for the given channel, if it is still the given webhook. For when Discord responds with unknown webhook.
+     * @param channelId the id of the channel the webhook is for
+     * @param webhookId the id of the webhook that no longer exists
+     */
+    public void invalidateWebhookClient(long channelId, long webhookId) {
+        CompletableFuture<WebhookClient<Message>> future = cachedClients.getIfPresent(channelId);
+        if (future != null && future.isDone() && !future.isCompletedExceptionally() && future.join().getIdLong() == webhookId) {
+            cachedClients.asMap().remove(channelId, future);
+        }
+        persistedWebhooks.remove(channelId, webhookId);
+    }
+
+    public DiscordRequestScheduler requestScheduler() {
+        return requestScheduler;
+    }
+
+    public DiscordEntityRetriever entityRetriever() {
+        return entityRetriever;
+    }
+
+    /**
+     * Sends a request through the {@link DiscordRequestScheduler}, so that it is sent in order of its priority.
+     * @param priority how urgent the request is
+     * @param source the feature the request is from, for budgets and metrics
+     * @param route the kind of request for metrics, for example {@code member/roles}
+     * @param jdaRestActionSupplier supplies the request, called when the request is sent
+     * @return a task for the result of the request
+     * @see DiscordRequestScheduler#submit(DiscordRequestPriority, String, String, Supplier)
+     */
+    public <T> Task<T> toTask(
+            DiscordRequestPriority priority,
+            String source,
+            String route,
+            Supplier<RestAction<T>> jdaRestActionSupplier
+    ) {
+        return requestScheduler.submit(priority, source, route, jdaRestActionSupplier);
+    }
+
     public <T> Task<T> toTask(Supplier<RestAction<T>> jdaRestActionSupplier) {
         try {
             RestAction<T> restAction = jdaRestActionSupplier.get();
@@ -350,12 +398,7 @@ public class DiscordAPIImpl implements DiscordAPI {
 
     @Override
     public @NotNull Task<DiscordUser> retrieveUserById(long id) {
-        JDA jda = discordSRV.jda();
-        if (jda == null) {
-            return notReady();
-        }
-
-        return toTask(() -> jda.retrieveUserById(id)).thenApply(this::getUser);
+        return entityRetriever.retrieveUser(id).thenApply(this::getUser);
     }
 
     @Override
@@ -400,6 +443,105 @@ public class DiscordAPIImpl implements DiscordAPI {
         return commandRegistry;
     }
 
+    @Subscribe
+    public void onDiscordSRVReady(DiscordSRVReadyEvent event) {
+        discordSRV.scheduler().run("Webhook prewarm", this::prewarmWebhookClients);
+    }
+
+    /**
+     * Gets webhooks for configured channels ready before messages are sent to them.
+     * Webhooks saved from before the restart are used right away and checked in the background,
+     * existing webhooks are looked up in parallel for other channels. New webhooks are only created once they're used.
+     */
+    private void prewarmWebhookClients() {
+        JDA jda = discordSRV.jda();
+        if (jda == null) {
+            return;
+        }
+
+        // Webhooks are also used for channels that aren't in the channels config (such as the console channel), only forget deleted channels
+        persistedWebhooks.retainUsable(channelId -> jda.getGuildChannelById(channelId) instanceof IWebhookContainer);
+
+        Set<Long> channelIds = configuredWebhookChannelIds();
+
+        List<Task<Void>> tasks = new ArrayList<>();
+        for (Long channelId : channelIds) {
+            GuildChannel channel = jda.getGuildChannelById(channelId);
+            if (!(channel instanceof IWebhookContainer)) {
+                continue;
+            }
+
+            TemporaryLocalData.PersistedWebhook persisted = persistedWebhooks.get(channelId);
+            if (persisted != null) {
+                cachedClients.asMap().putIfAbsent(channelId, CompletableFuture.completedFuture(createClient(jda, persisted.id, persisted.token)));
+            }
+
+            tasks.add(findWebhook(jda, (IWebhookContainer) channel).thenApply(webhook -> {
+                if (webhook != null) {
+                    String token = Objects.requireNonNull(webhook.getToken());
+                    WebhookClient<Message> client = createClient(jda, webhook.getIdLong(), token);
+                    if (persisted == null || persisted.id != webhook.getIdLong() || !token.equals(persisted.token)) {
+                        cachedClients.put(channelId, CompletableFuture.completedFuture(client));
+                    } else {
+                        cachedClients.asMap().putIfAbsent(channelId, CompletableFuture.completedFuture(client));
+                    }
+                    persistedWebhooks.put(channelId, webhook.getIdLong(), token);
+                } else if (persisted != null) {
+                    // Deleted while DiscordSRV was offline
+                    invalidateWebhookClient(channelId, persisted.id);
+                }
+                return null;
+            }));
+        }
+
+        Task.allOf(tasks).whenComplete((__, t) -> {
+            if (t != null) {
+                discordSRV.logger().debug("Failed to prewarm webhooks", t);
+            } else {
+                discordSRV.logger().debug("Prewarmed webhooks for " + tasks.size() + " channels");
+            }
+        });
+    }
+
+    private Set<Long> configuredWebhookChannelIds() {
+        Set<Long> channelIds = new LinkedHashSet<>();
+        for (BaseChannelConfig config : discordSRV.config().channels.values()) {
+            DestinationConfig destination = config instanceof IChannelConfig ? ((IChannelConfig) config).destination() : null;
+            if (destination == null) {
+                continue;
+            }
+
+            channelIds.addAll(destination.channelIds);
+            for (ThreadConfig thread : destination.threads) {
+                if (thread.channelId != null) {
+                    channelIds.add(thread.channelId);
+                }
+            }
+        }
+        return channelIds;
+    }
+
+    private Task<Webhook> findWebhook(JDA jda, IWebhookContainer webhookContainer) {
+        return toTask(webhookContainer.retrieveWebhooks()).thenApply(webhooks -> {
+            for (Webhook webhook : webhooks) {
+                User user = webhook.getOwnerAsUser();
+                if (user == null
+                        || !user.getId().equals(jda.getSelfUser().getId())
+                        || !webhook.getName().equals("DSRV")) {
+                    continue;
+                }
+
+                return webhook;
+            }
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked") // Generics
+    private WebhookClient<Message> createClient(JDA jda, long webhookId, String token) {
+        return (WebhookClient<Message>) WebhookClient.createClient(jda, Long.toUnsignedString(webhookId), token);
+    }
+
     @Subscribe
     public void onJDAShutdown(ShutdownEvent event) {
         // Clear cache of clients
@@ -427,34 +569,23 @@ public class DiscordAPIImpl implements DiscordAPI {
                 return future;
             }
 
-            return toTask(webhookContainer.retrieveWebhooks()).thenApply(webhooks -> {
-                Webhook hook = null;
-                for (Webhook webhook : webhooks) {
-                    User user = webhook.getOwnerAsUser();
-                    if (user == null
-                            || !user.getId().equals(jda.getSelfUser().getId())
-                            || !webhook.getName().equals("DSRV")) {
-                        continue;
-                    }
-
-                    hook = webhook;
-                    break;
-                }
+            TemporaryLocalData.PersistedWebhook persisted = persistedWebhooks.get(channelId);
+            if (persisted != null) {
+                // Checked when DiscordSRV becomes ready, invalidated if Discord doesn't know about it
+                return CompletableFuture.completedFuture(createClient(jda, persisted.id, persisted.token));
+            }
 
-                return hook;
-            }).then(webhook -> {
+            return findWebhook(jda, webhookContainer).then(webhook -> {
                 if (webhook != null) {
                     return Task.completed(webhook);
                 }
 
                 return toTask(webhookContainer.createWebhook("DSRV"));
-            }).thenApply(webhook -> (WebhookClient<Message>)
-                    WebhookClient.createClient(
-                            webhook.getJDA(),
-                            webhook.getId(),
-                            Objects.requireNonNull(webhook.getToken())
-                    )
-            ).getFuture();
+            }).thenApply(webhook -> {
+                String token = Objects.requireNonNull(webhook.getToken());
+                persistedWebhooks.put(channelId, webhook.getIdLong(), token);
+                return createClient(webhook.getJDA(), webhook.getIdLong(), token);
+            }).getFuture();
         }
     }
 
@@ -0,0 +1,297 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.api.discord.exception.NotReadyException;
+import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.member.GenericGuildMemberEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.session.ShutdownEvent;
+import net.dv8tion.jda.api.events.user.update.GenericUserUpdateEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retrieves Discord members and users that are not in JDA's cache.
+ * <p>
+ * Retrievals of the same member or user that are already running are shared, and results are kept for a short time
+ * or until a gateway event says they changed. With the server members intent, members of the same guild requested
+ * around the same time are retrieved together with one gateway member chunk request instead of a REST request each.
+ */
+public class DiscordEntityRetriever {
+
+    private static final Duration RESULT_EXPIRY = Duration.ofSeconds(30);
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(50);
+    private static final int MAXIMUM_BATCH_SIZE = 100;
+
+    private final DiscordSRV discordSRV;
+    private final AsyncCache<MemberKey, Member> members;
+    private final AsyncCache<Long, User> users;
+    private final Map<Long, MemberBatch> batches = new HashMap<>();
+
+    private final AtomicLong memberRequests = new AtomicLong();
+    private final AtomicLong memberLoads = new AtomicLong();
+    private final AtomicLong userRequests = new AtomicLong();
+    private final AtomicLong userLoads = new AtomicLong();
+    private final AtomicLong chunkRequests = new AtomicLong();
+    private final AtomicLong chunkedMembers = new AtomicLong();
+    private final AtomicLong restMemberRequests = new AtomicLong();
+
+    public DiscordEntityRetriever(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
+        this.members = discordSRV.caffeineBuilder()
+                .expireAfterWrite(RESULT_EXPIRY)
+                .maximumSize(10_000)
+                .buildAsync();
+        this.users = discordSRV.caffeineBuilder()
+                .expireAfterWrite(RESULT_EXPIRY)
+                .maximumSize(10_000)
+                .buildAsync();
+
+        discordSRV.eventBus().subscribe(this);
+    }
+
+    /**
+     * Gets the member from JDA's cache, or retrieves it from Discord.
+     * @param guild the guild
+     * @param userId the id of the user
+     * @return a task for the member, fails with an unknown member error if the user isn't in the guild
+     */
+    public Task<Member> retrieveMember(@NotNull Guild guild, long userId) {
+        Member cachedMember = guild.getMemberById(userId);
+        if (cachedMember != null) {
+            return Task.completed(cachedMember);
+        }
+
+        memberRequests.incrementAndGet();
+        return Task.of(members.get(new MemberKey(guild.getIdLong(), userId), (key, executor) -> {
+            memberLoads.incrementAndGet();
+            return loadMember(guild, userId).whenSuccessful(member -> {
+                users.put(userId, CompletableFuture.completedFuture(member.getUser()));
+            }).getFuture();
+        }));
+    }
+
+    /**
+     * Gets the user from JDA's cache, or retrieves it from Discord.
+     * @param userId the id of the user
+     * @return a task for the user
+     */
+    public Task<User> retrieveUser(long userId) {
+        JDA jda = discordSRV.jda();
+        if (jda == null) {
+            return Task.failed(new NotReadyException());
+        }
+
+        User cachedUser = jda.getUserById(userId);
+        if (cachedUser != null) {
+            return Task.completed(cachedUser);
+        }
+
+        userRequests.incrementAndGet();
+        return Task.of(users.get(userId, (key, executor) -> {
+            userLoads.incrementAndGet();
+            return discordSRV.discordAPI().toTask(() -> jda.retrieveUserById(userId)).getFuture();
+        }));
+    }
+
+    /**
+     * Forgets the retrieved member, for after making changes to it.
+     * @param guildId the id of the guild
+     * @param userId the id of the user
+     */
+    public void invalidateMember(long guildId, long userId) {
+        members.synchronous().invalidate(new MemberKey(guildId, userId));
+    }
+
+    private Task<Member> loadMember(Guild guild, long userId) {
+        if (!discordSRV.discordAPI().isUserCachingEnabled()) {
+            return retrieveMemberFromRest(guild, userId);
+        }
+
+        CompletableFuture<Member> future = new CompletableFuture<>();
+        MemberBatch fullBatch = null;
+        synchronized (batches) {
+            MemberBatch batch = batches.get(guild.getIdLong());
+            if (batch == null) {
+                MemberBatch newBatch = batch = new MemberBatch(guild);
+                batches.put(guild.getIdLong(), newBatch);
+                discordSRV.scheduler().runLater("Discord member batch", () -> sendBatchIfWaiting(newBatch), BATCH_WINDOW);
+            }
+
+            CompletableFuture<Member> existingFuture = batch.futures.putIfAbsent(userId, future);
+            if (existingFuture != null) {
+                // Invalidated while waiting for the batch
+                return Task.of(existingFuture);
+            }
+            if (batch.futures.size() >= MAXIMUM_BATCH_SIZE) {
+                batches.remove(guild.getIdLong());
+                fullBatch = batch;
+            }
+        }
+        if (fullBatch != null) {
+            sendBatch(fullBatch);
+        }
+        return Task.of(future);
+    }
+
+    private void sendBatchIfWaiting(MemberBatch batch) {
+        synchronized (batches) {
+            if (!batches.remove(batch.guild.getIdLong(), batch)) {
+                // Already sent because it was full
+                return;
+            }
+        }
+        sendBatch(batch);
+    }
+
+    private void sendBatch(MemberBatch batch) {
+        Guild guild = batch.guild;
+        Map<Long, CompletableFuture<Member>> futures = batch.futures;
+        if (futures.size() == 1) {
+            retrieveMembersFromRest(guild, futures);
+            return;
+        }
+
+        long[] userIds = new long[futures.size()];
+        int index = 0;
+        for (Long userId : futures.keySet()) {
+            userIds[index++] = userId;
+        }
+
+        chunkRequests.incrementAndGet();
+        guild.retrieveMembersByIds(userIds).onSuccess(retrievedMembers -> {
+            for (Member member : retrievedMembers) {
+                CompletableFuture<Member> future = futures.remove(member.getIdLong());
+                if (future != null) {
+                    chunkedMembers.incrementAndGet();
+                    future.complete(member);
+                }
+            }
+
+            // Not in the guild, REST gives the same unknown member error as retrieving them one by one
+            retrieveMembersFromRest(guild, futures);
+        }).onError(t -> retrieveMembersFromRest(guild, futures));
+    }
+
+    private void retrieveMembersFromRest(Guild guild, Map<Long, CompletableFuture<Member>> futures) {
+        for (Map.Entry<Long, CompletableFuture<Member>> entry : futures.entrySet()) {
+            CompletableFuture<Member> future = entry.getValue();
+            retrieveMemberFromRest(guild, entry.getKey()).whenComplete((member, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else {
+                    future.complete(member);
+                }
+            });
+        }
+    }
+
+    private Task<Member> retrieveMemberFromRest(Guild guild, long userId) {
+        restMemberRequests.incrementAndGet();
+        return discordSRV.discordAPI().toTask(() -> guild.retrieveMemberById(userId));
+    }
+
+    @Subscribe
+    public void onGenericGuildMember(GenericGuildMemberEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getMember().getIdLong());
+    }
+
+    @Subscribe
+    public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    @Subscribe
+    public void onGenericUserUpdate(GenericUserUpdateEvent<?> event) {
+        long userId = event.getUser().getIdLong();
+        users.synchronous().invalidate(userId);
+        for (Guild guild : event.getJDA().getGuilds()) {
+            invalidateMember(guild.getIdLong(), userId);
+        }
+    }
+
+    @Subscribe
+    public void onJDAShutdown(ShutdownEvent event) {
+        members.synchronous().invalidateAll();
+        users.synchronous().invalidateAll();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("memberRequests", memberRequests.get());
+        values.put("memberRequestsShared", memberRequests.get() - memberLoads.get());
+        values.put("memberChunkRequests", chunkRequests.get());
+        values.put("membersFromChunks", chunkedMembers.get());
+        values.put("memberRestRequests", restMemberRequests.get());
+        values.put("userRequests", userRequests.get());
+        values.put("userRequestsShared", userRequests.get() - userLoads.get());
+        values.put("membersInMemory", members.synchronous().estimatedSize());
+        values.put("usersInMemory", users.synchronous().estimatedSize());
+        return values;
+    }
+
+    private static class MemberBatch {
+
+        private final Guild guild;
+        private final Map<Long, CompletableFuture<Member>> futures = new HashMap<>();
+
+        private MemberBatch(Guild guild) {
+            this.guild = guild;
+        }
+    }
+
+    private static class MemberKey {
+
+        private final long guildId;
+        private final long userId;
+
+        private MemberKey(long guildId, long userId) {
+            this.guildId = guildId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MemberKey memberKey = (MemberKey) o;
+            return guildId == memberKey.guildId && userId == memberKey.userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(guildId) * 31 + Long.hashCode(userId);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.helper.TemporaryLocalData;
+import org.jetbrains.annotations.Blocking;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * The webhooks {@link DiscordAPIImpl} sends messages with, kept in {@link TemporaryLocalData}
+ * so that they don't need to be looked up from Discord again after a restart.
+ * Changed while holding the {@link TemporaryLocalData} lock, which is also held while it is being saved.
+ */
+class PersistedWebhooks {
+
+    private final DiscordSRV discordSRV;
+
+    PersistedWebhooks(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
+    }
+
+    @Blocking
+    public @Nullable TemporaryLocalData.PersistedWebhook get(long channelId) {
+        TemporaryLocalData localData = discordSRV.temporaryLocalData();
+        synchronized (localData) {
+            return localData.get().webhooks.get(channelId);
+        }
+    }
+
+    @Blocking
+    public void put(long channelId, long webhookId, String token) {
+        TemporaryLocalData localData = discordSRV.temporaryLocalData();
+        synchronized (localData) {
+            Map<Long, TemporaryLocalData.PersistedWebhook> webhooks = localData.get().webhooks;
+            TemporaryLocalData.PersistedWebhook current = webhooks.get(channelId);
+            if (current != null && current.id == webhookId && Objects.equals(current.token, token)) {
+                return;
+            }
+            webhooks.put(channelId, new TemporaryLocalData.PersistedWebhook(webhookId, token));
+        }
+        localData.saveLater();
+    }
+
+    /**
+     * Removes the webhook for the given channel, if it is still the given webhook.
+     * @param channelId the channel id
+     * @param webhookId the id of the webhook that is no longer valid
+     */
+    @Blocking
+    public void remove(long channelId, long webhookId) {
+        TemporaryLocalData localData = discordSRV.temporaryLocalData();
+        synchronized (localData) {
+            Map<Long, TemporaryLocalData.PersistedWebhook> webhooks = localData.get().webhooks;
+            TemporaryLocalData.PersistedWebhook current = webhooks.get(channelId);
+            if (current == null || current.id != webhookId) {
+                return;
+            }
+            webhooks.remove(channelId);
+        }
+        localData.saveLater();
+    }
+
+    /**
+     * Forgets the webhooks of channels that can no longer be used.
+     * @param usable if webhooks can still be used in the channel with the given id
+     */
+    @Blocking
+    public void retainUsable(LongPredicate usable) {
+        TemporaryLocalData localData = discordSRV.temporaryLocalData();
+        boolean changed;
+        synchronized (localData) {
+            changed = localData.get().webhooks.keySet().removeIf(channelId -> !usable.test(channelId));
+        }
+        if (changed) {
+            localData.saveLater();
+        }
+    }
+}
@@ -30,7 +30,6 @@ import com.discordsrv.common.abstraction.player.IOfflinePlayer;
 import com.discordsrv.common.abstraction.player.IPlayer;
 import com.discordsrv.common.discord.api.entity.channel.DiscordDMChannelImpl;
 import com.discordsrv.common.core.profile.ProfileImpl;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -116,12 +115,7 @@ public class DiscordUserImpl implements DiscordUser {
 
     @Override
     public Task<DiscordDMChannel> openPrivateChannel() {
-        JDA jda = discordSRV.jda();
-        if (jda == null) {
-            return discordSRV.discordAPI().notReady();
-        }
-
-        return discordSRV.discordAPI().toTask(() -> jda.retrieveUserById(getId()))
+        return discordSRV.discordAPI().entityRetriever().retrieveUser(getId())
                 .then(user -> discordSRV.discordAPI().toTask(user::openPrivateChannel))
                 .thenApply(privateChannel -> new DiscordDMChannelImpl(discordSRV, privateChannel));
     }
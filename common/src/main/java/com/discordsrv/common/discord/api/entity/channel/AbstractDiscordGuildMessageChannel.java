@@ -22,14 +22,17 @@ import com.discordsrv.api.discord.entity.channel.DiscordGuildMessageChannel;
 import com.discordsrv.api.discord.entity.guild.DiscordGuild;
 import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
 import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
+import com.discordsrv.api.discord.exception.RestErrorResponseException;
 import com.discordsrv.api.placeholder.format.FormattedText;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.message.ReceivedDiscordMessageImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.WebhookClient;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.requests.ErrorResponse;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
 import net.dv8tion.jda.api.requests.restaction.WebhookMessageCreateAction;
@@ -40,6 +43,9 @@ import net.dv8tion.jda.api.utils.messages.MessageCreateRequest;
 import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.dv8tion.jda.api.utils.messages.MessageEditRequest;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageChannel>
         extends AbstractDiscordMessageChannel<T>
@@ -56,6 +62,10 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
         return discordSRV.discordAPI().queryWebhookClient(getId());
     }
 
+    protected void invalidateWebhookClient(long webhookId) {
+        discordSRV.discordAPI().invalidateWebhookClient(getId(), webhookId);
+    }
+
     @Override
     public @NotNull String getName() {
         return channel.getName();
@@ -78,7 +88,34 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
 
     @Override
     public @NotNull Task<ReceivedDiscordMessage> sendMessage(@NotNull SendableDiscordMessage message) {
-        return sendInternal(message);
+        if (!message.isWebhookMessage()) {
+            return sendInternal(message, null);
+        }
+
+        AtomicLong webhookId = new AtomicLong();
+        Task<ReceivedDiscordMessage> result = new Task<>();
+        sendInternal(message, webhookId).whenComplete((receivedMessage, t) -> {
+            if (t instanceof RestErrorResponseException
+                    && ((RestErrorResponseException) t).getErrorCode() == ErrorResponse.UNKNOWN_WEBHOOK.getCode()) {
+                // The webhook was deleted, forget it and try once more with another webhook
+                invalidateWebhookClient(webhookId.get());
+                sendInternal(message, null).whenComplete((retriedMessage, retryThrowable) -> {
+                    if (retryThrowable != null) {
+                        result.completeExceptionally(retryThrowable);
+                    } else {
+                        result.complete(retriedMessage);
+                    }
+                });
+                return;
+            }
+
+            if (t != null) {
+                result.completeExceptionally(t);
+            } else {
+                result.complete(receivedMessage);
+            }
+        });
+        return result;
     }
 
     protected <R> WebhookMessageCreateAction<R> mapAction(WebhookMessageCreateAction<R> action) {
@@ -86,16 +123,23 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
     }
 
     @SuppressWarnings("unchecked") // Generics
-    private <R extends MessageCreateRequest<? extends MessageCreateRequest<?>> & RestAction<Message>> Task<ReceivedDiscordMessage> sendInternal(SendableDiscordMessage message) {
+    private <R extends MessageCreateRequest<? extends MessageCreateRequest<?>> & RestAction<Message>> Task<ReceivedDiscordMessage> sendInternal(
+            SendableDiscordMessage message,
+            @Nullable AtomicLong webhookId
+    ) {
         MessageCreateData createData = SendableDiscordMessageUtil.toJDASend(message);
 
         Task<R> createRequest;
         if (message.isWebhookMessage()) {
             createRequest = queryWebhookClient()
-                    .thenApply(client -> (R) mapAction(client.sendMessage(createData))
-                            .setUsername(message.getWebhookUsername())
-                            .setAvatarUrl(message.getWebhookAvatarUrl())
-                    );
+                    .thenApply(client -> {
+                        if (webhookId != null) {
+                            webhookId.set(client.getIdLong());
+                        }
+                        return (R) mapAction(client.sendMessage(createData))
+                                .setUsername(message.getWebhookUsername())
+                                .setAvatarUrl(message.getWebhookAvatarUrl());
+                    });
         } else {
             MessageCreateAction action = channel.sendMessage(createData);
 
@@ -106,8 +150,9 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
             createRequest = Task.completed((R) action);
         }
 
+        String route = message.isWebhookMessage() ? "webhook/send" : "message/send";
         return createRequest
-                .then(restAction -> discordSRV.discordAPI().toTask(restAction))
+                .then(restAction -> discordSRV.discordAPI().toTask(DiscordRequestPriority.CHAT_RELAY, "messages", route, () -> restAction))
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 
@@ -137,8 +182,9 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
             editRequest = Task.completed(((R) channel.editMessageById(id, editData)));
         }
 
+        String route = message.isWebhookMessage() ? "webhook/edit" : "message/edit";
         return editRequest
-                .then(restAction -> discordSRV.discordAPI().toTask(restAction))
+                .then(restAction -> discordSRV.discordAPI().toTask(DiscordRequestPriority.CHAT_RELAY, "messages", route, () -> restAction))
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 
@@ -151,9 +197,19 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
         Task<Void> future;
         if (webhookMessage) {
             future = queryWebhookClient()
-                    .then(client -> discordSRV.discordAPI().toTask(() -> mapAction(client.deleteMessageById(id))));
+                    .then(client -> discordSRV.discordAPI().toTask(
+                            DiscordRequestPriority.CHAT_RELAY,
+                            "messages",
+                            "webhook/delete",
+                            () -> mapAction(client.deleteMessageById(id))
+                    ));
         } else {
-            future = discordSRV.discordAPI().toTask(() -> channel.deleteMessageById(id));
+            future = discordSRV.discordAPI().toTask(
+                    DiscordRequestPriority.CHAT_RELAY,
+                    "messages",
+                    "message/delete",
+                    () -> channel.deleteMessageById(id)
+            );
         }
         return future;
     }
@@ -26,6 +26,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.message.ReceivedDiscordMessageImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
@@ -61,7 +62,8 @@ public class DiscordDMChannelImpl extends AbstractDiscordMessageChannel<PrivateC
             action = action.setMessageReference(referencedMessageId);
         }
 
-        return discordSRV.discordAPI().toTask(action)
+        MessageCreateAction finalAction = action;
+        return discordSRV.discordAPI().toTask(DiscordRequestPriority.CHAT_RELAY, "messages", "dm/send", () -> finalAction)
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 
@@ -71,7 +73,7 @@ public class DiscordDMChannelImpl extends AbstractDiscordMessageChannel<PrivateC
             throw new IllegalArgumentException("DMChannels do not contain webhook messages");
         }
 
-        return discordSRV.discordAPI().toTask(() -> channel.deleteMessageById(id));
+        return discordSRV.discordAPI().toTask(DiscordRequestPriority.CHAT_RELAY, "messages", "dm/delete", () -> channel.deleteMessageById(id));
     }
 
     @Override
@@ -84,7 +86,12 @@ public class DiscordDMChannelImpl extends AbstractDiscordMessageChannel<PrivateC
         }
 
         return discordSRV.discordAPI()
-                .toTask(channel.editMessageById(id, SendableDiscordMessageUtil.toJDAEdit(message)))
+                .toTask(
+                        DiscordRequestPriority.CHAT_RELAY,
+                        "messages",
+                        "dm/edit",
+                        () -> channel.editMessageById(id, SendableDiscordMessageUtil.toJDAEdit(message))
+                )
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 
@@ -55,6 +55,11 @@ public class DiscordThreadChannelImpl extends AbstractDiscordGuildMessageChannel
                 .queryWebhookClient(getParentChannel().getId());
     }
 
+    @Override
+    protected void invalidateWebhookClient(long webhookId) {
+        discordSRV.discordAPI().invalidateWebhookClient(getParentChannel().getId(), webhookId);
+    }
+
     @Override
     protected <R> WebhookMessageCreateAction<R> mapAction(WebhookMessageCreateAction<R> action) {
         return super.mapAction(action).setThreadId(getId());
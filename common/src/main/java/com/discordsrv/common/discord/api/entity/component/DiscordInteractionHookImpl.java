@@ -25,6 +25,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.message.ReceivedDiscordMessageImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.interactions.InteractionHook;
 
 public class DiscordInteractionHookImpl implements DiscordInteractionHook {
@@ -54,13 +55,15 @@ public class DiscordInteractionHookImpl implements DiscordInteractionHook {
 
     @Override
     public Task<ReceivedDiscordMessage> editOriginal(SendableDiscordMessage message) {
-        return discordSRV.discordAPI().toTask(() -> hook.editOriginal(SendableDiscordMessageUtil.toJDAEdit(message)))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/edit", () -> hook.editOriginal(SendableDiscordMessageUtil.toJDAEdit(message)))
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 
     @Override
     public Task<ReceivedDiscordMessage> sendMessage(SendableDiscordMessage message, boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> hook.sendMessage(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/followup", () -> hook.sendMessage(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
                 .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
     }
 }
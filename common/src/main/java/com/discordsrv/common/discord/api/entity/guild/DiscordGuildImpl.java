@@ -66,7 +66,7 @@ public class DiscordGuildImpl implements DiscordGuild {
 
     @Override
     public @NotNull Task<DiscordGuildMember> retrieveMemberById(long id) {
-        return discordSRV.discordAPI().toTask(() -> guild.retrieveMemberById(id))
+        return discordSRV.discordAPI().entityRetriever().retrieveMember(guild, id)
                 .thenApply(member -> new DiscordGuildMemberImpl(discordSRV, member));
     }
 
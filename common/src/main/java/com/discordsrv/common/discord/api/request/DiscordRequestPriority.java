@@ -0,0 +1,59 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api.request;
+
+/**
+ * How urgent a Discord request is for the {@link DiscordRequestScheduler}, in order from the most urgent.
+ */
+public enum DiscordRequestPriority {
+
+    /**
+     * Messages sent, edited or deleted in Discord channels, including chat relayed from the game. Never held back.
+     */
+    CHAT_RELAY(true),
+
+    /**
+     * Replies to Discord interactions, these have to be answered within a few seconds. Never held back.
+     */
+    INTERACTION(true),
+
+    /**
+     * Role changes, bans and timeouts from synchronization.
+     */
+    MODERATION(false),
+
+    /**
+     * Channel names, nicknames and other changes that can wait, or be dropped if there is too much to do.
+     */
+    COSMETIC(false);
+
+    private final boolean urgent;
+
+    DiscordRequestPriority(boolean urgent) {
+        this.urgent = urgent;
+    }
+
+    /**
+     * If requests of this priority are sent to Discord right away, instead of waiting for their turn.
+     * @return {@code true} for chat relay and interactions
+     */
+    public boolean isUrgent() {
+        return urgent;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api.request;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.DiscordRequestsConfig;
+import com.discordsrv.common.config.main.MainConfig;
+import com.discordsrv.common.core.debug.LatencyHistogram;
+import com.discordsrv.common.exception.DiscordRequestDroppedException;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests to Discord in the order of their {@link DiscordRequestPriority}, so that bulk work from one feature
+ * (like timed group synchronization or channel updates) cannot hold up chat messages and interaction replies.
+ * <p>
+ * Chat relay and interaction requests are sent right away. Moderation and cosmetic requests wait in a queue,
+ * and are sent while fewer than the configured amount of them are waiting on Discord and the feature they're from has budget left.
+ * Cosmetic requests are also held back while many urgent requests are waiting on Discord,
+ * and the oldest waiting cosmetic requests are dropped when there are too many of them.
+ * The time spent waiting in the queue and waiting on Discord is kept per route for debug reports.
+ */
+public class DiscordRequestScheduler {
+
+    private static final DiscordRequestsConfig DEFAULT_CONFIG = new DiscordRequestsConfig();
+    private static final Duration BUDGET_RECHECK_DELAY = Duration.ofMillis(500);
+
+    private final Supplier<DiscordRequestsConfig> configSupplier;
+    private final Sender sender;
+    private final BiConsumer<Runnable, Duration> runLater;
+    private final LongSupplier nanoTime;
+
+    // Guarded by this
+    private final Map<DiscordRequestPriority, WaitingRequests> queues = new EnumMap<>(DiscordRequestPriority.class);
+    private final int[] inFlight = new int[DiscordRequestPriority.values().length];
+    private final Map<String, Budget> budgets = new HashMap<>();
+    private long nextSequence = 0;
+    private boolean budgetRecheckScheduled = false;
+    private boolean cosmeticPaused = false;
+    private boolean draining = false;
+    private boolean drainAgain = false;
+
+    private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final Map<String, SourceMetrics> sourceMetrics = new ConcurrentHashMap<>();
+    private final AtomicLong cosmeticPauses = new AtomicLong();
+
+    public DiscordRequestScheduler(DiscordSRV discordSRV) {
+        this(
+                () -> {
+                    MainConfig config = discordSRV.config();
+                    return config != null ? config.discordRequests : DEFAULT_CONFIG;
+                },
+                new Sender() {
+                    @Override
+                    public <T> Task<T> send(Supplier<RestAction<T>> actionSupplier) {
+                        return discordSRV.discordAPI().toTask(actionSupplier);
+                    }
+                },
+                (runnable, delay) -> discordSRV.scheduler().runLater("Discord request budget recheck", runnable, delay),
+                System::nanoTime
+        );
+    }
+
+    DiscordRequestScheduler(
+            Supplier<DiscordRequestsConfig> configSupplier,
+            Sender sender,
+            BiConsumer<Runnable, Duration> runLater,
+            LongSupplier nanoTime
+    ) {
+        this.configSupplier = configSupplier;
+        this.sender = sender;
+        this.runLater = runLater;
+        this.nanoTime = nanoTime;
+    }
+
+    private DiscordRequestsConfig config() {
+        return configSupplier.get();
+    }
+
+    /**
+     * Sends the given request to Discord once it's its turn.
+     * @param priority how urgent the request is
+     * @param source the feature the request is from, as used in the budget configuration, for example {@code group-sync}
+     * @param route the kind of request for metrics, for example {@code member/roles}
+     * @param actionSupplier supplies the request, only called once the request is sent
+     * @return a task for the result of the request, fails with a {@link DiscordRequestDroppedException} if the request was dropped
+     */
+    public <T> Task<T> submit(
+            @NotNull DiscordRequestPriority priority,
+            @NotNull String source,
+            @NotNull String route,
+            @NotNull Supplier<RestAction<T>> actionSupplier
+    ) {
+        Request<T> request = new Request<>(priority, source, route, actionSupplier, nanoTime.getAsLong());
+        if (priority.isUrgent()) {
+            synchronized (this) {
+                inFlight[priority.ordinal()]++;
+            }
+            start(request);
+            return request.task;
+        }
+
+        Request<?> droppedRequest = null;
+        synchronized (this) {
+            request.sequence = nextSequence++;
+            WaitingRequests queue = queues.computeIfAbsent(priority, key -> new WaitingRequests());
+            queue.add(request);
+            if (priority == DiscordRequestPriority.COSMETIC && queue.size > Math.max(1, config().maximumQueuedCosmetic)) {
+                droppedRequest = queue.poll(queue.oldest(Collections.emptySet()));
+            }
+        }
+        if (droppedRequest != null) {
+            sourceMetrics(droppedRequest.source).dropped.incrementAndGet();
+            droppedRequest.task.completeExceptionally(new DiscordRequestDroppedException(
+                    "Too many cosmetic Discord requests waiting, dropped " + droppedRequest.route + " from " + droppedRequest.source));
+        }
+
+        drain();
+        return request.task;
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                // Requests that fail right away finish during drainOnce, don't recurse for each of them
+                drainAgain = true;
+                return;
+            }
+            draining = true;
+        }
+
+        boolean again;
+        do {
+            try {
+                drainOnce();
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    draining = false;
+                    drainAgain = false;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                again = drainAgain;
+                drainAgain = false;
+                draining = again;
+            }
+        } while (again);
+    }
+
+    private void drainOnce() {
+        DiscordRequestsConfig config = config();
+        List<Request<?>> toStart = new ArrayList<>();
+        boolean scheduleBudgetRecheck = false;
+
+        synchronized (this) {
+            int urgentInFlight = 0;
+            for (DiscordRequestPriority priority : DiscordRequestPriority.values()) {
+                if (priority.isUrgent()) {
+                    urgentInFlight += inFlight[priority.ordinal()];
+                }
+            }
+
+            long now = nanoTime.getAsLong();
+            Set<String> outOfBudget = new HashSet<>();
+            for (DiscordRequestPriority priority : DiscordRequestPriority.values()) {
+                WaitingRequests queue = queues.get(priority);
+                if (queue == null || queue.size == 0) {
+                    continue;
+                }
+
+                if (priority == DiscordRequestPriority.COSMETIC) {
+                    boolean pause = config.cosmeticPauseThreshold > 0 && urgentInFlight >= config.cosmeticPauseThreshold;
+                    if (pause && !cosmeticPaused) {
+                        cosmeticPauses.incrementAndGet();
+                    }
+                    cosmeticPaused = pause;
+                    if (pause) {
+                        // Continues when the urgent requests finish
+                        continue;
+                    }
+                }
+
+                int limit = Math.max(1, priority == DiscordRequestPriority.MODERATION
+                                        ? config.maximumConcurrentModeration
+                                        : config.maximumConcurrentCosmetic);
+                while (inFlight[priority.ordinal()] < limit) {
+                    // Only the oldest request of each feature is looked at, so a feature that is out of budget is skipped as a whole
+                    Deque<Request<?>> sourceQueue = queue.oldest(outOfBudget);
+                    if (sourceQueue == null) {
+                        break;
+                    }
+
+                    Request<?> request = sourceQueue.peekFirst();
+                    Budget budget = budgets.computeIfAbsent(request.source, key -> new Budget());
+                    if (!budget.tryAcquire(config.requestsPerMinute(request.source), now)) {
+                        outOfBudget.add(request.source);
+                        if (!request.deferred) {
+                            request.deferred = true;
+                            sourceMetrics(request.source).deferred.incrementAndGet();
+                        }
+                        continue;
+                    }
+
+                    queue.poll(sourceQueue);
+                    inFlight[priority.ordinal()]++;
+                    toStart.add(request);
+                }
+            }
+
+            if (!outOfBudget.isEmpty() && !budgetRecheckScheduled) {
+                budgetRecheckScheduled = true;
+                scheduleBudgetRecheck = true;
+            }
+        }
+
+        if (scheduleBudgetRecheck) {
+            runLater.accept(() -> {
+                synchronized (this) {
+                    budgetRecheckScheduled = false;
+                }
+                drain();
+            }, BUDGET_RECHECK_DELAY);
+        }
+        for (Request<?> request : toStart) {
+            start(request);
+        }
+    }
+
+    private <T> void start(Request<T> request) {
+        long started = nanoTime.getAsLong();
+        RouteMetrics route = routeMetrics.computeIfAbsent(request.route, key -> new RouteMetrics());
+        route.queueWait.recordNanos(started - request.submitted);
+        sourceMetrics(request.source).sent.incrementAndGet();
+
+        sender.send(request.actionSupplier).whenComplete((result, t) -> {
+            route.requestTime.recordNanos(nanoTime.getAsLong() - started);
+            synchronized (this) {
+                inFlight[request.priority.ordinal()]--;
+            }
+            drain();
+
+            if (t != null) {
+                request.task.completeExceptionally(t);
+            } else {
+                request.task.complete(result);
+            }
+        });
+    }
+
+    private SourceMetrics sourceMetrics(String source) {
+        return sourceMetrics.computeIfAbsent(source, key -> new SourceMetrics());
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        Map<String, Object> priorities = new LinkedHashMap<>();
+        synchronized (this) {
+            for (DiscordRequestPriority priority : DiscordRequestPriority.values()) {
+                WaitingRequests queue = queues.get(priority);
+
+                Map<String, Object> priorityValues = new LinkedHashMap<>();
+                priorityValues.put("inFlight", inFlight[priority.ordinal()]);
+                priorityValues.put("queued", queue != null ? queue.size : 0);
+                priorities.put(priority.name(), priorityValues);
+            }
+            values.put("cosmeticPaused", cosmeticPaused);
+        }
+        values.put("cosmeticPauses", cosmeticPauses.get());
+        values.put("priorities", priorities);
+
+        Map<String, Object> sources = new TreeMap<>();
+        for (Map.Entry<String, SourceMetrics> entry : sourceMetrics.entrySet()) {
+            SourceMetrics metrics = entry.getValue();
+
+            Map<String, Object> sourceValues = new LinkedHashMap<>();
+            sourceValues.put("sent", metrics.sent.get());
+            sourceValues.put("deferredForBudget", metrics.deferred.get());
+            sourceValues.put("dropped", metrics.dropped.get());
+            sources.put(entry.getKey(), sourceValues);
+        }
+        values.put("sources", sources);
+
+        Map<String, Object> routes = new TreeMap<>();
+        for (Map.Entry<String, RouteMetrics> entry : routeMetrics.entrySet()) {
+            RouteMetrics metrics = entry.getValue();
+
+            Map<String, Object> routeValues = new LinkedHashMap<>();
+            routeValues.put("queueWait", metrics.queueWait.summary());
+            routeValues.put("requestTime", metrics.requestTime.summary());
+            routes.put(entry.getKey(), routeValues);
+        }
+        values.put("routes", routes);
+        return values;
+    }
+
+    /**
+     * Sends a request to Discord, {@link com.discordsrv.common.discord.api.DiscordAPIImpl#toTask(Supplier)} outside of tests.
+     */
+    interface Sender {
+
+        <T> Task<T> send(Supplier<RestAction<T>> actionSupplier);
+    }
+
+    private static class Request<T> {
+
+        private final DiscordRequestPriority priority;
+        private final String source;
+        private final String route;
+        private final Supplier<RestAction<T>> actionSupplier;
+        private final Task<T> task = new Task<>();
+        private final long submitted;
+        private long sequence;
+        private boolean deferred = false;
+
+        private Request(
+                DiscordRequestPriority priority,
+                String source,
+                String route,
+                Supplier<RestAction<T>> actionSupplier,
+                long submitted
+        ) {
+            this.priority = priority;
+            this.source = source;
+            this.route = route;
+            this.actionSupplier = actionSupplier;
+            this.submitted = submitted;
+        }
+    }
+
+    /**
+     * The waiting requests of one priority, in a queue per feature. Requests are taken in the order they were submitted,
+     * finding the next one only looks at the oldest request of each feature instead of every waiting request.
+     */
+    private static class WaitingRequests {
+
+        private final Map<String, Deque<Request<?>>> bySource = new HashMap<>();
+        private int size = 0;
+
+        private void add(Request<?> request) {
+            bySource.computeIfAbsent(request.source, key -> new ArrayDeque<>()).addLast(request);
+            size++;
+        }
+
+        private Deque<Request<?>> oldest(Set<String> skippedSources) {
+            Deque<Request<?>> oldest = null;
+            for (Map.Entry<String, Deque<Request<?>>> entry : bySource.entrySet()) {
+                if (skippedSources.contains(entry.getKey())) {
+                    continue;
+                }
+
+                Deque<Request<?>> queue = entry.getValue();
+                if (oldest == null || queue.peekFirst().sequence < oldest.peekFirst().sequence) {
+                    oldest = queue;
+                }
+            }
+            return oldest;
+        }
+
+        private Request<?> poll(Deque<Request<?>> sourceQueue) {
+            Request<?> request = sourceQueue.pollFirst();
+            if (sourceQueue.isEmpty()) {
+                bySource.remove(request.source);
+            }
+            size--;
+            return request;
+        }
+    }
+
+    /**
+     * A token bucket of requests per minute, starts full.
+     */
+    private static class Budget {
+
+        private double tokens = -1;
+        private long refilledAt;
+
+        private boolean tryAcquire(int perMinute, long now) {
+            if (perMinute <= 0) {
+                return true;
+            }
+
+            if (tokens < 0) {
+                tokens = perMinute;
+            } else {
+                tokens = Math.min(perMinute, tokens + (now - refilledAt) * perMinute / (double) Duration.ofMinutes(1).toNanos());
+            }
+            refilledAt = now;
+
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    private static class RouteMetrics {
+
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram requestTime = new LatencyHistogram();
+    }
+
+    private static class SourceMetrics {
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong deferred = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+    }
+}
@@ -30,6 +30,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.component.DiscordInteractionHookImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
 public class DiscordChatInputInteractionEventImpl extends DiscordChatInputInteractionEvent {
@@ -49,18 +50,21 @@ public class DiscordChatInputInteractionEventImpl extends DiscordChatInputIntera
 
     @Override
     public Task<DiscordInteractionHook> reply(SendableDiscordMessage message, boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", () -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
                 .thenApply(ih -> new DiscordInteractionHookImpl(discordSRV, ih));
     }
 
     @Override
     public Task<DiscordInteractionHook> deferReply(boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.deferReply(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", () -> jdaEvent.deferReply(ephemeral))
                 .thenApply(ih -> new DiscordInteractionHookImpl(discordSRV, ih));
     }
 
     @Override
     public Task<Void> replyModal(DiscordModal modal) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.replyModal(modal.asJDA()));
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/modal", () -> jdaEvent.replyModal(modal.asJDA()));
     }
 }
@@ -30,6 +30,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.component.DiscordInteractionHookImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 
 public class DiscordButtonInteractionEventImpl extends DiscordButtonInteractionEvent {
@@ -51,31 +52,36 @@ public class DiscordButtonInteractionEventImpl extends DiscordButtonInteractionE
 
     @Override
     public Task<DiscordInteractionHook> sendMessage(SendableDiscordMessage message, boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", () -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
                 .thenApply(interactionHook -> new DiscordInteractionHookImpl(discordSRV, interactionHook));
     }
 
     @Override
     public Task<DiscordInteractionHook> editMessage(SendableDiscordMessage message) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.editMessage(SendableDiscordMessageUtil.toJDAEdit(message)))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/edit", () -> jdaEvent.editMessage(SendableDiscordMessageUtil.toJDAEdit(message)))
                 .thenApply(interactionHook -> new DiscordInteractionHookImpl(discordSRV, interactionHook));
     }
 
     @Override
     public Task<DiscordInteractionHook> deferReply() {
-        return discordSRV.discordAPI().toTask(jdaEvent::deferReply)
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", jdaEvent::deferReply)
                 .thenApply(interactionHook -> new DiscordInteractionHookImpl(discordSRV, interactionHook));
     }
 
     @Override
     public Task<DiscordInteractionHook> deferEdit() {
-        return discordSRV.discordAPI().toTask(jdaEvent::deferEdit)
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/edit", jdaEvent::deferEdit)
                 .thenApply(interactionHook -> new DiscordInteractionHookImpl(discordSRV, interactionHook));
     }
 
     @Override
     public Task<Void> replyModal(DiscordModal modal) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.replyModal(modal.asJDA()))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/modal", () -> jdaEvent.replyModal(modal.asJDA()))
                 .thenApply(interactionHook -> null);
     }
 }
@@ -29,6 +29,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.discord.api.entity.component.DiscordInteractionHookImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 
 public class DiscordModalInteractionEventImpl extends DiscordModalInteractionEvent {
@@ -48,13 +49,15 @@ public class DiscordModalInteractionEventImpl extends DiscordModalInteractionEve
 
     @Override
     public Task<DiscordInteractionHook> reply(SendableDiscordMessage message, boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", () -> jdaEvent.reply(SendableDiscordMessageUtil.toJDASend(message)).setEphemeral(ephemeral))
                 .thenApply(ih -> new DiscordInteractionHookImpl(discordSRV, ih));
     }
 
     @Override
     public Task<DiscordInteractionHook> deferReply(boolean ephemeral) {
-        return discordSRV.discordAPI().toTask(() -> jdaEvent.deferReply(ephemeral))
+        return discordSRV.discordAPI()
+                .toTask(DiscordRequestPriority.INTERACTION, "interactions", "interaction/reply", () -> jdaEvent.deferReply(ephemeral))
                 .thenApply(ih -> new DiscordInteractionHookImpl(discordSRV, ih));
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.events.linking;
+
+import com.discordsrv.api.events.Event;
+
+import java.util.UUID;
+
+/**
+ * An account link was created or removed by another server using the same storage.
+ * Only used to keep this server's caches up to date, the server that made the change handles everything else.
+ */
+public class RemoteLinkChangeEvent implements Event {
+
+    private final UUID playerUUID;
+    private final long userId;
+    private final boolean linked;
+
+    public RemoteLinkChangeEvent(UUID playerUUID, long userId, boolean linked) {
+        this.playerUUID = playerUUID;
+        this.userId = userId;
+        this.linked = linked;
+    }
+
+    public UUID playerUUID() {
+        return playerUUID;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    /**
+     * If the accounts were linked or unlinked.
+     * @return {@code true} if the accounts were linked
+     */
+    public boolean linked() {
+        return linked;
+    }
+}
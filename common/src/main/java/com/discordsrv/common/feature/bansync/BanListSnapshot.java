@@ -0,0 +1,272 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.bansync;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.logging.Logger;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A local copy of the ban lists of Discord servers, so that ban states can be looked up without a request for every user.
+ * <p>
+ * A server's ban list is loaded by paging through its bans, after which it's kept up-to-date with ban and unban events.
+ * The list is periodically loaded again and compared by checksum, to recover from missed events.
+ */
+public class BanListSnapshot {
+
+    private final DiscordSRV discordSRV;
+    private final Logger logger;
+    private final Map<Long, GuildBans> guilds = new ConcurrentHashMap<>();
+
+    public BanListSnapshot(DiscordSRV discordSRV, Logger logger) {
+        this.discordSRV = discordSRV;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts loading the ban list of the given server, forgetting the ban lists of all other servers.
+     * Does nothing if the list is already loaded or being loaded.
+     * @param guild the Discord server
+     */
+    public void track(Guild guild) {
+        long guildId = guild.getIdLong();
+        guilds.keySet().removeIf(id -> id != guildId);
+
+        GuildBans bans = guilds.computeIfAbsent(guildId, key -> new GuildBans());
+        synchronized (bans) {
+            if (bans.bans != null || bans.changesWhileLoading != null) {
+                return;
+            }
+        }
+        load(guild, bans);
+    }
+
+    public void clear() {
+        guilds.clear();
+    }
+
+    /**
+     * Loads the ban lists of all tracked servers again, replacing the current ban list if it differs.
+     */
+    public void reconcile() {
+        for (Map.Entry<Long, GuildBans> entry : guilds.entrySet()) {
+            Guild guild = discordSRV.jda() != null ? discordSRV.jda().getGuildById(entry.getKey()) : null;
+            if (guild == null) {
+                continue;
+            }
+
+            GuildBans bans = entry.getValue();
+            synchronized (bans) {
+                if (bans.changesWhileLoading != null) {
+                    // Already loading
+                    continue;
+                }
+            }
+            load(guild, bans);
+        }
+    }
+
+    private void load(Guild guild, GuildBans bans) {
+        if (!guild.getSelfMember().hasPermission(Permission.BAN_MEMBERS)) {
+            logger.debug("Cannot load the ban list of " + guild.getName() + ", missing the Ban Members permission");
+            return;
+        }
+
+        synchronized (bans) {
+            bans.changesWhileLoading = new ArrayList<>();
+        }
+
+        Map<Long, Ban> loaded = new HashMap<>();
+        CompletableFuture<?> future = guild.retrieveBanList().forEachAsync(ban -> {
+            long userId = ban.getUser().getIdLong();
+            loaded.put(userId, new Ban(userId, ban.getReason()));
+            return true;
+        });
+        future.whenComplete((__, t) -> {
+            synchronized (bans) {
+                List<Change> changes = bans.changesWhileLoading;
+                bans.changesWhileLoading = null;
+                if (t != null) {
+                    logger.error("Failed to load the ban list of " + guild.getName(), t);
+                    return;
+                }
+                if (guilds.get(guild.getIdLong()) != bans) {
+                    // No longer tracked
+                    return;
+                }
+
+                // Events that happened while loading may or may not be included already, applying them again gives the same result
+                long checksum = 0;
+                for (Long userId : loaded.keySet()) {
+                    checksum += mix(userId);
+                }
+                for (Change change : changes) {
+                    checksum += apply(loaded, change);
+                }
+
+                if (bans.bans == null) {
+                    logger.debug("Loaded " + loaded.size() + " bans for " + guild.getName());
+                } else if (bans.checksum != checksum || bans.bans.size() != loaded.size()) {
+                    logger.debug("Ban list of " + guild.getName() + " was out of date (" + bans.bans.size() + " -> " + loaded.size() + " bans)");
+                } else {
+                    return;
+                }
+                bans.bans = loaded;
+                bans.checksum = checksum;
+            }
+        });
+    }
+
+    /**
+     * Records a change to a server's ban list.
+     * @param guildId the Discord server id
+     * @param userId the Discord user id
+     * @param banned if the user is now banned
+     * @param reason the reason for the ban, if known
+     */
+    public void banChanged(long guildId, long userId, boolean banned, @Nullable String reason) {
+        GuildBans bans = guilds.get(guildId);
+        if (bans == null) {
+            return;
+        }
+
+        Change change = new Change(userId, banned, reason);
+        synchronized (bans) {
+            if (bans.changesWhileLoading != null) {
+                bans.changesWhileLoading.add(change);
+            }
+            if (bans.bans != null) {
+                bans.checksum += apply(bans.bans, change);
+            }
+        }
+    }
+
+    private static long apply(Map<Long, Ban> bans, Change change) {
+        if (change.banned) {
+            Ban previous = bans.get(change.userId);
+            if (previous != null && change.reason == null) {
+                // Keep the reason from the ban list or audit log, ban events don't include one
+                return 0;
+            }
+            bans.put(change.userId, new Ban(change.userId, change.reason));
+            return previous == null ? mix(change.userId) : 0;
+        } else {
+            return bans.remove(change.userId) != null ? -mix(change.userId) : 0;
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * If the ban list of the given server has been loaded.
+     * @param guildId the Discord server id
+     * @return {@code true} if {@link #getBan(long, long)} can be used for the server
+     */
+    public boolean isLoaded(long guildId) {
+        GuildBans bans = guilds.get(guildId);
+        if (bans == null) {
+            return false;
+        }
+        synchronized (bans) {
+            return bans.bans != null;
+        }
+    }
+
+    /**
+     * Gets the ban for the given user from the snapshot, the server's ban list must be {@link #isLoaded(long) loaded}.
+     * @param guildId the Discord server id
+     * @param userId the Discord user id
+     * @return the ban or {@code null} if the user isn't banned
+     */
+    @Nullable
+    public Ban getBan(long guildId, long userId) {
+        GuildBans bans = guilds.get(guildId);
+        if (bans == null) {
+            return null;
+        }
+        synchronized (bans) {
+            return bans.bans != null ? bans.bans.get(userId) : null;
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<Long, GuildBans> entry : guilds.entrySet()) {
+            GuildBans bans = entry.getValue();
+            synchronized (bans) {
+                values.put(Long.toUnsignedString(entry.getKey()), bans.bans != null ? bans.bans.size() : "not loaded");
+            }
+        }
+        return values;
+    }
+
+    public static class Ban {
+
+        private final long userId;
+        private final String reason;
+
+        public Ban(long userId, @Nullable String reason) {
+            this.userId = userId;
+            this.reason = reason;
+        }
+
+        public long userId() {
+            return userId;
+        }
+
+        @Nullable
+        public String reason() {
+            return reason;
+        }
+    }
+
+    private static class GuildBans {
+
+        // Guarded by this
+        private Map<Long, Ban> bans;
+        private long checksum;
+        private List<Change> changesWhileLoading;
+    }
+
+    private static class Change {
+
+        private final long userId;
+        private final boolean banned;
+        private final String reason;
+
+        private Change(long userId, boolean banned, String reason) {
+            this.userId = userId;
+            this.banned = banned;
+            this.reason = reason;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.discordsrv.api.discord.entity.guild.DiscordGuild;
 import com.discordsrv.api.module.type.PunishmentModule;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.punishment.Punishment;
+import com.discordsrv.api.reload.ReloadResult;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.player.IOfflinePlayer;
@@ -44,6 +45,9 @@ import com.discordsrv.common.abstraction.sync.result.DiscordPermissionResult;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.BanSyncConfig;
+import com.discordsrv.common.core.debug.DebugGenerateEvent;
+import com.discordsrv.common.core.debug.file.KeyValueDebugFile;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.feature.bansync.enums.BanSyncCause;
 import com.discordsrv.common.feature.bansync.enums.BanSyncResult;
 import com.discordsrv.common.helper.Someone;
@@ -60,13 +64,54 @@ import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
 
+    private static final Duration BAN_LIST_RECONCILE_INTERVAL = Duration.ofMinutes(30);
+
+    private final BanListSnapshot banList;
+    private Future<?> banListReconcileFuture;
+
     public BanSyncModule(DiscordSRV discordSRV) {
         super(discordSRV, "BAN_SYNC");
+        this.banList = new BanListSnapshot(discordSRV, logger());
+    }
+
+    @Override
+    public void enable() {
+        banListReconcileFuture = discordSRV.scheduler().runAtFixedRate(
+                "Ban list reconcile",
+                banList::reconcile,
+                BAN_LIST_RECONCILE_INTERVAL
+        );
+    }
+
+    @Override
+    public void disable() {
+        if (banListReconcileFuture != null) {
+            banListReconcileFuture.cancel(false);
+        }
+        banList.clear();
+    }
+
+    @Override
+    public void reload(Consumer<ReloadResult> resultConsumer) {
+        super.reload(resultConsumer);
+
+        BanSyncConfig config = discordSRV.config().banSync;
+        DiscordGuild guild = config.isSet() && shouldHandleDiscordBanChanges()
+                             ? discordSRV.discordAPI().getGuildById(config.serverId)
+                             : null;
+        if (guild != null) {
+            banList.track(guild.asJDA());
+        } else {
+            banList.clear();
+        }
     }
 
     @Override
@@ -108,13 +153,20 @@ public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
         return Collections.singletonList(discordSRV.config().banSync);
     }
 
+    @Subscribe
+    public void onDebugGenerate(DebugGenerateEvent event) {
+        event.addFile("ban-list.json", new KeyValueDebugFile(banList.metrics(), true));
+    }
+
     @Subscribe
     public void onGuildBan(GuildBanEvent event) {
+        banList.banChanged(event.getGuild().getIdLong(), event.getUser().getIdLong(), true, null);
         handleDiscordBanChange(event.getGuild(), event.getUser(), true);
     }
 
     @Subscribe
     public void onGuildUnban(GuildUnbanEvent event) {
+        banList.banChanged(event.getGuild().getIdLong(), event.getUser().getIdLong(), false, null);
         handleDiscordBanChange(event.getGuild(), event.getUser(), false);
     }
 
@@ -126,6 +178,8 @@ public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
             return;
         }
 
+        banList.banChanged(event.getGuild().getIdLong(), entry.getTargetIdLong(), actionType == ActionType.BAN, entry.getReason());
+
         if (!shouldHandleDiscordBanChanges()) return;
 
         Guild guild = event.getGuild();
@@ -202,6 +256,11 @@ public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
 
         if (!shouldHandleDiscordBanChanges()) return getBanRole(guild, snowflake, config); // Ignoring bans entirely
 
+        if (banList.isLoaded(guild.getIdLong())) {
+            BanListSnapshot.Ban ban = banList.getBan(guild.getIdLong(), userId);
+            return Task.completed(ban != null ? new Punishment(null, ComponentUtil.fromPlain(ban.reason()), null) : null);
+        }
+
         return discordSRV.discordAPI().toTask(guild.retrieveBan(snowflake))
                 .thenApply(this::punishment)
                 .mapException(RestErrorResponseException.class, t -> {
@@ -215,7 +274,7 @@ public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
     }
 
     private Task<@Nullable Punishment> getBanRole(Guild guild, UserSnowflake snowflake, BanSyncConfig config) {
-        return discordSRV.discordAPI().toTask(guild.retrieveMember(snowflake))
+        return discordSRV.discordAPI().entityRetriever().retrieveMember(guild, snowflake.getIdLong())
                 .thenApply(member -> {
                     if (config.minecraftToDiscord.action == BanSyncDiscordAction.ROLE && member.getRoles().stream().anyMatch(role -> config.bannedRoleId == role.getIdLong())) {
                         return new Punishment(null, null, null);
@@ -278,19 +337,21 @@ public class BanSyncModule extends AbstractPunishmentSyncModule<BanSyncConfig> {
         switch (config.minecraftToDiscord.action) {
             case BAN:
                 if (newState != null) {
-                    return Task.of(guild.asJDA().ban(snowflake, config.minecraftToDiscord.messageHoursToDelete, TimeUnit.HOURS)
-                            .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.banReasonFormat, newState))
-                            .submit()
-                            .thenApply(v -> GenericSyncResults.ADD_DISCORD));
+                    return discordSRV.discordAPI()
+                            .toTask(DiscordRequestPriority.MODERATION, "ban-sync", "guild/bans", () -> guild.asJDA()
+                                    .ban(snowflake, config.minecraftToDiscord.messageHoursToDelete, TimeUnit.HOURS)
+                                    .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.banReasonFormat, newState)))
+                            .thenApply(v -> GenericSyncResults.ADD_DISCORD);
                 } else {
-                    return Task.of(guild.asJDA().unban(snowflake)
-                            .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.unbanReasonFormat))
-                            .submit()
-                            .thenApply(v -> GenericSyncResults.REMOVE_DISCORD));
+                    return discordSRV.discordAPI()
+                            .toTask(DiscordRequestPriority.MODERATION, "ban-sync", "guild/bans", () -> guild.asJDA()
+                                    .unban(snowflake)
+                                    .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.unbanReasonFormat)))
+                            .thenApply(v -> GenericSyncResults.REMOVE_DISCORD);
                 }
             case ROLE:
                 boolean isBan = newState != null;
-                return RoleSyncModuleUtil.doRoleChange(discordSRV, someone, config.bannedRoleId, isBan);
+                return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "ban-sync", someone, config.bannedRoleId, isBan);
             default:
                 return Task.failed(new SyncFail(BanSyncResult.INVALID_CONFIG));
         }
@@ -24,6 +24,9 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.config.main.ChannelUpdaterConfig;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
+import com.discordsrv.common.core.scheduler.TaskPriority;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
+import com.discordsrv.common.exception.DiscordRequestDroppedException;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
@@ -93,7 +96,7 @@ public class ChannelUpdaterModule extends AbstractModule<DiscordSRV> {
             activeUpdaters.put(
                     updaterConfig,
                     discordSRV.scheduler().runAtFixedRate(
-                            () -> update(updaterConfig, false),
+                            () -> discordSRV.scheduler().run(TaskPriority.BULK, "Channel updater", () -> update(updaterConfig, false)),
                             firstReload ? Duration.ZERO : Duration.ofSeconds(time),
                             Duration.ofSeconds(time)
                     )
@@ -114,7 +117,8 @@ public class ChannelUpdaterModule extends AbstractModule<DiscordSRV> {
                     jda,
                     voiceConfig.channelIds,
                     shutdown ? voiceConfig.shutdownNameFormat : voiceConfig.nameFormat,
-                    null
+                    null,
+                    shutdown
             );
         } else if (config instanceof ChannelUpdaterConfig.TextChannelConfig) {
             ChannelUpdaterConfig.TextChannelConfig textConfig = (ChannelUpdaterConfig.TextChannelConfig) config;
@@ -122,12 +126,13 @@ public class ChannelUpdaterModule extends AbstractModule<DiscordSRV> {
                     jda,
                     textConfig.channelIds,
                     shutdown ? textConfig.shutdownNameFormat : textConfig.nameFormat,
-                    shutdown ? textConfig.shutdownTopicFormat : textConfig.topicFormat
+                    shutdown ? textConfig.shutdownTopicFormat : textConfig.topicFormat,
+                    shutdown
             );
         }
     }
 
-    private void updateChannel(JDA jda, List<Long> channelIds, String nameFormat, String topicFormat) {
+    private void updateChannel(JDA jda, List<Long> channelIds, String nameFormat, String topicFormat, boolean shutdown) {
         if (topicFormat != null) {
             topicFormat = discordSRV.placeholderService().replacePlaceholders(topicFormat);
         }
@@ -160,10 +165,25 @@ public class ChannelUpdaterModule extends AbstractModule<DiscordSRV> {
                     continue;
                 }
 
-                manager.timeout(30, TimeUnit.SECONDS).queue(
-                        null,
-                        ErrorCallbackContext.context("Failed to update channel " + channel)
-                );
+                if (shutdown) {
+                    // Not queued behind other requests, the connection to Discord is closed soon
+                    manager.timeout(30, TimeUnit.SECONDS).queue(
+                            null,
+                            ErrorCallbackContext.context("Failed to update channel " + channel)
+                    );
+                    continue;
+                }
+
+                ChannelManager<?, ?> finalManager = manager;
+                discordSRV.discordAPI()
+                        .toTask(DiscordRequestPriority.COSMETIC, "channel-updater", "channel/modify", () -> finalManager.timeout(30, TimeUnit.SECONDS))
+                        .whenFailed(t -> {
+                            if (t instanceof DiscordRequestDroppedException) {
+                                logger().debug("Channel update for " + channel + " was dropped: " + t.getMessage());
+                                return;
+                            }
+                            ErrorCallbackContext.context("Failed to update channel " + channel).accept(t);
+                        });
             } catch (Throwable t) {
                 discordSRV.logger().error("Failed to update channel " + channel, t);
             }
@@ -18,10 +18,12 @@
 
 package com.discordsrv.common.feature.groupsync;
 
+import com.discordsrv.api.discord.entity.guild.DiscordRole;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.events.discord.member.role.DiscordMemberRoleAddEvent;
 import com.discordsrv.api.events.discord.member.role.DiscordMemberRoleRemoveEvent;
 import com.discordsrv.api.module.type.PermissionModule;
+import com.discordsrv.api.reload.ReloadResult;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.sync.AbstractSyncModule;
@@ -32,16 +34,24 @@ import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.GroupSyncConfig;
 import com.discordsrv.common.core.debug.DebugGenerateEvent;
+import com.discordsrv.common.core.debug.file.KeyValueDebugFile;
 import com.discordsrv.common.core.debug.file.TextDebugFile;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.feature.groupsync.enums.GroupSyncCause;
 import com.discordsrv.common.feature.groupsync.enums.GroupSyncResult;
 import com.discordsrv.common.helper.Someone;
 import com.github.benmanes.caffeine.cache.Cache;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * The Game id is the group name, the Discord id is the role id and the state indicates if the player or user has the group or role.
@@ -50,6 +60,7 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
 
     private final Cache<Long, Map<Long, Boolean>> expectedDiscordChanges;
     private final Cache<UUID, Map<String, Boolean>> expectedMinecraftChanges;
+    private final RoleMembershipSnapshot roleMembers;
 
     public GroupSyncModule(DiscordSRV discordSRV) {
         super(discordSRV, "GROUP_SYNC");
@@ -60,6 +71,25 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
         this.expectedMinecraftChanges = discordSRV.caffeineBuilder()
                 .expireAfterWrite(30, TimeUnit.SECONDS)
                 .build();
+        this.roleMembers = new RoleMembershipSnapshot(discordSRV, logger());
+    }
+
+    @Override
+    public void disable() {
+        roleMembers.clear();
+    }
+
+    @Override
+    public void reload(Consumer<ReloadResult> resultConsumer) {
+        super.reload(resultConsumer);
+
+        Set<Long> roleIds = new HashSet<>();
+        synchronized (syncs) {
+            for (GroupSyncConfig.Entry sync : syncs) {
+                roleIds.add(sync.roleId);
+            }
+        }
+        roleMembers.track(roleIds);
     }
 
     @Override
@@ -125,18 +155,66 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
             builder.append("\n\nNo permission provider available");
         }
         event.addFile("group-sync.txt", new TextDebugFile(builder));
+        event.addFile("group-sync-roles.json", new KeyValueDebugFile(roleMembers.metrics(), true));
     }
 
     // Listeners & methods to indicate something changed
 
     @Subscribe
     public void onDiscordMemberRoleAdd(DiscordMemberRoleAddEvent event) {
-        event.getRoles().forEach(role -> roleChanged(event.getMember().getUser().getId(), role.getId(), true));
+        long guildId = event.getMember().getGuild().getId();
+        long userId = event.getMember().getUser().getId();
+        event.getRoles().forEach(role -> {
+            if (roleMembers.roleChanged(guildId, userId, role.getId(), true)) {
+                roleChanged(userId, role.getId(), true);
+            }
+        });
     }
 
     @Subscribe
     public void onDiscordMemberRoleRemove(DiscordMemberRoleRemoveEvent event) {
-        event.getRoles().forEach(role -> roleChanged(event.getMember().getUser().getId(), role.getId(), false));
+        long guildId = event.getMember().getGuild().getId();
+        long userId = event.getMember().getUser().getId();
+        event.getRoles().forEach(role -> {
+            if (roleMembers.roleChanged(guildId, userId, role.getId(), false)) {
+                roleChanged(userId, role.getId(), false);
+            }
+        });
+    }
+
+    @Subscribe
+    public void onGuildMemberUpdate(GuildMemberUpdateEvent event) {
+        // Role add and remove events are only fired for cached members, this includes the roles of any member.
+        // Whichever arrives first updates the snapshot and triggers the synchronization
+        long userId = event.getUser().getIdLong();
+        Set<Long> roleIds = new HashSet<>();
+        for (Role role : event.getMember().getRoles()) {
+            roleIds.add(role.getIdLong());
+        }
+
+        Map<Long, Boolean> changed = roleMembers.memberUpdated(event.getGuild().getIdLong(), userId, roleIds);
+        changed.forEach((roleId, state) -> roleChanged(userId, roleId, state));
+    }
+
+    @Subscribe
+    public void onGuildMemberJoin(GuildMemberJoinEvent event) {
+        long userId = event.getUser().getIdLong();
+        roleMembers.memberJoined(event.getGuild().getIdLong(), userId);
+        discordMayHaveChanged(Someone.of(discordSRV, userId));
+    }
+
+    @Subscribe
+    public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
+        long userId = event.getUser().getIdLong();
+        roleMembers.memberLeft(event.getGuild().getIdLong(), userId);
+        discordMayHaveChanged(Someone.of(discordSRV, userId));
+    }
+
+    @Subscribe
+    public void onSessionRecreate(SessionRecreateEvent event) {
+        // Events may have been missed while the session was down
+        roleMembers.reload();
+        discordMayHaveChanged();
     }
 
     public void groupAdded(UUID player, String groupName, @Nullable Map<String, Set<String>> contexts, GroupSyncCause cause) {
@@ -200,6 +278,13 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
         return !config.includeInherited();
     }
 
+    @Override
+    protected boolean useSyncCheckpoints() {
+        // Role changes are only received with the server members intent,
+        // member updates are received for uncached members and missed changes are covered by onSessionRecreate
+        return discordSRV.discordAPI().isUserCachingEnabled();
+    }
+
     private PermissionModule.Groups getPermissionProvider() {
         PermissionModule.GroupsContext groupsContext = discordSRV.getModule(PermissionModule.GroupsContext.class);
         return groupsContext != null ? groupsContext : discordSRV.getModule(PermissionModule.Groups.class);
@@ -224,6 +309,15 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
 
     @Override
     public Task<Boolean> getDiscord(GroupSyncConfig.Entry config, Someone.Resolved someone) {
+        DiscordRole role = discordSRV.discordAPI().getRoleById(config.roleId);
+        if (role != null && roleMembers.isLoaded(role.getGuild().getId(), config.roleId)) {
+            long guildId = role.getGuild().getId();
+            if (!roleMembers.isMember(guildId, someone.userId())) {
+                return Task.failed(new SyncFail(GenericSyncResults.NOT_A_GUILD_MEMBER));
+            }
+            return Task.completed(roleMembers.hasRole(guildId, config.roleId, someone.userId()));
+        }
+
         return RoleSyncModuleUtil.hasRole(discordSRV, someone, config.roleId);
     }
 
@@ -257,7 +351,7 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
                     Map<Long, Boolean> expected = Objects.requireNonNull(expectedDiscordChanges.get(someone.userId(), key -> new ConcurrentHashMap<>()));
                     expected.put(config.roleId, stateToApply);
 
-                    return RoleSyncModuleUtil.doRoleChange(someone, role, newState)
+                    return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "group-sync", someone, role, newState)
                             .whenFailed((t) -> expected.remove(config.roleId));
                 });
     }
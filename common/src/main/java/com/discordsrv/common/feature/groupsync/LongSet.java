@@ -0,0 +1,134 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.groupsync;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash set of primitive longs, to avoid boxing every Discord user id.
+ * {@code 0} is used for empty slots and can't be added, Discord ids are never {@code 0}.
+ * Not thread safe.
+ */
+class LongSet {
+
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] values;
+    private int size;
+    private int mask;
+
+    LongSet() {
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int hash(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private int indexOf(long value) {
+        int index = hash(value) & mask;
+        while (values[index] != 0) {
+            if (values[index] == value) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long value) {
+        return value != 0 && indexOf(value) >= 0;
+    }
+
+    public boolean add(long value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("0 can't be added");
+        }
+
+        int index = hash(value) & mask;
+        while (values[index] != 0) {
+            if (values[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        values[index] = value;
+        if (++size > values.length * LOAD_FACTOR) {
+            resize(values.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(long value) {
+        int index = value != 0 ? indexOf(value) : -1;
+        if (index < 0) {
+            return false;
+        }
+
+        values[index] = 0;
+        size--;
+
+        // Shift following values back so lookups don't stop at the hole
+        int hole = index;
+        int next = (index + 1) & mask;
+        while (values[next] != 0) {
+            int ideal = hash(values[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                values[hole] = values[next];
+                values[next] = 0;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldValues = values;
+        allocate(capacity);
+
+        for (long value : oldValues) {
+            if (value == 0) {
+                continue;
+            }
+
+            int index = hash(value) & mask;
+            while (values[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            values[index] = value;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.groupsync;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.logging.Logger;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A local index of which members hold the roles used by group sync, so that role states can be looked up without a request for every member.
+ * <p>
+ * A server's members are loaded in chunks over the gateway, only the ids of the members and the members of the tracked roles are kept,
+ * in primitive sets since large servers can have hundreds of thousands of members.
+ * After loading, the index is kept up-to-date with role, member update, join and leave events. This requires the server members intent,
+ * without it nothing is loaded and lookups fall back to retrieving the member.
+ * Role add and remove events are only received for cached members, member updates include the full role list of any member.
+ */
+public class RoleMembershipSnapshot {
+
+    private final DiscordSRV discordSRV;
+    private final Logger logger;
+    private final Map<Long, GuildRoles> guilds = new ConcurrentHashMap<>();
+
+    public RoleMembershipSnapshot(DiscordSRV discordSRV, Logger logger) {
+        this.discordSRV = discordSRV;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts loading the members of the given roles, forgetting roles that aren't included.
+     * Servers whose tracked roles haven't changed are not loaded again.
+     * @param roleIds the Discord role ids
+     */
+    public void track(Collection<Long> roleIds) {
+        JDA jda = discordSRV.jda();
+        if (jda == null || !discordSRV.discordAPI().isUserCachingEnabled()) {
+            guilds.clear();
+            return;
+        }
+
+        Map<Guild, Set<Long>> rolesByGuild = new HashMap<>();
+        for (Long roleId : roleIds) {
+            Role role = jda.getRoleById(roleId);
+            if (role == null) {
+                continue;
+            }
+            rolesByGuild.computeIfAbsent(role.getGuild(), key -> new HashSet<>()).add(roleId);
+        }
+
+        Set<Long> guildIds = new HashSet<>();
+        for (Map.Entry<Guild, Set<Long>> entry : rolesByGuild.entrySet()) {
+            Guild guild = entry.getKey();
+            guildIds.add(guild.getIdLong());
+
+            GuildRoles current = guilds.get(guild.getIdLong());
+            if (current != null && current.roleIds.equals(entry.getValue())) {
+                continue;
+            }
+
+            GuildRoles roles = new GuildRoles(entry.getValue());
+            guilds.put(guild.getIdLong(), roles);
+            load(guild, roles);
+        }
+        guilds.keySet().retainAll(guildIds);
+    }
+
+    public void clear() {
+        guilds.clear();
+    }
+
+    /**
+     * Loads the members of all tracked servers again, for when events may have been missed.
+     */
+    public void reload() {
+        JDA jda = discordSRV.jda();
+        if (jda == null) {
+            return;
+        }
+
+        for (Map.Entry<Long, GuildRoles> entry : guilds.entrySet()) {
+            Guild guild = jda.getGuildById(entry.getKey());
+            if (guild == null) {
+                continue;
+            }
+
+            GuildRoles roles = new GuildRoles(entry.getValue().roleIds);
+            if (guilds.replace(entry.getKey(), entry.getValue(), roles)) {
+                load(guild, roles);
+            }
+        }
+    }
+
+    private void load(Guild guild, GuildRoles roles) {
+        LongSet members = new LongSet();
+        Map<Long, LongSet> roleMembers = new HashMap<>();
+        for (Long roleId : roles.roleIds) {
+            roleMembers.put(roleId, new LongSet());
+        }
+
+        long startTime = System.currentTimeMillis();
+        guild.loadMembers(member -> {
+            // Called on a single thread for each chunk
+            long userId = member.getIdLong();
+            members.add(userId);
+            for (Role role : member.getRoles()) {
+                LongSet holders = roleMembers.get(role.getIdLong());
+                if (holders != null) {
+                    holders.add(userId);
+                }
+            }
+        }).onSuccess(__ -> {
+            synchronized (roles) {
+                // Events that happened while loading may or may not be included already, applying them again gives the same result
+                for (Change change : roles.changesWhileLoading) {
+                    apply(members, roleMembers, change);
+                }
+                roles.changesWhileLoading = null;
+                roles.members = members;
+                roles.roleMembers = roleMembers;
+            }
+            logger.debug("Loaded " + members.size() + " members of " + roles.roleIds.size() + " roles for "
+                                 + guild.getName() + " in " + (System.currentTimeMillis() - startTime) + "ms");
+        }).onError(t -> {
+            guilds.remove(guild.getIdLong(), roles);
+            logger.error("Failed to load the members of " + guild.getName(), t);
+        });
+    }
+
+    /**
+     * A role was added to or removed from a member.
+     * @return {@code false} if the snapshot already had the member in this state, {@code true} if it changed or isn't known
+     */
+    public boolean roleChanged(long guildId, long userId, long roleId, boolean added) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return true;
+        }
+
+        synchronized (roles) {
+            Change change = new Change(userId, roleId, added, null);
+            if (roles.changesWhileLoading != null) {
+                roles.changesWhileLoading.add(change);
+                return true;
+            }
+
+            LongSet holders = roles.roleMembers.get(roleId);
+            boolean changed = holders == null || holders.contains(userId) != added;
+            apply(roles.members, roles.roleMembers, change);
+            return changed;
+        }
+    }
+
+    /**
+     * A member was updated, with all the roles they have now.
+     * @return the tracked roles the member gained ({@code true}) or lost ({@code false}) compared to the snapshot,
+     * empty if the snapshot isn't loaded
+     */
+    public Map<Long, Boolean> memberUpdated(long guildId, long userId, Set<Long> roleIds) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return Collections.emptyMap();
+        }
+
+        synchronized (roles) {
+            Change change = new Change(userId, 0, true, roleIds);
+            if (roles.changesWhileLoading != null) {
+                roles.changesWhileLoading.add(change);
+                return Collections.emptyMap();
+            }
+
+            Map<Long, Boolean> changed = new HashMap<>();
+            for (Map.Entry<Long, LongSet> entry : roles.roleMembers.entrySet()) {
+                boolean hasRole = roleIds.contains(entry.getKey());
+                if (entry.getValue().contains(userId) != hasRole) {
+                    changed.put(entry.getKey(), hasRole);
+                }
+            }
+            apply(roles.members, roles.roleMembers, change);
+            return changed;
+        }
+    }
+
+    public void memberJoined(long guildId, long userId) {
+        change(guildId, new Change(userId, 0, true, null));
+    }
+
+    public void memberLeft(long guildId, long userId) {
+        change(guildId, new Change(userId, 0, false, null));
+    }
+
+    private void change(long guildId, Change change) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return;
+        }
+
+        synchronized (roles) {
+            if (roles.changesWhileLoading != null) {
+                roles.changesWhileLoading.add(change);
+            } else {
+                apply(roles.members, roles.roleMembers, change);
+            }
+        }
+    }
+
+    private static void apply(LongSet members, Map<Long, LongSet> roleMembers, Change change) {
+        if (change.roleIds != null) {
+            members.add(change.userId);
+            for (Map.Entry<Long, LongSet> entry : roleMembers.entrySet()) {
+                if (change.roleIds.contains(entry.getKey())) {
+                    entry.getValue().add(change.userId);
+                } else {
+                    entry.getValue().remove(change.userId);
+                }
+            }
+            return;
+        }
+        if (change.roleId == 0) {
+            if (change.added) {
+                members.add(change.userId);
+            } else {
+                members.remove(change.userId);
+                for (LongSet holders : roleMembers.values()) {
+                    holders.remove(change.userId);
+                }
+            }
+            return;
+        }
+
+        LongSet holders = roleMembers.get(change.roleId);
+        if (holders == null) {
+            return;
+        }
+        if (change.added) {
+            members.add(change.userId);
+            holders.add(change.userId);
+        } else {
+            holders.remove(change.userId);
+        }
+    }
+
+    /**
+     * If the members of the given role have been loaded.
+     * @param guildId the Discord server id
+     * @param roleId the Discord role id
+     * @return {@code true} if {@link #isMember(long, long)} and {@link #hasRole(long, long, long)} can be used for the role
+     */
+    public boolean isLoaded(long guildId, long roleId) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return false;
+        }
+        synchronized (roles) {
+            return roles.roleMembers != null && roles.roleMembers.containsKey(roleId);
+        }
+    }
+
+    public boolean isMember(long guildId, long userId) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return false;
+        }
+        synchronized (roles) {
+            return roles.members != null && roles.members.contains(userId);
+        }
+    }
+
+    public boolean hasRole(long guildId, long roleId, long userId) {
+        GuildRoles roles = guilds.get(guildId);
+        if (roles == null) {
+            return false;
+        }
+        synchronized (roles) {
+            LongSet holders = roles.roleMembers != null ? roles.roleMembers.get(roleId) : null;
+            return holders != null && holders.contains(userId);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<Long, GuildRoles> entry : guilds.entrySet()) {
+            GuildRoles roles = entry.getValue();
+            Map<String, Object> guildValues = new LinkedHashMap<>();
+            synchronized (roles) {
+                if (roles.members == null) {
+                    guildValues.put("members", "not loaded");
+                } else {
+                    guildValues.put("members", roles.members.size());
+                    for (Map.Entry<Long, LongSet> roleEntry : roles.roleMembers.entrySet()) {
+                        guildValues.put(Long.toUnsignedString(roleEntry.getKey()), roleEntry.getValue().size());
+                    }
+                }
+            }
+            values.put(Long.toUnsignedString(entry.getKey()), guildValues);
+        }
+        return values;
+    }
+
+    private static class GuildRoles {
+
+        private final Set<Long> roleIds;
+
+        // Guarded by this
+        private LongSet members;
+        private Map<Long, LongSet> roleMembers;
+        private List<Change> changesWhileLoading = new ArrayList<>();
+
+        private GuildRoles(Set<Long> roleIds) {
+            this.roleIds = roleIds;
+        }
+    }
+
+    private static class Change {
+
+        private final long userId;
+        // 0 for joining or leaving the server
+        private final long roleId;
+        private final boolean added;
+        // All the member's roles, for member updates
+        private final Set<Long> roleIds;
+
+        private Change(long userId, long roleId, boolean added, Set<Long> roleIds) {
+            this.userId = userId;
+            this.roleId = roleId;
+            this.added = added;
+            this.roleIds = roleIds;
+        }
+    }
+}
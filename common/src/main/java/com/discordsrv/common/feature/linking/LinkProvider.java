@@ -24,9 +24,7 @@ import com.discordsrv.common.abstraction.player.IPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Locale;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 public interface LinkProvider {
 
@@ -48,6 +46,57 @@ public interface LinkProvider {
         return Optional.empty();
     }
 
+    /**
+     * Queries the links for multiple players at once, players that aren't linked are not included in the result.
+     * @param playerUUIDs the Player UUIDs to look up
+     * @return the links by Player UUID
+     */
+    default Task<Map<UUID, AccountLink>> query(@NotNull Collection<UUID> playerUUIDs) {
+        List<UUID> keys = new ArrayList<>(playerUUIDs);
+        List<Task<Optional<AccountLink>>> tasks = new ArrayList<>(keys.size());
+        for (UUID playerUUID : keys) {
+            tasks.add(query(playerUUID));
+        }
+
+        return Task.allOf(tasks).thenApply(results -> {
+            Map<UUID, AccountLink> links = new HashMap<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                Optional<AccountLink> link = results.get(i);
+                if (link.isPresent()) {
+                    links.put(keys.get(i), link.get());
+                }
+            }
+            return links;
+        });
+    }
+
+    /**
+     * Gets the links for multiple players at once, only querying the players that aren't cached.
+     * Players that aren't linked are not included in the result.
+     * @param playerUUIDs the Player UUIDs to look up
+     * @return the links by Player UUID
+     */
+    default Task<Map<UUID, AccountLink>> get(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, AccountLink> links = new HashMap<>(playerUUIDs.size());
+        List<UUID> notCached = new ArrayList<>();
+        for (UUID playerUUID : playerUUIDs) {
+            Optional<AccountLink> link = getCached(playerUUID);
+            if (link.isPresent()) {
+                links.put(playerUUID, link.get());
+            } else {
+                notCached.add(playerUUID);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return Task.completed(links);
+        }
+
+        return query(notCached).thenApply(queried -> {
+            links.putAll(queried);
+            return links;
+        });
+    }
+
     default Task<Optional<AccountLink>> query(long userId) {
         return query(userId, false);
     }
@@ -25,6 +25,7 @@ import com.discordsrv.common.abstraction.sync.RoleSyncModuleUtil;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.LinkedRoleConfig;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.helper.Someone;
 import com.discordsrv.common.util.Game;
 import org.jetbrains.annotations.Nullable;
@@ -94,7 +95,7 @@ public class LinkedRoleModule extends AbstractSyncModule<DiscordSRV, LinkedRoleC
 
     @Override
     protected Task<ISyncResult> applyDiscord(LinkedRoleConfig.SyncConfig config, Someone.Resolved someone, Boolean newState) {
-        return RoleSyncModuleUtil.doRoleChange(discordSRV, someone, config.roleId, newState);
+        return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "linked-role", someone, config.roleId, newState);
     }
 
     @Override
@@ -22,6 +22,9 @@ import com.discordsrv.api.eventbus.EventPriorities;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.player.IPlayer;
+import com.discordsrv.common.events.linking.RemoteLinkChangeEvent;
+import com.discordsrv.common.events.linking.RemoteLinkChangesMissedEvent;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkProvider;
@@ -31,15 +34,15 @@ import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Expiry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class CachedLinkProvider implements LinkProvider {
 
@@ -49,6 +52,7 @@ public abstract class CachedLinkProvider implements LinkProvider {
     private final Cache<Long, AccountLink> userToPlayer;
     private final AsyncLoadingCache<UUID, AccountLink> playerToUser;
     private final Set<UUID> linkingAllowed = new CopyOnWriteArraySet<>();
+    private final AtomicLong linkChanges = new AtomicLong();
 
     public CachedLinkProvider(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -120,6 +124,48 @@ public abstract class CachedLinkProvider implements LinkProvider {
         }));
     }
 
+    /**
+     * Gets the links for multiple players, querying all the players that aren't cached yet at once and caching the results.
+     */
+    @Override
+    public Task<Map<UUID, AccountLink>> get(@NotNull Collection<UUID> playerUUIDs) {
+        Map<UUID, AccountLink> links = new HashMap<>(playerUUIDs.size());
+        List<UUID> notCached = new ArrayList<>();
+        for (UUID playerUUID : playerUUIDs) {
+            CompletableFuture<AccountLink> future = playerToUser.getIfPresent(playerUUID);
+            if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+                notCached.add(playerUUID);
+                continue;
+            }
+
+            AccountLink value = future.join();
+            if (value != UNLINKED) {
+                links.put(playerUUID, value);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return Task.completed(links);
+        }
+
+        long changesBeforeQuery = linkChanges.get();
+        return query(notCached).thenApply(queried -> {
+            for (UUID playerUUID : notCached) {
+                AccountLink link = queried.get(playerUUID);
+                if (link != null) {
+                    links.put(playerUUID, link);
+                }
+
+                // Don't overwrite links or unlinks that happened during the query with the queried state
+                CompletableFuture<AccountLink> value = CompletableFuture.completedFuture(link != null ? link : UNLINKED);
+                playerToUser.asMap().compute(playerUUID, (key, current) -> linkChanges.get() == changesBeforeQuery ? value : current);
+                if (link != null) {
+                    userToPlayer.asMap().compute(link.userId(), (key, current) -> linkChanges.get() == changesBeforeQuery ? link : current);
+                }
+            }
+            return links;
+        });
+    }
+
     @Override
     public Optional<AccountLink> getCached(@NotNull UUID player) {
         AccountLink value = playerToUser.synchronous().getIfPresent(player);
@@ -158,11 +204,68 @@ public abstract class CachedLinkProvider implements LinkProvider {
         playerToUser.get(uuid);
     }
 
+    @Subscribe
+    public void onRemoteLinkChange(RemoteLinkChangeEvent event) {
+        linkChangedRemotely(event.playerUUID(), event.userId(), event.linked());
+    }
+
+    /**
+     * Another server sharing the same storage linked or unlinked these accounts, updates the cache entries for them.
+     * @param playerUUID the Player UUID
+     * @param userId the Discord user id
+     * @param linked if the accounts were linked or unlinked
+     */
+    protected void linkChangedRemotely(UUID playerUUID, long userId, boolean linked) {
+        linkChanges.incrementAndGet();
+        playerToUser.synchronous().invalidate(playerUUID);
+        userToPlayer.invalidate(userId);
+
+        if (discordSRV.playerProvider().player(playerUUID) != null) {
+            // Keep online players cached
+            playerToUser.get(playerUUID);
+        }
+    }
+
+    @Subscribe
+    public void onRemoteLinkChangesMissed(RemoteLinkChangesMissedEvent event) {
+        linkChangesMissed();
+    }
+
+    /**
+     * Link changes made by other servers sharing the same storage may have been missed, clears the cache.
+     */
+    protected void linkChangesMissed() {
+        linkChanges.incrementAndGet();
+        playerToUser.synchronous().invalidateAll();
+        userToPlayer.invalidateAll();
+
+        // Keep online players cached
+        for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
+            playerToUser.get(player.uniqueId());
+        }
+    }
+
+    /**
+     * Caches the link for a player that was looked up from storage outside of this provider.
+     * @param playerUUID the Player UUID
+     * @param link the link, or {@code null} if the player isn't linked
+     */
+    public void cacheLookup(@NotNull UUID playerUUID, @Nullable AccountLink link) {
+        playerToUser.put(playerUUID, CompletableFuture.completedFuture(link != null ? link : UNLINKED));
+        if (link != null) {
+            userToPlayer.put(link.userId(), link);
+        }
+    }
+
     protected void addToCache(AccountLink link) {
+        linkChanges.incrementAndGet();
         playerToUser.put(link.playerUUID(), CompletableFuture.completedFuture(link));
+        // May be cached as unlinked
+        userToPlayer.invalidate(link.userId());
     }
 
     protected void evictFromCache(UUID playerUUID) {
+        linkChanges.incrementAndGet();
         playerToUser.synchronous().invalidate(playerUUID);
     }
 
@@ -0,0 +1,56 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.linking.impl;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Links kept in memory by {@link StorageLinker}, loaded from storage and kept up to date as links are created and removed.
+ */
+public interface InMemoryLinks {
+
+    void put(@NotNull AccountLink link);
+    void remove(@NotNull UUID playerUUID, long userId);
+
+    /**
+     * Storage was queried for a link and found this link, which may or may not already be known.
+     * @param link the link from storage
+     */
+    void found(@NotNull AccountLink link);
+
+    /**
+     * Storage was queried for a link for this player and didn't find one.
+     * @param playerUUID the Player UUID
+     */
+    void notFound(@NotNull UUID playerUUID);
+
+    /**
+     * Storage was queried for a link for this user and didn't find one.
+     * @param userId the Discord user id
+     */
+    void notFound(long userId);
+
+    int size();
+    long memoryBytes();
+    Map<String, Object> metrics();
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.linking.impl;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of linked Player UUIDs and Discord user ids, to tell that a player or user is not linked without a lookup.
+ * <p>
+ * Links can't be taken out of the filter, unlinked accounts keep answering "maybe linked" until the filter is rebuilt,
+ * {@link #needsRebuild()} tells when enough links have been removed or added for that to be worth it.
+ */
+public class LinkFilter implements InMemoryLinks {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01D;
+    private static final long USER_SEED = 0x5A17E9D3B3F4C8A1L;
+    private static final long PLAYER_SEED = 0x2C1B3C6D9E8F7A65L;
+
+    private final AtomicLongArray bits;
+    private final long mask;
+    private final int hashFunctions;
+    private final int expectedLinks;
+
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    /**
+     * @param expectedLinks the amount of links the filter is sized for
+     */
+    public LinkFilter(int expectedLinks) {
+        this.expectedLinks = Math.max(1024, expectedLinks);
+
+        // Each link adds a Player UUID and a user id
+        long entries = 2L * this.expectedLinks;
+        long optimalBits = (long) Math.ceil(-entries * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        long bitCount = Long.highestOneBit(Math.max(64, optimalBits) - 1) << 1;
+        this.bits = new AtomicLongArray((int) (bitCount / Long.SIZE));
+        this.mask = bitCount - 1;
+        this.hashFunctions = (int) Math.max(1, Math.round((double) bitCount / entries * Math.log(2)));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static long hash(long userId) {
+        return mix(userId ^ USER_SEED);
+    }
+
+    private static long hash(UUID playerUUID) {
+        return mix(mix(playerUUID.getMostSignificantBits() ^ PLAYER_SEED) ^ playerUUID.getLeastSignificantBits());
+    }
+
+    private void add(long hash) {
+        long first = hash;
+        long second = (hash >>> 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (first + i * second) & mask;
+            long value = 1L << bit;
+            bits.getAndAccumulate((int) (bit >>> 6), value, (current, update) -> current | update);
+        }
+    }
+
+    private boolean contains(long hash) {
+        long first = hash;
+        long second = (hash >>> 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (first + i * second) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean mightBeLinked(long userId) {
+        if (contains(hash(userId))) {
+            return true;
+        }
+        negatives.incrementAndGet();
+        return false;
+    }
+
+    public boolean mightBeLinked(@NotNull UUID playerUUID) {
+        if (contains(hash(playerUUID))) {
+            return true;
+        }
+        negatives.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Records that a lookup the filter answered "maybe linked" to turned out not to be linked, for debug reports.
+     */
+    public void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    @Override
+    public void put(@NotNull AccountLink link) {
+        add(hash(link.playerUUID()));
+        add(hash(link.userId()));
+        added.incrementAndGet();
+    }
+
+    @Override
+    public void remove(@NotNull UUID playerUUID, long userId) {
+        removed.incrementAndGet();
+    }
+
+    @Override
+    public void found(@NotNull AccountLink link) {
+        // Only add links the filter doesn't know about yet, such as ones made by another server sharing the database
+        if (!contains(hash(link.playerUUID())) || !contains(hash(link.userId()))) {
+            put(link);
+        }
+    }
+
+    @Override
+    public void notFound(@NotNull UUID playerUUID) {}
+
+    @Override
+    public void notFound(long userId) {}
+
+    @Override
+    public int size() {
+        return (int) added.get();
+    }
+
+    /**
+     * @return if enough links have been removed or added since the filter was built, that it should be built again
+     */
+    public boolean needsRebuild() {
+        long added = this.added.get();
+        return removed.get() > Math.max(1000, added / 10) || added > expectedLinks;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    /**
+     * @return the chance of a player or user that isn't linked being reported as "maybe linked", based on how many bits are set
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / (mask + 1), hashFunctions);
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        long falsePositives = this.falsePositives.get();
+        long negatives = this.negatives.get();
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("type", "filter");
+        values.put("links", added.get());
+        values.put("removedLinks", removed.get());
+        values.put("expectedLinks", expectedLinks);
+        values.put("bits", mask + 1);
+        values.put("hashFunctions", hashFunctions);
+        values.put("memoryBytes", memoryBytes());
+        values.put("expectedFalsePositiveRate", expectedFalsePositiveRate());
+        values.put("negatives", negatives);
+        values.put("falsePositives", falsePositives);
+        if (negatives + falsePositives > 0) {
+            values.put("observedFalsePositiveRate", (double) falsePositives / (negatives + falsePositives));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.linking.impl;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * All linked accounts in memory, looked up by Player UUID or Discord user id without any objects per link.
+ * <p>
+ * Links are kept in parallel arrays of longs, with two open addressing tables of array positions to find them:
+ * one by Player UUID and one by Discord user id. Removing a link moves the last link into its place, so the arrays stay packed.
+ */
+public class LinkIndex implements InMemoryLinks {
+
+    private static final int EMPTY = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Links
+    private long[] playerUUIDMost = new long[0];
+    private long[] playerUUIDLeast = new long[0];
+    private long[] userIds = new long[0];
+    private long[] created = new long[0];
+    private long[] lastSeen = new long[0];
+    private int size;
+
+    // Positions in the link arrays
+    private int[] byPlayerUUID;
+    private int[] byUserId;
+    private int mask;
+
+    public LinkIndex() {
+        this(16);
+    }
+
+    public LinkIndex(int expectedSize) {
+        resize(Math.max(16, expectedSize));
+    }
+
+    private static int hash(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int hash(long most, long least) {
+        return hash(most ^ Long.rotateLeft(least, 32));
+    }
+
+    private int playerHash(int position) {
+        return hash(playerUUIDMost[position], playerUUIDLeast[position]);
+    }
+
+    private int userHash(int position) {
+        return hash(userIds[position]);
+    }
+
+    /**
+     * @return the slot containing the position of the link for the player, or the complement of the empty slot it would go into
+     */
+    private int findPlayerSlot(long most, long least) {
+        int slot = hash(most, least) & mask;
+        int position;
+        while ((position = byPlayerUUID[slot]) != EMPTY) {
+            if (playerUUIDMost[position] == most && playerUUIDLeast[position] == least) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    /**
+     * @return the slot containing the position of the link for the user, or the complement of the empty slot it would go into
+     */
+    private int findUserSlot(long userId) {
+        int slot = hash(userId) & mask;
+        int position;
+        while ((position = byUserId[slot]) != EMPTY) {
+            if (userIds[position] == userId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    public @Nullable AccountLink get(@NotNull UUID playerUUID) {
+        lock.readLock().lock();
+        try {
+            int slot = findPlayerSlot(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+            return slot >= 0 ? toLink(byPlayerUUID[slot]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public @Nullable AccountLink get(long userId) {
+        lock.readLock().lock();
+        try {
+            int slot = findUserSlot(userId);
+            return slot >= 0 ? toLink(byUserId[slot]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the link, replacing any existing links for the player or the user.
+     * @param link the link
+     */
+    @Override
+    public void put(@NotNull AccountLink link) {
+        long most = link.playerUUID().getMostSignificantBits();
+        long least = link.playerUUID().getLeastSignificantBits();
+        long userId = link.userId();
+
+        lock.writeLock().lock();
+        try {
+            int playerSlot = findPlayerSlot(most, least);
+            if (playerSlot >= 0) {
+                removePosition(byPlayerUUID[playerSlot]);
+            }
+            int userSlot = findUserSlot(userId);
+            if (userSlot >= 0) {
+                removePosition(byUserId[userSlot]);
+            }
+
+            if (size == userIds.length) {
+                resize(size << 1);
+            }
+
+            int position = size++;
+            playerUUIDMost[position] = most;
+            playerUUIDLeast[position] = least;
+            userIds[position] = userId;
+            created[position] = toEpochMillis(link.created());
+            lastSeen[position] = toEpochMillis(link.lastSeen());
+
+            byPlayerUUID[~findPlayerSlot(most, least)] = position;
+            byUserId[~findUserSlot(userId)] = position;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the link between the player and the user, a link of the player to another user is kept.
+     * @param playerUUID the Player UUID
+     * @param userId the Discord user id
+     */
+    @Override
+    public void remove(@NotNull UUID playerUUID, long userId) {
+        lock.writeLock().lock();
+        try {
+            int playerSlot = findPlayerSlot(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+            if (playerSlot >= 0 && userIds[byPlayerUUID[playerSlot]] == userId) {
+                removePosition(byPlayerUUID[playerSlot]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void found(@NotNull AccountLink link) {
+        put(link);
+    }
+
+    @Override
+    public void notFound(@NotNull UUID playerUUID) {
+        lock.writeLock().lock();
+        try {
+            int playerSlot = findPlayerSlot(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+            if (playerSlot >= 0) {
+                removePosition(byPlayerUUID[playerSlot]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void notFound(long userId) {
+        lock.writeLock().lock();
+        try {
+            int userSlot = findUserSlot(userId);
+            if (userSlot >= 0) {
+                removePosition(byUserId[userSlot]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePosition(int position) {
+        removeSlot(byPlayerUUID, findPlayerSlot(playerUUIDMost[position], playerUUIDLeast[position]), true);
+        removeSlot(byUserId, findUserSlot(userIds[position]), false);
+
+        int last = --size;
+        if (position == last) {
+            return;
+        }
+
+        // Move the last link into the removed link's place
+        int lastPlayerSlot = findPlayerSlot(playerUUIDMost[last], playerUUIDLeast[last]);
+        int lastUserSlot = findUserSlot(userIds[last]);
+        playerUUIDMost[position] = playerUUIDMost[last];
+        playerUUIDLeast[position] = playerUUIDLeast[last];
+        userIds[position] = userIds[last];
+        created[position] = created[last];
+        lastSeen[position] = lastSeen[last];
+        byPlayerUUID[lastPlayerSlot] = position;
+        byUserId[lastUserSlot] = position;
+    }
+
+    private void removeSlot(int[] table, int slot, boolean players) {
+        table[slot] = EMPTY;
+
+        // Shift following entries back so lookups don't stop at the hole
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        int position;
+        while ((position = table[next]) != EMPTY) {
+            int ideal = (players ? playerHash(position) : userHash(position)) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                table[hole] = position;
+                table[next] = EMPTY;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        playerUUIDMost = Arrays.copyOf(playerUUIDMost, capacity);
+        playerUUIDLeast = Arrays.copyOf(playerUUIDLeast, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        created = Arrays.copyOf(created, capacity);
+        lastSeen = Arrays.copyOf(lastSeen, capacity);
+
+        // Keep the tables at most half full
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        byPlayerUUID = new int[tableSize];
+        byUserId = new int[tableSize];
+        Arrays.fill(byPlayerUUID, EMPTY);
+        Arrays.fill(byUserId, EMPTY);
+        mask = tableSize - 1;
+
+        for (int position = 0; position < size; position++) {
+            byPlayerUUID[~findPlayerSlot(playerUUIDMost[position], playerUUIDLeast[position])] = position;
+            byUserId[~findUserSlot(userIds[position])] = position;
+        }
+    }
+
+    private AccountLink toLink(int position) {
+        return new AccountLink(
+                new UUID(playerUUIDMost[position], playerUUIDLeast[position]),
+                userIds[position],
+                fromEpochMillis(created[position]),
+                fromEpochMillis(lastSeen[position])
+        );
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIME;
+    }
+
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        return epochMillis != NO_TIME ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC) : null;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the amount of memory used by the arrays, in bytes
+     */
+    @Override
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return 5L * Long.BYTES * userIds.length + 2L * Integer.BYTES * byUserId.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("type", "index");
+        lock.readLock().lock();
+        try {
+            values.put("links", size);
+            values.put("capacity", userIds.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+        values.put("memoryBytes", memoryBytes());
+        return values;
+    }
+}
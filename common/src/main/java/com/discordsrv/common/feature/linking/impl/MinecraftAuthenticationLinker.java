@@ -23,6 +23,7 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.scheduler.TaskPriority;
 import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkStore;
 import com.discordsrv.common.feature.linking.LinkingModule;
@@ -178,7 +179,7 @@ public class MinecraftAuthenticationLinker extends CachedLinkProvider {
             return storageFuture;
         }
 
-        Task<Optional<T>> authService = discordSRV.scheduler().supply(authSupplier).mapException(t -> {
+        Task<Optional<T>> authService = discordSRV.scheduler().supply(TaskPriority.INTERACTIVE, "MinecraftAuth lookup", authSupplier).mapException(t -> {
             logger.error("Failed to query \"" + identifier + "\" from auth service", t);
             return (Optional<T>) ERROR;
         });
@@ -21,61 +21,420 @@ package com.discordsrv.common.feature.linking.impl;
 import com.discordsrv.api.component.MinecraftComponent;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.connection.StorageConfig;
+import com.discordsrv.common.config.main.linking.LinkedAccountConfig;
 import com.discordsrv.common.feature.linking.AccountLink;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.security.SecureRandom;
-import java.util.Locale;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
+/**
+ * Links stored in {@link com.discordsrv.common.core.storage.Storage}.
+ * <p>
+ * With {@link LinkedAccountConfig#loadAllIntoMemory} all links are loaded into a {@link LinkIndex} at startup,
+ * after which {@code get} lookups in both directions are answered from memory. Like the filter, this requires
+ * following link changes made by other servers when the database may be shared.
+ * Otherwise, with {@link LinkedAccountConfig#filterUnlinkedLookups}, a {@link LinkFilter} answers lookups for
+ * players and users that are definitely not linked, without a storage query or a cache entry for each of them.
+ * <p>
+ * Queries still go to storage and update the links in memory with the result. Links made by other servers sharing the database
+ * are picked up when those players join, or sooner when the storage follows link changes made by other servers.
+ */
 public class StorageLinker extends CachedLinkProvider.Store {
 
+    private final Object inMemoryLock = new Object();
+    private volatile InMemoryLinks inMemory;
+    private List<Consumer<InMemoryLinks>> changesWhileLoading;
+
+    // Guarded by inMemoryLock, when the players and users were last linked or unlinked, to not apply query results from before that
+    private long changeSequence = 0;
+    private final Cache<Object, Long> lastChanges;
+
     public StorageLinker(DiscordSRV discordSRV) {
         super(discordSRV);
+        this.lastChanges = discordSRV.caffeineBuilder()
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .build();
+
+        LinkedAccountConfig config = discordSRV.config().linkedAccounts;
+        if (config == null) {
+            return;
+        }
+
+        boolean knowsAboutAllLinks = knowsAboutAllLinks();
+        if (config.loadAllIntoMemory && !knowsAboutAllLinks) {
+            discordSRV.logger().warning("Not loading linked accounts into memory: storage.remote.link-changes-poll-seconds is disabled, "
+                                                + "so accounts linked by other servers sharing the database would not be seen");
+        }
+
+        if (config.loadAllIntoMemory && knowsAboutAllLinks) {
+            loadInMemory(LinkIndex::new);
+        } else if (config.filterUnlinkedLookups && knowsAboutAllLinks) {
+            loadInMemory(StorageLinker::createFilter);
+        }
+    }
+
+    private boolean knowsAboutAllLinks() {
+        StorageConfig storageConfig = discordSRV.connectionConfig().storage;
+        return !storageConfig.backend.hikari() || storageConfig.remote.linkChangesPollSeconds > 0;
+    }
+
+    private static LinkFilter createFilter(int linkedAccounts) {
+        // Leave room for new links before the filter needs to be rebuilt
+        return new LinkFilter(linkedAccounts + linkedAccounts / 2);
+    }
+
+    private void loadInMemory(IntFunction<InMemoryLinks> factory) {
+        synchronized (inMemoryLock) {
+            if (changesWhileLoading != null) {
+                // Already loading
+                return;
+            }
+            changesWhileLoading = new ArrayList<>();
+        }
+
+        long start = System.nanoTime();
+        discordSRV.storageExecutor().supply("forEachLink", () -> {
+            InMemoryLinks loaded = factory.apply(discordSRV.storage().getLinkedAccountCount());
+            discordSRV.storage().forEachLink(loaded::put);
+            return loaded;
+        }).whenComplete((loaded, throwable) -> {
+            synchronized (inMemoryLock) {
+                List<Consumer<InMemoryLinks>> changes = changesWhileLoading;
+                changesWhileLoading = null;
+                if (throwable != null) {
+                    discordSRV.logger().error("Failed to load linked accounts into memory", throwable);
+                    return;
+                }
+
+                // Links may have been created or removed after they were read from storage
+                for (Consumer<InMemoryLinks> change : changes) {
+                    change.accept(loaded);
+                }
+                inMemory = loaded;
+            }
+
+            String message = "Loaded " + loaded.size() + " linked accounts into memory ("
+                    + (loaded.memoryBytes() / 1024) + "KB) in " + ((System.nanoTime() - start) / 1_000_000) + "ms";
+            if (loaded instanceof LinkIndex) {
+                discordSRV.logger().info(message);
+            } else {
+                discordSRV.logger().debug(message);
+            }
+        });
+    }
+
+    private void updateInMemory(Consumer<InMemoryLinks> change) {
+        synchronized (inMemoryLock) {
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+
+            InMemoryLinks inMemory = this.inMemory;
+            if (inMemory != null) {
+                change.accept(inMemory);
+            }
+        }
+    }
+
+    /**
+     * Records that the player and user were linked or unlinked, and applies the change to the links in memory.
+     */
+    private void changeInMemory(UUID playerUUID, long userId, Consumer<InMemoryLinks> change) {
+        synchronized (inMemoryLock) {
+            markChanged(playerUUID, userId);
+            updateInMemory(change);
+        }
+    }
+
+    private void markChanged(UUID playerUUID, long userId) {
+        synchronized (inMemoryLock) {
+            long sequence = ++changeSequence;
+            lastChanges.put(playerUUID, sequence);
+            lastChanges.put(userId, sequence);
+        }
+    }
+
+    /**
+     * The current link change sequence, to take before looking up links from storage for {@link #cacheLookup(UUID, AccountLink, long)}.
+     * @return the sequence
+     */
+    public long changeSequence() {
+        synchronized (inMemoryLock) {
+            return changeSequence;
+        }
+    }
+
+    /**
+     * Applies the result of a storage query to the links in memory,
+     * unless the player or user were linked or unlinked while the query was running, which already updated the links in memory.
+     */
+    private void updateInMemoryFromQuery(long sequenceBeforeQuery, @Nullable UUID playerUUID, @Nullable Long userId, Consumer<InMemoryLinks> change) {
+        synchronized (inMemoryLock) {
+            if (changedSince(playerUUID, sequenceBeforeQuery) || changedSince(userId, sequenceBeforeQuery)) {
+                return;
+            }
+            updateInMemory(change);
+        }
+    }
+
+    private boolean changedSince(@Nullable Object key, long sequence) {
+        if (key == null) {
+            return false;
+        }
+        Long lastChange = lastChanges.getIfPresent(key);
+        return lastChange != null && lastChange > sequence;
+    }
+
+    private LinkIndex index() {
+        InMemoryLinks inMemory = this.inMemory;
+        return inMemory instanceof LinkIndex ? (LinkIndex) inMemory : null;
+    }
+
+    private LinkFilter filter() {
+        InMemoryLinks inMemory = this.inMemory;
+        return inMemory instanceof LinkFilter ? (LinkFilter) inMemory : null;
+    }
+
+    /**
+     * Metrics for the links in memory, included in debug reports.
+     * @return the metrics, or {@code null} if links are not kept in memory
+     */
+    public Map<String, Object> inMemoryMetrics() {
+        InMemoryLinks inMemory = this.inMemory;
+        return inMemory != null ? inMemory.metrics() : null;
+    }
+
+    private static Task<Optional<AccountLink>> recordFalsePositive(LinkFilter filter, Task<Optional<AccountLink>> lookup) {
+        return lookup.thenApply(link -> {
+            if (!link.isPresent()) {
+                filter.recordFalsePositive();
+            }
+            return link;
+        });
+    }
+
+    @Override
+    public Task<Optional<AccountLink>> get(@NotNull UUID playerUUID) {
+        LinkIndex index = index();
+        if (index != null) {
+            return Task.completed(Optional.ofNullable(index.get(playerUUID)));
+        }
+
+        LinkFilter filter = filter();
+        if (filter != null) {
+            if (!filter.mightBeLinked(playerUUID)) {
+                return Task.completed(Optional.empty());
+            }
+            return recordFalsePositive(filter, super.get(playerUUID));
+        }
+        return super.get(playerUUID);
+    }
+
+    @Override
+    public Task<Map<UUID, AccountLink>> get(@NotNull Collection<UUID> playerUUIDs) {
+        LinkIndex index = index();
+        if (index != null) {
+            Map<UUID, AccountLink> links = new HashMap<>(playerUUIDs.size());
+            for (UUID playerUUID : playerUUIDs) {
+                AccountLink link = index.get(playerUUID);
+                if (link != null) {
+                    links.put(playerUUID, link);
+                }
+            }
+            return Task.completed(links);
+        }
+
+        LinkFilter filter = filter();
+        if (filter != null) {
+            List<UUID> mightBeLinked = new ArrayList<>();
+            for (UUID playerUUID : playerUUIDs) {
+                if (filter.mightBeLinked(playerUUID)) {
+                    mightBeLinked.add(playerUUID);
+                }
+            }
+            return super.get(mightBeLinked);
+        }
+        return super.get(playerUUIDs);
+    }
+
+    @Override
+    public Optional<AccountLink> getCached(@NotNull UUID playerUUID) {
+        LinkIndex index = index();
+        if (index != null) {
+            return Optional.ofNullable(index.get(playerUUID));
+        }
+        return super.getCached(playerUUID);
+    }
+
+    @Override
+    public Task<Optional<AccountLink>> get(long userId) {
+        LinkIndex index = index();
+        if (index != null) {
+            return Task.completed(Optional.ofNullable(index.get(userId)));
+        }
+
+        LinkFilter filter = filter();
+        if (filter != null) {
+            if (!filter.mightBeLinked(userId)) {
+                return Task.completed(Optional.empty());
+            }
+            return recordFalsePositive(filter, super.get(userId));
+        }
+        return super.get(userId);
+    }
+
+    @Override
+    public Optional<AccountLink> getCached(long discordId) {
+        LinkIndex index = index();
+        if (index != null) {
+            return Optional.ofNullable(index.get(discordId));
+        }
+        return super.getCached(discordId);
     }
 
     @Override
     public Task<Optional<AccountLink>> query(@NotNull UUID playerUUID, boolean canCauseLink) {
-        return discordSRV.scheduler().supply(() -> {
+        return discordSRV.storageExecutor().supply("getLinkByPlayerUUID", () -> {
+            long sequence = changeSequence();
             AccountLink value = discordSRV.storage().getLinkByPlayerUUID(playerUUID);
+            updateInMemoryFromQuery(sequence, playerUUID, value != null ? value.userId() : null, inMemory -> {
+                if (value != null) {
+                    inMemory.found(value);
+                } else {
+                    inMemory.notFound(playerUUID);
+                }
+            });
             return Optional.ofNullable(value);
         });
     }
 
+    /**
+     * Caches the link for a player that was looked up from storage outside of this provider,
+     * unless the player or user were linked or unlinked while it was being looked up.
+     * @param playerUUID the Player UUID
+     * @param link the link, or {@code null} if the player isn't linked
+     * @param sequenceBeforeLookup {@link #changeSequence()} from before the lookup
+     */
+    public void cacheLookup(@NotNull UUID playerUUID, @Nullable AccountLink link, long sequenceBeforeLookup) {
+        synchronized (inMemoryLock) {
+            if (changedSince(playerUUID, sequenceBeforeLookup) || (link != null && changedSince(link.userId(), sequenceBeforeLookup))) {
+                return;
+            }
+
+            cacheLookup(playerUUID, link);
+            updateInMemory(inMemory -> {
+                if (link != null) {
+                    inMemory.found(link);
+                } else {
+                    inMemory.notFound(playerUUID);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Task<Map<UUID, AccountLink>> query(@NotNull Collection<UUID> playerUUIDs) {
+        return discordSRV.storageExecutor().supply("getLinksByPlayerUUIDs", () -> discordSRV.storage().getLinksByPlayerUUIDs(playerUUIDs));
+    }
+
     @Override
     public Task<Optional<AccountLink>> query(long userId, boolean canCauseLink) {
-        return discordSRV.scheduler().supply(() -> {
+        return discordSRV.storageExecutor().supply("getLinkByUserId", () -> {
+            long sequence = changeSequence();
             AccountLink value = discordSRV.storage().getLinkByUserId(userId);
+            updateInMemoryFromQuery(sequence, value != null ? value.playerUUID() : null, userId, inMemory -> {
+                if (value != null) {
+                    inMemory.found(value);
+                } else {
+                    inMemory.notFound(userId);
+                }
+            });
             return Optional.ofNullable(value);
         });
     }
 
     @Override
     public Task<Void> link(@NotNull AccountLink link) {
-        return discordSRV.scheduler().execute(() -> discordSRV.storage().createLink(link));
+        return discordSRV.storageExecutor()
+                .execute("createLink", () -> discordSRV.storage().createLink(link))
+                .thenApply(v -> {
+                    changeInMemory(link.playerUUID(), link.userId(), inMemory -> inMemory.put(link));
+                    rebuildFilterIfNeeded();
+                    return null;
+                });
     }
 
     @Override
     public Task<Void> unlink(@NotNull UUID playerUUID, long userId) {
-        return discordSRV.scheduler().execute(() -> discordSRV.storage().removeLink(playerUUID, userId));
+        return discordSRV.storageExecutor()
+                .execute("removeLink", () -> discordSRV.storage().removeLink(playerUUID, userId))
+                .thenApply(v -> {
+                    changeInMemory(playerUUID, userId, inMemory -> inMemory.remove(playerUUID, userId));
+                    rebuildFilterIfNeeded();
+                    return null;
+                });
+    }
+
+    @Override
+    protected void linkChangedRemotely(UUID playerUUID, long userId, boolean linked) {
+        super.linkChangedRemotely(playerUUID, userId, linked);
+        synchronized (inMemoryLock) {
+            if (inMemory == null && changesWhileLoading == null) {
+                return;
+            }
+        }
+
+        LinkFilter filter = filter();
+        if (filter != null && !linked) {
+            filter.remove(playerUUID, userId);
+            rebuildFilterIfNeeded();
+        }
+
+        // Queries update the links in memory with the current state in storage, results of queries that started before are out of date
+        markChanged(playerUUID, userId);
+        query(playerUUID, false);
+        query(userId, false);
+    }
+
+    @Override
+    protected void linkChangesMissed() {
+        super.linkChangesMissed();
+        InMemoryLinks inMemory = this.inMemory;
+        if (inMemory instanceof LinkIndex) {
+            loadInMemory(LinkIndex::new);
+        } else if (inMemory instanceof LinkFilter) {
+            loadInMemory(StorageLinker::createFilter);
+        }
+    }
+
+    private void rebuildFilterIfNeeded() {
+        LinkFilter filter = filter();
+        if (filter != null && filter.needsRebuild()) {
+            loadInMemory(StorageLinker::createFilter);
+        }
     }
 
     @Override
     public Task<Pair<UUID, String>> getCodeLinking(long userId, @NotNull String code) {
-        return discordSRV.scheduler().supply(() -> discordSRV.storage().getLinkingCode(code));
+        return discordSRV.storageExecutor().supply("getLinkingCode", () -> discordSRV.storage().getLinkingCode(code));
     }
 
     @Override
     public Task<Void> removeLinkingCode(@NotNull UUID playerUUID) {
-        return discordSRV.scheduler().execute(() -> discordSRV.storage().removeLinkingCode(playerUUID));
+        return discordSRV.storageExecutor().execute("removeLinkingCode", () -> discordSRV.storage().removeLinkingCode(playerUUID));
     }
 
     @Override
     public Task<Integer> getLinkedAccountCount() {
-        return discordSRV.scheduler().supply(() -> discordSRV.storage().getLinkedAccountCount());
+        return discordSRV.storageExecutor().supply("getLinkedAccountCount", () -> discordSRV.storage().getLinkedAccountCount());
     }
 
     private final SecureRandom secureRandom = new SecureRandom();
@@ -88,7 +447,7 @@ public class StorageLinker extends CachedLinkProvider.Store {
             @Nullable String requestReason,
             Object... additionalContext
     ) {
-        return discordSRV.scheduler().supply(() -> {
+        return discordSRV.storageExecutor().supply("storeLinkingCode", () -> {
             String code = null;
             while (code == null || discordSRV.storage().getLinkingCode(code) != null) {
                 code = String.valueOf(secureRandom.nextInt(1000000));
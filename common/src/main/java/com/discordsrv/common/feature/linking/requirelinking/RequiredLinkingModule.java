@@ -27,9 +27,11 @@ import com.discordsrv.common.abstraction.player.IPlayer;
 import com.discordsrv.common.config.main.linking.RequiredLinkingConfig;
 import com.discordsrv.common.config.main.linking.RequirementsConfig;
 import com.discordsrv.common.core.module.type.AbstractModule;
+import com.discordsrv.common.core.profile.ProfileImpl;
 import com.discordsrv.common.core.scheduler.Scheduler;
 import com.discordsrv.common.core.scheduler.executor.DynamicCachingThreadPoolExecutor;
 import com.discordsrv.common.core.scheduler.threadfactory.CountingThreadFactory;
+import com.discordsrv.common.feature.linking.AccountLink;
 import com.discordsrv.common.feature.linking.LinkProvider;
 import com.discordsrv.common.feature.linking.impl.MinecraftAuthenticationLinker;
 import com.discordsrv.common.feature.linking.requirelinking.requirement.Requirement;
@@ -264,14 +266,23 @@ public abstract class RequiredLinkingModule<T extends DiscordSRV> extends Abstra
             return Task.completed(message);
         }
 
-        return linkProvider.query(playerUUID, true).then(link -> {
-            if (!link.isPresent()) {
+        Task<Optional<Long>> userIdLookup;
+        Task<ProfileImpl> prefetchedProfile = discordSRV.profileManager().getPrefetchedProfile(playerUUID);
+        if (prefetchedProfile != null) {
+            // Already being looked up along with the profile while the player is logging in
+            userIdLookup = prefetchedProfile.thenApply(profile -> Optional.ofNullable(profile.userId()));
+        } else {
+            userIdLookup = linkProvider.query(playerUUID, true).thenApply(link -> link.map(AccountLink::userId));
+        }
+
+        return userIdLookup.then(linkedUserId -> {
+            if (!linkedUserId.isPresent()) {
                 // User is not linked
                 return linkProvider.getLinkingInstructions(playerName, playerUUID, null, join ? "join" : "freeze")
                         .thenApply(ComponentUtil::fromAPI);
             }
 
-            long userId = link.get().userId();
+            long userId = linkedUserId.get();
             if (additionalRequirements.isEmpty()) {
                 // No additional requirements: let them through
                 return Task.completed(null);
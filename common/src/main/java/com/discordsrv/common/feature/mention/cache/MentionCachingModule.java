@@ -208,7 +208,8 @@ public class MentionCachingModule extends AbstractModule<DiscordSRV> {
             for (Long userId : userIds) {
                 futures.add(
                         discordSRV.discordAPI()
-                                .toTask(guild.retrieveMemberById(userId))
+                                .entityRetriever()
+                                .retrieveMember(guild, userId)
                                 .thenApply(memberCache::convert)
                 );
             }
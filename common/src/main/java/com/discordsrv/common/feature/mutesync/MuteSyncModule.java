@@ -45,6 +45,7 @@ import com.discordsrv.common.abstraction.sync.result.DiscordPermissionResult;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.MuteSyncConfig;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.feature.mutesync.enums.MuteSyncCause;
 import com.discordsrv.common.feature.mutesync.enums.MuteSyncResult;
 import com.discordsrv.common.helper.Someone;
@@ -216,7 +217,7 @@ public class MuteSyncModule extends AbstractPunishmentSyncModule<MuteSyncConfig>
 
         if (!shouldHandleDiscordTimeoutChanges()) return getMutedRole(guild, snowflake, config); // Ignoring timeouts entirely
 
-        return discordSRV.discordAPI().toTask(guild.retrieveMember(snowflake))
+        return discordSRV.discordAPI().entityRetriever().retrieveMember(guild, snowflake.getIdLong())
                 .thenApply(this::punishment)
                 .mapException(RestErrorResponseException.class, t -> {
                     if (t.getErrorCode() == ErrorResponse.UNKNOWN_MEMBER.getCode()) {
@@ -229,7 +230,7 @@ public class MuteSyncModule extends AbstractPunishmentSyncModule<MuteSyncConfig>
     }
 
     private Task<@Nullable Punishment> getMutedRole(Guild guild, UserSnowflake snowflake, MuteSyncConfig config) {
-        return discordSRV.discordAPI().toTask(guild.retrieveMember(snowflake))
+        return discordSRV.discordAPI().entityRetriever().retrieveMember(guild, snowflake.getIdLong())
                 .thenApply(member -> {
                     if (shouldHandleDiscordRoleChanges(member.getRoles().stream().map(ISnowflake::getIdLong))){
                         return new Punishment(null, null, null);
@@ -307,25 +308,29 @@ public class MuteSyncModule extends AbstractPunishmentSyncModule<MuteSyncConfig>
                                     "Punishment until is longer than 28 days for %s, falling back to applying muted role.",
                                     someone
                             ));
-                            return RoleSyncModuleUtil.doRoleChange(discordSRV, someone, config.mutedRoleId, true);
+                            return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "mute-sync", someone, config.mutedRoleId, true);
                         }
 
                         return Task.failed(new SyncFail(MuteSyncResult.PUNISHMENT_TOO_LONG));
                     }
 
-                    return Task.of(guild.asJDA().timeoutUntil(snowflake, newState.until())
-                            .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.muteReasonFormat, newState))
-                            .submit()
-                            .thenApply(v -> GenericSyncResults.ADD_DISCORD));
+                    return discordSRV.discordAPI()
+                            .toTask(DiscordRequestPriority.MODERATION, "mute-sync", "member/timeout", () -> guild.asJDA()
+                                    .timeoutUntil(snowflake, newState.until())
+                                    .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.muteReasonFormat, newState)))
+                            .whenSuccessful(v -> discordSRV.discordAPI().entityRetriever().invalidateMember(guild.getId(), someone.userId()))
+                            .thenApply(v -> GenericSyncResults.ADD_DISCORD);
                 } else {
-                    return Task.of(guild.asJDA().removeTimeout(snowflake)
-                            .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.unmuteReasonFormat))
-                            .submit()
-                            .thenApply(v -> GenericSyncResults.REMOVE_DISCORD));
+                    return discordSRV.discordAPI()
+                            .toTask(DiscordRequestPriority.MODERATION, "mute-sync", "member/timeout", () -> guild.asJDA()
+                                    .removeTimeout(snowflake)
+                                    .reason(placeholderService.replacePlaceholders(config.minecraftToDiscord.unmuteReasonFormat)))
+                            .whenSuccessful(v -> discordSRV.discordAPI().entityRetriever().invalidateMember(guild.getId(), someone.userId()))
+                            .thenApply(v -> GenericSyncResults.REMOVE_DISCORD);
                 }
             case ROLE:
                 boolean isMute = newState != null;
-                return RoleSyncModuleUtil.doRoleChange(discordSRV, someone, config.mutedRoleId, isMute);
+                return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "mute-sync", someone, config.mutedRoleId, isMute);
             default:
                 return Task.failed(new SyncFail(MuteSyncResult.INVALID_CONFIG));
         }
@@ -34,6 +34,8 @@ import com.discordsrv.common.abstraction.sync.result.DiscordPermissionResult;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.NicknameSyncConfig;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
+import com.discordsrv.common.exception.DiscordRequestDroppedException;
 import com.discordsrv.common.feature.nicknamesync.enums.NicknameSyncCause;
 import com.discordsrv.common.feature.nicknamesync.enums.NicknameSyncResult;
 import com.discordsrv.common.helper.Someone;
@@ -199,8 +201,17 @@ public class NicknameSyncModule extends AbstractSyncModule<DiscordSRV, NicknameS
                     return member;
                 })
                 .then(member -> formatNickname(someone, newNickname)
-                    .thenCompose(formattedName -> member.asJDA().modifyNickname(formattedName).submit()))
-                .thenApply(v -> NicknameSyncResult.SET_DISCORD);
+                    .then(formattedName -> discordSRV.discordAPI().toTask(
+                            DiscordRequestPriority.COSMETIC,
+                            "nickname-sync",
+                            "member/nickname",
+                            () -> member.asJDA().modifyNickname(formattedName)
+                    ).whenSuccessful(v -> discordSRV.discordAPI().entityRetriever().invalidateMember(guild.getId(), member.getUser().getId()))))
+                .thenApply(v -> (ISyncResult) NicknameSyncResult.SET_DISCORD)
+                .mapException(DiscordRequestDroppedException.class, t -> {
+                    logger().debug("Nickname change for " + someone + " was dropped: " + t.getMessage());
+                    return NicknameSyncResult.DISCORD_CHANGE_DROPPED;
+                });
     }
 
     @Override
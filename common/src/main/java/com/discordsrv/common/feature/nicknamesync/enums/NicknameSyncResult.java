@@ -24,19 +24,28 @@ public enum NicknameSyncResult implements ISyncResult {
 
     MATCH("Both sides match", false),
     SET_DISCORD("Set Discord nickname", true),
-    SET_GAME("Set game nickname", true);
+    SET_GAME("Set game nickname", true),
+
+    // Not synchronized, tried again next time
+    DISCORD_CHANGE_DROPPED("Discord nickname change was dropped, too many changes were waiting", false, true);
 
     private final String message;
     private final boolean update;
+    private final boolean error;
 
     NicknameSyncResult(String message, boolean update) {
+        this(message, update, false);
+    }
+
+    NicknameSyncResult(String message, boolean update, boolean error) {
         this.message = message;
         this.update = update;
+        this.error = error;
     }
 
     @Override
     public boolean isError() {
-        return false;
+        return error;
     }
 
     @Override
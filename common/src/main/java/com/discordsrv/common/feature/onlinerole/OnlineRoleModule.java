@@ -31,6 +31,7 @@ import com.discordsrv.common.abstraction.sync.RoleSyncModuleUtil;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.sync.OnlineRoleConfig;
+import com.discordsrv.common.discord.api.request.DiscordRequestPriority;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.events.player.PlayerDisconnectedEvent;
 import com.discordsrv.common.feature.onlinerole.enums.OnlineRoleCause;
@@ -39,6 +40,7 @@ import com.discordsrv.common.util.Game;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.requests.RestAction;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
@@ -47,6 +49,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -121,7 +124,7 @@ public class OnlineRoleModule extends AbstractSyncModule<DiscordSRV, OnlineRoleC
 
     @Override
     protected Task<ISyncResult> applyDiscord(OnlineRoleConfig.SyncConfig config, Someone.Resolved someone, @Nullable Boolean newState) {
-        return RoleSyncModuleUtil.doRoleChange(discordSRV, someone, config.roleId, newState);
+        return RoleSyncModuleUtil.doRoleChange(discordSRV, DiscordRequestPriority.MODERATION, "online-role", someone, config.roleId, newState);
     }
 
     @Override
@@ -178,8 +181,15 @@ public class OnlineRoleModule extends AbstractSyncModule<DiscordSRV, OnlineRoleC
         gameChanged(OnlineRoleCause.PLAYER_VANISH_STATUS_CHANGED, Someone.of(discordSRV, event.getPlayer()), Game.INSTANCE, !event.isNewStatus());
     }
 
-    private Task<List<Void>> removeRoleFromList(List<Member> members, Role role, long timeout, TimeUnit unit) {
-        List<Task<Void>> futures = members.stream().map(member -> Task.of(member.getGuild().removeRoleFromMember(member, role).timeout(timeout, unit).submit())).collect(Collectors.toList());
+    private Task<List<Void>> removeRoleFromList(List<Member> members, Role role, long timeout, TimeUnit unit, boolean shutdown) {
+        List<Task<Void>> futures = members.stream().map(member -> {
+            Supplier<RestAction<Void>> action = () -> member.getGuild().removeRoleFromMember(member, role).timeout(timeout, unit);
+            if (shutdown) {
+                // Not queued behind other requests, the connection to Discord is closed soon
+                return discordSRV.discordAPI().toTask(action);
+            }
+            return discordSRV.discordAPI().toTask(DiscordRequestPriority.MODERATION, "online-role", "member/roles", action);
+        }).collect(Collectors.toList());
         return Task.allOf(futures);
     }
 
@@ -196,7 +206,7 @@ public class OnlineRoleModule extends AbstractSyncModule<DiscordSRV, OnlineRoleC
         }
 
         List<Member> members = role.getGuild().getMembersWithRoles(role);
-        removeRoleFromList(members, role, 10, TimeUnit.SECONDS)
+        removeRoleFromList(members, role, 10, TimeUnit.SECONDS, true)
                 .whenFailed(e -> discordSRV.logger().error("Failed to remove online sync roles from all users for server shutdown", e))
                 .whenSuccessful(__ -> discordSRV.logger().info("Removed all online sync roles from all users for server shutdown"));
     }
@@ -226,7 +236,7 @@ public class OnlineRoleModule extends AbstractSyncModule<DiscordSRV, OnlineRoleC
                 member -> onlineProfiles.stream().noneMatch(profile -> Objects.equals(profile.userId(), member.getIdLong()))
         ).collect(Collectors.toList());
 
-        removeRoleFromList(membersToRemove, role, 1, TimeUnit.MINUTES)
+        removeRoleFromList(membersToRemove, role, 1, TimeUnit.MINUTES, false)
                 .whenFailed(e -> discordSRV.logger().error("Failed to remove online sync roles from all users for reload", e))
                 .whenSuccessful(__ -> discordSRV.logger().debug("Removed all online sync roles from all users for reload"));
     }
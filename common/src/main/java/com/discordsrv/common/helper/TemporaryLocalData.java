@@ -114,5 +114,23 @@ public class TemporaryLocalData {
          */
         public Map<String, List<Long>> consoleThreadRotationIds = new HashMap<>();
 
+        /**
+         * {@link com.discordsrv.common.discord.api.DiscordAPIImpl} webhooks by channel id.
+         */
+        public Map<Long, PersistedWebhook> webhooks = new HashMap<>();
+
+    }
+
+    public static class PersistedWebhook {
+
+        public long id;
+        public String token;
+
+        public PersistedWebhook() {}
+
+        public PersistedWebhook(long id, String token) {
+            this.id = id;
+            this.token = token;
+        }
     }
 }
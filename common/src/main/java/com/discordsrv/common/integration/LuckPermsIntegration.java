@@ -128,14 +128,14 @@ public class LuckPermsIntegration<T> extends PluginIntegration<DiscordSRV> imple
         UserManager userManager = luckPerms.getUserManager();
         User user = userManager.getUser(player);
         if (user != null) {
-            logger().trace("User in cache: " + player);
+            logger().trace(() -> "User in cache: " + player);
             return Task.completed(user);
         }
 
         synchronized (userLoads) {
             Task<User> task = userLoads.get(player);
             if (task != null) {
-                logger().trace("Re-using load future: " + player);
+                logger().trace(() -> "Re-using load future: " + player);
                 return task;
             }
 
@@ -148,7 +148,7 @@ public class LuckPermsIntegration<T> extends PluginIntegration<DiscordSRV> imple
                 synchronized (userCleanup) {
                     Future<?> future = userCleanup.put(player, discordSRV.scheduler().runLater(
                             () -> {
-                                logger().trace("Cleaning up " + player);
+                                logger().trace(() -> "Cleaning up " + player);
                                 userManager.cleanupUser(loadedUser);
                                 synchronized (userCleanup) {
                                     userCleanup.remove(player);
@@ -161,7 +161,7 @@ public class LuckPermsIntegration<T> extends PluginIntegration<DiscordSRV> imple
                     }
                 }
             });
-            logger().trace("Loading " + player);
+            logger().trace(() -> "Loading " + player);
             userLoads.put(player, task);
             return task;
         }
@@ -196,7 +196,7 @@ public class LuckPermsIntegration<T> extends PluginIntegration<DiscordSRV> imple
                     .build();
 
             Set<String> groupNames = user.getInheritedGroups(options).stream().map(Group::getName).collect(Collectors.toSet());
-            logger().trace(player + " groups in context " + contexts + ": " + groupNames);
+            logger().trace(() -> player + " groups in context " + contexts + ": " + groupNames);
             return groupNames.stream().anyMatch(group -> group.equalsIgnoreCase(groupName));
         });
     }
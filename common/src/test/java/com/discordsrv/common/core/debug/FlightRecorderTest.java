@@ -0,0 +1,59 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.debug;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderTest {
+
+    @Test
+    public void recordTest() {
+        FlightRecorder recorder = new FlightRecorder(8);
+        recorder.record(FlightRecorder.Type.LOG, "INFO", "TEST", "Hello");
+        recorder.record(FlightRecorder.Type.EVENT, null, "listener", String.class, 5);
+
+        List<FlightRecorder.Entry> entries = recorder.snapshot();
+        assertEquals(2, entries.size());
+        assertEquals("Hello", entries.get(0).detail());
+        assertEquals(5, entries.get(1).durationMillis());
+    }
+
+    @Test
+    public void overwriteTest() {
+        FlightRecorder recorder = new FlightRecorder(8);
+        for (int i = 0; i < 20; i++) {
+            recorder.record(FlightRecorder.Type.LOG, "INFO", null, i);
+        }
+
+        List<FlightRecorder.Entry> entries = recorder.snapshot();
+        assertEquals(8, entries.size());
+        assertEquals(20, recorder.recorded());
+        assertEquals(12, entries.get(0).detail());
+        assertEquals(19, entries.get(7).detail());
+    }
+
+    @Test
+    public void capacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> new FlightRecorder(10));
+    }
+}
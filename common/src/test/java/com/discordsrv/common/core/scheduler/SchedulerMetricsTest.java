@@ -0,0 +1,66 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulerMetricsTest {
+
+    @Test
+    public void nameFromCallerTest() {
+        SchedulerMetrics metrics = new SchedulerMetrics();
+        metrics.setTrackSubmissions(true);
+        SchedulerMetrics.Submission submission = metrics.submit(null, System.nanoTime());
+        metrics.record(submission, System.nanoTime(), System.nanoTime());
+
+        assertTrue(metrics.getTaskTimings().containsKey("SchedulerMetricsTest#nameFromCallerTest"));
+    }
+
+    @Test
+    public void untrackedTest() {
+        SchedulerMetrics metrics = new SchedulerMetrics();
+        metrics.setTrackSubmissions(false);
+        metrics.record(metrics.submit(null, 0), 0, 0);
+        metrics.record(metrics.submit("named", 0), 0, 0);
+
+        assertEquals(1, metrics.getTaskTimings().get(SchedulerMetrics.UNNAMED).runTime().count());
+        assertEquals(1, metrics.getTaskTimings().get("named").runTime().count());
+    }
+
+    @Test
+    public void slowestTasksTest() {
+        SchedulerMetrics metrics = new SchedulerMetrics();
+        metrics.setTrackSubmissions(true);
+        long now = System.nanoTime();
+        for (int i = 1; i <= 30; i++) {
+            metrics.record(metrics.submit("task" + i, now), now, now + TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        List<SchedulerMetrics.SlowTask> slowest = metrics.getSlowestTasks();
+        assertEquals(10, slowest.size());
+        assertEquals("task30", slowest.get(0).name());
+        assertEquals("task21", slowest.get(9).name());
+        assertFalse(slowest.get(0).submissionStack().isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageLogTest {
+
+    private static ByteBuffer record(int value) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(0, value);
+    }
+
+    private static List<Integer> read(StorageLog log) throws Throwable {
+        List<Integer> values = new ArrayList<>();
+        log.open(payload -> values.add(payload.getInt()));
+        return values;
+    }
+
+    private static List<Integer> readAndClose(Path path) throws Throwable {
+        StorageLog log = new StorageLog(path);
+        try {
+            return read(log);
+        } finally {
+            log.close();
+        }
+    }
+
+    @Test
+    public void appendAndReadTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        for (int i = 0; i < 100; i++) {
+            log.append(record(i));
+        }
+        log.syncAll();
+        log.close();
+
+        List<Integer> values = readAndClose(path);
+
+        assertEquals(100, values.size());
+        assertEquals(0, values.get(0));
+        assertEquals(99, values.get(99));
+    }
+
+    @Test
+    public void incompleteRecordTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        log.sync(log.append(record(1)));
+        log.sync(log.append(record(2)));
+        log.close();
+
+        // Simulate a crash in the middle of writing a record
+        long validSize = Files.size(path);
+        Files.write(path, new byte[] {0, 0, 0, 4, 1, 2}, StandardOpenOption.APPEND);
+
+        StorageLog reopened = new StorageLog(path);
+        List<Integer> values = new ArrayList<>();
+        long discarded = reopened.open(payload -> values.add(payload.getInt()));
+        reopened.sync(reopened.append(record(3)));
+        reopened.close();
+
+        assertEquals(6, discarded);
+        assertEquals(List.of(1, 2), values);
+        assertEquals(List.of(1, 2, 3), readAndClose(path));
+        assertTrue(Files.size(path) > validSize);
+    }
+
+    @Test
+    public void corruptedRecordTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        log.sync(log.append(record(1)));
+        log.sync(log.append(record(2)));
+        log.sync(log.append(record(3)));
+        log.close();
+
+        // Flip a byte in the payload of the second record
+        byte[] bytes = Files.readAllBytes(path);
+        int recordSize = Integer.BYTES * 3;
+        bytes[recordSize + Integer.BYTES * 2] ^= 1;
+        Files.write(path, bytes);
+
+        StorageLog reopened = new StorageLog(path);
+        List<Integer> values = new ArrayList<>();
+        long discarded = reopened.open(payload -> values.add(payload.getInt()));
+        reopened.close();
+
+        assertEquals(List.of(1), values);
+        assertEquals(recordSize * 2, discarded);
+        assertNotNull(reopened.corruptedCopy());
+        assertArrayEquals(bytes, Files.readAllBytes(reopened.corruptedCopy()));
+    }
+
+    @Test
+    public void incompleteRecordIsNotCorruptionTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        log.sync(log.append(record(1)));
+        log.close();
+
+        // The last record has its full length, but not all of its contents made it to disk
+        Files.write(path, new byte[] {0, 0, 0, 4, 0, 0, 0, 0, 0, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        StorageLog reopened = new StorageLog(path);
+        assertEquals(List.of(1), read(reopened));
+        reopened.close();
+        assertNull(reopened.corruptedCopy());
+    }
+
+    @Test
+    public void rewriteTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        for (int i = 0; i < 10; i++) {
+            log.append(record(i));
+        }
+        log.syncAll();
+        log.startRewrite();
+        log.rewrite(sink -> sink.accept(record(42)));
+        log.sync(log.append(record(43)));
+        log.close();
+
+        assertEquals(2, log.records());
+        assertEquals(List.of(42, 43), readAndClose(path));
+    }
+
+    @Test
+    public void appendDuringRewriteTest(@TempDir Path directory) throws Throwable {
+        Path path = directory.resolve("test.dat");
+
+        StorageLog log = new StorageLog(path);
+        read(log);
+        log.sync(log.append(record(1)));
+        log.startRewrite();
+
+        long[] pending = new long[1];
+        log.rewrite(sink -> {
+            sink.accept(record(1));
+
+            // Appended while the snapshot is being written
+            log.sync(log.append(record(2)));
+            pending[0] = log.append(record(3));
+        });
+        log.sync(pending[0]);
+        log.sync(log.append(record(4)));
+        log.close();
+
+        assertEquals(4, log.records());
+        assertEquals(List.of(1, 2, 3, 4), readAndClose(path));
+    }
+}
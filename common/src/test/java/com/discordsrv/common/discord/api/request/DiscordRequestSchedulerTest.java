@@ -0,0 +1,177 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api.request;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.config.main.DiscordRequestsConfig;
+import com.discordsrv.common.exception.DiscordRequestDroppedException;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscordRequestSchedulerTest {
+
+    private final DiscordRequestsConfig config = new DiscordRequestsConfig();
+    private final List<String> sent = new ArrayList<>();
+    private final List<Task<Object>> inFlight = new ArrayList<>();
+    private final List<Runnable> rechecks = new ArrayList<>();
+    private long now = 0;
+
+    private final DiscordRequestScheduler scheduler = new DiscordRequestScheduler(
+            () -> config,
+            new DiscordRequestScheduler.Sender() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> Task<T> send(Supplier<RestAction<T>> actionSupplier) {
+                    try {
+                        actionSupplier.get();
+                    } catch (Throwable t) {
+                        return Task.failed(t);
+                    }
+
+                    Task<Object> task = new Task<>();
+                    inFlight.add(task);
+                    return (Task<T>) task;
+                }
+            },
+            (runnable, delay) -> rechecks.add(runnable),
+            () -> now
+    );
+
+    {
+        config.requestsPerMinute.clear();
+    }
+
+    private Task<Object> submit(DiscordRequestPriority priority, String source, String name) {
+        return scheduler.submit(priority, source, "test", () -> {
+            sent.add(name);
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> priorityMetrics(DiscordRequestPriority priority) {
+        return (Map<String, Object>) ((Map<String, Object>) scheduler.metrics().get("priorities")).get(priority.name());
+    }
+
+    @Test
+    public void priorityOrderTest() {
+        config.maximumConcurrentModeration = 1;
+
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "moderation1");
+        submit(DiscordRequestPriority.MODERATION, "ban-sync", "moderation2");
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "moderation3");
+        submit(DiscordRequestPriority.CHAT_RELAY, "chat", "chat");
+        assertEquals(Arrays.asList("moderation1", "chat"), sent);
+
+        inFlight.get(0).complete(null);
+        inFlight.get(2).complete(null);
+        assertEquals(Arrays.asList("moderation1", "chat", "moderation2", "moderation3"), sent);
+    }
+
+    @Test
+    public void budgetDeferralTest() {
+        config.requestsPerMinute.put("group-sync", 2);
+
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "group1");
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "group2");
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "group3");
+        submit(DiscordRequestPriority.MODERATION, "ban-sync", "ban");
+        assertEquals(Arrays.asList("group1", "group2", "ban"), sent);
+        assertEquals(1, rechecks.size());
+        assertEquals(1, priorityMetrics(DiscordRequestPriority.MODERATION).get("queued"));
+
+        // Still out of budget
+        Runnable recheck = rechecks.remove(0);
+        recheck.run();
+        assertEquals(3, sent.size());
+        assertEquals(1, rechecks.size());
+
+        now += TimeUnit.SECONDS.toNanos(30);
+        rechecks.remove(0).run();
+        assertEquals(Arrays.asList("group1", "group2", "ban", "group3"), sent);
+        assertTrue(rechecks.isEmpty());
+    }
+
+    @Test
+    public void cosmeticDropTest() throws InterruptedException {
+        config.maximumConcurrentCosmetic = 1;
+        config.maximumQueuedCosmetic = 2;
+
+        submit(DiscordRequestPriority.COSMETIC, "channel-updater", "cosmetic1");
+        Task<Object> oldest = submit(DiscordRequestPriority.COSMETIC, "nickname-sync", "cosmetic2");
+        submit(DiscordRequestPriority.COSMETIC, "channel-updater", "cosmetic3");
+        assertFalse(oldest.isDone());
+
+        submit(DiscordRequestPriority.COSMETIC, "channel-updater", "cosmetic4");
+        ExecutionException exception = assertThrows(ExecutionException.class, oldest::get);
+        assertInstanceOf(DiscordRequestDroppedException.class, exception.getCause());
+
+        inFlight.get(0).complete(null);
+        inFlight.get(1).complete(null);
+        assertEquals(Arrays.asList("cosmetic1", "cosmetic3", "cosmetic4"), sent);
+    }
+
+    @Test
+    public void cosmeticPauseTest() {
+        config.cosmeticPauseThreshold = 2;
+
+        submit(DiscordRequestPriority.CHAT_RELAY, "chat", "chat1");
+        submit(DiscordRequestPriority.INTERACTION, "interaction", "interaction1");
+        submit(DiscordRequestPriority.COSMETIC, "channel-updater", "cosmetic");
+        assertEquals(Arrays.asList("chat1", "interaction1"), sent);
+        assertEquals(true, scheduler.metrics().get("cosmeticPaused"));
+
+        inFlight.get(0).complete(null);
+        assertEquals(Arrays.asList("chat1", "interaction1", "cosmetic"), sent);
+        assertEquals(false, scheduler.metrics().get("cosmeticPaused"));
+        assertEquals(1L, scheduler.metrics().get("cosmeticPauses"));
+    }
+
+    @Test
+    public void synchronousFailureTest() {
+        config.maximumConcurrentModeration = 1;
+        submit(DiscordRequestPriority.MODERATION, "group-sync", "moderation");
+
+        List<Task<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(scheduler.submit(DiscordRequestPriority.MODERATION, "group-sync", "test", () -> {
+                throw new IllegalStateException();
+            }));
+        }
+        assertEquals(10_000, priorityMetrics(DiscordRequestPriority.MODERATION).get("queued"));
+
+        // Each failure finishes while the previous one is being started
+        inFlight.get(0).complete(null);
+        for (Task<Object> task : tasks) {
+            assertTrue(task.isFailed());
+        }
+        assertEquals(0, priorityMetrics(DiscordRequestPriority.MODERATION).get("inFlight"));
+        assertEquals(0, priorityMetrics(DiscordRequestPriority.MODERATION).get("queued"));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.linking;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import com.discordsrv.common.feature.linking.impl.LinkFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkFilterTest {
+
+    @Test
+    public void noFalseNegativesTest() {
+        LinkFilter filter = new LinkFilter(10000);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10000; i++) {
+            filter.put(new AccountLink(new UUID(1, i), i, now, now));
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightBeLinked(new UUID(1, i)));
+            assertTrue(filter.mightBeLinked(i));
+        }
+        assertFalse(filter.needsRebuild());
+    }
+
+    @Test
+    public void falsePositiveRateTest() {
+        LinkFilter filter = new LinkFilter(10000);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10000; i++) {
+            filter.put(new AccountLink(new UUID(1, i), i, now, now));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightBeLinked(new UUID(2, i))) {
+                falsePositives++;
+            }
+            if (filter.mightBeLinked(1_000_000L + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2000, "False positive rate above 1%: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01D);
+    }
+
+    @Test
+    public void rebuildAfterRemovalsTest() {
+        LinkFilter filter = new LinkFilter(10000);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10000; i++) {
+            filter.put(new AccountLink(new UUID(1, i), i, now, now));
+        }
+        for (int i = 0; i < 1001; i++) {
+            filter.remove(new UUID(1, i), i);
+        }
+        assertTrue(filter.needsRebuild());
+    }
+}
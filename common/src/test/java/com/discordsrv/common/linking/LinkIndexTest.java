@@ -0,0 +1,128 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2026 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.linking;
+
+import com.discordsrv.common.feature.linking.AccountLink;
+import com.discordsrv.common.feature.linking.impl.LinkIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkIndexTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    public void putAndGetTest() {
+        LinkIndex index = new LinkIndex();
+        UUID playerUUID = UUID.randomUUID();
+        index.put(new AccountLink(playerUUID, 1L, TIME, null));
+
+        AccountLink byPlayer = index.get(playerUUID);
+        assertNotNull(byPlayer);
+        assertEquals(1L, byPlayer.userId());
+        assertEquals(TIME, byPlayer.created());
+        assertNull(byPlayer.lastSeen());
+
+        AccountLink byUser = index.get(1L);
+        assertNotNull(byUser);
+        assertEquals(playerUUID, byUser.playerUUID());
+
+        assertNull(index.get(UUID.randomUUID()));
+        assertNull(index.get(2L));
+    }
+
+    @Test
+    public void relinkReplacesTest() {
+        LinkIndex index = new LinkIndex();
+        UUID playerUUID = UUID.randomUUID();
+        UUID otherPlayerUUID = UUID.randomUUID();
+        index.put(new AccountLink(playerUUID, 1L, TIME, TIME));
+        index.put(new AccountLink(otherPlayerUUID, 1L, TIME, TIME));
+
+        assertNull(index.get(playerUUID));
+        assertEquals(otherPlayerUUID, index.get(1L).playerUUID());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void staleRemoveTest() {
+        LinkIndex index = new LinkIndex();
+        UUID playerUUID = UUID.randomUUID();
+        index.put(new AccountLink(playerUUID, 2L, TIME, TIME));
+        index.remove(playerUUID, 1L);
+
+        assertEquals(2L, index.get(playerUUID).userId());
+        assertEquals(playerUUID, index.get(2L).playerUUID());
+    }
+
+    @Test
+    public void matchesMapsTest() {
+        LinkIndex index = new LinkIndex();
+        Map<UUID, Long> players = new HashMap<>();
+        Map<Long, UUID> users = new HashMap<>();
+        UUID[] playerUUIDs = new UUID[2000];
+        for (int i = 0; i < playerUUIDs.length; i++) {
+            playerUUIDs[i] = UUID.randomUUID();
+        }
+
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            UUID playerUUID = playerUUIDs[random.nextInt(playerUUIDs.length)];
+            long userId = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                index.remove(playerUUID, userId);
+                if (Objects.equals(players.get(playerUUID), userId)) {
+                    players.remove(playerUUID);
+                    users.remove(userId);
+                }
+                continue;
+            }
+
+            index.put(new AccountLink(playerUUID, userId, TIME, TIME));
+            Long previousUser = players.put(playerUUID, userId);
+            if (previousUser != null) {
+                users.remove(previousUser);
+            }
+            UUID previousPlayer = users.put(userId, playerUUID);
+            if (previousPlayer != null && !previousPlayer.equals(playerUUID)) {
+                players.remove(previousPlayer);
+            }
+        }
+
+        assertEquals(players.size(), index.size());
+        for (UUID playerUUID : playerUUIDs) {
+            AccountLink link = index.get(playerUUID);
+            Long userId = players.get(playerUUID);
+            assertEquals(userId, link != null ? link.userId() : null);
+        }
+        for (long userId = 0; userId < 2000; userId++) {
+            AccountLink link = index.get(userId);
+            UUID playerUUID = users.get(userId);
+            assertEquals(playerUUID, link != null ? link.playerUUID() : null);
+        }
+    }
+}
@@ -159,6 +159,7 @@ public class ModdedRequiredLinkingModule extends ServerRequireLinkingModule<Modd
             return null;
         }
 
+        discordSRV.profileManager().prefetchProfile(discordSRV.getIdFromGameProfile(profile));
         Component kickReason = getBlockReason(profile, true).join();
         if (kickReason != null) {
             return discordSRV.componentFactory().toNative(kickReason);
@@ -266,6 +267,7 @@ public class ModdedRequiredLinkingModule extends ServerRequireLinkingModule<Modd
         UUID playerUUID = handler.getPlayer().getUUID();
         GameProfile gameProfile = handler.getPlayer().getGameProfile();
 
+        discordSRV.profileManager().prefetchProfile(playerUUID);
         loginsHandled.put(playerUUID, handleFreezeLogin(playerUUID, () -> getBlockReason(gameProfile, true).join()));
     }
     *///?} else {
@@ -275,6 +277,7 @@ public class ModdedRequiredLinkingModule extends ServerRequireLinkingModule<Modd
         GameProfile gameProfile = handler.getOwner();
         UUID playerUUID = discordSRV.getIdFromGameProfile(handler.getOwner());
 
+        discordSRV.profileManager().prefetchProfile(playerUUID);
         loginsHandled.put(playerUUID, handleFreezeLogin(playerUUID, () -> getBlockReason(gameProfile, true).join()));
     }
     //?}
@@ -312,6 +315,7 @@ public class ModdedRequiredLinkingModule extends ServerRequireLinkingModule<Modd
         GameProfile gameProfile = handler.getOwner();
         UUID playerUUID = discordSRV.getIdFromGameProfile(handler.getOwner());
 
+        discordSRV.profileManager().prefetchProfile(playerUUID);
         loginsHandled.put(playerUUID, handleFreezeLogin(playerUUID, () -> getBlockReason(gameProfile, true).join()));
     }
 
@@ -24,6 +24,7 @@ import com.discordsrv.common.abstraction.player.provider.AbstractPlayerProvider;
 import com.discordsrv.velocity.VelocityDiscordSRV;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.LoginEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.proxy.Player;
 
@@ -55,6 +56,12 @@ public class VelocityPlayerProvider extends AbstractPlayerProvider<VelocityPlaye
         discordSRV.proxy().getEventManager().unregisterListener(discordSRV.plugin(), this);
     }
 
+    @Subscribe(priority = 32500)
+    public void onLogin(LoginEvent event) {
+        // PreLoginEvent doesn't have the Player UUID for online mode players yet
+        playerLoggingIn(event.getPlayer().getUniqueId());
+    }
+
     @Subscribe(priority = 32500)
     public void onPostLogin(PostLoginEvent event) {
         addPlayer(event.getPlayer(), false);